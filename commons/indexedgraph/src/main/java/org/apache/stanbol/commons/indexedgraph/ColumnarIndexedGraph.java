@@ -0,0 +1,395 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.AbstractGraph;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+
+/**
+ * {@link Graph} implementation that encodes {@link RDFTerm}s to int ids and
+ * stores triples as primitive int keys in three indexes <ul>
+ * <li> subject, predicate, object [SPO]
+ * <li> predicate, object, subject [POS]
+ * <li> object, subject, predicate [OSP]
+ * </ul>
+ * Compared to the {@link IndexedGraph} no {@link Triple} instances and no
+ * tree nodes are kept in memory. Each triple only requires 9 ints (3 for
+ * each index) and every distinct {@link RDFTerm} is stored only once in
+ * the dictionary. {@link Triple} instances are created when iterating.<p>
+ * The {@link #filter(BlankNodeOrIRI, IRI, RDFTerm)} implementation uses the
+ * same indexes as the {@link IndexedGraph}. {@link RDFTerm}s not present in
+ * the dictionary result in an empty iterator without accessing any index.
+ * Iterators support {@link Iterator#remove()} and throw a
+ * {@link ConcurrentModificationException} if the graph is modified by other
+ * means while iterating.<p>
+ * {@link RDFTerm}s are required to correctly implement
+ * {@link Object#hashCode() hashCode} and {@link Object#equals(Object) equals}.
+ * Ids of terms no longer used by any triple are reused.
+ */
+public class ColumnarIndexedGraph extends AbstractGraph implements Graph {
+
+    private static final int[] SPO_ORDER = new int[]{0,1,2};
+    private static final int[] POS_ORDER = new int[]{1,2,0};
+    private static final int[] OSP_ORDER = new int[]{2,0,1};
+    /**
+     * Maps {@link RDFTerm}s to their id
+     */
+    private final Map<RDFTerm,Integer> termIds;
+    /**
+     * The {@link RDFTerm}s by id
+     */
+    private RDFTerm[] terms;
+    /**
+     * The number of triples using a term (by id)
+     */
+    private int[] termRefs;
+    /**
+     * The next id never used so far
+     */
+    private int nextId;
+    /**
+     * Stack of ids of no longer used terms
+     */
+    private int[] freeIds;
+    private int freeCount;
+
+    private final TripleIndex spo;
+    private final TripleIndex pos;
+    private final TripleIndex osp;
+    /**
+     * Incremented on every modification. Used by iterators to detect
+     * concurrent modifications.
+     */
+    private int modCount;
+
+    /**
+     * Creates an empty {@link ColumnarIndexedGraph}
+     */
+    public ColumnarIndexedGraph() {
+        super();
+        termIds = new HashMap<RDFTerm,Integer>();
+        terms = new RDFTerm[64];
+        termRefs = new int[64];
+        freeIds = new int[16];
+        spo = new TripleIndex();
+        pos = new TripleIndex();
+        osp = new TripleIndex();
+    }
+
+    /**
+     * Creates a {@link ColumnarIndexedGraph} using the passed iterator, the
+     * iterator is consumed before the constructor returns
+     *
+     * @param iterator Triple Iterator
+     */
+    public ColumnarIndexedGraph(Iterator<Triple> iterator) {
+        this();
+        while (iterator.hasNext()) {
+            performAdd(iterator.next());
+        }
+    }
+
+    /**
+     * Creates a {@link ColumnarIndexedGraph} for the specified collection of
+     * triples, subsequent modification of baseSet do not affect the created
+     * instance. If the parsed collection is also a {@link ColumnarIndexedGraph}
+     * its dictionary and indexes are copied.
+     *
+     * @param baseCollection collection of triples
+     */
+    public ColumnarIndexedGraph(Collection<Triple> baseCollection) {
+        super();
+        if(baseCollection instanceof ColumnarIndexedGraph){
+            ColumnarIndexedGraph other = (ColumnarIndexedGraph)baseCollection;
+            termIds = new HashMap<RDFTerm,Integer>(other.termIds);
+            terms = other.terms.clone();
+            termRefs = other.termRefs.clone();
+            nextId = other.nextId;
+            freeIds = other.freeIds.clone();
+            freeCount = other.freeCount;
+            spo = new TripleIndex(other.spo);
+            pos = new TripleIndex(other.pos);
+            osp = new TripleIndex(other.osp);
+        } else {
+            int capacity = Math.max(64, baseCollection.size());
+            termIds = new HashMap<RDFTerm,Integer>(capacity);
+            terms = new RDFTerm[capacity];
+            termRefs = new int[capacity];
+            freeIds = new int[16];
+            spo = new TripleIndex();
+            pos = new TripleIndex();
+            osp = new TripleIndex();
+            for(Triple triple : baseCollection){
+                performAdd(triple);
+            }
+        }
+    }
+
+    @Override
+    public ImmutableGraph getImmutableGraph() {
+        return new ColumnarIndexedImmutableGraph(this);
+    }
+
+    @Override
+    protected Iterator<Triple> performFilter(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        int s = -1;
+        if(subject != null && (s = getId(subject)) < 0){
+            return Collections.<Triple>emptySet().iterator();
+        }
+        int p = -1;
+        if(predicate != null && (p = getId(predicate)) < 0){
+            return Collections.<Triple>emptySet().iterator();
+        }
+        int o = -1;
+        if(object != null && (o = getId(object)) < 0){
+            return Collections.<Triple>emptySet().iterator();
+        }
+        if (subject == null && predicate == null && object == null) { //[n,n,n]
+            return new TripleIterator(spo, SPO_ORDER, -1, -1, -1);
+        } else if (subject != null && predicate != null && object != null) { // [S,P,O]
+            if(spo.contains(s, p, o)){
+                return new TripleIterator(spo, SPO_ORDER, s, p, o);
+            } else {
+                return Collections.<Triple>emptySet().iterator();
+            }
+        } else if (subject != null && object == null) { //[S,n,n], [S,P,n]
+            return new TripleIterator(spo, SPO_ORDER, s, p, -1);
+        } else if (predicate != null) { //[n,P,n], [n,P,O]
+            return new TripleIterator(pos, POS_ORDER, p, o, -1);
+        } else { //[n,n,O] , [S,n,O]
+            return new TripleIterator(osp, OSP_ORDER, o, s, -1);
+        }
+    }
+
+    @Override
+    protected boolean performAdd(Triple triple) {
+        int s = getId(triple.getSubject());
+        int p = getId(triple.getPredicate());
+        int o = getId(triple.getObject());
+        if(s >= 0 && p >= 0 && o >= 0 && spo.contains(s, p, o)){
+            return false;
+        }
+        s = ref(triple.getSubject(), s);
+        //the same term might be used at different positions
+        p = ref(triple.getPredicate(), p < 0 ? getId(triple.getPredicate()) : p);
+        o = ref(triple.getObject(), o < 0 ? getId(triple.getObject()) : o);
+        spo.add(s, p, o);
+        pos.add(p, o, s);
+        osp.add(o, s, p);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    protected boolean performRemove(Object t) {
+        if (t instanceof Triple) {
+            Triple triple = (Triple) t;
+            int s = getId(triple.getSubject());
+            int p = getId(triple.getPredicate());
+            int o = getId(triple.getObject());
+            if(s >= 0 && p >= 0 && o >= 0){
+                return remove(s, p, o);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int performSize() {
+        return spo.size();
+    }
+    /**
+     * The number of distinct {@link RDFTerm}s used by the triples of this graph
+     * @return the number of terms in the dictionary
+     */
+    public int getTermCount() {
+        return termIds.size();
+    }
+
+    /**
+     * Removes the triple with the parsed ids from all indexes
+     */
+    private boolean remove(int s, int p, int o) {
+        if(spo.remove(s, p, o)){
+            pos.remove(p, o, s);
+            osp.remove(o, s, p);
+            unref(s);
+            unref(p);
+            unref(o);
+            modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private int getId(RDFTerm term) {
+        Integer id = termIds.get(term);
+        return id == null ? -1 : id.intValue();
+    }
+    /**
+     * Increments the reference count of the parsed term. Assigns an id if
+     * the parsed id is <code>&lt; 0</code>
+     * @return the id of the term
+     */
+    private int ref(RDFTerm term, int id) {
+        if(id < 0){
+            if(freeCount > 0){
+                id = freeIds[--freeCount];
+            } else {
+                id = nextId++;
+                if(id == terms.length){
+                    RDFTerm[] newTerms = new RDFTerm[terms.length * 2];
+                    System.arraycopy(terms, 0, newTerms, 0, terms.length);
+                    terms = newTerms;
+                    int[] newRefs = new int[termRefs.length * 2];
+                    System.arraycopy(termRefs, 0, newRefs, 0, termRefs.length);
+                    termRefs = newRefs;
+                }
+            }
+            terms[id] = term;
+            termIds.put(term, id);
+        }
+        termRefs[id]++;
+        return id;
+    }
+    /**
+     * Decrements the reference count of the term with the parsed id and
+     * removes it from the dictionary if no longer used
+     */
+    private void unref(int id) {
+        if(--termRefs[id] == 0){
+            termIds.remove(terms[id]);
+            terms[id] = null;
+            if(freeCount == freeIds.length){
+                int[] newFree = new int[freeIds.length * 2];
+                System.arraycopy(freeIds, 0, newFree, 0, freeCount);
+                freeIds = newFree;
+            }
+            freeIds[freeCount++] = id;
+        }
+    }
+
+    /**
+     * Iterates over the keys of an index starting with a given prefix. Uses
+     * the last returned key to re-position itself after
+     * {@link #remove()}.
+     */
+    private class TripleIterator implements Iterator<Triple> {
+
+        private final TripleIndex index;
+        private final int[] order;
+        /**
+         * The prefix. <code>-1</code> for unbound components
+         */
+        private final int p0, p1, p2;
+        private int block;
+        private int offset;
+        /**
+         * The last returned key or <code>null</code> if none or removed
+         */
+        private int[] last;
+        private int expectedModCount = modCount;
+
+        TripleIterator(TripleIndex index, int[] order, int p0, int p1, int p2) {
+            this.index = index;
+            this.order = order;
+            this.p0 = p0;
+            this.p1 = p1;
+            this.p2 = p2;
+            seek(p0 < 0 ? -1 : p0, p1 < 0 ? -1 : p1, p2 < 0 ? -1 : p2);
+        }
+
+        private void seek(int a, int b, int c) {
+            long position = index.ceiling(a, b, c);
+            block = TripleIndex.block(position);
+            offset = TripleIndex.offset(position);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(block >= index.getBlockCount()){
+                return false;
+            }
+            if(offset >= index.getBlockSize(block)){
+                if(block + 1 >= index.getBlockCount()){
+                    return false;
+                }
+                block++;
+                offset = 0;
+            }
+            return (p0 < 0 || index.get(block, offset, 0) == p0) &&
+                    (p1 < 0 || index.get(block, offset, 1) == p1) &&
+                    (p2 < 0 || index.get(block, offset, 2) == p2);
+        }
+
+        @Override
+        public Triple next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            int[] key = new int[]{
+                    index.get(block, offset, 0),
+                    index.get(block, offset, 1),
+                    index.get(block, offset, 2)};
+            offset++;
+            last = key;
+            //map the key back to subject, predicate, object
+            return new TripleImpl((BlankNodeOrIRI)terms[key[indexOf(0)]],
+                (IRI)terms[key[indexOf(1)]], terms[key[indexOf(2)]]);
+        }
+        /**
+         * The position of the parsed triple component (0 .. subject,
+         * 1 .. predicate, 2 .. object) within the keys of the index
+         */
+        private int indexOf(int component) {
+            return order[0] == component ? 0 : order[1] == component ? 1 : 2;
+        }
+
+        @Override
+        public void remove() {
+            if(last == null){
+                throw new IllegalStateException();
+            }
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            ColumnarIndexedGraph.this.remove(last[indexOf(0)], last[indexOf(1)], last[indexOf(2)]);
+            expectedModCount = modCount;
+            //the removed key was the last returned one -> the ceiling is
+            //the key following it
+            seek(last[0], last[1], last[2]);
+            last = null;
+        }
+    }
+}
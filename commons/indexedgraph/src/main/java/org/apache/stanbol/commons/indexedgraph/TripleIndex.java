@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.indexedgraph;
+
+/**
+ * Sorted set of <code>int[3]</code> keys used as index by the
+ * {@link ColumnarIndexedGraph}. Keys are stored in blocks of primitive int
+ * arrays ordered by the first, second and third component. Blocks are split
+ * if they get full and removed if they get empty so that adding/removing a
+ * key only needs to move the data of a single block.<p>
+ * Positions within this index are represented by a <code>block</code> and
+ * an <code>offset</code> within this block. Positions are only valid until
+ * the next modification.<p>
+ * This class is not thread safe.
+ */
+final class TripleIndex {
+
+    /**
+     * The maximum number of keys stored in a block
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    private int[][] blocks;
+    private int[] blockSizes;
+    private int blockCount;
+    private int size;
+
+    TripleIndex() {
+        blocks = new int[4][];
+        blockSizes = new int[4];
+    }
+    /**
+     * Creates a copy of the parsed index
+     * @param other the index to copy
+     */
+    TripleIndex(TripleIndex other) {
+        blocks = new int[Math.max(4, other.blockCount)][];
+        blockSizes = new int[blocks.length];
+        for(int i = 0; i < other.blockCount; i++){
+            blocks[i] = other.blocks[i].clone();
+            blockSizes[i] = other.blockSizes[i];
+        }
+        blockCount = other.blockCount;
+        size = other.size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    int getBlockSize(int block) {
+        return blockSizes[block];
+    }
+    /**
+     * Getter for a component of a key
+     * @param block the block
+     * @param offset the offset of the key within the block
+     * @param component the component <code>[0..2]</code>
+     * @return the value
+     */
+    int get(int block, int offset, int component) {
+        return blocks[block][offset * 3 + component];
+    }
+    /**
+     * Adds a key
+     * @return <code>true</code> if the key was added. <code>false</code> if
+     * it was already present
+     */
+    boolean add(int a, int b, int c) {
+        if(blockCount == 0){
+            blocks[0] = new int[BLOCK_SIZE * 3];
+            blockCount = 1;
+        }
+        int block = findBlock(a, b, c);
+        int offset = search(block, a, b, c);
+        if(offset >= 0){
+            return false; //already present
+        }
+        offset = -(offset + 1);
+        if(blockSizes[block] == BLOCK_SIZE){ //split the block
+            split(block);
+            int half = BLOCK_SIZE / 2;
+            if(offset > half){
+                block++;
+                offset = offset - half;
+            }
+        }
+        int[] data = blocks[block];
+        int bSize = blockSizes[block];
+        if(offset < bSize){
+            System.arraycopy(data, offset * 3, data, (offset + 1) * 3, (bSize - offset) * 3);
+        }
+        data[offset * 3] = a;
+        data[offset * 3 + 1] = b;
+        data[offset * 3 + 2] = c;
+        blockSizes[block]++;
+        size++;
+        return true;
+    }
+    /**
+     * Removes a key
+     * @return <code>true</code> if the key was removed. <code>false</code> if
+     * it was not present
+     */
+    boolean remove(int a, int b, int c) {
+        if(size == 0){
+            return false;
+        }
+        int block = findBlock(a, b, c);
+        int offset = search(block, a, b, c);
+        if(offset < 0){
+            return false;
+        }
+        int[] data = blocks[block];
+        int bSize = blockSizes[block] - 1;
+        if(offset < bSize){
+            System.arraycopy(data, (offset + 1) * 3, data, offset * 3, (bSize - offset) * 3);
+        }
+        blockSizes[block] = bSize;
+        size--;
+        if(bSize == 0 && blockCount > 1){ //remove the empty block
+            System.arraycopy(blocks, block + 1, blocks, block, blockCount - block - 1);
+            System.arraycopy(blockSizes, block + 1, blockSizes, block, blockCount - block - 1);
+            blockCount--;
+            blocks[blockCount] = null;
+            blockSizes[blockCount] = 0;
+        }
+        return true;
+    }
+    /**
+     * If the parsed key is contained in this index
+     */
+    boolean contains(int a, int b, int c) {
+        return size > 0 && search(findBlock(a, b, c), a, b, c) >= 0;
+    }
+    /**
+     * Searches the position of the first key that is equal or greater than
+     * the parsed one.
+     * @return the position encoded as <code>block &lt;&lt; 32 | offset</code>.
+     * If all keys are smaller the returned position points after the last key.
+     * Use {@link #block(long)} and {@link #offset(long)} to decode the position.
+     */
+    long ceiling(int a, int b, int c) {
+        if(size == 0){
+            return 0L;
+        }
+        int block = findBlock(a, b, c);
+        int offset = search(block, a, b, c);
+        if(offset < 0){
+            offset = -(offset + 1);
+        }
+        if(offset >= blockSizes[block] && block + 1 < blockCount){
+            block++;
+            offset = 0;
+        }
+        return ((long)block << 32) | offset;
+    }
+
+    static int block(long position) {
+        return (int)(position >>> 32);
+    }
+
+    static int offset(long position) {
+        return (int)position;
+    }
+
+    /**
+     * The block that would contain the parsed key (the last block with a
+     * first key smaller or equals to the parsed one)
+     */
+    private int findBlock(int a, int b, int c) {
+        int low = 1;
+        int high = blockCount - 1;
+        int found = 0;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int[] data = blocks[mid];
+            if(compare(data[0], data[1], data[2], a, b, c) <= 0){
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+    /**
+     * Binary search within a block
+     * @return the offset of the key or <code>-(insertion point) - 1</code>
+     */
+    private int search(int block, int a, int b, int c) {
+        int[] data = blocks[block];
+        int low = 0;
+        int high = blockSizes[block] - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int i = mid * 3;
+            int cmp = compare(data[i], data[i + 1], data[i + 2], a, b, c);
+            if(cmp < 0){
+                low = mid + 1;
+            } else if(cmp > 0){
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void split(int block) {
+        if(blockCount == blocks.length){
+            int[][] newBlocks = new int[blocks.length * 2][];
+            System.arraycopy(blocks, 0, newBlocks, 0, blockCount);
+            blocks = newBlocks;
+            int[] newSizes = new int[blocks.length];
+            System.arraycopy(blockSizes, 0, newSizes, 0, blockCount);
+            blockSizes = newSizes;
+        }
+        System.arraycopy(blocks, block + 1, blocks, block + 2, blockCount - block - 1);
+        System.arraycopy(blockSizes, block + 1, blockSizes, block + 2, blockCount - block - 1);
+        int half = BLOCK_SIZE / 2;
+        int[] data = blocks[block];
+        int[] next = new int[BLOCK_SIZE * 3];
+        System.arraycopy(data, half * 3, next, 0, (blockSizes[block] - half) * 3);
+        blocks[block + 1] = next;
+        blockSizes[block + 1] = blockSizes[block] - half;
+        blockSizes[block] = half;
+        blockCount++;
+    }
+
+    static int compare(int a1, int b1, int c1, int a2, int b2, int c2) {
+        if(a1 != a2){
+            return a1 < a2 ? -1 : 1;
+        }
+        if(b1 != b2){
+            return b1 < b2 ? -1 : 1;
+        }
+        if(c1 != c2){
+            return c1 < c2 ? -1 : 1;
+        }
+        return 0;
+    }
+}
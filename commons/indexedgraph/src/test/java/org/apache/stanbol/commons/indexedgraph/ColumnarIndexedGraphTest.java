@@ -0,0 +1,178 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.BlankNode;
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.simple.SimpleGraph;
+import org.apache.clerezza.rdf.core.test.GraphTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnarIndexedGraphTest extends GraphTest {
+
+    private IRI uriRef1 = new IRI("http://example.org/foo");
+    private IRI uriRef2 = new IRI("http://example.org/bar");
+    private IRI uriRef3 = new IRI("http://example.org/test");
+    private Triple triple1 = new TripleImpl(uriRef1, uriRef2, uriRef3);
+    private Triple triple2 = new TripleImpl(uriRef2, uriRef2, uriRef1);
+    private Triple triple3 = new TripleImpl(uriRef3, uriRef1, uriRef3);
+    private Triple triple4 = new TripleImpl(uriRef1, uriRef3, uriRef2);
+    private Triple triple5 = new TripleImpl(uriRef2, uriRef3, uriRef2);
+
+    @Override
+    protected Graph getEmptyGraph() {
+        return new ColumnarIndexedGraph();
+    }
+
+    @Test
+    public void iteratorRemove() {
+        Graph itc = createTestGraph();
+        Iterator<Triple> iter = itc.iterator();
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        Assert.assertEquals(0, itc.size());
+        Assert.assertEquals(0, ((ColumnarIndexedGraph)itc).getTermCount());
+    }
+
+    @Test
+    public void filterIteratorRemove() {
+        Graph itc = createTestGraph();
+        Iterator<Triple> iter = itc.filter(uriRef1, null, null);
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        Assert.assertEquals(3, itc.size());
+        Assert.assertFalse(itc.filter(uriRef1, null, null).hasNext());
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void remove() {
+        Graph itc = createTestGraph();
+        Iterator<Triple> iter = itc.filter(uriRef1, null, null);
+        while (iter.hasNext()) {
+            Triple triple = iter.next();
+            itc.remove(triple);
+        }
+    }
+
+    @Test
+    public void copy() {
+        ColumnarIndexedGraph itc = createTestGraph();
+        ColumnarIndexedGraph copy = new ColumnarIndexedGraph(itc);
+        copy.remove(triple1);
+        Assert.assertEquals(5, itc.size());
+        Assert.assertEquals(4, copy.size());
+        Assert.assertTrue(itc.contains(triple1));
+        ImmutableGraph snapshot = itc.getImmutableGraph();
+        itc.remove(triple2);
+        Assert.assertEquals(5, snapshot.size());
+        Assert.assertTrue(snapshot.contains(triple2));
+    }
+    /**
+     * Compares filter results with a {@link SimpleGraph} for a number of
+     * triples large enough to split the blocks of the indexes
+     */
+    @Test
+    public void compareWithSimpleGraph() {
+        Random rnd = new Random(42);
+        IRI[] iris = new IRI[200];
+        for(int i = 0; i < iris.length; i++){
+            iris[i] = new IRI("http://example.org/resource/"+i);
+        }
+        IRI[] properties = new IRI[5];
+        for(int i = 0; i < properties.length; i++){
+            properties[i] = new IRI("http://example.org/property/"+i);
+        }
+        BlankNode[] bNodes = new BlankNode[50];
+        for(int i = 0; i < bNodes.length; i++){
+            bNodes[i] = new BlankNode();
+        }
+        Graph expected = new SimpleGraph();
+        ColumnarIndexedGraph graph = new ColumnarIndexedGraph();
+        for(int i = 0; i < 20000; i++){
+            BlankNodeOrIRI s = rnd.nextInt(4) == 0 ? bNodes[rnd.nextInt(bNodes.length)] :
+                iris[rnd.nextInt(iris.length)];
+            IRI p = properties[rnd.nextInt(properties.length)];
+            RDFTerm o = rnd.nextBoolean() ? iris[rnd.nextInt(iris.length)] :
+                new PlainLiteralImpl("literal "+rnd.nextInt(500));
+            Triple t = new TripleImpl(s, p, o);
+            Assert.assertEquals(expected.add(t), graph.add(t));
+        }
+        //remove some of the triples
+        int i = 0;
+        for(Iterator<Triple> it = graph.filter(null, properties[0], null); it.hasNext();){
+            Triple t = it.next();
+            if(i++ % 2 == 0){
+                it.remove();
+                expected.remove(t);
+            }
+        }
+        Assert.assertEquals(expected.size(), graph.size());
+        assertFilter(expected, graph, null, null, null);
+        for(int j = 0; j < 20; j++){
+            BlankNodeOrIRI s = iris[rnd.nextInt(iris.length)];
+            IRI p = properties[rnd.nextInt(properties.length)];
+            RDFTerm o = iris[rnd.nextInt(iris.length)];
+            assertFilter(expected, graph, s, null, null);
+            assertFilter(expected, graph, s, p, null);
+            assertFilter(expected, graph, null, p, null);
+            assertFilter(expected, graph, null, p, o);
+            assertFilter(expected, graph, null, null, o);
+            assertFilter(expected, graph, s, null, o);
+            assertFilter(expected, graph, bNodes[j], null, null);
+        }
+    }
+
+    private void assertFilter(Graph expected, Graph graph, BlankNodeOrIRI s, IRI p, RDFTerm o) {
+        Set<Triple> expectedTriples = new HashSet<Triple>();
+        for(Iterator<Triple> it = expected.filter(s, p, o); it.hasNext();){
+            expectedTriples.add(it.next());
+        }
+        Set<Triple> triples = new HashSet<Triple>();
+        for(Iterator<Triple> it = graph.filter(s, p, o); it.hasNext();){
+            Assert.assertTrue(triples.add(it.next()));
+        }
+        Assert.assertEquals(expectedTriples, triples);
+    }
+
+    private ColumnarIndexedGraph createTestGraph() {
+        ColumnarIndexedGraph itc = new ColumnarIndexedGraph();
+        itc.add(triple1);
+        itc.add(triple2);
+        itc.add(triple3);
+        itc.add(triple4);
+        itc.add(triple5);
+        return itc;
+    }
+}
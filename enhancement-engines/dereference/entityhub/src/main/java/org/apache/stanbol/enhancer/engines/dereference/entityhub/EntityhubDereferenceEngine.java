@@ -25,7 +25,10 @@ import java.util.Dictionary;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.felix.scr.annotations.Activate;
@@ -88,6 +91,8 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
     	boolValue=EntityhubDereferenceEngine.DEFAULT_SHARED_THREAD_POOL_STATE),
     @Property(name=EntityhubDereferenceEngine.THREAD_POOL_SIZE,
     	intValue=EntityhubDereferenceEngine.DEFAULT_THREAD_POOL_SIZE),
+    @Property(name=EntityhubDereferenceEngine.LDPATH_THREAD_POOL_SIZE,
+        intValue=EntityhubDereferenceEngine.DEFAULT_LDPATH_THREAD_POOL_SIZE),
     @Property(name=SERVICE_RANKING,intValue=0)
 })
 public class EntityhubDereferenceEngine implements ServiceTrackerCustomizer {
@@ -115,6 +120,13 @@ public class EntityhubDereferenceEngine implements ServiceTrackerCustomizer {
     public static final int DEFAULT_THREAD_POOL_SIZE = 0;
     
     private int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+    /**
+     * The size of the thread pool parsed to the LDPath backends of the
+     * dereferencer. Values &lt; 1 deactivate threaded LDPath evaluation.
+     */
+    public static final String LDPATH_THREAD_POOL_SIZE = "enhancer.engines.dereference.entityhub.ldpath.threads";
+    
+    public static final int DEFAULT_LDPATH_THREAD_POOL_SIZE = 0;
     
     /**
      * The engine initialised based on the configuration of this component
@@ -140,6 +152,10 @@ public class EntityhubDereferenceEngine implements ServiceTrackerCustomizer {
     private BundleContext bundleContext;
 
 	private ExecutorService executorService;
+	/**
+	 * The thread pool used by the LDPath backends or <code>null</code> if none
+	 */
+	private ThreadPoolExecutor ldpathThreadPool;
 
     /**
      * Default constructor as used by OSGI. This expects that 
@@ -213,6 +229,21 @@ public class EntityhubDereferenceEngine implements ServiceTrackerCustomizer {
 	        }
 	        esProvider = new StaticExecutorServiceProvider(executorService);
         }
+        value = properties.get(LDPATH_THREAD_POOL_SIZE);
+        int ldpathThreadPoolSize;
+        if(value instanceof Number){
+            ldpathThreadPoolSize = ((Number)value).intValue();
+        } else if(value != null && !StringUtils.isBlank(value.toString())){
+            try {
+                ldpathThreadPoolSize = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e){
+                throw new ConfigurationException(LDPATH_THREAD_POOL_SIZE, "Value '" + value
+                        + "'(type: "+value.getClass().getName()+") can not be parsed "
+                        + "as Integer");
+            }
+        } else {
+            ldpathThreadPoolSize = DEFAULT_LDPATH_THREAD_POOL_SIZE;
+        }
         //init the tracking entity searcher
         trackedServiceCount = 0;
         if(Entityhub.ENTITYHUB_IDS.contains(siteName.toLowerCase())){
@@ -243,6 +274,19 @@ public class EntityhubDereferenceEngine implements ServiceTrackerCustomizer {
         //NOTE: registration of this instance as OSGI service is done as soon as the
         //      entityhub service backing the entityDereferencer is available.
         
+        //create the LDPath thread pool after the configuration is parsed
+        if(ldpathThreadPoolSize > 0){
+            String namePattern = getClass().getSimpleName()+"-"
+                    + engineConfig.getEngineName()+ "-ldpath-%s";
+            ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat(namePattern)
+                .setDaemon(true).build();
+            log.debug(" - create LDPath Threadpool(namePattern='{}' | size='{}')",
+                namePattern,ldpathThreadPoolSize);
+            ldpathThreadPool = new ThreadPoolExecutor(ldpathThreadPoolSize, ldpathThreadPoolSize,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+            entityDereferencer.setLdpathThreadPool(ldpathThreadPool);
+        }
         //finally start tracking
         entityDereferencer.open();
         
@@ -262,6 +306,10 @@ public class EntityhubDereferenceEngine implements ServiceTrackerCustomizer {
         	executorService.shutdown();
         	executorService = null;
         }
+        if(ldpathThreadPool != null){
+            ldpathThreadPool.shutdown();
+            ldpathThreadPool = null;
+        }
         //* reset engine
         entityDereferenceEngine = null;
         engineMetadata = null;
@@ -18,6 +18,7 @@ package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
 import org.apache.stanbol.enhancer.engines.dereference.EntityDereferencer;
+import org.apache.stanbol.entityhub.ldpath.backend.AbstractBackend;
 import org.apache.stanbol.entityhub.ldpath.backend.EntityhubBackend;
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
 import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
@@ -57,7 +58,11 @@ public final class EntityhubDereferencer extends TrackingDereferencerBase<Entity
     
     @Override
     protected RDFBackend<Object> createRdfBackend(Entityhub service) {
-        return new EntityhubBackend(service);
+        EntityhubBackend backend = new EntityhubBackend(service);
+        //load the Entities selected by LDPath path steps with batched requests
+        backend.setPrefetchSize(AbstractBackend.DEFAULT_PREFETCH_SIZE);
+        backend.setThreadPool(getLdpathThreadPool());
+        return backend;
     }
     
 
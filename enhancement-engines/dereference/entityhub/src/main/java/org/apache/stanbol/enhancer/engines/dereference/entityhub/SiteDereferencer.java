@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
+import org.apache.stanbol.entityhub.ldpath.backend.AbstractBackend;
 import org.apache.stanbol.entityhub.ldpath.backend.SiteBackend;
 import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
@@ -62,7 +63,11 @@ public final class SiteDereferencer extends TrackingDereferencerBase<Site> {
     }
     @Override
     protected RDFBackend<Object> createRdfBackend(Site service) {
-        return new SiteBackend(service);
+        SiteBackend backend = new SiteBackend(service);
+        //load the Entities selected by LDPath path steps with batched requests
+        backend.setPrefetchSize(AbstractBackend.DEFAULT_PREFETCH_SIZE);
+        backend.setThreadPool(getLdpathThreadPool());
+        return backend;
     }
 
 }
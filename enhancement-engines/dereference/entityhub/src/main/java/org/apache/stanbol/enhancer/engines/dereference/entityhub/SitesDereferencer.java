@@ -19,6 +19,7 @@ package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
+import org.apache.stanbol.entityhub.ldpath.backend.AbstractBackend;
 import org.apache.stanbol.entityhub.ldpath.backend.SiteManagerBackend;
 import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
@@ -55,7 +56,11 @@ public final class SitesDereferencer extends TrackingDereferencerBase<SiteManage
     
     @Override
     protected RDFBackend<Object> createRdfBackend(SiteManager service) {
-        return new SiteManagerBackend(service);
+        SiteManagerBackend backend = new SiteManagerBackend(service);
+        //load the Entities selected by LDPath path steps with batched requests
+        backend.setPrefetchSize(AbstractBackend.DEFAULT_PREFETCH_SIZE);
+        backend.setThreadPool(getLdpathThreadPool());
+        return backend;
     }
 
 }
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.locks.Lock;
 
 import org.apache.clerezza.commons.rdf.Language;
@@ -49,6 +50,7 @@ import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
 import org.apache.stanbol.entityhub.core.mapping.FieldMappingUtils;
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory;
 import org.apache.stanbol.entityhub.ldpath.EntityhubLDPath;
+import org.apache.stanbol.entityhub.ldpath.backend.AbstractBackend;
 import org.apache.stanbol.entityhub.model.clerezza.RdfReference;
 import org.apache.stanbol.entityhub.model.clerezza.RdfRepresentation;
 import org.apache.stanbol.entityhub.model.clerezza.RdfValueFactory;
@@ -100,6 +102,11 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
     private final Class<T> serviceClass;
 
 	private ExecutorServiceProvider executorServiceProvider;
+    /**
+     * The thread pool set to the {@link RDFBackend}s used to execute LDPath
+     * programs or <code>null</code> if none
+     */
+    private ThreadPoolExecutor ldpathThreadPool;
     /**
      * Creates a new instance for the parsed parameter
      * @param context the BundleContexed used to create the {@link ServiceTracker}
@@ -140,6 +147,22 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
             searchServiceTracker = new ServiceTracker(context, filter, customizer);
         }
     }
+    /**
+     * Setter for the thread pool used by the {@link RDFBackend}s created by
+     * {@link #createRdfBackend(Object)} to execute LDPath programs. Needs to be
+     * set before {@link #open()} is called.
+     * @param ldpathThreadPool the thread pool or <code>null</code> if none
+     */
+    public void setLdpathThreadPool(ThreadPoolExecutor ldpathThreadPool) {
+        this.ldpathThreadPool = ldpathThreadPool;
+    }
+    /**
+     * Getter for the thread pool used to execute LDPath programs
+     * @return the thread pool or <code>null</code> if none
+     */
+    public ThreadPoolExecutor getLdpathThreadPool() {
+        return ldpathThreadPool;
+    }
     /**
      * Setter for the {@link NamespacePrefixService}
      * @param nsPrefixService
@@ -339,6 +362,10 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
         //graph (we do not want partial results on an error
         Graph ldPathResults = new SimpleGraph();
         RdfRepresentation result = valueFactory.createRdfRepresentation(uri, ldPathResults);
+        //use a backend that loads Representations only once per execution
+        if(rdfBackend instanceof AbstractBackend){
+            rdfBackend = ((AbstractBackend)rdfBackend).createExecutionBackend();
+        }
         //execute the LDPath Program and write results to the RDF ImmutableGraph
         try {
 	        for(org.apache.marmotta.ldpath.model.fields.FieldMapping<?,Object> mapping : ldpathProgram.getFields()) {
@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.entityhub.core.model.EntityImpl;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
@@ -113,6 +114,18 @@ public class MockEntityCorefDbpediaSite implements Site {
 		return entities.get(id);
 	}
 
+	@Override
+	public Map<String,Entity> getEntities(Collection<String> ids, Set<String> fields) throws SiteException {
+		Map<String,Entity> found = new HashMap<String,Entity>();
+		for (String id : ids) {
+			Entity entity = entities.get(id);
+			if (entity != null) {
+				found.put(id, entity);
+			}
+		}
+		return found;
+	}
+
 	@Override
 	public InputStream getContent(String id, String contentType) throws SiteException {
 		return null;
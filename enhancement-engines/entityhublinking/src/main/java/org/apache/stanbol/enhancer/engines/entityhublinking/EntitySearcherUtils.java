@@ -18,6 +18,7 @@ package org.apache.stanbol.enhancer.engines.entityhublinking;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -83,5 +84,26 @@ public final class EntitySearcherUtils {
         query.setConstraint(field.getUnicodeString(),tc);
         return query;
     }
+    /**
+     * Converts the fields parsed to {@link EntitySearcher#get(IRI, Set, String...)}
+     * to the fields requested from the Entityhub. The
+     * {@link RdfResourceEnum#entityRank} is included as for
+     * {@link #createFieldQuery(FieldQueryFactory, IRI, Set, List, String...)}
+     * @param includeFields the fields or <code>null</code> for all fields
+     * @return the fields or <code>null</code> if all fields are requested
+     */
+    public final static Set<String> getSelectedFields(Set<IRI> includeFields) {
+        if(includeFields == null){
+            return null;
+        }
+        Set<String> selected = new HashSet<String>(includeFields.size() + 1);
+        for(IRI field : includeFields){
+            if(field != null){
+                selected.add(field.getUnicodeString());
+            }
+        }
+        selected.add(RdfResourceEnum.entityRank.getUri());
+        return selected;
+    }
 
 }
@@ -59,7 +59,7 @@ public class EntityhubEntity extends Entity {
             //Copy all values field by field
             for (Iterator<String> fields = rep.getFieldNames(); fields.hasNext();) {
                 String field = fields.next();
-                if(includeFields == null || includeFields.contains(field)){
+                if(includeFields == null || includeFields.contains(new IRI(field))){
                     for (Iterator<Object> fieldValues = rep.get(field); fieldValues.hasNext();) {
                         Object value = fieldValues.next();
                         if(languages == null || //we need not to filter languages
@@ -29,6 +29,10 @@ import static org.apache.stanbol.enhancer.engines.entitylinking.config.TextProce
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_INCLUDE_SIMILAR_SCORE;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.ENTITY_TYPES;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.INCLUDE_SIMILAR_SCORE;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_LOOKUP_CACHE_SIZE;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.LOOKUP_CACHE_SIZE;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_LOOKUP_CACHE_TTL;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.LOOKUP_CACHE_TTL;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.MIN_TOKEN_SCORE;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.NAME_FIELD;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.REDIRECT_FIELD;
@@ -47,6 +51,10 @@ import java.util.Hashtable;
 import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -91,6 +99,8 @@ import org.slf4j.LoggerFactory;
 @org.apache.felix.scr.annotations.Properties(value={
     @Property(name=PROPERTY_NAME),
     @Property(name=EntityhubLinkingEngine.SITE_ID),
+    @Property(name=EntityhubLinkingEngine.LOOKUP_THREAD_POOL_SIZE,
+        intValue=EntityhubLinkingEngine.DEFAULT_LOOKUP_THREAD_POOL_SIZE),
     @Property(name=NAME_FIELD,value="rdfs:label"),
     @Property(name=CASE_SENSITIVE,boolValue=DEFAULT_CASE_SENSITIVE_MATCHING_STATE),
     @Property(name=TYPE_FIELD,value="rdf:type"),
@@ -111,6 +121,8 @@ import org.slf4j.LoggerFactory;
     @Property(name=MIN_TOKEN_SCORE,floatValue=DEFAULT_MIN_TOKEN_SCORE),
     @Property(name=SUGGESTIONS, intValue=DEFAULT_SUGGESTIONS),
     @Property(name=INCLUDE_SIMILAR_SCORE, boolValue=DEFAULT_INCLUDE_SIMILAR_SCORE),
+    @Property(name=LOOKUP_CACHE_SIZE, intValue=DEFAULT_LOOKUP_CACHE_SIZE),
+    @Property(name=LOOKUP_CACHE_TTL, intValue=DEFAULT_LOOKUP_CACHE_TTL),
     @Property(name=PROCESS_ONLY_PROPER_NOUNS_STATE, boolValue=DEFAULT_PROCESS_ONLY_PROPER_NOUNS_STATE),
     @Property(name=PROCESSED_LANGUAGES,
         cardinality=Integer.MAX_VALUE,
@@ -144,6 +156,15 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
      * To match against the Entityhub use "entityhub" as value.
      */
     public static final String SITE_ID = "enhancer.engines.linking.entityhub.siteId";
+    /**
+     * The number of threads used to execute the lookups of all linkable tokens
+     * of a section in parallel. Values &lt;= 0 deactivate parallel lookups.
+     */
+    public static final String LOOKUP_THREAD_POOL_SIZE = "enhancer.engines.linking.entityhub.lookupThreadPoolSize";
+    /**
+     * The default number of threads used for parallel lookups
+     */
+    public static final int DEFAULT_LOOKUP_THREAD_POOL_SIZE = 4;
 
     /**
      * The engine initialised based on the configuration of this component
@@ -158,6 +179,12 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
      * The EntitySearcher used for the {@link #entityLinkingEngine}
      */
     private TrackingEntitySearcher<?> entitySearcher;
+    /**
+     * Executes the lookups of batch lookups in parallel (or <code>null</code>
+     * if deactivated)
+     * @see #LOOKUP_THREAD_POOL_SIZE
+     */
+    private ExecutorService lookupExecutor;
     int trackedServiceCount = 0;
     
     /**
@@ -219,6 +246,22 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
         } else {
             entitySearcher = new ReferencedSiteSearcher(bundleContext,siteName,10,this);
         }
+        //init the thread pool for parallel lookups
+        value = properties.get(LOOKUP_THREAD_POOL_SIZE);
+        int lookupThreads;
+        if(value instanceof Number){
+            lookupThreads = ((Number)value).intValue();
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                lookupThreads = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(LOOKUP_THREAD_POOL_SIZE, 
+                    "Unable to parse the thread pool size from the configured value "
+                    + value, e);
+            }
+        } else {
+            lookupThreads = DEFAULT_LOOKUP_THREAD_POOL_SIZE;
+        }
         labelTokenizerTracker = new ServiceTracker(bundleContext, LabelTokenizer.class.getName(), 
                 new ServiceTrackerCustomizer() {
                     
@@ -309,6 +352,21 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
             entitySearcher, //the searcher might not be available
             textProcessingConfig, linkerConfig, 
             null);
+        //create the thread pool for parallel lookups as last step so that
+        //it is not leaked if the configuration is invalid
+        if(lookupThreads > 0){
+            final String threadName = "Entityhub Linking Lookup (" + engineName + ")-thread-";
+            lookupExecutor = Executors.newFixedThreadPool(lookupThreads, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, threadName + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            entitySearcher.setExecutorService(lookupExecutor);
+        }
         //start tracking
         labelTokenizerTracker.open();
         entitySearcher.open();
@@ -333,6 +391,10 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
         //close the tracking EntitySearcher
         entitySearcher.close();
         entitySearcher = null;
+        if(lookupExecutor != null){
+            lookupExecutor.shutdown();
+            lookupExecutor = null;
+        }
     }
     @Override
     public Object addingService(ServiceReference reference) {
@@ -340,6 +402,7 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
         if(bc != null){
             Object service =  bc.getService(reference);
             if(service != null){
+                invalidateLookupCache(); //a new Site (or Entityhub) is used
                 if(trackedServiceCount == 0){
                     //register the service
                     engineRegistration = bc.registerService(
@@ -358,12 +421,14 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
     }
     @Override
     public void modifiedService(ServiceReference reference, Object service) {
+        invalidateLookupCache(); //the configuration of the Site has changed
     }
     
     @Override
     public void removedService(ServiceReference reference, Object service) {
         BundleContext bc = this.bundleContext;
         if(bc != null){
+            invalidateLookupCache();
             trackedServiceCount--;
             if(trackedServiceCount == 0 && engineRegistration != null){
                engineRegistration.unregister();
@@ -371,4 +436,14 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
             bc.ungetService(reference);
         }
     }
+    /**
+     * Invalidates the lookup cache of the {@link #entityLinkingEngine} as
+     * cached results are no longer valid if the tracked Site changes.
+     */
+    private void invalidateLookupCache(){
+        EntityLinkingEngine engine = entityLinkingEngine;
+        if(engine != null){
+            engine.invalidateLookupCache();
+        }
+    }
 }
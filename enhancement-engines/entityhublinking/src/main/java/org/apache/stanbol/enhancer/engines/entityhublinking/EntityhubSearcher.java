@@ -68,7 +68,9 @@ public final class EntityhubSearcher extends TrackingEntitySearcher<Entityhub> i
         }
         org.apache.stanbol.entityhub.servicesapi.model.Entity entity;
         try {
-            entity = entityhub.getEntity(id.getUnicodeString());
+            //request only the selected fields
+            entity = entityhub.getEntities(Collections.singleton(id.getUnicodeString()),
+                EntitySearcherUtils.getSelectedFields(fields)).get(id.getUnicodeString());
         }  catch (EntityhubException e) {
             throw new EntitySearcherException("Exception while getting "+id+
                 " from the Entityhub",e);
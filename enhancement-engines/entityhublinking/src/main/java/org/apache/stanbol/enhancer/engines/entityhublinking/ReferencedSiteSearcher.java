@@ -78,7 +78,9 @@ public final class ReferencedSiteSearcher extends TrackingEntitySearcher<Site> i
             throw new IllegalStateException("ReferencedSite "+siteId+" is currently not available");
         }
         try {
-            entity = site.getEntity(id.getUnicodeString());
+            //request only the selected fields
+            entity = site.getEntities(Collections.singleton(id.getUnicodeString()),
+                EntitySearcherUtils.getSelectedFields(fields)).get(id.getUnicodeString());
         }  catch (SiteException e) {
             throw new IllegalStateException("Exception while getting "+id+
                 " from the ReferencedSite "+site.getId(),e);
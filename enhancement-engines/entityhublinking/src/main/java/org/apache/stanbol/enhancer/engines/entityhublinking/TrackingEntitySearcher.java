@@ -16,10 +16,23 @@
 */
 package org.apache.stanbol.enhancer.engines.entityhublinking;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
@@ -28,14 +41,21 @@ import org.osgi.util.tracker.ServiceTrackerCustomizer;
 /**
  * Abstract super class for EntitySearchers that need to track the OSGI service
  * used to lookup Entities. Used by the {@link EntityhubSearcher} and the 
- * {@link ReferencedSiteSearcher} implementation
+ * {@link ReferencedSiteSearcher} implementation.<p>
+ * {@link BatchEntitySearcher#lookup(IRI, Set, Map, String[]) Batch lookups}
+ * are executed in parallel by using the {@link #setExecutorService(ExecutorService)
+ * ExecutorService} (if available).
  * @author Rupert Westenthaler
  *
  */
-public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
+public abstract class TrackingEntitySearcher<T> implements BatchEntitySearcher {
     
     private ServiceTracker searchServiceTracker;
     protected BundleContext bundleContext; 
+    /**
+     * Used to execute batch lookups in parallel
+     */
+    private ExecutorService executorService;
     /**
      * Creates a new instance for the parsed parameter
      * @param context the BundleContexed used to create the {@link ServiceTracker}
@@ -91,6 +111,73 @@ public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
         }
     }
     
+    /**
+     * Setter for the {@link ExecutorService} used to execute the lookups of
+     * {@link #lookup(IRI, Set, Map, String[]) batch lookups} in parallel.
+     * @param executorService the executor service or <code>null</code> to
+     * execute them sequentially
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+    
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+    
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(final IRI field, 
+            final Set<IRI> selectedFields, Map<List<String>,Integer> searches, 
+            final String[] languages) throws EntitySearcherException {
+        if(searches == null){
+            throw new IllegalArgumentException("The parsed searches MUST NOT be NULL!");
+        }
+        Map<List<String>,Collection<? extends Entity>> results = 
+                new HashMap<List<String>,Collection<? extends Entity>>(searches.size());
+        ExecutorService executor = this.executorService;
+        if(executor == null || searches.size() < 2){
+            for(Entry<List<String>,Integer> search : searches.entrySet()){
+                results.put(search.getKey(), lookup(field, selectedFields, 
+                    search.getKey(), languages, search.getValue(), null));
+            }
+            return results;
+        }
+        Map<List<String>,Future<Collection<? extends Entity>>> tasks = 
+                new LinkedHashMap<List<String>,Future<Collection<? extends Entity>>>(searches.size());
+        for(final Entry<List<String>,Integer> search : searches.entrySet()){
+            tasks.put(search.getKey(), executor.submit(new Callable<Collection<? extends Entity>>() {
+                @Override
+                public Collection<? extends Entity> call() throws EntitySearcherException {
+                    return lookup(field, selectedFields, search.getKey(), languages, 
+                        search.getValue(), null);
+                }
+            }));
+        }
+        try {
+            for(Entry<List<String>,Future<Collection<? extends Entity>>> task : tasks.entrySet()){
+                results.put(task.getKey(), task.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EntitySearcherException("Interrupted while waiting for the "
+                + "results of a batch lookup", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof EntitySearcherException){
+                throw (EntitySearcherException)cause;
+            } else if(cause instanceof RuntimeException){
+                throw (RuntimeException)cause;
+            } else {
+                throw new EntitySearcherException("Unable to perform batch lookup", cause);
+            }
+        } finally { //cancel remaining lookups on errors
+            for(Future<?> task : tasks.values()){
+                task.cancel(true);
+            }
+        }
+        return results;
+    }
+    
     /**
      * Closes the {@link ServiceTracker} used to track the service.
      */
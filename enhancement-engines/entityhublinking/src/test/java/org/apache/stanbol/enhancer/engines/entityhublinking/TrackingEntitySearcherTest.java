@@ -0,0 +1,249 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entityhublinking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.impl.utils.simple.SimpleGraph;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Tests the execution of {@link TrackingEntitySearcher#lookup(IRI, Set, Map, String[])
+ * batch lookups} by the {@link TrackingEntitySearcher#setExecutorService(ExecutorService)
+ * ExecutorService}: parallel execution, unwrapping of exceptions thrown by
+ * single lookups and the cancellation of remaining lookups on errors.
+ */
+public class TrackingEntitySearcherTest {
+
+    private static final IRI FIELD = new IRI("urn:test:field");
+    private static final int THREADS = 3;
+
+    private ExecutorService executor;
+    private TestSearcher searcher;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        searcher = new TestSearcher();
+        searcher.setExecutorService(executor);
+    }
+
+    @After
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static Map<List<String>,Integer> searches(String...searches){
+        Map<List<String>,Integer> map = new LinkedHashMap<List<String>,Integer>();
+        for(String search : searches){
+            map.put(Collections.singletonList(search), null);
+        }
+        return map;
+    }
+
+    /**
+     * The lookups of a batch wait for each other. So they only complete if
+     * executed in parallel.
+     */
+    @Test
+    public void testParallelLookup() throws EntitySearcherException {
+        searcher.parallel = new CountDownLatch(THREADS);
+        Map<List<String>,Collection<? extends Entity>> results =
+                searcher.lookup(FIELD, null, searches("a", "b", "c"), null);
+        assertEquals(THREADS, results.size());
+        for(String search : Arrays.asList("a", "b", "c")){
+            Collection<? extends Entity> entities = results.get(Collections.singletonList(search));
+            assertEquals(1, entities.size());
+            assertEquals(new IRI("urn:test:" + search), entities.iterator().next().getUri());
+        }
+        assertEquals(THREADS, searcher.threads.size());
+        assertTrue(!searcher.threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void testSequentialLookup() throws EntitySearcherException {
+        searcher.setExecutorService(null);
+        Map<List<String>,Collection<? extends Entity>> results =
+                searcher.lookup(FIELD, null, searches("a", "b"), null);
+        assertEquals(2, results.size());
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), searcher.threads);
+    }
+
+    @Test
+    public void testExceptionUnwrapping() {
+        try {
+            searcher.lookup(FIELD, null, searches("a", TestSearcher.ERROR), null);
+            fail("EntitySearcherException expected");
+        } catch (EntitySearcherException e) {
+            assertSame(searcher.error, e);
+        }
+        try {
+            searcher.lookup(FIELD, null, searches("a", TestSearcher.RUNTIME_ERROR), null);
+            fail("IllegalStateException expected");
+        } catch (EntitySearcherException e) {
+            fail("RuntimeExceptions MUST NOT be wrapped");
+        } catch (IllegalStateException e) {
+            assertSame(searcher.runtimeError, e);
+        }
+    }
+
+    /**
+     * Lookups still running if a lookup of the batch fails are cancelled
+     */
+    @Test
+    public void testCancellation() throws InterruptedException {
+        searcher.awaitHang = true;
+        try {
+            searcher.lookup(FIELD, null, searches(TestSearcher.ERROR, TestSearcher.HANG), null);
+            fail("EntitySearcherException expected");
+        } catch (EntitySearcherException e) {
+            assertSame(searcher.error, e);
+        }
+        assertTrue("hanging lookup was not interrupted",
+            searcher.interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullSearches() throws EntitySearcherException {
+        searcher.lookup(FIELD, null, (Map<List<String>,Integer>)null, null);
+    }
+
+    /**
+     * Creates a {@link BundleContext} that only supports
+     * {@link BundleContext#createFilter(String)} as required to create a
+     * {@link org.osgi.util.tracker.ServiceTracker}
+     */
+    private static BundleContext createBundleContext(){
+        return (BundleContext)Proxy.newProxyInstance(BundleContext.class.getClassLoader(),
+            new Class<?>[]{BundleContext.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if("createFilter".equals(method.getName())){
+                        return FrameworkUtil.createFilter((String)args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.toString());
+                }
+            });
+    }
+
+    /**
+     * {@link TrackingEntitySearcher} that returns a single Entity with the
+     * URI <code>urn:test:{search}</code> for every search. Some searches
+     * have a special meaning: {@link #ERROR} and {@link #RUNTIME_ERROR}
+     * fail (if {@link #awaitHang} after the {@link #HANG} lookup started)
+     * and {@link #HANG} waits until it gets interrupted.
+     */
+    private static class TestSearcher extends TrackingEntitySearcher<Object> {
+
+        static final String ERROR = "error";
+        static final String RUNTIME_ERROR = "runtimeError";
+        static final String HANG = "hang";
+
+        final EntitySearcherException error = new EntitySearcherException("test error");
+        final IllegalStateException runtimeError = new IllegalStateException("test error");
+        final CountDownLatch hanging = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        CountDownLatch parallel;
+        boolean awaitHang;
+
+        TestSearcher() {
+            super(createBundleContext(), Object.class, null, null);
+        }
+
+        @Override
+        public Collection<? extends Entity> lookup(IRI field, Set<IRI> selectedFields,
+                List<String> search, String[] languages, Integer limit, Integer offset)
+                throws EntitySearcherException {
+            threads.add(Thread.currentThread().getName());
+            String value = search.get(0);
+            try {
+                if(parallel != null){
+                    parallel.countDown();
+                    if(!parallel.await(10, TimeUnit.SECONDS)){
+                        throw new EntitySearcherException("Lookups not executed in parallel");
+                    }
+                }
+                if(HANG.equals(value)){
+                    hanging.countDown();
+                    new CountDownLatch(1).await();
+                } else if(ERROR.equals(value) || RUNTIME_ERROR.equals(value)){
+                    if(awaitHang){
+                        hanging.await(10, TimeUnit.SECONDS);
+                    }
+                    if(ERROR.equals(value)){
+                        throw error;
+                    } else {
+                        throw runtimeError;
+                    }
+                }
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new EntitySearcherException("interrupted");
+            }
+            return Collections.singleton(new Entity(new IRI("urn:test:" + value), new SimpleGraph()));
+        }
+
+        @Override
+        public Entity get(IRI id, Set<IRI> selectedFields, String...languages) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean supportsOfflineMode() {
+            return true;
+        }
+
+        @Override
+        public Integer getLimit() {
+            return null;
+        }
+
+        @Override
+        public Map<IRI,Collection<RDFTerm>> getOriginInformation() {
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.IRI;
+
+/**
+ * Optional extension of the {@link EntitySearcher} interface for
+ * implementations that can perform several lookups at once (e.g. by
+ * executing them in parallel or by combining them into a single request).<p>
+ * If the {@link EntitySearcher} used by the EntityLinker implements this
+ * interface the EntityLinker collects the search tokens of all linkable
+ * tokens of a section and resolves them with a single call to
+ * {@link #lookup(IRI, Set, Map, String[])} before processing the section.
+ */
+public interface BatchEntitySearcher extends EntitySearcher {
+    /**
+     * Lookup Entities for several searches. The results for a single search
+     * MUST BE the same as returned by
+     * <code>{@link #lookup(IRI, Set, List, String[], Integer, Integer)
+     * lookup(field, selectedFields, search, languages, limit, 0)}</code>.
+     * @param field the field used to search for values in the parsed languages
+     * @param selectedFields A set of fields that need to be included within the
+     * returned Entities. If <code>null</code> only the field needs
+     * to be included. Other fields MAY also be included.
+     * @param searches the tokens to search for as key and the maximum number
+     * of results (<code>null</code> to use the default) as value. MUST NOT be
+     * <code>null</code>.
+     * @param languages the languages to include in the search
+     * @return the Entities found for the parsed searches. Contains an entry
+     * for every parsed search.
+     * @throws EntitySearcherException An exception while searching for concepts
+     * @throws IllegalArgumentException if the parsed field is <code>null</code>;
+     * the map with the searches is <code>null</code> or any search is
+     * <code>null</code> or empty
+     */
+    Map<List<String>,Collection<? extends Entity>> lookup(IRI field, Set<IRI> selectedFields,
+        Map<List<String>,Integer> searches, String[] languages) throws EntitySearcherException;
+
+}
@@ -222,6 +222,19 @@ public class EntityLinkerConfig {
      * property to <code>fise:EntityAnnotation</code> created by the linking engine.
      */
     public static final String WRITE_ENTITY_RANKINGS = "enhancer.engines.linking.writeEntityRankings";
+    /**
+     * The maximum number of entries of the lookup cache shared by all documents
+     * processed by the engine. Values &lt;= 0 deactivate this cache. 
+     * @see #DEFAULT_LOOKUP_CACHE_SIZE
+     */
+    public static final String LOOKUP_CACHE_SIZE = "enhancer.engines.linking.lookupCacheSize";
+    /**
+     * The time to live (in seconds) of entries of the lookup cache shared by
+     * all documents processed by the engine. Values &lt;= 0 deactivate
+     * expiration.
+     * @see #DEFAULT_LOOKUP_CACHE_TTL
+     */
+    public static final String LOOKUP_CACHE_TTL = "enhancer.engines.linking.lookupCacheTtl";
 
     
     /**
@@ -232,6 +245,15 @@ public class EntityLinkerConfig {
      * By default {@link #INCLUDE_SIMILAR_SCORE} is deactivated
      */
     public static final boolean DEFAULT_INCLUDE_SIMILAR_SCORE = false;
+    /**
+     * By default the shared lookup cache ({@link #LOOKUP_CACHE_SIZE}) is
+     * deactivated.
+     */
+    public static final int DEFAULT_LOOKUP_CACHE_SIZE = 0;
+    /**
+     * By default entries of the shared lookup cache expire after one hour
+     */
+    public static final int DEFAULT_LOOKUP_CACHE_TTL = 3600;
     /**
      * Default value for the number of tokens that must be contained in
      * suggested terms. The default is <code>1</code>
@@ -377,6 +399,14 @@ public class EntityLinkerConfig {
     private int maxSuggestions = DEFAULT_SUGGESTIONS;
     
     private boolean includeSuggestionsWithSimilarScore = DEFAULT_INCLUDE_SIMILAR_SCORE;
+    /**
+     * The size of the lookup cache shared by all processed documents
+     */
+    private int lookupCacheSize = DEFAULT_LOOKUP_CACHE_SIZE;
+    /**
+     * The time to live in seconds of entries of the shared lookup cache
+     */
+    private int lookupCacheTtl = DEFAULT_LOOKUP_CACHE_TTL;
     /**
      * The minimum number of Tokens in the text that must match with 
      * a label of the Entity so that also non-exact matches are
@@ -618,6 +648,28 @@ public class EntityLinkerConfig {
         } else if(value != null){
             linkerConfig.setIncludeSuggestionsWithSimilarScore(Boolean.parseBoolean(value.toString()));
         }
+        //init LOOKUP_CACHE_SIZE
+        value = configuration.get(LOOKUP_CACHE_SIZE);
+        if(value instanceof Number){
+            linkerConfig.setLookupCacheSize(((Number)value).intValue());
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                linkerConfig.setLookupCacheSize(Integer.parseInt(value.toString()));
+            } catch(NumberFormatException e){
+                throw new ConfigurationException(LOOKUP_CACHE_SIZE, "Values MUST be valid Integer values",e);
+            }
+        }
+        //init LOOKUP_CACHE_TTL
+        value = configuration.get(LOOKUP_CACHE_TTL);
+        if(value instanceof Number){
+            linkerConfig.setLookupCacheTtl(((Number)value).intValue());
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                linkerConfig.setLookupCacheTtl(Integer.parseInt(value.toString()));
+            } catch(NumberFormatException e){
+                throw new ConfigurationException(LOOKUP_CACHE_TTL, "Values MUST be valid Integer values",e);
+            }
+        }
         
         //init MIN_FOUND_TOKENS
         value = configuration.get(MIN_FOUND_TOKENS);
@@ -1101,6 +1153,40 @@ public class EntityLinkerConfig {
             includeSuggestionsWithSimilarScore = state;
         }
     }
+    /**
+     * Setter for the maximum number of entries of the lookup cache shared by
+     * all documents processed by an engine.
+     * @param size the size. Values &lt;= 0 deactivate the cache
+     */
+    public void setLookupCacheSize(int size){
+        this.lookupCacheSize = size < 0 ? 0 : size;
+    }
+    /**
+     * Getter for the maximum number of entries of the lookup cache shared by
+     * all documents processed by an engine.
+     * @return the size or <code>0</code> if deactivated
+     */
+    public int getLookupCacheSize(){
+        return lookupCacheSize;
+    }
+    /**
+     * Setter for the time to live of entries of the lookup cache shared by
+     * all documents processed by an engine.
+     * @param ttl the time to live in seconds. Values &lt;= 0 deactivate
+     * expiration
+     */
+    public void setLookupCacheTtl(int ttl){
+        this.lookupCacheTtl = ttl < 0 ? 0 : ttl;
+    }
+    /**
+     * Getter for the time to live of entries of the lookup cache shared by
+     * all documents processed by an engine.
+     * @return the time to live in seconds or <code>0</code> if entries do
+     * not expire
+     */
+    public int getLookupCacheTtl(){
+        return lookupCacheTtl;
+    }
     
     /**
      * Setter for the minimum number of Tokens (of the content) that MUST match
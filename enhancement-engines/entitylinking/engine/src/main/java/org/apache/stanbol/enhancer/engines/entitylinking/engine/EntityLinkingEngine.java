@@ -28,11 +28,13 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.TechnicalClasses.ENHAN
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.clerezza.commons.rdf.Language;
 import org.apache.clerezza.commons.rdf.Literal;
@@ -57,6 +59,7 @@ import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConf
 import org.apache.stanbol.enhancer.engines.entitylinking.config.LanguageProcessingConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLinker;
+import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLookupCache;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity.Occurrence;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.Suggestion;
@@ -65,6 +68,7 @@ import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper;
 import org.apache.stanbol.enhancer.servicesapi.rdf.NamespaceEnum;
 import org.apache.stanbol.enhancer.servicesapi.rdf.Properties;
@@ -96,6 +100,14 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
      * to ensure that other engines do not get confused
      */
     public static final Integer DEFAULT_ORDER = ServiceProperties.ORDERING_DEFAULT - 10;
+
+    private static final Map<String,Object> SERVICE_PROPERTIES;
+    static {
+        Map<String,Object> props = new HashMap<String,Object>();
+        props.put(ENHANCEMENT_ENGINE_ORDERING, DEFAULT_ORDER);
+        props.put(ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
+        SERVICE_PROPERTIES = Collections.unmodifiableMap(props);
+    }
     
     private static final IRI XSD_DOUBLE = new IRI("http://www.w3.org/2001/XMLSchema#double");
     
@@ -122,6 +134,11 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
      * The text processing configuration
      */
     protected final  TextProcessingConfig textProcessingConfig;
+    /**
+     * The lookup cache shared by all processed documents or <code>null</code>
+     * if {@link EntityLinkerConfig#getLookupCacheSize()} is deactivated.
+     */
+    protected final EntityLookupCache lookupCache;
     /**
      * The literalFactory used to create typed literals
      */
@@ -187,6 +204,27 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
         this.textProcessingConfig = textProcessingConfig;
         this.entitySearcher = entitySearcher;
         this.labelTokenizer = labelTokenizer;
+        this.lookupCache = this.linkerConfig.getLookupCacheSize() > 0 ? 
+                new EntityLookupCache(this.linkerConfig.getLookupCacheSize(),
+                    this.linkerConfig.getLookupCacheTtl()*1000L) : null;
+    }
+    /**
+     * Removes all cached lookup results. Needs to be called if the data of the
+     * {@link EntitySearcher} change (e.g. if the Entityhub Site used by the
+     * {@link EntitySearcher} was updated).
+     */
+    public final void invalidateLookupCache(){
+        if(lookupCache != null){
+            log.debug("invalidate lookup cache of Engine {}",name);
+            lookupCache.invalidate();
+        }
+    }
+    /**
+     * Getter for the lookup cache shared by all processed documents
+     * @return the cache or <code>null</code> if deactivated
+     */
+    public final EntityLookupCache getLookupCache() {
+        return lookupCache;
     }
     /**
      * Getter for the {@link LabelTokenizer} used by this Engine
@@ -205,9 +243,7 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
     }
     @Override
     public Map<String,Object> getServiceProperties() {
-        return Collections.unmodifiableMap(Collections.singletonMap(
-            ENHANCEMENT_ENGINE_ORDERING,
-            (Object) DEFAULT_ORDER));
+        return SERVICE_PROPERTIES;
     }
 
     @Override
@@ -258,7 +294,7 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
                     + "EnhanceemntJobManager implementation!");
         }
         EntityLinker entityLinker = new EntityLinker(at,language, 
-            languageConfig, entitySearcher, linkerConfig, labelTokenizer);
+            languageConfig, entitySearcher, linkerConfig, labelTokenizer, null, lookupCache);
         //process
         try {
             entityLinker.process();
@@ -269,13 +305,14 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
         if(log.isInfoEnabled()){
             entityLinker.logStatistics(log);
         }
-        //write results (requires a write lock)
-        ci.getLock().writeLock().lock();
+        //write results (requires a write lock on the metadata)
+        Lock writeLock = ContentItemHelper.getMetadataLock(ci).writeLock();
+        writeLock.lock();
         try {
             writeEnhancements(ci, entityLinker.getLinkedEntities().values(), language,
                 linkerConfig.isWriteEntityRankings());
         } finally {
-            ci.getLock().writeLock().unlock();
+            writeLock.unlock();
         }
     }
 
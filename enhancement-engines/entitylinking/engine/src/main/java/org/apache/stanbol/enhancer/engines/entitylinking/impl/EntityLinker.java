@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.clerezza.commons.rdf.Literal;
 import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
 import org.apache.commons.lang.StringUtils;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
@@ -97,6 +99,43 @@ public class EntityLinker {
     private long processingTime = -1;
 
     private Map<List<String>,List<Entity>> lookupCache;
+    /**
+     * The lookup cache shared by all documents processed by the engine or
+     * <code>null</code> if not available
+     */
+    private final EntityLookupCache sharedCache;
+    private Statistic sharedCacheStats = new Statistic("Shared Cache Lookup");
+    private int sharedCacheHits = 0;
+    /**
+     * The {@link #entitySearcher} if it supports batch lookups. Otherwise
+     * <code>null</code>
+     */
+    private final BatchEntitySearcher batchSearcher;
+    /**
+     * The section for that the search tokens where {@link #prefetch() prefetched}
+     */
+    private Section prefetchedSection;
+    /**
+     * The (first page of) results of the {@link #prefetch() prefetched} searches
+     * of the current section
+     */
+    private final Map<List<String>,Collection<? extends Entity>> prefetchedResults = 
+            new HashMap<List<String>,Collection<? extends Entity>>();
+    /**
+     * The version of the {@link #sharedCache} before the last batch lookup
+     */
+    private long prefetchCacheVersion = -1;
+    private int numPrefetched = 0;
+    private int numPrefetchedUsed = 0;
+    /**
+     * The number of prefetched searches that where not used (e.g. because
+     * the token was consumed by an earlier match)
+     */
+    private int numPrefetchedUnused = 0;
+    /**
+     * The languages used for lookups (lazily initialised)
+     */
+    private String[] lookupLanguages;
 
 
     public EntityLinker(AnalysedText analysedText, String language,
@@ -111,9 +150,32 @@ public class EntityLinker {
                 EntitySearcher entitySearcher,
                 EntityLinkerConfig linkerConfig,
                 LabelTokenizer labelTokenizer, LinkingStateAware linkingStateAware) {
+        this(analysedText,language,textProcessingConfig,entitySearcher,linkerConfig,
+            labelTokenizer,linkingStateAware,null);
+    }
+    /**
+     * Creates an EntityLinker that uses the parsed cache to share lookup
+     * results with EntityLinker instances processing other documents.
+     * @param sharedCache the shared cache or <code>null</code> if none.
+     * Ignored if redirects are processed by using
+     * {@link RedirectProcessingMode#ADD_VALUES} as this mode modifies the
+     * data of the Entities.
+     */
+    public EntityLinker(AnalysedText analysedText, String language,
+                LanguageProcessingConfig textProcessingConfig,
+                EntitySearcher entitySearcher,
+                EntityLinkerConfig linkerConfig,
+                LabelTokenizer labelTokenizer, LinkingStateAware linkingStateAware,
+                EntityLookupCache sharedCache) {
         //this.analysedText = analysedText;
         this.lookupCache = new HashMap<List<String>,List<Entity>>();
+        //ADD_VALUES adds the data of redirects to the Entities. Such Entities
+        //can not be shared with other threads
+        this.sharedCache = linkerConfig.getRedirectProcessingMode() == 
+                RedirectProcessingMode.ADD_VALUES ? null : sharedCache;
         this.entitySearcher = entitySearcher;
+        this.batchSearcher = entitySearcher instanceof BatchEntitySearcher ?
+                (BatchEntitySearcher)entitySearcher : null;
         this.linkerConfig = linkerConfig;
         this.textProcessingConfig = textProcessingConfig;
         this.labelTokenizer = labelTokenizer;
@@ -154,6 +216,12 @@ public class EntityLinker {
                 }
                 linkingStateAware.startToken(state.getToken().token); //notify the current token
             }
+            if(batchSearcher != null && !state.getSentence().equals(prefetchedSection)){
+                textProcessingStats.complete();
+                prefetchedSection = state.getSentence();
+                prefetch();
+                textProcessingStats.begin();
+            }
             TokenData token = state.getToken();
             if(log.isDebugEnabled()){
                 log.debug("--- preocess Token {}: {} (lemma: {}) linkable={}, matchable={} | chunk: {}",
@@ -161,104 +229,7 @@ public class EntityLinker {
                         token.isLinkable, token.isMatchable, token.inChunk != null ? 
                                 (token.inChunk.chunk + " "+ token.inChunk.chunk.getSpan()) : "none"});
             }
-            List<TokenData> searchStrings = new ArrayList<TokenData>(linkerConfig.getMaxSearchTokens());
-            getSearchString(token);
-            searchStrings.add(token);
-            //Determine the range we are allowed to search for tokens
-            final int minIncludeIndex;
-            final int maxIndcludeIndex;
-            int consumedIndex = state.getConsumedIndex();
-            //NOTE: testing has shown that using Chunks to restrict search for
-            //      additional matchable tokens does have an negative impact on
-            //      recall. Because of that this restriction is for now deactivated
-//            if(token.inChunk != null && !textProcessingConfig.isIgnoreChunks()){
-//                minIncludeIndex = token.inChunk.getStartTokenIndex();
-//                maxIndcludeIndex = token.inChunk.getEndTokenIndex();
-//                log.debug("  - restrict context to chunk[{}, {}]",
-//                    minIncludeIndex, maxIndcludeIndex);
-//            } else {
-                maxIndcludeIndex = state.getTokens().size() - 1;
-                minIncludeIndex = 0;
-//            }
-            int prevIndex = token.index;
-            int pastIndex = token.index;
-            int pastNonMatchable = 0;
-            int prevNonMatchable = 0;
-            int distance = 0;
-            do { 
-                distance++;//keep track of the distance
-                //get the past token at the given distance (However ignore
-                //non AlphaNumeric tokens when calculating the distance)
-                pastIndex++;
-                TokenData pastToken = null;
-                while(pastToken == null && maxIndcludeIndex >= pastIndex &&
-                        pastNonMatchable <= 1){
-                    TokenData td = state.getTokens().get(pastIndex);
-                    if(td.hasAlphaNumeric){
-                        pastToken = td;
-                    } else {
-                        pastIndex++;
-                    }
-                }
-                //get the previous token at the given distance (However ignore
-                //non AlphaNumeric tokens when calculating the distance)
-                prevIndex--;
-                TokenData prevToken = null;
-                while(prevToken == null && minIncludeIndex <= prevIndex &&
-                        //allow one nonMatchable token if prevIndex > the last
-                        //consumed one and zero nonMatchable if prevIndex is <=
-                        //the last consumed one
-                        ((prevIndex > consumedIndex && prevNonMatchable <= 1) ||
-                                prevIndex <= consumedIndex && prevNonMatchable < 1)){
-                    TokenData td = state.getTokens().get(prevIndex);
-                    if(td.hasAlphaNumeric){
-                        prevToken = td;
-                    } else {
-                        prevIndex--;
-                    }
-                }
-                //now that we know the tokens at this distance check if they are matchable
-                //Fist the past token
-                if(pastToken != null){
-                    if(log.isDebugEnabled()){
-                        log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
-                                pastToken.isMatchable? '+':'-',pastToken.index,
-                                pastToken.getTokenText(), pastToken.getTokenLemma(),
-                                pastToken.isLinkable, pastToken.isMatchable
-                        });
-                    }
-                    if(pastToken.isMatchable){
-                        searchStrings.add(pastToken);
-                    } else {
-                        pastNonMatchable++;
-                    }
-                }
-                //Second in the previous token
-                if(prevToken != null){
-                    if(log.isDebugEnabled()){
-                        log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
-                            prevToken.isMatchable? '+':'-',prevToken.index,
-                            prevToken.getTokenText(), prevToken.getTokenLemma(),
-                            prevToken.isLinkable, prevToken.isMatchable
-                        });
-                    }
-                    if(prevToken.isMatchable){
-                        getSearchString(prevToken);
-                        searchStrings.add(0,prevToken);
-                    } else {
-                        prevNonMatchable++;
-                    }
-                }
-            } while(searchStrings.size() < linkerConfig.getMaxSearchTokens() && distance <
-                    linkerConfig.getMaxSearchDistance() &&
-                    (prevIndex > minIncludeIndex || pastIndex < maxIndcludeIndex) &&
-                    (prevNonMatchable <= 1 || pastNonMatchable <= 1));
-            //we might have an additional element in the list
-            if(searchStrings.size() > linkerConfig.getMaxSearchTokens()){
-                searchStrings = searchStrings.subList( //the last part of the list
-                    searchStrings.size()-linkerConfig.getMaxSearchTokens(), 
-                    searchStrings.size());
-            }
+            List<TokenData> searchStrings = getSearchTokens(token, state.getConsumedIndex());
             if(log.isDebugEnabled()){
                 List<String> list = new ArrayList<String>(searchStrings.size());
                 for(TokenData dt : searchStrings){
@@ -404,8 +375,163 @@ public class EntityLinker {
         if(linkingStateAware != null && sentence != null){
             linkingStateAware.endSection(sentence);
         }
+        numPrefetchedUnused = numPrefetchedUnused + prefetchedResults.size();
+        prefetchedResults.clear();
         this.processingTime = System.currentTimeMillis()-startTime;
     }
+    /**
+     * Determines the tokens used to search Entities for the parsed linkable
+     * token. In addition to the parsed token this includes matchable tokens
+     * within the {@link EntityLinkerConfig#getMaxSearchDistance()} up to
+     * {@link EntityLinkerConfig#getMaxSearchTokens()} tokens.
+     * @param token the linkable token
+     * @param consumedIndex the index of the last consumed token
+     * @return the search tokens
+     */
+    private List<TokenData> getSearchTokens(TokenData token, int consumedIndex) {
+        List<TokenData> searchStrings = new ArrayList<TokenData>(linkerConfig.getMaxSearchTokens());
+        getSearchString(token);
+        searchStrings.add(token);
+        //Determine the range we are allowed to search for tokens
+        final int minIncludeIndex;
+        final int maxIndcludeIndex;
+        //NOTE: testing has shown that using Chunks to restrict search for
+        //      additional matchable tokens does have an negative impact on
+        //      recall. Because of that this restriction is for now deactivated
+//        if(token.inChunk != null && !textProcessingConfig.isIgnoreChunks()){
+//            minIncludeIndex = token.inChunk.getStartTokenIndex();
+//            maxIndcludeIndex = token.inChunk.getEndTokenIndex();
+//            log.debug("  - restrict context to chunk[{}, {}]",
+//                minIncludeIndex, maxIndcludeIndex);
+//        } else {
+            maxIndcludeIndex = state.getTokens().size() - 1;
+            minIncludeIndex = 0;
+//        }
+        int prevIndex = token.index;
+        int pastIndex = token.index;
+        int pastNonMatchable = 0;
+        int prevNonMatchable = 0;
+        int distance = 0;
+        do { 
+            distance++;//keep track of the distance
+            //get the past token at the given distance (However ignore
+            //non AlphaNumeric tokens when calculating the distance)
+            pastIndex++;
+            TokenData pastToken = null;
+            while(pastToken == null && maxIndcludeIndex >= pastIndex &&
+                    pastNonMatchable <= 1){
+                TokenData td = state.getTokens().get(pastIndex);
+                if(td.hasAlphaNumeric){
+                    pastToken = td;
+                } else {
+                    pastIndex++;
+                }
+            }
+            //get the previous token at the given distance (However ignore
+            //non AlphaNumeric tokens when calculating the distance)
+            prevIndex--;
+            TokenData prevToken = null;
+            while(prevToken == null && minIncludeIndex <= prevIndex &&
+                    //allow one nonMatchable token if prevIndex > the last
+                    //consumed one and zero nonMatchable if prevIndex is <=
+                    //the last consumed one
+                    ((prevIndex > consumedIndex && prevNonMatchable <= 1) ||
+                            prevIndex <= consumedIndex && prevNonMatchable < 1)){
+                TokenData td = state.getTokens().get(prevIndex);
+                if(td.hasAlphaNumeric){
+                    prevToken = td;
+                } else {
+                    prevIndex--;
+                }
+            }
+            //now that we know the tokens at this distance check if they are matchable
+            //Fist the past token
+            if(pastToken != null){
+                if(log.isDebugEnabled()){
+                    log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
+                            pastToken.isMatchable? '+':'-',pastToken.index,
+                            pastToken.getTokenText(), pastToken.getTokenLemma(),
+                            pastToken.isLinkable, pastToken.isMatchable
+                    });
+                }
+                if(pastToken.isMatchable){
+                    searchStrings.add(pastToken);
+                } else {
+                    pastNonMatchable++;
+                }
+            }
+            //Second in the previous token
+            if(prevToken != null){
+                if(log.isDebugEnabled()){
+                    log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
+                        prevToken.isMatchable? '+':'-',prevToken.index,
+                        prevToken.getTokenText(), prevToken.getTokenLemma(),
+                        prevToken.isLinkable, prevToken.isMatchable
+                    });
+                }
+                if(prevToken.isMatchable){
+                    getSearchString(prevToken);
+                    searchStrings.add(0,prevToken);
+                } else {
+                    prevNonMatchable++;
+                }
+            }
+        } while(searchStrings.size() < linkerConfig.getMaxSearchTokens() && distance <
+                linkerConfig.getMaxSearchDistance() &&
+                (prevIndex > minIncludeIndex || pastIndex < maxIndcludeIndex) &&
+                (prevNonMatchable <= 1 || pastNonMatchable <= 1));
+        //we might have an additional element in the list
+        if(searchStrings.size() > linkerConfig.getMaxSearchTokens()){
+            searchStrings = searchStrings.subList( //the last part of the list
+                searchStrings.size()-linkerConfig.getMaxSearchTokens(), 
+                searchStrings.size());
+        }
+        return searchStrings;
+    }
+    /**
+     * Collects the search tokens of all linkable tokens of the current section
+     * and resolves them by a single call to the {@link #batchSearcher}. Results
+     * are stored in {@link #prefetchedResults} and used by 
+     * {@link #lookupEntities(List)}.<p>
+     * NOTE: Search tokens are determined under the assumption that no token of
+     * the section is consumed. Lookups for tokens where this is not the case
+     * are performed as usual. Prefetched results of tokens that are consumed
+     * by an earlier match are not used.
+     * @throws EntitySearcherException
+     */
+    private void prefetch() throws EntitySearcherException {
+        numPrefetchedUnused = numPrefetchedUnused + prefetchedResults.size();
+        prefetchedResults.clear();
+        int consumedIndex = state.getConsumedIndex();
+        int startIndex = state.getToken().index;
+        String[] languageArray = getLookupLanguages();
+        Map<List<String>,Integer> searches = new LinkedHashMap<List<String>,Integer>();
+        for(TokenData token : state.getTokens()){
+            if(token.isLinkable && token.index >= startIndex){
+                List<TokenData> searchTokens = getSearchTokens(token, consumedIndex);
+                List<String> searchStrings = new ArrayList<String>(searchTokens.size());
+                for(TokenData searchToken : searchTokens){
+                    searchStrings.add(getSearchString(searchToken));
+                }
+                if(!searches.containsKey(searchStrings) && 
+                        !isCached(searchStrings, languageArray)){
+                    searches.put(searchStrings, getLookupLimit(searchTokens.size()));
+                }
+            }
+        }
+        if(searches.size() < 2){ //nothing to batch
+            return;
+        }
+        log.debug("  > prefetch {} searches for section {}", searches.size(), state.getSentence());
+        prefetchCacheVersion = sharedCache == null ? -1 : sharedCache.getVersion();
+        lookupStats.begin(); //keep statistics
+        Map<List<String>,Collection<? extends Entity>> results = batchSearcher.lookup(
+            linkerConfig.getNameField(), linkerConfig.getSelectedFields(), 
+            searches, languageArray);
+        lookupStats.complete();
+        prefetchedResults.putAll(results);
+        numPrefetched = numPrefetched + searches.size();
+    }
     /**
      * @param suggestions
      */
@@ -549,8 +675,7 @@ public class EntityLinker {
                 while(redirects.hasNext()){
                     IRI redirect = redirects.next();
                     if(redirect != null){
-                        Entity redirectedEntity = entitySearcher.get(redirect,
-                            linkerConfig.getSelectedFields());
+                        Entity redirectedEntity = getEntity(redirect);
                         if(redirectedEntity != null){
                             for(Iterator<Triple> data = redirectedEntity.getData().filter(
                                 redirectedEntity.getUri(), null, null);data.hasNext();){
@@ -566,8 +691,7 @@ public class EntityLinker {
                 while(redirects.hasNext()){
                     IRI redirect = redirects.next();
                     if(redirect != null){
-                        Entity redirectedEntity = entitySearcher.get(redirect,
-                            linkerConfig.getSelectedFields());
+                        Entity redirectedEntity = getEntity(redirect);
                         if(redirectedEntity != null){
                             suggestion.setRedirect(redirectedEntity);
                         }
@@ -587,21 +711,14 @@ public class EntityLinker {
      * @throws EntitySearcherException 
      */
     private List<Suggestion> lookupEntities(List<TokenData> searchTokens) throws EntitySearcherException {
-        Set<String> languages = new HashSet<String>();
-        languages.add(linkerConfig.getDefaultLanguage());
-        languages.add(state.getLanguage());
-        int countryCodeIndex = state.getLanguage() == null ? -1 : state.getLanguage().indexOf('-');
-        if(countryCodeIndex >= 2){
-            languages.add(state.getLanguage().substring(0,countryCodeIndex));
-        }
         List<String> searchStrings = new ArrayList<String>(searchTokens.size());
         for(Iterator<TokenData> it = searchTokens.iterator();it.hasNext();){
             searchStrings.add(getSearchString(it.next()));
         }
-        String[] languageArray = languages.toArray(new String[languages.size()]);
+        String[] languageArray = getLookupLanguages();
         List<Suggestion> suggestions = new ArrayList<Suggestion>();
         //check if we have the search strings in the cache
-        List<Entity> results = lookupCache.get(searchStrings);
+        List<Entity> results = getCachedResults(searchStrings, languageArray);
         if(results != null){ //query is cached
             cacheHits++;
             //match the cached results
@@ -610,10 +727,14 @@ public class EntityLinker {
             }
         } else { // we need to perform a new query
             results = new ArrayList<Entity>();
+            Collection<? extends Entity> prefetched = prefetchedResults.remove(searchStrings);
+            long cacheVersion = sharedCache == null ? -1 : prefetched != null ? 
+                    prefetchCacheVersion : sharedCache.getVersion();
             //perform the lookup with the parsed parameter
-            int numResults = performLookup(searchStrings, languageArray, suggestions, searchTokens, results);
+            int numResults = performLookup(searchStrings, languageArray, suggestions, 
+                searchTokens, results, prefetched);
             //cache the results
-            lookupCache.put(searchStrings, results);
+            cacheResults(searchStrings, languageArray, results, cacheVersion);
             //if no match where found in the result .. fallback to a search for the
             //current token
             if(suggestions.isEmpty() && numResults > 0 && searchStrings.size() > 1){
@@ -623,7 +744,7 @@ public class EntityLinker {
                 log.debug("   > No match for '{}' searchStrings ... ", searchStrings);
                 searchStrings = Collections.singletonList(getSearchString(state.getToken()));
                 searchTokens = Collections.singletonList(state.getToken());
-                results = lookupCache.get(searchStrings);
+                results = getCachedResults(searchStrings, languageArray);
                 if(results != null){ //query is cached
                     cacheHits++;
                     //match the cached results
@@ -632,10 +753,14 @@ public class EntityLinker {
                     }
                 } else {
                     results = new ArrayList<Entity>();
+                    prefetched = prefetchedResults.remove(searchStrings);
+                    long fallbackCacheVersion = sharedCache == null ? -1 : prefetched != null ? 
+                            prefetchCacheVersion : sharedCache.getVersion();
                     log.debug("     ... fallback to search for active token '{}' ...",searchStrings);
-                    performLookup(searchStrings, languageArray, suggestions, searchTokens, results);
+                    performLookup(searchStrings, languageArray, suggestions, searchTokens, 
+                        results, prefetched);
                     //cache the results of the fall-back query
-                    lookupCache.put(searchStrings, results);
+                    cacheResults(searchStrings, languageArray, results, fallbackCacheVersion);
                 }
             }
         }
@@ -645,6 +770,107 @@ public class EntityLinker {
         }
         return suggestions;
     }
+    /**
+     * Getter for the languages used for lookups. This includes the
+     * {@link EntityLinkerConfig#getDefaultLanguage() default language}, the
+     * language of the document and the main language if the document language
+     * includes a country code
+     * @return the languages
+     */
+    private String[] getLookupLanguages(){
+        if(lookupLanguages == null){
+            Set<String> languages = new HashSet<String>();
+            languages.add(linkerConfig.getDefaultLanguage());
+            languages.add(state.getLanguage());
+            int countryCodeIndex = state.getLanguage() == null ? -1 : state.getLanguage().indexOf('-');
+            if(countryCodeIndex >= 2){
+                languages.add(state.getLanguage().substring(0,countryCodeIndex));
+            }
+            lookupLanguages = languages.toArray(new String[languages.size()]);
+        }
+        return lookupLanguages;
+    }
+    /**
+     * The number of Entities requested by a lookup for the parsed number
+     * of search tokens
+     */
+    private int getLookupLimit(int numSearchTokens){
+        return Math.max(MIN_SEARCH_LIMIT, linkerConfig.getMaxSuggestions()*2*numSearchTokens);
+    }
+    /**
+     * Getter for the cached results for the parsed search strings. Checks
+     * the cache for the current document first and the {@link #sharedCache}
+     * afterwards.
+     * @param searchStrings the search strings
+     * @param languageArray the languages
+     * @return the cached results or <code>null</code> if not cached
+     */
+    private List<Entity> getCachedResults(List<String> searchStrings, String[] languageArray){
+        List<Entity> results = lookupCache.get(searchStrings);
+        if(results == null && sharedCache != null){
+            sharedCacheStats.begin();
+            results = sharedCache.getLookup(linkerConfig.getNameField(), 
+                linkerConfig.getSelectedFields(), searchStrings, languageArray);
+            sharedCacheStats.complete();
+            if(results != null){
+                sharedCacheHits++;
+                lookupCache.put(searchStrings, results);
+            }
+        }
+        return results;
+    }
+    /**
+     * Checks if results for the parsed search strings are cached. Other than
+     * {@link #getCachedResults(List, String[])} this does not update the
+     * statistics of the {@link #sharedCache}, as the results of the search
+     * are requested later on anyway.
+     * @param searchStrings the search strings
+     * @param languageArray the languages
+     * @return if results are cached
+     */
+    private boolean isCached(List<String> searchStrings, String[] languageArray){
+        return lookupCache.containsKey(searchStrings) || (sharedCache != null &&
+                sharedCache.containsLookup(linkerConfig.getNameField(), 
+                    linkerConfig.getSelectedFields(), searchStrings, languageArray));
+    }
+    /**
+     * Caches the results of a lookup for the current document and in the
+     * {@link #sharedCache}.
+     * @param cacheVersion the version of the {@link #sharedCache} before the
+     * lookup was performed
+     */
+    private void cacheResults(List<String> searchStrings, String[] languageArray,
+            List<Entity> results, long cacheVersion){
+        lookupCache.put(searchStrings, results);
+        if(sharedCache != null){
+            sharedCache.putLookup(linkerConfig.getNameField(), 
+                linkerConfig.getSelectedFields(), searchStrings, languageArray,
+                results, cacheVersion);
+        }
+    }
+    /**
+     * Gets the Entity with the parsed id from the {@link #sharedCache} or
+     * the {@link #entitySearcher}
+     * @param id the id of the Entity
+     * @return the Entity or <code>null</code> if not found
+     * @throws EntitySearcherException
+     */
+    private Entity getEntity(IRI id) throws EntitySearcherException {
+        if(sharedCache == null){
+            return entitySearcher.get(id, linkerConfig.getSelectedFields());
+        }
+        sharedCacheStats.begin();
+        Entity entity = sharedCache.getEntity(id, linkerConfig.getSelectedFields());
+        sharedCacheStats.complete();
+        if(entity == null){
+            long cacheVersion = sharedCache.getVersion();
+            entity = entitySearcher.get(id, linkerConfig.getSelectedFields());
+            sharedCache.putEntity(id, linkerConfig.getSelectedFields(), entity, cacheVersion);
+        } else {
+            sharedCacheHits++;
+        }
+        return entity;
+    }
     /**
      * @param searchStrings
      * @param languageArray
@@ -654,14 +880,17 @@ public class EntityLinker {
      * parameters. This is used to cache results of queries. This avoid issuing
      * the same query twice for a analysed document.
      * string.
+     * @param firstPage the results of a {@link #prefetch() prefetched} lookup
+     * used instead of the first request to the {@link #entitySearcher} or
+     * <code>null</code> if not available
      * @return
      * @throws EntitySearcherException
      */
     private int performLookup(List<String> searchStrings, String[] languageArray,
             List<Suggestion> suggestions, List<TokenData> searchTokens, 
-            List<Entity> queryResults) throws EntitySearcherException {
+            List<Entity> queryResults, Collection<? extends Entity> firstPage) throws EntitySearcherException {
         int minProcessedResults = linkerConfig.getMaxSuggestions()*3;
-        int lookupLimit = Math.max(MIN_SEARCH_LIMIT, linkerConfig.getMaxSuggestions()*2*searchTokens.size());
+        int lookupLimit = getLookupLimit(searchTokens.size());
         int maxResults = lookupLimit*2;
         int offset = 0;
         int numFiltered = 0;
@@ -681,12 +910,18 @@ public class EntityLinker {
                 moreResultsAvailable && (numResults-numFiltered) < (minProcessedResults) &&
                 numResults < maxResults){
             Collection<? extends Entity> results;
-            log.debug("   > request entities [{}-{}] entities ...",offset,(offset+lookupLimit));
-            lookupStats.begin(); //keep statistics
-            results = entitySearcher.lookup(linkerConfig.getNameField(),
-                linkerConfig.getSelectedFields(), searchStrings, languageArray,
-                lookupLimit, offset);
-            lookupStats.complete();
+            if(firstPage != null){ //use the prefetched results
+                results = firstPage;
+                firstPage = null;
+                numPrefetchedUsed++;
+            } else {
+                log.debug("   > request entities [{}-{}] entities ...",offset,(offset+lookupLimit));
+                lookupStats.begin(); //keep statistics
+                results = entitySearcher.lookup(linkerConfig.getNameField(),
+                    linkerConfig.getSelectedFields(), searchStrings, languageArray,
+                    lookupLimit, offset);
+                lookupStats.complete();
+            }
             log.debug("      < found {} entities ...",results.size());
             //queries might return more as the requested results
             moreResultsAvailable = results.size() >= lookupLimit;
@@ -1292,6 +1527,17 @@ public class EntityLinker {
         float cacheHitPercentage = lookupStats.count > 0 ? //avoid division by zero
                 cacheHits*100f/(float)lookupStats.count : Float.NaN;
         log.info("    - cache hits: {} ({}%)",cacheHits,cacheHitPercentage);
+        if(batchSearcher != null){
+            log.info("    - prefetched: {} searches ({} used, {} unused)",
+                new Object[]{numPrefetched,numPrefetchedUsed,numPrefetchedUnused});
+        }
+        if(sharedCache != null){
+            sharedCacheStats.printStatistics(log);
+            log.info("    - shared cache hits: {} ({}%)", sharedCacheHits, 
+                sharedCacheStats.count > 0 ? //avoid division by zero
+                    sharedCacheHits*100f/(float)sharedCacheStats.count : Float.NaN);
+            sharedCache.printStatistics(log);
+        }
         log.info("      - {} query results ({} filtered - {}%)",
             new Object[]{numQueryResults,numFilteredResults, 
                 numFilteredResults*100f/(float)numQueryResults});
@@ -0,0 +1,447 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.slf4j.Logger;
+
+/**
+ * Bounded cache for the results of {@link EntitySearcher} requests that is
+ * shared by all {@link EntityLinker} instances of an engine. While the
+ * {@link EntityLinker} does only cache lookups for the processed document
+ * this cache allows to reuse results for surface forms that are mentioned in
+ * many documents (e.g. "Obama", "United States").<p>
+ * Lookup results are keyed by the search tokens, the languages and the
+ * requested fields. Results of {@link EntitySearcher#get(IRI, Set, String...)}
+ * are keyed by the id, the fields and the languages.<p>
+ * To avoid contention between concurrently processed documents entries are
+ * distributed over up to {@link #MAX_SEGMENTS} segments (based on the hash
+ * of the key). Every segment evicts its least recently used entries if it
+ * is full. So for caches with more than {@link #MIN_SEGMENT_SIZE} entries
+ * eviction is only approximately LRU.<p>
+ * Cached results become outdated as soon as the data of the
+ * {@link EntitySearcher} change. Components that manage the
+ * {@link EntitySearcher} (e.g. track the Entityhub Site) need to call
+ * {@link #invalidate()} in such cases. Results of requests started before an
+ * invalidation are not added to the cache (see {@link #getVersion()}).
+ * Changes that are not notified (e.g. updates of the data stored in a Yard)
+ * are only picked up after the time to live of the cached entries expires.<p>
+ * Instances are thread safe.
+ */
+public class EntityLookupCache {
+
+    /**
+     * The maximum number of segments
+     */
+    protected static final int MAX_SEGMENTS = 16;
+    /**
+     * The minimum number of entries per segment
+     */
+    protected static final int MIN_SEGMENT_SIZE = 64;
+
+    private final int size;
+    /**
+     * The time to live of entries in milliseconds or <code>0</code> if
+     * entries do not expire
+     */
+    private final long ttl;
+    private final Segment[] segments;
+    /**
+     * incremented on every invalidation
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong lookupHits = new AtomicLong();
+    private final AtomicLong lookupMisses = new AtomicLong();
+    private final AtomicLong entityHits = new AtomicLong();
+    private final AtomicLong entityMisses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a cache for the parsed number of entries. Entries do not
+     * expire.
+     * @param size the maximum number of cached lookups and entities
+     * @throws IllegalArgumentException if the parsed size is &lt; 1
+     */
+    public EntityLookupCache(final int size) {
+        this(size, 0);
+    }
+    /**
+     * Creates a cache for the parsed number of entries
+     * @param size the maximum number of cached lookups and entities
+     * @param ttl the time to live of cached entries in milliseconds. Values
+     * &lt;= 0 deactivate expiration.
+     * @throws IllegalArgumentException if the parsed size is &lt; 1
+     */
+    public EntityLookupCache(final int size, final long ttl) {
+        if(size < 1){
+            throw new IllegalArgumentException("The size of the cache MUST BE > 0 (parsed: "+size+")!");
+        }
+        this.size = size;
+        this.ttl = ttl < 0 ? 0 : ttl;
+        int numSegments = Math.max(1, Math.min(MAX_SEGMENTS, size / MIN_SEGMENT_SIZE));
+        this.segments = new Segment[numSegments];
+        for(int i = 0; i < numSegments; i++){
+            //distribute the remainder over the first segments
+            segments[i] = new Segment(size / numSegments + (i < size % numSegments ? 1 : 0));
+        }
+    }
+    /**
+     * The current version of the cache. Needs to be retrieved before sending
+     * a request to the {@link EntitySearcher} and parsed when adding the
+     * results to the cache.
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    /**
+     * Removes all cached results (e.g. because the data of the
+     * {@link EntitySearcher} have changed).
+     */
+    public void invalidate() {
+        //increment the version first so that concurrent puts of results
+        //requested before the invalidation are ignored
+        version.incrementAndGet();
+        for(Segment segment : segments){
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        invalidations.incrementAndGet();
+    }
+    /**
+     * Getter for the cached results of a
+     * {@link EntitySearcher#lookup(IRI, Set, List, String[], Integer, Integer) lookup}
+     * @param field the searched field
+     * @param selectedFields the selected fields
+     * @param search the search tokens
+     * @param languages the languages
+     * @return the cached (read-only) results or <code>null</code> if not cached
+     */
+    public List<Entity> getLookup(IRI field, Set<IRI> selectedFields,
+            List<String> search, String[] languages){
+        Object value = get(Key.lookup(field, selectedFields, search, languages));
+        if(value == null){
+            lookupMisses.incrementAndGet();
+            return null;
+        } else {
+            lookupHits.incrementAndGet();
+            @SuppressWarnings("unchecked")
+            List<Entity> results = (List<Entity>)value;
+            return results;
+        }
+    }
+    /**
+     * Checks if results of a lookup are cached. Other than
+     * {@link #getLookup(IRI, Set, List, String[])} this does not update the
+     * hit/miss statistics (e.g. if the caller will request the results
+     * later on).
+     * @param field the searched field
+     * @param selectedFields the selected fields
+     * @param search the search tokens
+     * @param languages the languages
+     * @return if results are cached
+     */
+    public boolean containsLookup(IRI field, Set<IRI> selectedFields,
+            List<String> search, String[] languages){
+        Key key = Key.lookup(field, selectedFields, search, languages);
+        Segment segment = segment(key);
+        synchronized (segment) {
+            CacheEntry entry = segment.get(key);
+            return entry != null && !entry.isExpired(currentTime());
+        }
+    }
+    /**
+     * Adds the results of a lookup to the cache.
+     * @param field the searched field
+     * @param selectedFields the selected fields
+     * @param search the search tokens
+     * @param languages the languages
+     * @param results the results
+     * @param version the {@link #getVersion() version} of the cache at the
+     * time the request was sent to the {@link EntitySearcher}. If the cache
+     * was invalidated in the meantime the results are not cached.
+     */
+    public void putLookup(IRI field, Set<IRI> selectedFields, List<String> search,
+            String[] languages, Collection<Entity> results, long version){
+        put(Key.lookup(field, selectedFields, search, languages), 
+            Collections.unmodifiableList(new ArrayList<Entity>(results)), version);
+    }
+    /**
+     * Getter for a cached Entity.
+     * @param id the id of the entity
+     * @param selectedFields the selected fields
+     * @param languages the languages
+     * @return the Entity or <code>null</code> if not cached
+     */
+    public Entity getEntity(IRI id, Set<IRI> selectedFields, String...languages){
+        Object value = get(Key.entity(id, selectedFields, languages));
+        if(value == null){
+            entityMisses.incrementAndGet();
+            return null;
+        } else {
+            entityHits.incrementAndGet();
+            return (Entity)value;
+        }
+    }
+    /**
+     * Adds the result of an {@link EntitySearcher#get(IRI, Set, String...)}
+     * call to the cache
+     * @param id the id of the entity
+     * @param selectedFields the selected fields
+     * @param entity the entity. <code>null</code> values are ignored
+     * @param version the {@link #getVersion() version} of the cache at the
+     * time the request was sent to the {@link EntitySearcher}
+     * @param languages the languages
+     */
+    public void putEntity(IRI id, Set<IRI> selectedFields, Entity entity,
+            long version, String...languages){
+        if(entity == null){
+            return;
+        }
+        put(Key.entity(id, selectedFields, languages), entity, version);
+    }
+    /**
+     * Getter for the value of the parsed key. Removes expired entries.
+     * @return the value or <code>null</code> if not cached or expired
+     */
+    private Object get(Key key){
+        Segment segment = segment(key);
+        synchronized (segment) {
+            CacheEntry entry = segment.get(key);
+            if(entry == null){
+                return null;
+            } else if(entry.isExpired(currentTime())){
+                segment.remove(key);
+                expirations.incrementAndGet();
+                return null;
+            } else {
+                return entry.value;
+            }
+        }
+    }
+    /**
+     * Adds the parsed value if the cache was not invalidated since the
+     * parsed version
+     */
+    private void put(Key key, Object value, long version){
+        Segment segment = segment(key);
+        long expires = ttl > 0 ? currentTime() + ttl : Long.MAX_VALUE;
+        synchronized (segment) {
+            //NOTE: invalidate() increments the version before it clears the
+            //      segments. So checking the version while holding the lock
+            //      of the segment ensures that outdated values are not added
+            if(this.version.get() == version){
+                segment.put(key, new CacheEntry(value, expires));
+            }
+        }
+    }
+
+    private Segment segment(Key key){
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+    /**
+     * The current time in milliseconds. Used to calculate the expiration
+     * of entries.
+     */
+    long currentTime(){
+        return System.currentTimeMillis();
+    }
+    /**
+     * The number of cached lookups and entities
+     * @return the number of cached entries
+     */
+    public int size(){
+        int num = 0;
+        for(Segment segment : segments){
+            synchronized (segment) {
+                num = num + segment.size();
+            }
+        }
+        return num;
+    }
+
+    public int getMaxSize(){
+        return size;
+    }
+    /**
+     * The time to live of cached entries
+     * @return the time to live in milliseconds or <code>0</code> if entries
+     * do not expire
+     */
+    public long getTtl(){
+        return ttl;
+    }
+
+    public long getLookupHits() {
+        return lookupHits.get();
+    }
+
+    public long getLookupMisses() {
+        return lookupMisses.get();
+    }
+
+    public long getEntityHits() {
+        return entityHits.get();
+    }
+
+    public long getEntityMisses() {
+        return entityMisses.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public String getStatistics(){
+        long lh = lookupHits.get();
+        long lm = lookupMisses.get();
+        long eh = entityHits.get();
+        long em = entityMisses.get();
+        StringBuilder sb = new StringBuilder("Shared Lookup Cache: ");
+        sb.append(size()).append('/').append(size).append(" entries [");
+        sb.append("lookups: ").append(lh).append(" hits (").append(percentage(lh, lm)).append("%) | ");
+        sb.append("entities: ").append(eh).append(" hits (").append(percentage(eh, em)).append("%) | ");
+        sb.append("expired: ").append(expirations.get()).append(" | ");
+        sb.append("invalidations: ").append(invalidations.get()).append(']');
+        return sb.toString();
+    }
+
+    public void printStatistics(Logger log){
+        log.info("  - {}", getStatistics());
+    }
+
+    private static float percentage(long hits, long misses){
+        return hits + misses > 0 ? hits*100f/(float)(hits + misses) : Float.NaN;
+    }
+    /**
+     * A segment of the cache. Evicts the least recently used entries if full.
+     * Callers need to synchronise on the segment.
+     */
+    private static final class Segment extends LinkedHashMap<Key,CacheEntry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        Segment(int maxSize){
+            super(Math.min(maxSize, 1024), 0.75f, true);
+            this.maxSize = maxSize;
+        }
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key,CacheEntry> eldest) {
+            return size() > maxSize;
+        }
+    }
+    /**
+     * A cached value and the time it expires
+     */
+    private static final class CacheEntry {
+
+        final Object value;
+        final long expires;
+
+        CacheEntry(Object value, long expires){
+            this.value = value;
+            this.expires = expires;
+        }
+
+        boolean isExpired(long now){
+            return now >= expires;
+        }
+    }
+
+    /**
+     * Cache key. The order of the parsed languages and fields is ignored.
+     */
+    private static final class Key {
+
+        private final boolean lookup;
+        private final IRI field;
+        private final Set<IRI> selectedFields;
+        private final List<String> search;
+        private final Set<String> languages;
+        private final int hash;
+
+        private Key(boolean lookup, IRI field, Set<IRI> selectedFields,
+                List<String> search, String[] languages){
+            this.lookup = lookup;
+            this.field = field;
+            this.selectedFields = selectedFields == null ? null :
+                new HashSet<IRI>(selectedFields);
+            this.search = search == null ? null : new ArrayList<String>(search);
+            this.languages = languages == null ? null :
+                new HashSet<String>(Arrays.asList(languages));
+            int h = lookup ? 1 : 0;
+            h = 31*h + (field == null ? 0 : field.hashCode());
+            h = 31*h + (this.selectedFields == null ? 0 : this.selectedFields.hashCode());
+            h = 31*h + (this.search == null ? 0 : this.search.hashCode());
+            h = 31*h + (this.languages == null ? 0 : this.languages.hashCode());
+            this.hash = h;
+        }
+
+        static Key lookup(IRI field, Set<IRI> selectedFields, List<String> search, String[] languages){
+            return new Key(true, field, selectedFields, search, languages);
+        }
+
+        static Key entity(IRI id, Set<IRI> selectedFields, String[] languages){
+            return new Key(false, id, selectedFields, null, languages);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj == this){
+                return true;
+            }
+            if(!(obj instanceof Key)){
+                return false;
+            }
+            Key other = (Key)obj;
+            return hash == other.hash && lookup == other.lookup &&
+                    equals(field, other.field) &&
+                    equals(selectedFields, other.selectedFields) &&
+                    equals(search, other.search) &&
+                    equals(languages, other.languages);
+        }
+
+        private static boolean equals(Object a, Object b){
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
@@ -50,15 +50,19 @@ import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
 import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
 import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
 import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.LabelTokenizer;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.LanguageProcessingConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.RedirectProcessingMode;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLinker;
+import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLookupCache;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.Suggestion;
+import org.apache.stanbol.enhancer.engines.entitylinking.impl.TestBatchSearcherImpl;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.TestSearcherImpl;
 import org.apache.stanbol.enhancer.engines.entitylinking.labeltokenizer.SimpleLabelTokenizer;
 import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
@@ -118,6 +122,11 @@ public class EntityLinkingEngineTest {
     private static Value<PhraseTag> NOUN_PHRASE = Value.value(new PhraseTag("NP",LexicalCategory.Noun),1d);
     
     static TestSearcherImpl searcher;
+    /**
+     * Searcher with the same data that also supports batch lookups
+     */
+    static TestBatchSearcherImpl batchSearcher;
+    private static final List<Entity> ENTITIES = new ArrayList<Entity>();
     
     public static final IRI NAME = new IRI(NamespaceEnum.rdfs+"label");
     public static final IRI TYPE = new IRI(NamespaceEnum.rdf+"type");
@@ -125,55 +134,56 @@ public class EntityLinkingEngineTest {
 
     @BeforeClass
     public static void setUpServices() throws IOException {
-        searcher = new TestSearcherImpl(TEST_REFERENCED_SITE_NAME,NAME,new SimpleLabelTokenizer());
-        //add some terms to the searcher
+        //add some terms to the searchers
         Graph graph = new IndexedGraph();
         IRI uri = new IRI("urn:test:PatrickMarshall");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("Patrick Marshall")));
         graph.add(new TripleImpl(uri, TYPE, OntologicalClasses.DBPEDIA_PERSON));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
         
         uri = new IRI("urn:test:Geologist");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("Geologist")));
         graph.add(new TripleImpl(uri, TYPE, new IRI(NamespaceEnum.skos+"Concept")));
         graph.add(new TripleImpl(uri, REDIRECT, new IRI("urn:test:redirect:Geologist")));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
         //a redirect
         uri = new IRI("urn:test:redirect:Geologist");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("Geologe (redirect)")));
         graph.add(new TripleImpl(uri, TYPE, new IRI(NamespaceEnum.skos+"Concept")));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
 
         uri = new IRI("urn:test:NewZealand");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("New Zealand")));
         graph.add(new TripleImpl(uri, TYPE, OntologicalClasses.DBPEDIA_PLACE));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
 
         uri = new IRI("urn:test:UniversityOfOtago");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("University of Otago")));
         graph.add(new TripleImpl(uri, TYPE, OntologicalClasses.DBPEDIA_ORGANISATION));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
         
         uri = new IRI("urn:test:University");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("University")));
         graph.add(new TripleImpl(uri, TYPE, new IRI(NamespaceEnum.skos+"Concept")));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
 
         uri = new IRI("urn:test:Otago");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("Otago")));
         graph.add(new TripleImpl(uri, TYPE, OntologicalClasses.DBPEDIA_PLACE));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
         //add a 2nd Otago (Place and University
         uri = new IRI("urn:test:Otago_Texas");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("Otago (Texas)")));
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("Otago")));
         graph.add(new TripleImpl(uri, TYPE, OntologicalClasses.DBPEDIA_PLACE));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
 
         uri = new IRI("urn:test:UniversityOfOtago_Texas");
         graph.add(new TripleImpl(uri, NAME, new PlainLiteralImpl("University of Otago (Texas)")));
         graph.add(new TripleImpl(uri, TYPE, OntologicalClasses.DBPEDIA_ORGANISATION));
-        searcher.addEntity(new Entity(uri, graph));
+        ENTITIES.add(new Entity(uri, graph));
+        searcher = initSearcher(new TestSearcherImpl(TEST_REFERENCED_SITE_NAME,NAME,new SimpleLabelTokenizer()));
+        batchSearcher = initSearcher(new TestBatchSearcherImpl(TEST_REFERENCED_SITE_NAME,NAME,new SimpleLabelTokenizer()));
         
         TEST_ANALYSED_TEXT = AnalysedTextFactory.getDefaultInstance().createAnalysedText(
             ciFactory.createBlob(new StringSource(TEST_TEXT)));
@@ -189,6 +199,22 @@ public class EntityLinkingEngineTest {
         TEST_ANALYSED_TEXT_WO.addToken(13, 20).addAnnotation(POS_ANNOTATION, Value.value(new PosTag("NP",Pos.ProperNoun),1d));
     }
 
+    private static <T extends TestSearcherImpl> T initSearcher(T searcher){
+        for(Entity entity : ENTITIES){
+            searcher.addEntity(entity);
+        }
+        return searcher;
+    }
+
+    /**
+     * The searchers used by the tests. The EntityLinker uses batch lookups
+     * only for searchers that implement {@link BatchEntitySearcher}. Results
+     * MUST BE the same for both.
+     */
+    private static List<EntitySearcher> getSearchers(){
+        return Arrays.asList(searcher, batchSearcher);
+    }
+
     /**
      * @param nounPhrase
      */
@@ -270,19 +296,21 @@ public class EntityLinkingEngineTest {
         EntityLinkerConfig config = new EntityLinkerConfig();
         config.setMinFoundTokens(2);//this is assumed by this test
         config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
-        EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
-            tpc, searcher, config, labelTokenizer);
-        linker.process();
-        Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
-        expectedResults.put("Patrick Marshall", new ArrayList<String>(
-                Arrays.asList("urn:test:PatrickMarshall")));
-        expectedResults.put("geologist", new ArrayList<String>(
-                Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
-        expectedResults.put("New Zealand", new ArrayList<String>(
-                Arrays.asList("urn:test:NewZealand")));
-        expectedResults.put("University of Otago", new ArrayList<String>(
-                Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
-        validateEntityLinkerResults(linker, expectedResults);
+        for(EntitySearcher searcher : getSearchers()){
+            EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+                tpc, searcher, config, labelTokenizer);
+            linker.process();
+            Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
+            expectedResults.put("Patrick Marshall", new ArrayList<String>(
+                    Arrays.asList("urn:test:PatrickMarshall")));
+            expectedResults.put("geologist", new ArrayList<String>(
+                    Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
+            expectedResults.put("New Zealand", new ArrayList<String>(
+                    Arrays.asList("urn:test:NewZealand")));
+            expectedResults.put("University of Otago", new ArrayList<String>(
+                    Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
+            validateEntityLinkerResults(linker, expectedResults);
+        }
     }
     /**
      * This tests the EntityLinker functionality (if the expected Entities
@@ -299,19 +327,21 @@ public class EntityLinkingEngineTest {
         EntityLinkerConfig config = new EntityLinkerConfig();
         config.setMinFoundTokens(2);//this is assumed by this test
         config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
-        EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT_WO,"en",
-            tpc, searcher, config, labelTokenizer);
-        linker.process();
-        Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
-        expectedResults.put("Marshall Patrick", new ArrayList<String>(
-                Arrays.asList("urn:test:PatrickMarshall")));
-        expectedResults.put("geologist", new ArrayList<String>(
-                Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
-        expectedResults.put("New Zealand", new ArrayList<String>(
-                Arrays.asList("urn:test:NewZealand")));
-        expectedResults.put("University of Otago", new ArrayList<String>(
-                Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
-        validateEntityLinkerResults(linker, expectedResults);
+        for(EntitySearcher searcher : getSearchers()){
+            EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT_WO,"en",
+                tpc, searcher, config, labelTokenizer);
+            linker.process();
+            Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
+            expectedResults.put("Marshall Patrick", new ArrayList<String>(
+                    Arrays.asList("urn:test:PatrickMarshall")));
+            expectedResults.put("geologist", new ArrayList<String>(
+                    Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
+            expectedResults.put("New Zealand", new ArrayList<String>(
+                    Arrays.asList("urn:test:NewZealand")));
+            expectedResults.put("University of Otago", new ArrayList<String>(
+                    Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
+            validateEntityLinkerResults(linker, expectedResults);
+        }
     }
     /**
      * This tests the EntityLinker functionality (if the expected Entities
@@ -327,15 +357,64 @@ public class EntityLinkingEngineTest {
         EntityLinkerConfig config = new EntityLinkerConfig();
         config.setMinFoundTokens(2);//this is assumed by this test
         config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+        for(EntitySearcher searcher : getSearchers()){
+            EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+                tpc, searcher, config, labelTokenizer);
+            linker.process();
+            Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
+            expectedResults.put("Patrick Marshall", new ArrayList<String>(
+                    Arrays.asList("urn:test:PatrickMarshall")));
+            //Geologist is a common noun and MUST NOT be found
+            //expectedResults.put("geologist", new ArrayList<String>(
+            //        Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
+            expectedResults.put("New Zealand", new ArrayList<String>(
+                    Arrays.asList("urn:test:NewZealand")));
+            expectedResults.put("University of Otago", new ArrayList<String>(
+                    Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
+            validateEntityLinkerResults(linker, expectedResults);
+        }
+    }
+    /**
+     * Tests that searches prefetched by batch lookups are used and that
+     * searches with results in the shared {@link EntityLookupCache} are
+     * not prefetched. Checking the shared cache while collecting the
+     * searches MUST NOT count cache misses.
+     * @throws Exception
+     */
+    @Test
+    public void testPrefetchWithSharedCache() throws Exception {
+        LanguageProcessingConfig tpc = new LanguageProcessingConfig();
+        tpc.setLinkedLexicalCategories(LanguageProcessingConfig.DEFAULT_LINKED_LEXICAL_CATEGORIES);
+        tpc.setLinkedPos(Collections.EMPTY_SET);
+        EntityLinkerConfig config = new EntityLinkerConfig();
+        config.setMinFoundTokens(2);//this is assumed by this test
+        config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+        TestBatchSearcherImpl searcher = initSearcher(new TestBatchSearcherImpl(
+            TEST_REFERENCED_SITE_NAME,NAME,new SimpleLabelTokenizer()));
+        EntityLookupCache sharedCache = new EntityLookupCache(1000);
         EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
-            tpc, searcher, config, labelTokenizer);
+            tpc, searcher, config, labelTokenizer, null, sharedCache);
+        linker.process();
+        int batchLookups = searcher.getBatchLookups();
+        assertTrue("No batch lookup performed", batchLookups > 0);
+        int searches = searcher.getSearches().size();
+        //every search misses the shared cache at most once
+        long misses = sharedCache.getLookupMisses();
+        assertTrue("Shared cache misses ("+misses+") > number of searches ("+searches+")",
+            misses <= searches);
+        //a 2nd document with the same text is served by the shared cache
+        linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+            tpc, searcher, config, labelTokenizer, null, sharedCache);
         linker.process();
+        assertEquals("No search expected for cached results", batchLookups, searcher.getBatchLookups());
+        assertEquals(searches, searcher.getSearches().size());
+        assertEquals(misses, sharedCache.getLookupMisses());
+        assertTrue(sharedCache.getLookupHits() > 0);
         Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
         expectedResults.put("Patrick Marshall", new ArrayList<String>(
                 Arrays.asList("urn:test:PatrickMarshall")));
-        //Geologist is a common noun and MUST NOT be found
-        //expectedResults.put("geologist", new ArrayList<String>(
-        //        Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
+        expectedResults.put("geologist", new ArrayList<String>(
+                Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
         expectedResults.put("New Zealand", new ArrayList<String>(
                 Arrays.asList("urn:test:NewZealand")));
         expectedResults.put("University of Otago", new ArrayList<String>(
@@ -385,29 +464,31 @@ public class EntityLinkingEngineTest {
         EntityLinkerConfig linkerConfig = new EntityLinkerConfig();
         linkerConfig.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
         linkerConfig.setMinFoundTokens(2);//this is assumed by this test
-        EntityLinkingEngine engine = new EntityLinkingEngine("dummy",
-            searcher, new TextProcessingConfig(), 
-            linkerConfig, labelTokenizer);
-        ContentItem ci = ciFactory.createContentItem(new StringSource(TEST_TEXT));
-        //tells the engine that this is an English text
-        ci.getMetadata().add(new TripleImpl(ci.getUri(), DC_LANGUAGE, new PlainLiteralImpl("en")));
-        //and add the AnalysedText instance used for this test
-        ci.addPart(AnalysedText.ANALYSED_TEXT_URI, TEST_ANALYSED_TEXT);
-        //compute the enhancements
-        engine.computeEnhancements(ci);
-        //validate the enhancement results
-        Map<IRI,RDFTerm> expectedValues = new HashMap<IRI,RDFTerm>();
-        expectedValues.put(ENHANCER_EXTRACTED_FROM, ci.getUri());
-        expectedValues.put(DC_CREATOR,LiteralFactory.getInstance().createTypedLiteral(
-            engine.getClass().getName()));
-        //adding null as expected for confidence makes it a required property
-        expectedValues.put(Properties.ENHANCER_CONFIDENCE, null);
-        //validate create fise:TextAnnotations
-        int numTextAnnotations = validateAllTextAnnotations(ci.getMetadata(), TEST_TEXT, expectedValues);
-        assertEquals("Four fise:TextAnnotations are expected by this Test", 4, numTextAnnotations);
-        //validate create fise:EntityAnnotations
-        int numEntityAnnotations = validateAllEntityAnnotations(ci, expectedValues);
-        assertEquals("Five fise:EntityAnnotations are expected by this Test", 5, numEntityAnnotations);
+        for(EntitySearcher searcher : getSearchers()){
+            EntityLinkingEngine engine = new EntityLinkingEngine("dummy",
+                searcher, new TextProcessingConfig(), 
+                linkerConfig, labelTokenizer);
+            ContentItem ci = ciFactory.createContentItem(new StringSource(TEST_TEXT));
+            //tells the engine that this is an English text
+            ci.getMetadata().add(new TripleImpl(ci.getUri(), DC_LANGUAGE, new PlainLiteralImpl("en")));
+            //and add the AnalysedText instance used for this test
+            ci.addPart(AnalysedText.ANALYSED_TEXT_URI, TEST_ANALYSED_TEXT);
+            //compute the enhancements
+            engine.computeEnhancements(ci);
+            //validate the enhancement results
+            Map<IRI,RDFTerm> expectedValues = new HashMap<IRI,RDFTerm>();
+            expectedValues.put(ENHANCER_EXTRACTED_FROM, ci.getUri());
+            expectedValues.put(DC_CREATOR,LiteralFactory.getInstance().createTypedLiteral(
+                engine.getClass().getName()));
+            //adding null as expected for confidence makes it a required property
+            expectedValues.put(Properties.ENHANCER_CONFIDENCE, null);
+            //validate create fise:TextAnnotations
+            int numTextAnnotations = validateAllTextAnnotations(ci.getMetadata(), TEST_TEXT, expectedValues);
+            assertEquals("Four fise:TextAnnotations are expected by this Test", 4, numTextAnnotations);
+            //validate create fise:EntityAnnotations
+            int numEntityAnnotations = validateAllEntityAnnotations(ci, expectedValues);
+            assertEquals("Five fise:EntityAnnotations are expected by this Test", 5, numEntityAnnotations);
+        }
     }
     /**
      * Similar to {@link EnhancementStructureHelper#validateAllEntityAnnotations(org.apache.clerezza.commons.rdf.Graph, Map)}
@@ -0,0 +1,233 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.junit.Test;
+
+public class EntityLookupCacheTest {
+
+    private static final IRI NAME = new IRI("http://www.w3.org/2000/01/rdf-schema#label");
+    private static final Set<IRI> FIELDS = Collections.singleton(NAME);
+    private static final Entity ENTITY = new Entity(new IRI("urn:test:obama"), new IndexedGraph());
+
+    @Test
+    public void testLookup(){
+        EntityLookupCache cache = new EntityLookupCache(10);
+        List<String> search = Arrays.asList("Barack","Obama");
+        assertNull(cache.getLookup(NAME, FIELDS, search, new String[]{"en",null}));
+        cache.putLookup(NAME, FIELDS, search, new String[]{"en",null},
+            Collections.singleton(ENTITY), cache.getVersion());
+        //the order of languages is ignored
+        List<Entity> results = cache.getLookup(NAME, FIELDS, search, new String[]{null,"en"});
+        assertNotNull(results);
+        assertEquals(1, results.size());
+        assertSame(ENTITY, results.get(0));
+        //other languages, fields or search tokens are not cached
+        assertNull(cache.getLookup(NAME, FIELDS, search, new String[]{"de",null}));
+        assertNull(cache.getLookup(NAME, null, search, new String[]{"en",null}));
+        assertNull(cache.getLookup(NAME, FIELDS, Arrays.asList("Obama"), new String[]{"en",null}));
+        assertEquals(1, cache.getLookupHits());
+        assertEquals(4, cache.getLookupMisses());
+    }
+
+    @Test
+    public void testEntity(){
+        EntityLookupCache cache = new EntityLookupCache(10);
+        assertNull(cache.getEntity(ENTITY.getUri(), FIELDS, "en"));
+        cache.putEntity(ENTITY.getUri(), FIELDS, ENTITY, cache.getVersion(), "en");
+        assertSame(ENTITY, cache.getEntity(ENTITY.getUri(), FIELDS, "en"));
+        //entities and lookups do not interfere
+        assertNull(cache.getLookup(ENTITY.getUri(), FIELDS, null, new String[]{"en"}));
+        assertEquals(1, cache.getEntityHits());
+        assertEquals(1, cache.getEntityMisses());
+    }
+
+    @Test
+    public void testEviction(){
+        EntityLookupCache cache = new EntityLookupCache(2);
+        String[] languages = new String[]{"en"};
+        long version = cache.getVersion();
+        cache.putLookup(NAME, FIELDS, Arrays.asList("a"), languages, Collections.<Entity>emptyList(), version);
+        cache.putLookup(NAME, FIELDS, Arrays.asList("b"), languages, Collections.<Entity>emptyList(), version);
+        //access "a" so that "b" is the least recently used entry
+        assertNotNull(cache.getLookup(NAME, FIELDS, Arrays.asList("a"), languages));
+        cache.putLookup(NAME, FIELDS, Arrays.asList("c"), languages, Collections.<Entity>emptyList(), version);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.getLookup(NAME, FIELDS, Arrays.asList("a"), languages));
+        assertNull(cache.getLookup(NAME, FIELDS, Arrays.asList("b"), languages));
+        assertNotNull(cache.getLookup(NAME, FIELDS, Arrays.asList("c"), languages));
+    }
+
+    @Test
+    public void testInvalidate(){
+        EntityLookupCache cache = new EntityLookupCache(10);
+        String[] languages = new String[]{"en"};
+        List<String> search = Arrays.asList("Obama");
+        long version = cache.getVersion();
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), version);
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertNull(cache.getLookup(NAME, FIELDS, search, languages));
+        //results of requests started before the invalidation are ignored
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), version);
+        cache.putEntity(ENTITY.getUri(), FIELDS, ENTITY, version, "en");
+        assertEquals(0, cache.size());
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), cache.getVersion());
+        assertNotNull(cache.getLookup(NAME, FIELDS, search, languages));
+    }
+
+    @Test
+    public void testContainsLookup(){
+        EntityLookupCache cache = new EntityLookupCache(10);
+        String[] languages = new String[]{"en"};
+        List<String> search = Arrays.asList("Obama");
+        assertFalse(cache.containsLookup(NAME, FIELDS, search, languages));
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), cache.getVersion());
+        assertTrue(cache.containsLookup(NAME, FIELDS, search, languages));
+        //checking for cached results does not count as hit or miss
+        assertEquals(0, cache.getLookupHits());
+        assertEquals(0, cache.getLookupMisses());
+    }
+
+    @Test
+    public void testExpiration(){
+        final AtomicLong time = new AtomicLong(1000);
+        EntityLookupCache cache = new EntityLookupCache(10, 100){
+            @Override
+            long currentTime() {
+                return time.get();
+            }
+        };
+        String[] languages = new String[]{"en"};
+        List<String> search = Arrays.asList("Obama");
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), cache.getVersion());
+        cache.putEntity(ENTITY.getUri(), FIELDS, ENTITY, cache.getVersion(), "en");
+        time.set(1099);
+        assertNotNull(cache.getLookup(NAME, FIELDS, search, languages));
+        assertSame(ENTITY, cache.getEntity(ENTITY.getUri(), FIELDS, "en"));
+        time.set(1100);
+        assertFalse(cache.containsLookup(NAME, FIELDS, search, languages));
+        assertNull(cache.getLookup(NAME, FIELDS, search, languages));
+        assertNull(cache.getEntity(ENTITY.getUri(), FIELDS, "en"));
+        //expired entries are removed
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getExpirations());
+        //re-added entries are valid for the time to live
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), cache.getVersion());
+        time.set(1199);
+        assertNotNull(cache.getLookup(NAME, FIELDS, search, languages));
+    }
+
+    @Test
+    public void testNoExpiration(){
+        final AtomicLong time = new AtomicLong(0);
+        EntityLookupCache cache = new EntityLookupCache(10, 0){
+            @Override
+            long currentTime() {
+                return time.get();
+            }
+        };
+        String[] languages = new String[]{"en"};
+        List<String> search = Arrays.asList("Obama");
+        cache.putLookup(NAME, FIELDS, search, languages, Collections.singleton(ENTITY), cache.getVersion());
+        time.set(Long.MAX_VALUE - 1);
+        assertNotNull(cache.getLookup(NAME, FIELDS, search, languages));
+        assertEquals(0, cache.getTtl());
+    }
+
+    /**
+     * Big caches are split in several segments. The maximum size MUST still
+     * be respected.
+     */
+    @Test
+    public void testSegmentedEviction(){
+        int size = EntityLookupCache.MAX_SEGMENTS * EntityLookupCache.MIN_SEGMENT_SIZE * 2 + 3;
+        EntityLookupCache cache = new EntityLookupCache(size);
+        String[] languages = new String[]{"en"};
+        long version = cache.getVersion();
+        for(int i = 0; i < size * 3; i++){
+            cache.putLookup(NAME, FIELDS, Arrays.asList("token"+i), languages, 
+                Collections.<Entity>emptyList(), version);
+            assertTrue(cache.size() <= size);
+        }
+        //the most recently added entry is always cached
+        assertNotNull(cache.getLookup(NAME, FIELDS, Arrays.asList("token"+(size * 3 - 1)), languages));
+        //most of the added entries need to be cached
+        assertTrue(cache.size() > size * 3 / 4);
+        cache.invalidate();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final EntityLookupCache cache = new EntityLookupCache(
+            EntityLookupCache.MAX_SEGMENTS * EntityLookupCache.MIN_SEGMENT_SIZE);
+        final String[] languages = new String[]{"en"};
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for(int t = 0; t < futures.length; t++){
+                futures[t] = executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for(int i = 0; i < 10000; i++){
+                            List<String> search = Arrays.asList("token"+(i % 2000));
+                            List<Entity> results = cache.getLookup(NAME, FIELDS, search, languages);
+                            if(results == null){
+                                cache.putLookup(NAME, FIELDS, search, languages,
+                                    Collections.singleton(ENTITY), cache.getVersion());
+                            } else {
+                                assertSame(ENTITY, results.get(0));
+                            }
+                        }
+                    }
+                });
+            }
+            for(Future<?> future : futures){
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= cache.getMaxSize());
+        assertEquals(4 * 10000, cache.getLookupHits() + cache.getLookupMisses());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidSize(){
+        new EntityLookupCache(0);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.LabelTokenizer;
+
+/**
+ * {@link TestSearcherImpl} that also supports {@link BatchEntitySearcher
+ * batch lookups}. Counts the batch lookups and keeps track of all searches
+ * so that tests can validate how the EntityLinker uses the searcher.
+ */
+public class TestBatchSearcherImpl extends TestSearcherImpl implements BatchEntitySearcher {
+
+    private final AtomicInteger batchLookups = new AtomicInteger();
+    private final Set<List<String>> searches = Collections.synchronizedSet(new HashSet<List<String>>());
+
+    public TestBatchSearcherImpl(String siteId, IRI nameField, LabelTokenizer tokenizer) {
+        super(siteId, nameField, tokenizer);
+    }
+
+    @Override
+    public Collection<? extends Entity> lookup(IRI field,
+                                           Set<IRI> includeFields,
+                                           List<String> search,
+                                           String[] languages,Integer numResults, Integer offset) throws IllegalStateException {
+        searches.add(search);
+        return super.lookup(field, includeFields, search, languages, numResults, offset);
+    }
+
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(IRI field,
+                                           Set<IRI> includeFields,
+                                           Map<List<String>,Integer> searches,
+                                           String[] languages) throws IllegalStateException {
+        batchLookups.incrementAndGet();
+        Map<List<String>,Collection<? extends Entity>> results =
+                new HashMap<List<String>,Collection<? extends Entity>>();
+        for(Entry<List<String>,Integer> search : searches.entrySet()){
+            results.put(search.getKey(), lookup(field, includeFields, search.getKey(),
+                languages, search.getValue(), null));
+        }
+        return results;
+    }
+    /**
+     * The number of calls to {@link #lookup(IRI, Set, Map, String[])}
+     */
+    public int getBatchLookups() {
+        return batchLookups.get();
+    }
+    /**
+     * The distinct searches performed by single and batch lookups
+     */
+    public Set<List<String>> getSearches() {
+        return searches;
+    }
+}
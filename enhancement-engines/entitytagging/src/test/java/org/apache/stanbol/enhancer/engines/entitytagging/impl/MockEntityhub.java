@@ -18,6 +18,7 @@ package org.apache.stanbol.enhancer.engines.entitytagging.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 
 import org.apache.solr.client.solrj.SolrServer;
@@ -120,6 +121,12 @@ class MockEntityhub implements Entityhub {
         return null;
     }
 
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> entityIds, Set<String> fields) throws IllegalArgumentException,
+                                                                                       EntityhubException {
+        return Collections.emptyMap();
+    }
+
     @Override
     public Entity importEntity(String reference) throws IllegalStateException,
                                                 IllegalArgumentException,
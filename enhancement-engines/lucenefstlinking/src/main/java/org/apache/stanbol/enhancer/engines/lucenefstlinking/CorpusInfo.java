@@ -40,7 +40,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Holds the information required for Lucene FST based tagging in a specific
- * language by using a given field.
+ * language by using a given field. Corpora are loaded by using the
+ * {@link FstCorpusRegistry} so that engines using the same FST file share
+ * a single instance.
  * @author Rupert Westenthaler
  *
  */
@@ -191,6 +193,8 @@ public class CorpusInfo {
                                 }
                             }
                             corpus.save(fst);
+                            //share the new corpus with other engines
+                            FstCorpusRegistry.getInstance().register(fst, corpus);
                             return null; //not used
                         }
                     });
@@ -211,7 +215,7 @@ public class CorpusInfo {
                             taggerCorpusRef = new SoftReference<TaggerFstCorpus>(corpus);
                         }
                     } finally {
-                        corpusLock.writeLock().lock();
+                        corpusLock.writeLock().unlock();
                     }
                 } else { //Runtime exception
                     throw RuntimeException.class.cast(e);
@@ -238,6 +242,20 @@ public class CorpusInfo {
         } finally {
             corpusLock.readLock().unlock();
         }
+        if(corpus != null){
+            //an other engine using the same FST file might have built a newer one
+            TaggerFstCorpus shared = FstCorpusRegistry.getInstance().get(fst);
+            if(shared != null && shared.getIndexVersion() > corpus.getIndexVersion()){
+                log.debug(" ... use shared FST corpus for {}", fst);
+                corpusLock.writeLock().lock();
+                try {
+                    taggerCorpusRef = new SoftReference<TaggerFstCorpus>(shared);
+                } finally {
+                    corpusLock.writeLock().unlock();
+                }
+                corpus = shared;
+            }
+        }
         if(corpus == null) {
             log.info(" ... load FST corpus {}",fst);
             corpusLock.writeLock().lock();
@@ -249,7 +267,8 @@ public class CorpusInfo {
                             if(fst.exists() && //if the file exists AND the file was not yet failing to load 
                                     //OR the file is newer as the last version failing to load
                                     (!fstFileError || FileUtils.isFileNewer(fst, fstDate))){
-                                TaggerFstCorpus corpus = TaggerFstCorpus.load(fst);
+                                //use the registry to share corpora with other engines
+                                TaggerFstCorpus corpus = FstCorpusRegistry.getInstance().load(fst);
                                 if(corpus != null){
                                     //I need to set fstDate here, because I can not
                                     //access lastModified() outside doPrivileged
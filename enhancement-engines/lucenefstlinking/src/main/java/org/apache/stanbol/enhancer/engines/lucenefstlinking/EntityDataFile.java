@@ -0,0 +1,276 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Memory mapped, columnar side-car file with the stored values of the fields
+ * needed to create {@link Match}es. It allows to look up the values of an
+ * entity by its Lucene document id without loading (and decompressing) the
+ * stored Lucene Document.<p>
+ * The file is created by the Entityhub indexing tool (see the
+ * <code>fstEntityData</code> option of the SolrYardIndexingDestination) in
+ * the FST directory. As Lucene document ids change with every change of the
+ * index the file is only valid for the {@link #getIndexVersion() index version}
+ * it was created for.<p>
+ * File format (all numbers are big endian):<pre>
+ *   int   magic ({@link #MAGIC})
+ *   int   format version ({@link #FORMAT_VERSION})
+ *   long  index version
+ *   int   maxDoc
+ *   int   number of fields
+ *   UTF   field name (as written by DataOutput#writeUTF) for every field
+ *   long  position of the column for every field
+ * </pre>
+ * Every column starts with <code>maxDoc + 1</code> longs with the absolute
+ * positions of the values of a document. The values of document <code>i</code>
+ * are located between the positions <code>i</code> and <code>i + 1</code>.
+ * Every value is encoded as an <code>int</code> length followed by the UTF-8
+ * encoded bytes.<p>
+ * The mapped file is released by the garbage collector as soon as no
+ * {@link TaggingSession} does use it any more.<p>
+ * Instances are thread safe.
+ */
+public class EntityDataFile {
+
+    /**
+     * The name of the file within the FST directory
+     */
+    public static final String FILE_NAME = "entity-data.dat";
+
+    public static final int MAGIC = 0x53454446; //SEDF
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final String[] NO_VALUES = new String[]{};
+    /**
+     * Files are mapped in chunks of 1GByte (as a single MappedByteBuffer can
+     * not exceed 2GByte)
+     */
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    private final File file;
+    private final long indexVersion;
+    private final int maxDoc;
+    private final Map<String,Long> columns;
+    private final MappedByteBuffer[] chunks;
+    private final long length;
+
+    private EntityDataFile(File file, long indexVersion, int maxDoc,
+            Map<String,Long> columns) throws IOException {
+        this.file = file;
+        this.indexVersion = indexVersion;
+        this.maxDoc = maxDoc;
+        this.columns = Collections.unmodifiableMap(columns);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            length = channel.size();
+            chunks = new MappedByteBuffer[(int)((length + CHUNK_SIZE - 1) >>> CHUNK_BITS)];
+            for(int i = 0; i < chunks.length; i++){
+                long start = i * CHUNK_SIZE;
+                chunks[i] = channel.map(MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, length - start));
+            }
+        } finally { //mapped buffers stay valid after closing the channel
+            IOUtils.closeQuietly(raf);
+        }
+    }
+    /**
+     * Opens the parsed entity data file
+     * @param file the file
+     * @return the opened file
+     * @throws IOException if the file can not be read or is not a valid
+     * entity data file
+     */
+    public static EntityDataFile open(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            if(in.readInt() != MAGIC){
+                throw new IOException("The file "+file+" is not an entity data file!");
+            }
+            int version = in.readInt();
+            if(version != FORMAT_VERSION){
+                throw new IOException("Unsupported format version "+version
+                    + " of the entity data file "+file+" (supported: "
+                    + FORMAT_VERSION + ")!");
+            }
+            long indexVersion = in.readLong();
+            int maxDoc = in.readInt();
+            int numFields = in.readInt();
+            String[] fields = new String[numFields];
+            for(int i = 0; i < numFields; i++){
+                fields[i] = in.readUTF();
+            }
+            Map<String,Long> columns = new HashMap<String,Long>();
+            for(int i = 0; i < numFields; i++){
+                columns.put(fields[i], in.readLong());
+            }
+            return new EntityDataFile(file, indexVersion, maxDoc, columns);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+    /**
+     * The version of the Solr index this file was created for
+     * @return the index version
+     */
+    public long getIndexVersion() {
+        return indexVersion;
+    }
+
+    public int getMaxDoc() {
+        return maxDoc;
+    }
+    /**
+     * The Solr fields with values in this file
+     * @return the fields
+     */
+    public Set<String> getFields() {
+        return columns.keySet();
+    }
+    /**
+     * Checks if this file contains values for all the parsed fields
+     * @param fields the fields. <code>null</code> elements are ignored
+     * @return <code>true</code> if values for all fields are present
+     */
+    public boolean hasFields(String...fields){
+        for(String field : fields){
+            if(field != null && !columns.containsKey(field)){
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Getter for the values of a field for a document
+     * @param field the field
+     * @param docId the Lucene document id
+     * @return the values. An empty array if the document has no values for
+     * the parsed field or if the field is not present in this file
+     * @throws IndexOutOfBoundsException if the parsed docId is outside of
+     * [0..maxDoc)
+     */
+    public String[] getValues(String field, int docId) {
+        if(docId < 0 || docId >= maxDoc){
+            throw new IndexOutOfBoundsException("docId "+docId+" is not within [0.."+maxDoc+")");
+        }
+        Long column = columns.get(field);
+        if(column == null){
+            return NO_VALUES;
+        }
+        long offsetPos = column.longValue() + ((long)docId << 3);
+        long pos = readLong(offsetPos);
+        long end = readLong(offsetPos + 8);
+        if(pos == end){
+            return NO_VALUES;
+        }
+        String[] values = new String[4];
+        int size = 0;
+        while(pos < end){
+            int len = readInt(pos);
+            pos = pos + 4;
+            byte[] data = new byte[len];
+            read(pos, data);
+            pos = pos + len;
+            if(size == values.length){
+                String[] tmp = new String[size * 2];
+                System.arraycopy(values, 0, tmp, 0, size);
+                values = tmp;
+            }
+            values[size++] = new String(data, UTF8);
+        }
+        if(size == values.length){
+            return values;
+        } else {
+            String[] tmp = new String[size];
+            System.arraycopy(values, 0, tmp, 0, size);
+            return tmp;
+        }
+    }
+
+    private long readLong(long pos) {
+        int chunk = (int)(pos >>> CHUNK_BITS);
+        int offset = (int)(pos & (CHUNK_SIZE - 1));
+        if(offset + 8 <= chunks[chunk].limit()){
+            return chunks[chunk].getLong(offset);
+        } else { //spans two chunks
+            long value = 0;
+            for(int i = 0; i < 8; i++){
+                value = (value << 8) | (readByte(pos + i) & 0xFF);
+            }
+            return value;
+        }
+    }
+
+    private int readInt(long pos) {
+        int chunk = (int)(pos >>> CHUNK_BITS);
+        int offset = (int)(pos & (CHUNK_SIZE - 1));
+        if(offset + 4 <= chunks[chunk].limit()){
+            return chunks[chunk].getInt(offset);
+        } else { //spans two chunks
+            int value = 0;
+            for(int i = 0; i < 4; i++){
+                value = (value << 8) | (readByte(pos + i) & 0xFF);
+            }
+            return value;
+        }
+    }
+
+    private byte readByte(long pos){
+        return chunks[(int)(pos >>> CHUNK_BITS)].get((int)(pos & (CHUNK_SIZE - 1)));
+    }
+
+    private void read(long pos, byte[] data) {
+        int read = 0;
+        while(read < data.length){
+            long p = pos + read;
+            //NOTE: duplicate to get an own position (thread safety)
+            ByteBuffer buffer = chunks[(int)(p >>> CHUNK_BITS)].duplicate();
+            buffer.position((int)(p & (CHUNK_SIZE - 1)));
+            int len = Math.min(data.length - read, buffer.remaining());
+            buffer.get(data, read, len);
+            read = read + len;
+        }
+    }
+    @Override
+    public String toString() {
+        return new StringBuilder("EntityDataFile[file: ").append(file.getName())
+            .append(" | indexVersion: ").append(indexVersion)
+            .append(" | maxDoc: ").append(maxDoc)
+            .append(" | fields: ").append(columns.keySet())
+            .append(" | size: ").append(length).append(']').toString();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.opensextant.solrtexttagger.TaggerFstCorpus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process wide registry of loaded {@link TaggerFstCorpus} instances. Several
+ * FstLinkingEngine configurations (e.g. using different linking modes) for
+ * the same Solr index use the same FST files. This registry ensures that
+ * such engines share a single in-memory instance of a corpus instead of
+ * each loading an own copy.<p>
+ * Corpora are registered by their FST file. As the name of this file is
+ * based on the SolrCore, the field and the language this is the same as
+ * using those as key. {@link #load(File)} only returns a registered corpus
+ * if the FST file was not modified since (e.g. because the corpus was rebuilt
+ * for a new version of the index). Corpora are referenced by {@link SoftReference}s so
+ * the registry does not prevent the GC from freeing unused corpora. Entries
+ * of corpora freed by the GC are purged on the next access of the registry.
+ * Registering a corpus for a newer version of a FST file replaces the
+ * corpus of the older version.<p>
+ * Instances are thread safe. A corpus is loaded only once even if several
+ * engines request it concurrently.
+ */
+public final class FstCorpusRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(FstCorpusRegistry.class);
+
+    private static final FstCorpusRegistry INSTANCE = new FstCorpusRegistry();
+
+    private final Map<String,Entry> entries = new HashMap<String,Entry>();
+    /**
+     * Receives the {@link CorpusReference}s cleared by the GC
+     */
+    private final ReferenceQueue<TaggerFstCorpus> cleared = new ReferenceQueue<TaggerFstCorpus>();
+
+    /**
+     * Package private to allow unit tests to use their own instance.
+     * Use {@link #getInstance()} otherwise.
+     */
+    FstCorpusRegistry() {}
+
+    /**
+     * Getter for the registry instance
+     * @return the registry
+     */
+    public static FstCorpusRegistry getInstance() {
+        return INSTANCE;
+    }
+    /**
+     * Getter for the corpus last registered for the parsed FST file. Unlike
+     * {@link #load(File)} this does not access the file (and therefore does
+     * not check if it was modified since the corpus was registered).
+     * @param fst the FST file
+     * @return the corpus or <code>null</code> if not registered or already
+     * garbage collected
+     */
+    public TaggerFstCorpus get(File fst) {
+        Entry entry = getEntry(fst, false);
+        if(entry == null){
+            return null;
+        }
+        synchronized (entry) {
+            return entry.corpusRef == null ? null : entry.corpusRef.get();
+        }
+    }
+    /**
+     * Returns the registered corpus for the parsed FST file or loads (and
+     * registers) the corpus if not yet available.
+     * @param fst the FST file
+     * @return the corpus or <code>null</code> if the FST file does not
+     * contain a corpus
+     * @throws IOException on any error while loading the corpus
+     */
+    public TaggerFstCorpus load(File fst) throws IOException {
+        Entry entry = getEntry(fst, true);
+        synchronized (entry) { //load a file only once
+            long modified = fst.lastModified();
+            TaggerFstCorpus corpus = entry.get(modified);
+            if(corpus != null){
+                log.debug(" ... use shared FST corpus for {}", fst);
+                return corpus;
+            }
+            corpus = TaggerFstCorpus.load(fst);
+            if(corpus != null){
+                entry.set(corpus, modified, cleared);
+                attach(entry);
+            }
+            return corpus;
+        }
+    }
+    /**
+     * Registers the parsed corpus (e.g. after it was built at runtime and
+     * saved to the parsed FST file)
+     * @param fst the FST file the corpus was saved to
+     * @param corpus the corpus. If <code>null</code> the corpus for the
+     * parsed file is unregistered
+     */
+    public void register(File fst, TaggerFstCorpus corpus) {
+        Entry entry = getEntry(fst, true);
+        synchronized (entry) {
+            entry.set(corpus, fst.lastModified(), cleared);
+            if(corpus != null){
+                attach(entry);
+            } else {
+                detach(entry);
+            }
+        }
+    }
+    /**
+     * The number of FST files with a registered corpus. Entries of corpora
+     * freed by the GC are purged before counting.
+     * @return the number of entries
+     */
+    int size() {
+        synchronized (entries) {
+            purge();
+            return entries.size();
+        }
+    }
+
+    private Entry getEntry(File fst, boolean create) {
+        //NOTE: do not use the canonical path as this would access the file system
+        String key = fst.getAbsolutePath();
+        synchronized (entries) {
+            purge();
+            Entry entry = entries.get(key);
+            if(entry == null && create){
+                entry = new Entry(key);
+                entries.put(key, entry);
+            }
+            return entry;
+        }
+    }
+    /**
+     * Re-adds an entry that was {@link #purge() purged} while a new corpus
+     * was set (e.g. because the GC freed the old corpus while the new one
+     * was loaded). If an other entry was created for the same FST file in
+     * the meantime the registry keeps the other one.
+     */
+    private void attach(Entry entry) {
+        synchronized (entries) {
+            if(!entries.containsKey(entry.key)){
+                entries.put(entry.key, entry);
+            }
+        }
+    }
+    /**
+     * Removes an entry without a corpus from the registry.
+     */
+    private void detach(Entry entry) {
+        synchronized (entries) {
+            if(entries.get(entry.key) == entry && entry.corpusRef == null){
+                entries.remove(entry.key);
+            }
+        }
+    }
+    /**
+     * Removes entries of corpora freed by the GC. MUST BE called while
+     * holding the lock on {@link #entries}.
+     */
+    private void purge() {
+        Reference<? extends TaggerFstCorpus> ref;
+        while((ref = cleared.poll()) != null){
+            String key = ((CorpusReference)ref).key;
+            Entry entry = entries.get(key);
+            //only remove the entry if no new corpus was set in the meantime
+            if(entry != null && entry.corpusRef == ref){
+                log.debug(" ... purge FST corpus for {} freed by the GC", key);
+                entries.remove(key);
+            }
+        }
+    }
+    /**
+     * Getter for the reference to the corpus registered for the parsed FST
+     * file. Intended to be used by unit tests only.
+     */
+    Reference<TaggerFstCorpus> getReference(File fst) {
+        Entry entry = getEntry(fst, false);
+        return entry == null ? null : entry.corpusRef;
+    }
+
+    /**
+     * {@link SoftReference} to a corpus that knows the key of its entry
+     * so that the entry can be purged when the GC frees the corpus.
+     */
+    private static class CorpusReference extends SoftReference<TaggerFstCorpus> {
+
+        private final String key;
+
+        CorpusReference(String key, TaggerFstCorpus corpus, ReferenceQueue<TaggerFstCorpus> queue) {
+            super(corpus, queue);
+            this.key = key;
+        }
+    }
+
+    private static class Entry {
+
+        private final String key;
+        /*
+         * volatile because purge() reads the reference while holding the
+         * lock on the entries map but not the lock on the entry
+         */
+        private volatile Reference<TaggerFstCorpus> corpusRef;
+        private long lastModified;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        TaggerFstCorpus get(long lastModified){
+            if(corpusRef == null || this.lastModified != lastModified){
+                return null;
+            }
+            return corpusRef.get();
+        }
+
+        /**
+         * Sets the corpus. Replaces (and clears the reference to) the corpus
+         * of the previous version of the FST file.
+         */
+        void set(TaggerFstCorpus corpus, long lastModified, ReferenceQueue<TaggerFstCorpus> queue){
+            if(corpusRef != null){
+                corpusRef.clear();
+            }
+            this.corpusRef = corpus == null ? null : new CorpusReference(key, corpus, queue);
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -38,6 +39,7 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.clerezza.commons.rdf.Language;
 import org.apache.clerezza.commons.rdf.Literal;
@@ -51,7 +53,6 @@ import org.apache.commons.io.input.CharSequenceReader;
 import org.apache.commons.lang.StringUtils;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.util.IntsRef;
-import org.apache.lucene.util.OpenBitSet;
 import org.apache.solr.core.SolrCore;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
@@ -86,8 +87,13 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
      * {@link EntityLinkingEngine#DEFAULT_ORDER}
      */
     public static final Integer ENGINE_ORDERING = EntityLinkingEngine.DEFAULT_ORDER;
-    private static final Map<String,Object> SERVICE_PROPERTIES = Collections.unmodifiableMap(Collections
-            .singletonMap(ServiceProperties.ENHANCEMENT_ENGINE_ORDERING, (Object) ENGINE_ORDERING));
+    private static final Map<String,Object> SERVICE_PROPERTIES;
+    static {
+        Map<String,Object> props = new HashMap<String,Object>();
+        props.put(ServiceProperties.ENHANCEMENT_ENGINE_ORDERING, ENGINE_ORDERING);
+        props.put(ServiceProperties.ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
+        SERVICE_PROPERTIES = Collections.unmodifiableMap(props);
+    }
 
     private static final IRI ENHANCER_ENTITY_RANKING = new IRI(NamespaceEnum.fise + "entity-ranking");
 
@@ -296,12 +302,13 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
                 log.trace("[{},{}]: {}", new Object[]{tag.getStart(),tag.getEnd(),tag.getMatches()});
             }
         }
-        ci.getLock().writeLock().lock();
+        Lock writeLock = ContentItemHelper.getMetadataLock(ci).writeLock();
+        writeLock.lock();
         try {
             writeEnhancements(ci,content,tags.values(),language, 
                 elConfig.isWriteEntityRankings());
         } finally {
-            ci.getLock().writeLock().unlock();
+            writeLock.unlock();
         }
         tags.clear(); //help the GC
     }
@@ -505,7 +512,6 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
      */
     private int tag(final String content, final AnalysedText at, final TaggingSession session, 
             final Corpus corpus, final Map<int[],Tag> tags) throws IOException{
-        final OpenBitSet matchDocIdsBS = new OpenBitSet(session.getSearcher().maxDoc());
         TokenStream baseTokenStream = corpus.getTaggingAnalyzer().tokenStream("", 
             new CharSequenceReader(content));
         final TokenStream tokenStream;
@@ -560,7 +566,6 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
                     tag = new Tag(span);
                     tags.put(span, tag);
                 }
-                // below caches, and also flags matchDocIdsBS
                 Set<Match> matches = createMatches(docIdsKey);
                 if(log.isTraceEnabled()){
                     log.trace("  - {} matches", matches.size());
@@ -586,7 +591,6 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
                 Set<Match> matches = new HashSet<Match>(docIds.length);
                 for (int i = docIds.offset; i < docIds.offset + docIds.length; i++) {
                     int docId = docIds.ints[i];
-                    matchDocIdsBS.set(docId);// also, flip docid in bitset
                     matches.add(session.createMatch(docId));// translates here
                 }
                 return matches;
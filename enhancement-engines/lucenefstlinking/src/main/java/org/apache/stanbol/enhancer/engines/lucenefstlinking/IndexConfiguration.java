@@ -121,6 +121,11 @@ public class IndexConfiguration {
     private long indexVersion = -1;
 
     private File fstDirectory;
+    /**
+     * The entity data file for the current {@link #indexVersion} or 
+     * <code>null</code> if not available
+     */
+    private EntityDataFile entityData;
     
     /**
      * The origin is added to <code>fise:TextAnnotation</code> created for
@@ -795,11 +800,54 @@ public class IndexConfiguration {
                                 language, langIndexField, encodedLangIndexField });
                 }
             }
+            //(3) the entity data file for the current index version (if any)
+            entityData = loadEntityData(indexVersion);
         } finally {
             corpusInfoLock.writeLock().unlock();
         }
         return foundCorpus;
     }
+    /**
+     * Loads the {@link EntityDataFile} from the {@link #fstDirectory}
+     * @param indexVersion the current version of the index
+     * @return the entity data file or <code>null</code> if not present or
+     * not created for the parsed index version
+     */
+    private EntityDataFile loadEntityData(long indexVersion) {
+        if(entityData != null && entityData.getIndexVersion() == indexVersion){
+            return entityData; //still valid
+        }
+        File file = new File(fstDirectory, EntityDataFile.FILE_NAME);
+        if(!file.isFile()){
+            return null;
+        }
+        try {
+            EntityDataFile data = EntityDataFile.open(file);
+            if(data.getIndexVersion() == indexVersion){
+                log.info(" ... use {} for SolrCore {}", data, index.getName());
+                return data;
+            } else {
+                log.info(" ... ignore {} because it was created for index version {} "
+                    + "(current: {})", new Object[]{file, data.getIndexVersion(), indexVersion});
+                return null;
+            }
+        } catch (IOException e) {
+            log.warn("Unable to load entity data file "+file+"!", e);
+            return null;
+        }
+    }
+    /**
+     * The {@link EntityDataFile} for the current version of the index.
+     * @return the entity data file or <code>null</code> if not available
+     */
+    public EntityDataFile getEntityData() {
+        corpusInfoLock.readLock().lock();
+        try {
+            return entityData;
+        } finally {
+            corpusInfoLock.readLock().unlock();
+        }
+    }
     
     /**
      * Getter for the default FST file name based on the configured field
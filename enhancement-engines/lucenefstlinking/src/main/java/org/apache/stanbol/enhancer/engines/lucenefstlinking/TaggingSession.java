@@ -122,7 +122,7 @@ public class TaggingSession implements Closeable {
     private int docAppended = 0;
     //private final ValueSourceAccessor uniqueKeyCache;
     //private final Map<Integer,Match> matchPool = new HashMap<Integer,Match>(2048);
-    private final FieldLoaderImpl fieldLoader;
+    private final FieldLoader fieldLoader;
     /**
      * The current version of the SolIndex (as reported by 
      * {@link DirectoryReader#getVersion()}) of the 
@@ -215,7 +215,15 @@ public class TaggingSession implements Closeable {
 //        uniqueKeyCache = null; //no longer used.
 //        uniqueKeyCache = new ValueSourceAccessor(searcher, idSchemaField.getType()
 //            .getValueSource(idSchemaField, null));
-        fieldLoader = new FieldLoaderImpl(searcher.getIndexReader());
+        EntityDataFile entityData = config.getEntityData();
+        if(entityData != null && entityData.getIndexVersion() == indexVersion.longValue() &&
+                entityData.hasFields(idField, labelField, defaultLabelField, 
+                    typeField, redirectField, rankingField)){
+            log.debug("> use {}", entityData);
+            fieldLoader = new EntityDataFieldLoader(entityData);
+        } else {
+            fieldLoader = new FieldLoaderImpl(searcher.getIndexReader());
+        }
 
     }
     /**
@@ -614,6 +622,83 @@ public class TaggingSession implements Closeable {
         }
     }
 
+    /**
+     * {@link FieldLoader} implementation that reads the values from the
+     * columnar {@link EntityDataFile} instead of loading the stored Lucene
+     * Documents.
+     */
+    private class EntityDataFieldLoader implements FieldLoader {
+        
+        private final EntityDataFile data;
+        /**
+         * The values loaded in this session (the same entity typically 
+         * matches several times in a document)
+         */
+        private final Map<Integer,Map<FieldType,Object>> sessionCache = 
+                new HashMap<Integer,Map<FieldType,Object>>();
+        
+        EntityDataFieldLoader(EntityDataFile data){
+            this.data = data;
+        }
+        
+        @Override
+        public Map<FieldType,Object> load(int id) throws IOException {
+            Integer ID = Integer.valueOf(id);
+            Map<FieldType,Object> values = sessionCache.get(ID);
+            if(values != null){
+                return values;
+            }
+            String[] ids;
+            try {
+                ids = data.getValues(idField, id);
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("No document found for Lucene doc id '"+id+"'!", e);
+            }
+            if(ids.length < 1){
+                throw new IOException("No document found for Lucene doc id '"+id+"'!");
+            }
+            values = new EnumMap<Match.FieldType,Object>(FieldType.class);
+            values.put(FieldType.id, ids[0]);
+            Set<Literal> labels = new HashSet<Literal>();
+            if(labelField != null){
+                for(String label : data.getValues(labelField, id)){
+                    labels.add(new PlainLiteralImpl(label, labelLang));
+                }
+            }
+            if(defaultLabelField != null){
+                for(String label : data.getValues(defaultLabelField, id)){
+                    labels.add(new PlainLiteralImpl(label, defaultLabelLang));
+                }
+            }
+            values.put(FieldType.label, labels);
+            if(typeField != null){
+                values.put(FieldType.type, toIRIs(data.getValues(typeField, id)));
+            }
+            if(redirectField != null){
+                values.put(FieldType.redirect, toIRIs(data.getValues(redirectField, id)));
+            }
+            if(rankingField != null){
+                String[] rankings = data.getValues(rankingField, id);
+                if(rankings.length > 0){
+                    try {
+                        values.put(FieldType.ranking, Double.valueOf(rankings[0]));
+                    } catch (NumberFormatException e) {/* ignore */}
+                }
+            }
+            sessionCache.put(ID, values);
+            docLoaded++;
+            return values;
+        }
+        
+        private Set<IRI> toIRIs(String[] values){
+            Set<IRI> iris = new HashSet<IRI>();
+            for(String value : values){
+                iris.add(new IRI(value));
+            }
+            return iris;
+        }
+    }
+
     public class Corpus {
         
         private CorpusInfo corpusInfo;
@@ -0,0 +1,124 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Writes an entity data file in the format documented by
+ * {@link EntityDataFile} and checks that it is read correctly.
+ */
+public class EntityDataFileTest {
+
+    private static final String ID = "id";
+    private static final String LABEL = "@en/rdfs:label/";
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("entity-data", ".dat");
+        //doc 0: id + 2 labels | doc 1: deleted (no values) | doc 2: id only
+        String[][] ids = new String[][]{{"urn:test:a"},{},{"urn:test:c"}};
+        String[][] labels = new String[][]{{"A","Ä label"},{},{}};
+        String[][][] columns = new String[][][]{ids, labels};
+        int maxDoc = ids.length;
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        try {
+            out.writeInt(EntityDataFile.MAGIC);
+            out.writeInt(EntityDataFile.FORMAT_VERSION);
+            out.writeLong(42L);
+            out.writeInt(maxDoc);
+            out.writeInt(2);
+            out.writeUTF(ID);
+            out.writeUTF(LABEL);
+            long pos = out.size() + 2 * 8;
+            long[] columnPos = new long[columns.length];
+            byte[][] data = new byte[columns.length][];
+            for(int i = 0; i < columns.length; i++){
+                columnPos[i] = pos;
+                ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                DataOutputStream values = new DataOutputStream(bout);
+                long base = pos + (maxDoc + 1) * 8;
+                long[] offsets = new long[maxDoc + 1];
+                for(int doc = 0; doc < maxDoc; doc++){
+                    offsets[doc] = base + values.size();
+                    for(String value : columns[i][doc]){
+                        byte[] bytes = value.getBytes("UTF-8");
+                        values.writeInt(bytes.length);
+                        values.write(bytes);
+                    }
+                }
+                offsets[maxDoc] = base + values.size();
+                ByteArrayOutputStream column = new ByteArrayOutputStream();
+                DataOutputStream cout = new DataOutputStream(column);
+                for(long offset : offsets){
+                    cout.writeLong(offset);
+                }
+                cout.write(bout.toByteArray());
+                data[i] = column.toByteArray();
+                pos = pos + data[i].length;
+            }
+            for(long p : columnPos){
+                out.writeLong(p);
+            }
+            for(byte[] column : data){
+                out.write(column);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void deleteFile(){
+        file.delete();
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        EntityDataFile data = EntityDataFile.open(file);
+        assertEquals(42L, data.getIndexVersion());
+        assertEquals(3, data.getMaxDoc());
+        assertTrue(data.hasFields(ID, LABEL, null));
+        assertFalse(data.hasFields(ID, "ref/rdf:type/"));
+        assertArrayEquals(new String[]{"urn:test:a"}, data.getValues(ID, 0));
+        assertArrayEquals(new String[]{"A","Ä label"}, data.getValues(LABEL, 0));
+        assertEquals(0, data.getValues(ID, 1).length);
+        assertArrayEquals(new String[]{"urn:test:c"}, data.getValues(ID, 2));
+        assertEquals(0, data.getValues(LABEL, 2).length);
+        assertEquals(0, data.getValues("ref/rdf:type/", 2).length);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testInvalidDocId() throws IOException {
+        EntityDataFile.open(file).getValues(ID, 3);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Reference;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SlowCompositeReaderWrapper;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opensextant.solrtexttagger.TaggerFstCorpus;
+
+/**
+ * Tests the sharing of corpora by the {@link FstCorpusRegistry} and that
+ * it purges entries of outdated and garbage collected corpora.
+ */
+public class FstCorpusRegistryTest {
+
+    private static final String FIELD = "name";
+
+    private static Analyzer analyzer;
+    private static RAMDirectory directory;
+
+    private FstCorpusRegistry registry;
+    private File dir;
+
+    @BeforeClass
+    public static void createIndex() throws IOException {
+        analyzer = new WhitespaceAnalyzer(Version.LUCENE_44);
+        directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory,
+            new IndexWriterConfig(Version.LUCENE_44, analyzer));
+        try {
+            for(String name : new String[]{"Paris", "New York", "London"}){
+                Document doc = new Document();
+                doc.add(new TextField(FIELD, name, Store.YES));
+                writer.addDocument(doc);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Before
+    public void init() throws IOException {
+        registry = new FstCorpusRegistry();
+        dir = File.createTempFile("fst-registry", "");
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @After
+    public void cleanup() {
+        FileUtils.deleteQuietly(dir);
+    }
+
+    private static TaggerFstCorpus createCorpus() throws IOException {
+        DirectoryReader reader = DirectoryReader.open(directory);
+        try {
+            return new TaggerFstCorpus(SlowCompositeReaderWrapper.wrap(reader),
+                reader.getVersion(), null, FIELD, FIELD, analyzer, false, 1, 100);
+        } finally {
+            reader.close();
+        }
+    }
+    /**
+     * Creates the FST file and sets its last modified date
+     */
+    private File createFst(String name, long lastModified) throws IOException {
+        File fst = new File(dir, name);
+        createCorpus().save(fst);
+        fst.setLastModified(lastModified);
+        return fst;
+    }
+
+    @Test
+    public void testSharedCorpus() throws IOException {
+        File fst = createFst("test.en.fst", 10000L);
+        TaggerFstCorpus corpus = registry.load(fst);
+        assertNotNull(corpus);
+        assertSame(corpus, registry.load(fst));
+        assertSame(corpus, registry.get(fst));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testModifiedFstFile() throws IOException {
+        File fst = createFst("test.en.fst", 10000L);
+        TaggerFstCorpus corpus = registry.load(fst);
+        Reference<TaggerFstCorpus> ref = registry.getReference(fst);
+        fst.setLastModified(20000L);
+        TaggerFstCorpus newCorpus = registry.load(fst);
+        assertNotNull(newCorpus);
+        assertNotSame(corpus, newCorpus);
+        assertSame(newCorpus, registry.get(fst));
+        //the corpus of the old version is no longer referenced
+        assertNull(ref.get());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testRegisterNewerCorpus() throws IOException {
+        File fst = createFst("test.en.fst", 10000L);
+        registry.register(fst, createCorpus());
+        Reference<TaggerFstCorpus> ref = registry.getReference(fst);
+        fst.setLastModified(20000L);
+        TaggerFstCorpus corpus = createCorpus();
+        registry.register(fst, corpus);
+        assertNull(ref.get());
+        assertSame(corpus, registry.get(fst));
+        //the registered corpus is used for the new version of the file
+        assertSame(corpus, registry.load(fst));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testUnregister() throws IOException {
+        File fst = createFst("test.en.fst", 10000L);
+        registry.register(fst, createCorpus());
+        assertEquals(1, registry.size());
+        registry.register(fst, null);
+        assertNull(registry.get(fst));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testPurgeFreedCorpora() throws IOException {
+        File en = createFst("test.en.fst", 10000L);
+        File de = createFst("test.de.fst", 10000L);
+        TaggerFstCorpus corpus = registry.load(en);
+        registry.load(de);
+        assertEquals(2, registry.size());
+        //simulate the GC freeing the corpus of the German FST file
+        Reference<TaggerFstCorpus> ref = registry.getReference(de);
+        ref.clear();
+        ref.enqueue();
+        assertEquals(1, registry.size());
+        assertNull(registry.get(de));
+        assertSame(corpus, registry.get(en));
+        //a freed corpus is loaded again
+        assertNotNull(registry.load(de));
+        assertEquals(2, registry.size());
+    }
+}
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 import opennlp.tools.chunker.ChunkerME;
 import opennlp.tools.chunker.ChunkerModel;
@@ -63,6 +64,7 @@ import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.apache.stanbol.enhancer.servicesapi.impl.AbstractEnhancementEngine;
 import org.osgi.framework.Constants;
 import org.osgi.service.cm.ConfigurationException;
@@ -103,6 +105,7 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
             ServiceProperties.ORDERING_NLP_CHUNK);
         props.put(NlpServiceProperties.ENHANCEMENT_ENGINE_NLP_ROLE, 
             NlpProcessingRole.Chunking);
+        props.put(ServiceProperties.ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
         SERVICE_PROPERTIES = Collections.unmodifiableMap(props);
     }
     /**
@@ -210,7 +213,9 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
             adhocTags = new HashMap<String,PhraseTag>();
             languageAdhocTags.put(language, adhocTags);
         }        
-        ci.getLock().writeLock().lock();
+        //the chunks are added to the AnalysedText
+        Lock writeLock = ContentItemHelper.getPartLock(ci, AnalysedText.ANALYSED_TEXT_URI).writeLock();
+        writeLock.lock();
         try {
             Iterator<? extends Section> sentences = at.getSentences();
             if(!sentences.hasNext()){ //no sentences ... iterate over the whole text
@@ -310,7 +315,7 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
             }
 
         } finally {
-            ci.getLock().writeLock().unlock();
+            writeLock.unlock();
         }
         if(log.isTraceEnabled()){
             logChunks(at);
@@ -110,6 +110,7 @@ public class CustomNERModelEnhancementEngine
         Map<String,Object> sp = new HashMap<String,Object>();
         sp.put(ENHANCEMENT_ENGINE_ORDERING,defaultOrder);
         sp.put(ENHANCEMENT_ENGINE_NLP_ROLE, NlpProcessingRole.NamedEntityRecognition);
+        sp.put(ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
         SERVICE_PROPERTIES = Collections.unmodifiableMap(sp);
         
     }
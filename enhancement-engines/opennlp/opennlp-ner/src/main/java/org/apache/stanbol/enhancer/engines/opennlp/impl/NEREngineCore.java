@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import opennlp.tools.namefind.NameFinderME;
 import opennlp.tools.namefind.TokenNameFinderModel;
@@ -247,8 +248,9 @@ public abstract class NEREngineCore
         } else {
             entityNames = extractNameOccurrences(nameFinderModel, text,lang);
         }
-        //lock the ContentItem while writing the RDF data for found Named Entities
-        ci.getLock().writeLock().lock();
+        //lock the metadata while writing the RDF data for found Named Entities
+        Lock writeLock = ContentItemHelper.getMetadataLock(ci).writeLock();
+        writeLock.lock();
         try {
             Map<String,IRI> previousAnnotations = new LinkedHashMap<String,IRI>();
             for (Map.Entry<String,List<NameOccurrence>> nameInContext : entityNames.entrySet()) {
@@ -306,7 +308,7 @@ public abstract class NEREngineCore
                 }
             }
         } finally {
-            ci.getLock().writeLock().unlock();
+            writeLock.unlock();
         }
     }
 
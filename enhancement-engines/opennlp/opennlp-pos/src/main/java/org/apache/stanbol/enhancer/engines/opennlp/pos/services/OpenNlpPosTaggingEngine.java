@@ -103,6 +103,7 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
             ServiceProperties.ORDERING_NLP_POS);
         props.put(NlpServiceProperties.ENHANCEMENT_ENGINE_NLP_ROLE, 
             NlpProcessingRole.PartOfSpeachTagging);
+        props.put(ServiceProperties.ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
         SERVICE_PROPERTIES = Collections.unmodifiableMap(props);
     }
 
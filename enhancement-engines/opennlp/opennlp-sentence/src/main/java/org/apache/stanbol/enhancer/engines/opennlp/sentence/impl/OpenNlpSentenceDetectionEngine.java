@@ -89,6 +89,7 @@ public class OpenNlpSentenceDetectionEngine extends AbstractEnhancementEngine<Ru
             ServiceProperties.ORDERING_NLP_SENTENCE_DETECTION);
         props.put(NlpServiceProperties.ENHANCEMENT_ENGINE_NLP_ROLE, 
             NlpProcessingRole.SentenceDetection);
+        props.put(ServiceProperties.ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
         SERVICE_PROPERTIES = Collections.unmodifiableMap(props);
     }
 
@@ -106,6 +106,7 @@ public class OpenNlpTokenizerEngine extends AbstractEnhancementEngine<RuntimeExc
             ServiceProperties.ORDERING_NLP_TOKENIZING);
         props.put(NlpServiceProperties.ENHANCEMENT_ENGINE_NLP_ROLE, 
             NlpProcessingRole.Tokenizing);
+        props.put(ServiceProperties.ENHANCEMENT_ENGINE_BUFFERED_WRITES, Boolean.TRUE);
         SERVICE_PROPERTIES = Collections.unmodifiableMap(props);
     }
 
@@ -89,6 +89,14 @@ public class BenchmarkServlet extends HttpServlet {
    
     public static final String PARAM_CONTENT = "content";
     private static final String PARAM_CHAIN = "chain";
+    private static final String PARAM_CONCURRENCY = "concurrency";
+    private static final String PARAM_WARMUP = "warmup";
+    private static final String PARAM_DOCUMENTS = "documents";
+    /**
+     * Path used to run load tests using the input texts of the parsed
+     * benchmarks as corpus
+     */
+    public static final String LOAD_TEST_PATH = "/load";
     
     public static final String DEFAULT_MOUNT_PATH = "/benchmark";
     public static final String DEFAULT_BENCHMARK = "default.txt";
@@ -234,6 +242,10 @@ public class BenchmarkServlet extends HttpServlet {
             throw new ServletException("Missing " + PARAM_CONTENT + " parameter");
         }
         String chainName = request.getParameter(PARAM_CHAIN);
+        if(LOAD_TEST_PATH.equals(request.getPathInfo())){
+            doLoadTest(request, response, content, chainName);
+            return;
+        }
         final Template t = AccessController.doPrivileged(new PrivilegedAction<Template>() {
             @Override
             public Template run() {
@@ -281,4 +293,64 @@ public class BenchmarkServlet extends HttpServlet {
             
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Replays the input texts of the parsed benchmarks with the configured
+     * concurrency and writes the {@link LoadTestResult} as plain text
+     */
+    private void doLoadTest(HttpServletRequest request, HttpServletResponse response,
+            String content, String chainName) throws ServletException, IOException {
+        Chain chain = null;
+        if(chainName != null && !chainName.isEmpty()){
+            chain = chainManager.getChain(chainName);
+            if(chain == null){
+                response.sendError(404, "No EnhancementChain with the name '"
+                    + chainName + "' is active!");
+                return;
+            }
+        }
+        List<String> corpus = new LinkedList<String>();
+        for(Benchmark benchmark : parser.parse(new StringReader(content))){
+            corpus.add(benchmark.getInputText());
+        }
+        corpus = LoadTest.corpus(corpus);
+        if(corpus.isEmpty()){
+            response.sendError(400, "The parsed benchmarks do not define any input text!");
+            return;
+        }
+        LoadTest test = new LoadTest(jobManager, ciFactory, chain, corpus);
+        try {
+            test.setConcurrency(getIntParameter(request, PARAM_CONCURRENCY, test.getConcurrency()));
+            test.setWarmup(getIntParameter(request, PARAM_WARMUP, test.getWarmup()));
+            test.setDocuments(getIntParameter(request, PARAM_DOCUMENTS, test.getDocuments()));
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, e.getMessage());
+            return;
+        }
+        LoadTestResult result;
+        try {
+            result = test.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while running the load test", e);
+        }
+        response.setContentType("text/plain");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter w = response.getWriter();
+        w.printf("chain: %s%n", chain == null ? "default" : chain.getName());
+        result.writeReport(w);
+    }
+
+    private static int getIntParameter(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        if(value == null || value.trim().isEmpty()){
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value of parameter '" + name
+                + "' MUST BE an integer (parsed: '" + value + "')!");
+        }
+    }
+}
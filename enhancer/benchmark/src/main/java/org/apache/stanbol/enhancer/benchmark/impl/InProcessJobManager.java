@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.stanbol.enhancer.benchmark.impl;
+
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.getChainExecution;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.initExecutionMetadata;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.initExecutionMetadataContentPart;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionCompleted;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionFaild;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionInProgress;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionSkipped;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+
+/**
+ * Minimal {@link EnhancementJobManager} that executes the engines of a chain
+ * sequentially in the calling thread. It writes the same ExecutionMetadata
+ * as the job managers used within the OSGi environment and is used to run
+ * {@link LoadTest}s headless against an in-process enhancer (see
+ * {@link LoadTestTool}).<p>
+ * Engines are resolved by their name from the list of engines parsed in
+ * the constructor.
+ */
+public class InProcessJobManager implements EnhancementJobManager {
+
+    private final Map<String,EnhancementEngine> engines;
+    private final Chain defaultChain;
+
+    /**
+     * Creates a job manager for the parsed engines. The default chain
+     * includes all engines ordered by their
+     * {@link org.apache.stanbol.enhancer.servicesapi.ServiceProperties#ENHANCEMENT_ENGINE_ORDERING}
+     * @param chainName the name of the default chain
+     * @param engines the engines
+     */
+    public InProcessJobManager(String chainName, List<EnhancementEngine> engines) {
+        this.engines = new HashMap<String,EnhancementEngine>();
+        for(EnhancementEngine engine : engines){
+            this.engines.put(engine.getName(), engine);
+        }
+        final ImmutableGraph executionPlan = ExecutionPlanHelper.calculateExecutionPlan(chainName,
+            new ArrayList<EnhancementEngine>(engines), Collections.<String>emptySet(),
+            Collections.<String>emptySet(), null);
+        final Set<String> engineNames = Collections.unmodifiableSet(
+            new HashSet<String>(this.engines.keySet()));
+        final String name = chainName;
+        defaultChain = new Chain() {
+            @Override
+            public ImmutableGraph getExecutionPlan() throws ChainException {
+                return executionPlan;
+            }
+            @Override
+            public Set<String> getEngines() throws ChainException {
+                return engineNames;
+            }
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+    /**
+     * The default chain including all engines
+     * @return the default chain
+     */
+    public Chain getDefaultChain() {
+        return defaultChain;
+    }
+
+    @Override
+    public void enhanceContent(ContentItem ci) throws EnhancementException {
+        enhanceContent(ci, defaultChain);
+    }
+
+    @Override
+    public void enhanceContent(ContentItem ci, Chain chain) throws EnhancementException {
+        if(ci == null || chain == null){
+            throw new IllegalArgumentException("The parsed ContentItem and Chain MUST NOT be NULL!");
+        }
+        CompiledExecutionPlan plan = CompiledExecutionPlan.compile(chain);
+        Graph em = initExecutionMetadataContentPart(ci);
+        Map<BlankNodeOrIRI,BlankNodeOrIRI> executions = initExecutionMetadata(em,
+            plan.getExecutionPlan(), ci.getUri(), chain.getName(), chain == defaultChain);
+        BlankNodeOrIRI[] executionByNode = new BlankNodeOrIRI[plan.size()];
+        for(Entry<BlankNodeOrIRI,BlankNodeOrIRI> entry : executions.entrySet()){
+            executionByNode[plan.getId(entry.getValue())] = entry.getKey();
+        }
+        BlankNodeOrIRI chainExecution = getChainExecution(em, ci.getUri());
+        setExecutionInProgress(em, chainExecution);
+        int[] pending = new int[plan.size()];
+        for(int i = 0; i < pending.length; i++){
+            pending[i] = plan.getDependencyCount(i);
+        }
+        LinkedList<Integer> executable = new LinkedList<Integer>();
+        for(int root : plan.getRoots()){
+            executable.add(root);
+        }
+        while(!executable.isEmpty()){
+            int id = executable.removeFirst();
+            BlankNodeOrIRI execution = executionByNode[id];
+            try {
+                execute(ci, plan, id, em, execution);
+            } catch (EngineException e) {
+                setExecutionFaild(em, chainExecution, "Enhancement Chain failed because of required Engine '"
+                    + plan.getEngineName(id) + "' failed with Exception: " + e.getMessage());
+                throw e;
+            }
+            for(int dependent : plan.getDependents(id)){
+                if(--pending[dependent] == 0){
+                    executable.add(dependent);
+                }
+            }
+        }
+        setExecutionCompleted(em, chainExecution, null);
+    }
+    /**
+     * Executes a single engine
+     * @throws EngineException if a required engine fails or is not available
+     */
+    private void execute(ContentItem ci, CompiledExecutionPlan plan, int id,
+            Graph em, BlankNodeOrIRI execution) throws EngineException {
+        String engineName = plan.getEngineName(id);
+        EnhancementEngine engine = engines.get(engineName);
+        if(engine == null){
+            if(plan.isOptional(id)){
+                setExecutionSkipped(em, execution, "Engine '" + engineName + "' is not available");
+                return;
+            }
+            setExecutionFaild(em, execution, "Engine '" + engineName + "' is not available");
+            throw new EngineException("Required Engine '" + engineName + "' is not available!");
+        }
+        setExecutionInProgress(em, execution);
+        try {
+            int mode = engine.canEnhance(ci);
+            if(mode == EnhancementEngine.CANNOT_ENHANCE){
+                setExecutionSkipped(em, execution, "ContentItem not supported");
+                return;
+            }
+            if(mode == EnhancementEngine.ENHANCE_ASYNC){
+                engine.computeEnhancements(ci);
+            } else { //synchronous engines expect the job manager to acquire the write lock
+                ci.getLock().writeLock().lock();
+                try {
+                    engine.computeEnhancements(ci);
+                } finally {
+                    ci.getLock().writeLock().unlock();
+                }
+            }
+            setExecutionCompleted(em, execution, null);
+        } catch (EngineException e) {
+            setExecutionFaild(em, execution, e.getMessage());
+            if(!plan.isOptional(id)){
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            setExecutionFaild(em, execution, e.getMessage());
+            if(!plan.isOptional(id)){
+                throw new EngineException(engine, ci, e);
+            }
+        }
+    }
+
+    @Override
+    public List<EnhancementEngine> getActiveEngines() {
+        return new ArrayList<EnhancementEngine>(engines.values());
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.stanbol.enhancer.benchmark.impl;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.ExecutionMetadata;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays a corpus of documents against an {@link EnhancementJobManager}
+ * with a configurable number of concurrent clients. The test runs in two
+ * phases: the warm-up phase enhances {@link #setWarmup(int)} documents
+ * without recording any results, the measurement phase enhances
+ * {@link #setDocuments(int)} documents and records<ul>
+ * <li> the wall clock latency of the enhancement requests
+ * <li> the latencies of the em:ChainExecution and em:EngineExecutions as
+ * recorded in the ExecutionMetadata of the enhanced ContentItems
+ * <li> the throughput in documents per second
+ * <li> the allocation rate of the JVM (if supported)
+ * </ul>
+ * Documents of the corpus are used round robin.
+ */
+public class LoadTest {
+
+    private final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private final EnhancementJobManager jobManager;
+    private final ContentItemFactory ciFactory;
+    private final List<String> corpus;
+    private final Chain chain;
+
+    private int concurrency = 1;
+    private int warmup;
+    private int documents;
+
+    /**
+     * @param jobManager the job manager used to enhance the documents
+     * @param ciFactory the factory used to create ContentItems
+     * @param chain the chain or <code>null</code> to use the default chain
+     * @param corpus the documents
+     */
+    public LoadTest(EnhancementJobManager jobManager, ContentItemFactory ciFactory,
+            Chain chain, List<String> corpus) {
+        if(jobManager == null || ciFactory == null){
+            throw new IllegalArgumentException("The parsed EnhancementJobManager and "
+                + "ContentItemFactory MUST NOT be NULL!");
+        }
+        if(corpus == null || corpus.isEmpty()){
+            throw new IllegalArgumentException("The parsed corpus MUST NOT be NULL nor empty!");
+        }
+        this.jobManager = jobManager;
+        this.ciFactory = ciFactory;
+        this.chain = chain;
+        this.corpus = corpus;
+        this.warmup = corpus.size();
+        this.documents = corpus.size();
+    }
+    /**
+     * @param concurrency the number of concurrent clients (default: 1)
+     */
+    public void setConcurrency(int concurrency) {
+        if(concurrency < 1){
+            throw new IllegalArgumentException("The concurrency MUST BE >= 1");
+        }
+        this.concurrency = concurrency;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+    /**
+     * @param warmup the number of documents enhanced before the measurement
+     * starts (default: the size of the corpus)
+     */
+    public void setWarmup(int warmup) {
+        this.warmup = Math.max(0, warmup);
+    }
+
+    public int getWarmup() {
+        return warmup;
+    }
+    /**
+     * @param documents the number of documents enhanced during the measurement
+     * (default: the size of the corpus)
+     */
+    public void setDocuments(int documents) {
+        if(documents < 1){
+            throw new IllegalArgumentException("The number of documents MUST BE >= 1");
+        }
+        this.documents = documents;
+    }
+
+    public int getDocuments() {
+        return documents;
+    }
+    /**
+     * Runs the warm-up and the measurement phase
+     * @return the results of the measurement phase
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public LoadTestResult run() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            if(warmup > 0){
+                log.info("warm-up: {} documents ({} clients)", warmup, concurrency);
+                runPhase(clients, warmup, null);
+            }
+            log.info("measure: {} documents ({} clients)", documents, concurrency);
+            LoadTestResult result = new LoadTestResult(concurrency);
+            long allocated = getAllocatedBytes();
+            long start = System.nanoTime();
+            runPhase(clients, documents, result);
+            result.setElapsedNanos(System.nanoTime() - start);
+            if(allocated >= 0){
+                result.setAllocatedBytes(getAllocatedBytes() - allocated);
+            }
+            return result;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void runPhase(ExecutorService clients, final int count, final LoadTestResult result) throws InterruptedException {
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        for(int i = 0; i < concurrency; i++){
+            clients.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for(int n = next.getAndIncrement(); n < count; n = next.getAndIncrement()){
+                            enhance(corpus.get(n % corpus.size()), result);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        done.await();
+    }
+    /**
+     * Enhances a single document
+     * @param document the document
+     * @param result the result to record the measurements or <code>null</code>
+     * during the warm-up
+     */
+    private void enhance(String document, LoadTestResult result) {
+        ContentItem ci;
+        try {
+            ci = ciFactory.createContentItem(new StringSource(document));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create a ContentItem " +
+                "using '"+ciFactory.getClass().getSimpleName()+"'!",e);
+        }
+        long start = System.nanoTime();
+        try {
+            if(chain == null){
+                jobManager.enhanceContent(ci);
+            } else {
+                jobManager.enhanceContent(ci, chain);
+            }
+        } catch (Exception e) { //EnhancementException or RuntimeException
+            log.debug("Unable to enhance document", e);
+            if(result != null){
+                result.recordError();
+            }
+            return;
+        }
+        long latency = System.nanoTime() - start;
+        if(result != null){
+            result.recordLatency(TimeUnit.NANOSECONDS.toMicros(latency));
+            recordExecutionMetadata(ci, result);
+        }
+    }
+    /**
+     * Records the durations of the chain and engine executions
+     */
+    private void recordExecutionMetadata(ContentItem ci, LoadTestResult result) {
+        Graph em;
+        try {
+            em = ci.getPart(org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.CHAIN_EXECUTION, Graph.class);
+        } catch (NoSuchPartException e) {
+            return; //job manager does not keep execution metadata
+        }
+        ExecutionMetadata executionMetadata = ExecutionMetadata.parseFrom(em, ci.getUri());
+        if(executionMetadata == null){
+            return;
+        }
+        Long duration = executionMetadata.getChainExecution().getDuration();
+        if(duration != null){
+            result.recordChainLatency(executionMetadata.getChainExecution().getChainName(),
+                TimeUnit.MILLISECONDS.toMicros(duration));
+        }
+        for(Entry<String,Execution> entry : executionMetadata.getEngineExecutions().entrySet()){
+            duration = entry.getValue().getDuration();
+            if(duration != null){
+                result.recordEngineLatency(entry.getKey(), TimeUnit.MILLISECONDS.toMicros(duration));
+            }
+        }
+    }
+    /**
+     * The number of bytes allocated by all live threads of this JVM. Requires
+     * the HotSpot specific extension of the {@link ThreadMXBean}.
+     * @return the allocated bytes or <code>-1</code> if not supported
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        try {
+            if(!(threadBean instanceof com.sun.management.ThreadMXBean)){
+                return -1;
+            }
+            com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean)threadBean;
+            if(!hotspotBean.isThreadAllocatedMemorySupported() ||
+                    !hotspotBean.isThreadAllocatedMemoryEnabled()){
+                return -1;
+            }
+            long allocated = 0;
+            for(long bytes : hotspotBean.getThreadAllocatedBytes(hotspotBean.getAllThreadIds())){
+                if(bytes > 0){
+                    allocated += bytes;
+                }
+            }
+            return allocated;
+        } catch (LinkageError e) { //com.sun.management not available
+            return -1;
+        }
+    }
+
+    /**
+     * Copies the documents to an {@link ArrayList} to allow fast random access
+     * @param documents the documents
+     * @return the corpus
+     */
+    public static List<String> corpus(Iterable<String> documents) {
+        List<String> corpus = new ArrayList<String>();
+        for(String document : documents){
+            if(document != null && !document.trim().isEmpty()){
+                corpus.add(document);
+            }
+        }
+        return corpus;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.stanbol.enhancer.benchmark.impl;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.stanbol.enhancer.servicesapi.metrics.LatencyHistogram;
+
+/**
+ * The results of a {@link LoadTest}. Latencies are in microseconds. Chain and
+ * engine latencies are taken from the ExecutionMetadata written by the
+ * EnhancementJobManager and do therefore have a resolution of milliseconds.
+ */
+public class LoadTestResult {
+
+    private static final double[] PERCENTILES = new double[]{50, 90, 99, 99.9, 100};
+    private static final String[] PERCENTILE_LABELS = new String[]{"p50", "p90", "p99", "p99.9", "max"};
+
+    private final int concurrency;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentMap<String,LatencyHistogram> chainLatencies =
+            new ConcurrentHashMap<String,LatencyHistogram>();
+    private final ConcurrentMap<String,LatencyHistogram> engineLatencies =
+            new ConcurrentHashMap<String,LatencyHistogram>();
+    private final AtomicInteger errors = new AtomicInteger();
+    private long elapsedNanos;
+    private long allocatedBytes = -1;
+
+    LoadTestResult(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    void recordLatency(long micros) {
+        latency.recordValue(micros);
+    }
+
+    void recordChainLatency(String chain, long micros) {
+        getHistogram(chainLatencies, chain).recordValue(micros);
+    }
+
+    void recordEngineLatency(String engine, long micros) {
+        getHistogram(engineLatencies, engine).recordValue(micros);
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    private static LatencyHistogram getHistogram(ConcurrentMap<String,LatencyHistogram> map, String name) {
+        LatencyHistogram histogram = map.get(name);
+        if(histogram == null){
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = map.putIfAbsent(name, histogram);
+            if(existing != null){
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+    /**
+     * @return the number of successfully enhanced documents
+     */
+    public long getDocuments() {
+        return latency.getTotalCount();
+    }
+
+    public int getErrors() {
+        return errors.get();
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+    /**
+     * The wall clock latency of the enhancement requests as seen by the client
+     * @return the latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    /**
+     * @return the latencies of the em:ChainExecutions by chain name
+     */
+    public Map<String,LatencyHistogram> getChainLatencies() {
+        return Collections.unmodifiableMap(chainLatencies);
+    }
+    /**
+     * @return the latencies of the em:EngineExecutions by engine name
+     */
+    public Map<String,LatencyHistogram> getEngineLatencies() {
+        return Collections.unmodifiableMap(engineLatencies);
+    }
+
+    public double getDocumentsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getDocuments() * 1e9 / elapsedNanos;
+    }
+    /**
+     * The number of bytes allocated by all threads of the JVM while the
+     * measurement was running.
+     * @return the allocated bytes or <code>-1</code> if not supported by the JVM
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+    /**
+     * @return the allocation rate in bytes/sec or <code>-1</code> if not
+     * supported by the JVM
+     */
+    public double getAllocationRate() {
+        return allocatedBytes < 0 || elapsedNanos == 0 ? -1 : allocatedBytes * 1e9 / elapsedNanos;
+    }
+    /**
+     * Writes a plain text report
+     * @param out the writer
+     */
+    public void writeReport(PrintWriter out) {
+        out.printf("documents: %d (errors: %d, concurrency: %d) in %d ms%n",
+            getDocuments(), getErrors(), concurrency, getElapsedMillis());
+        out.printf("throughput: %.2f docs/sec%n", getDocumentsPerSecond());
+        if(allocatedBytes >= 0){
+            out.printf("allocation: %.2f MB/sec (%.1f KB/doc)%n",
+                getAllocationRate() / (1024 * 1024),
+                getDocuments() == 0 ? 0 : allocatedBytes / 1024.0 / getDocuments());
+        } else {
+            out.println("allocation: not supported by this JVM");
+        }
+        out.printf("%n%-32s", "latency [ms]");
+        for(String label : PERCENTILE_LABELS){
+            out.printf("%10s", label);
+        }
+        out.printf("%10s%10s%n", "mean", "count");
+        writeLine(out, "request", latency);
+        for(Entry<String,LatencyHistogram> entry : new TreeMap<String,LatencyHistogram>(chainLatencies).entrySet()){
+            writeLine(out, "chain " + entry.getKey(), entry.getValue());
+        }
+        for(Entry<String,LatencyHistogram> entry : new TreeMap<String,LatencyHistogram>(engineLatencies).entrySet()){
+            writeLine(out, "  " + entry.getKey(), entry.getValue());
+        }
+        out.flush();
+    }
+
+    private static void writeLine(PrintWriter out, String name, LatencyHistogram histogram) {
+        out.printf("%-32s", name);
+        for(double p : PERCENTILES){
+            out.printf("%10.1f", histogram.getValueAtPercentile(p) / 1000d);
+        }
+        out.printf("%10.1f%10d%n", histogram.getMean() / 1000d, histogram.getTotalCount());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.stanbol.enhancer.benchmark.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+
+/**
+ * Runs a {@link LoadTest} headless from the command line against an
+ * in-process enhancer ({@link InProcessJobManager}).<p>
+ * Engines are loaded by using the {@link ServiceLoader} (
+ * <code>META-INF/services/org.apache.stanbol.enhancer.servicesapi.EnhancementEngine</code>)
+ * and by class name via the <code>-e</code> option. Engine classes need to
+ * provide a public default constructor and be usable without being activated
+ * by the OSGi component runtime.<p>
+ * Usage:
+ * <code><pre>
+ *   java -cp {classpath} org.apache.stanbol.enhancer.benchmark.impl.LoadTestTool \
+ *       [-c concurrency] [-w warmup] [-n documents] [-l] [-e engine-class]* corpus...
+ * </pre></code>
+ * The corpus is parsed as files and/or directories. Each file is a document.
+ * With <code>-l</code> each line of the files is used as a document.
+ */
+public final class LoadTestTool {
+
+    private static final String CHAIN_NAME = "load-test";
+
+    private LoadTestTool() {/* no instances */}
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = 1;
+        Integer warmup = null;
+        Integer documents = null;
+        boolean lines = false;
+        List<EnhancementEngine> engines = new ArrayList<EnhancementEngine>();
+        List<File> corpusFiles = new ArrayList<File>();
+        for(int i = 0; i < args.length; i++){
+            String arg = args[i];
+            if("-c".equals(arg) && i + 1 < args.length){
+                concurrency = Integer.parseInt(args[++i]);
+            } else if("-w".equals(arg) && i + 1 < args.length){
+                warmup = Integer.valueOf(args[++i]);
+            } else if("-n".equals(arg) && i + 1 < args.length){
+                documents = Integer.valueOf(args[++i]);
+            } else if("-l".equals(arg)){
+                lines = true;
+            } else if("-e".equals(arg) && i + 1 < args.length){
+                engines.add(Class.forName(args[++i]).asSubclass(EnhancementEngine.class).newInstance());
+            } else if(arg.startsWith("-")){
+                usage("Unknown option " + arg);
+            } else {
+                corpusFiles.add(new File(arg));
+            }
+        }
+        for(EnhancementEngine engine : ServiceLoader.load(EnhancementEngine.class)){
+            engines.add(engine);
+        }
+        if(engines.isEmpty()){
+            usage("No EnhancementEngines available");
+        }
+        List<String> corpus = LoadTest.corpus(readCorpus(corpusFiles, lines));
+        if(corpus.isEmpty()){
+            usage("The parsed corpus is empty");
+        }
+        InProcessJobManager jobManager = new InProcessJobManager(CHAIN_NAME, engines);
+        LoadTest test = new LoadTest(jobManager, InMemoryContentItemFactory.getInstance(),
+            jobManager.getDefaultChain(), corpus);
+        test.setConcurrency(concurrency);
+        if(warmup != null){
+            test.setWarmup(warmup);
+        }
+        if(documents != null){
+            test.setDocuments(documents);
+        }
+        System.out.printf("corpus: %d documents, engines: %s%n", corpus.size(),
+            jobManager.getDefaultChain().getEngines());
+        test.run().writeReport(new PrintWriter(System.out));
+    }
+
+    private static List<String> readCorpus(List<File> files, boolean lines) throws IOException {
+        List<String> corpus = new ArrayList<String>();
+        for(File file : files){
+            if(file.isDirectory()){
+                File[] children = file.listFiles();
+                Arrays.sort(children);
+                corpus.addAll(readCorpus(Arrays.asList(children), lines));
+            } else if(file.isFile()){
+                if(lines){
+                    corpus.addAll(FileUtils.readLines(file, "UTF-8"));
+                } else {
+                    corpus.add(FileUtils.readFileToString(file, "UTF-8"));
+                }
+            } else {
+                usage("Corpus file " + file + " does not exist");
+            }
+        }
+        return corpus;
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: LoadTestTool [-c concurrency] [-w warmup] [-n documents] "
+            + "[-l] [-e engine-class]* corpus...");
+        System.exit(1);
+    }
+}
@@ -28,9 +28,11 @@ import java.util.Set;
 import org.apache.clerezza.commons.rdf.ImmutableGraph;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.CompiledChain;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
 import org.apache.stanbol.enhancer.servicesapi.impl.EnginesTracker;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
@@ -57,12 +59,13 @@ import org.osgi.util.tracker.ServiceTrackerCustomizer;
  * @author Rupert Westenthaler
  *
  */
-public class AllActiveEnginesChain implements ServiceTrackerCustomizer, Chain {
+public class AllActiveEnginesChain implements ServiceTrackerCustomizer, CompiledChain {
 
     private String name;
     private final Object lock = new Object();
     private BundleContext context;
     private ImmutableGraph executionPlan;
+    private CompiledExecutionPlan compiledExecutionPlan;
     private Set<String> engineNames;
     private EnginesTracker tracker;
     
@@ -90,6 +93,7 @@ public class AllActiveEnginesChain implements ServiceTrackerCustomizer, Chain {
     public void close(){
         synchronized (lock) {
             this.executionPlan = null;
+            this.compiledExecutionPlan = null;
             this.engineNames = null;
         }
         this.tracker.close();
@@ -116,6 +120,19 @@ public class AllActiveEnginesChain implements ServiceTrackerCustomizer, Chain {
         }
     }
 
+    @Override
+    public CompiledExecutionPlan getCompiledExecutionPlan() throws ChainException {
+        synchronized (lock) {
+            if(executionPlan == null){
+                update();
+            }
+            if(compiledExecutionPlan == null){
+                compiledExecutionPlan = CompiledExecutionPlan.compile(executionPlan, tracker);
+            }
+            return compiledExecutionPlan;
+        }
+    }
+
     @Override
     public Set<String> getEngines() throws ChainException {
         synchronized (lock) {
@@ -145,6 +162,7 @@ public class AllActiveEnginesChain implements ServiceTrackerCustomizer, Chain {
     private void invalidateExecutionPlan(){
         synchronized (lock) {
             this.executionPlan = null;
+            this.compiledExecutionPlan = null;
             this.engineNames = null;
         }
     }
@@ -166,6 +184,7 @@ public class AllActiveEnginesChain implements ServiceTrackerCustomizer, Chain {
             }
         }
         Set<String> emptySet = Collections.emptySet();
+        compiledExecutionPlan = null;
         executionPlan = calculateExecutionPlan(
             getName(),activeEngines, 
             emptySet,//this Chain does not support optional engines
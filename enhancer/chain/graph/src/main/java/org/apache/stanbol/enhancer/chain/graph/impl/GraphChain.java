@@ -61,11 +61,17 @@ import org.apache.stanbol.commons.stanboltools.datafileprovider.DataFileProvider
 import org.apache.stanbol.commons.stanboltools.datafileprovider.DataFileTracker;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.CompiledChain;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
 import org.apache.stanbol.enhancer.servicesapi.impl.AbstractChain;
+import org.apache.stanbol.enhancer.servicesapi.impl.EnginesTracker;
 import org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan;
 import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.component.ComponentContext;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -100,7 +106,7 @@ import org.slf4j.LoggerFactory;
     @Property(name=AbstractChain.PROPERTY_CHAIN_PROPERTIES,cardinality=1000),
     @Property(name=Constants.SERVICE_RANKING, intValue=0)
 })
-public class GraphChain extends AbstractChain implements Chain {
+public class GraphChain extends AbstractChain implements CompiledChain, ServiceTrackerCustomizer {
 
     protected final Logger log = LoggerFactory.getLogger(GraphChain.class); 
     
@@ -162,6 +168,21 @@ public class GraphChain extends AbstractChain implements Chain {
      * The internal chain. Different implementation depending on the {@link #mode}
      */
     private Chain internalChain = null;
+    /**
+     * Cache for the compiled execution plan of the {@link #internalChain}.
+     * Reset to <code>null</code> if a tracked engine changes.
+     */
+    private CompiledExecutionPlan compiledExecutionPlan;
+    /**
+     * Used to sync access to the {@link #compiledExecutionPlan}
+     */
+    private final Object epLock = new Object();
+    /**
+     * Tracks the engines used to resolve the engines of the
+     * {@link #compiledExecutionPlan}. In {@link MODE#RESOURCE} all engines
+     * are tracked as the referenced engines change with the RDF file.
+     */
+    private EnginesTracker enginesTracker;
     /**
      * The {@link DataFileTracker}. Optional because only required in 
      * {@link MODE#RESOURCE}.
@@ -182,6 +203,7 @@ public class GraphChain extends AbstractChain implements Chain {
         super.activate(ctx);
         Object resource = ctx.getProperties().get(PROPERTY_GRAPH_RESOURCE);
         Object list = ctx.getProperties().get(PROPERTY_CHAIN_LIST);
+        Set<String> trackedEngines = null; //all engines
         if(resource != null && !resource.toString().isEmpty()){
             String[] config = resource.toString().split(";");
             String resourceName = config[0];
@@ -238,12 +260,15 @@ public class GraphChain extends AbstractChain implements Chain {
             }
             internalChain = new ListConfigExecutionPlan(config,getChainProperties());
             mode = MODE.LIST;
+            trackedEngines = config.keySet();
         } else { //both PROPERTY_CHAIN_LIST and PROPERTY_GRAPH_RESOURCE are null
             throw new ConfigurationException(PROPERTY_GRAPH_RESOURCE, 
                 "The Execution Plan is a required property. It MUST BE configured" +
                 "by one of the properties :"+
                  Arrays.asList(PROPERTY_GRAPH_RESOURCE,PROPERTY_GRAPH_RESOURCE));
         }
+        enginesTracker = new EnginesTracker(ctx.getBundleContext(), trackedEngines, this);
+        enginesTracker.open();
     }
     @Deactivate
     @Override
@@ -252,7 +277,12 @@ public class GraphChain extends AbstractChain implements Chain {
             //we need to remove the ExecutionPlanListerner
             tracker.removeAll((DataFileListener)internalChain);
         }
+        if(enginesTracker != null){
+            enginesTracker.close();
+            enginesTracker = null;
+        }
         internalChain = null;
+        invalidateCompiledExecutionPlan();
         mode = null;
         tracker = null;
         super.deactivate(ctx);
@@ -261,6 +291,59 @@ public class GraphChain extends AbstractChain implements Chain {
     public ImmutableGraph getExecutionPlan() throws ChainException {
         return internalChain.getExecutionPlan();
     }
+    /**
+     * Compiles the execution plan of the {@link #internalChain}. The compiled
+     * plan is cached until the execution plan changes (e.g. because the
+     * configured RDF file was updated) or a tracked engine changes.
+     */
+    @Override
+    public CompiledExecutionPlan getCompiledExecutionPlan() throws ChainException {
+        ImmutableGraph executionPlan = internalChain.getExecutionPlan();
+        synchronized (epLock) {
+            if(compiledExecutionPlan == null || compiledExecutionPlan.getExecutionPlan() != executionPlan){
+                compiledExecutionPlan = CompiledExecutionPlan.compile(executionPlan, enginesTracker);
+            }
+            return compiledExecutionPlan;
+        }
+    }
+
+    @Override
+    public Object addingService(ServiceReference reference) {
+        invalidateCompiledExecutionPlan();
+        ComponentContext context = this.context;
+        if(context != null){
+            return context.getBundleContext().getService(reference);
+        } else {
+            log.warn("Unable to get EnhancementEngine for Reference {} because" +
+                    "this {} seams already be deactivated -> return null",
+                    reference.getProperty(EnhancementEngine.PROPERTY_NAME),
+                    toString());
+            return null;
+        }
+    }
+
+    @Override
+    public void modifiedService(ServiceReference reference, Object service) {
+        invalidateCompiledExecutionPlan();
+    }
+
+    @Override
+    public void removedService(ServiceReference reference, Object service) {
+        invalidateCompiledExecutionPlan();
+        ComponentContext context = this.context;
+        if(context != null){
+            context.getBundleContext().ungetService(reference);
+        }
+    }
+    /**
+     * Forces the {@link #compiledExecutionPlan} to be recompiled so that it
+     * uses the currently active engines
+     */
+    private void invalidateCompiledExecutionPlan(){
+        synchronized (epLock) {
+            compiledExecutionPlan = null;
+        }
+    }
 
     @Override
     public Set<String> getEngines() throws ChainException {
@@ -41,11 +41,17 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.CompiledChain;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.helper.ConfigUtils;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
 import org.apache.stanbol.enhancer.servicesapi.impl.AbstractChain;
+import org.apache.stanbol.enhancer.servicesapi.impl.EnginesTracker;
 import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.component.ComponentContext;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,7 +96,7 @@ import org.slf4j.LoggerFactory;
     @Property(name=Constants.SERVICE_RANKING, intValue=0)
 })
 @Service(value=Chain.class)
-public class ListChain extends AbstractChain implements Chain {
+public class ListChain extends AbstractChain implements CompiledChain, ServiceTrackerCustomizer {
     
     private final Logger log = LoggerFactory.getLogger(ListChain.class);
 
@@ -102,6 +108,20 @@ public class ListChain extends AbstractChain implements Chain {
     private Set<String> engineNames;
     
     private ImmutableGraph executionPlan;
+    /**
+     * Tracks the engines of this chain. Used to resolve the engines of the
+     * {@link #compiledExecutionPlan}
+     */
+    private EnginesTracker tracker;
+    /**
+     * Used to sync access to the {@link #compiledExecutionPlan}
+     */
+    private final Object epLock = new Object();
+    /**
+     * The compiled {@link #executionPlan} with the resolved engines. Reset
+     * to <code>null</code> if a tracked engine changes.
+     */
+    private CompiledExecutionPlan compiledExecutionPlan;
         
     
     @Override
@@ -152,12 +172,28 @@ public class ListChain extends AbstractChain implements Chain {
         }
         this.engineNames = Collections.unmodifiableSet(engineNames);
         this.executionPlan = ep.getImmutableGraph();
+        //start tracking the engines of the configured chain
+        tracker = new EnginesTracker(ctx.getBundleContext(), this.engineNames, this);
+        tracker.open();
+        try {
+            getCompiledExecutionPlan();
+        } catch (ChainException e) {
+            tracker.close();
+            tracker = null;
+            throw new ConfigurationException(PROPERTY_ENGINE_LIST, "Unable to compile the "
+                + "execution plan (message: '"+e.getMessage()+"')!",e);
+        }
     }
 
     @Override
     protected void deactivate(ComponentContext ctx) {
+        if(tracker != null){
+            tracker.close();
+            tracker = null;
+        }
         this.engineNames = null;
         this.executionPlan = null;
+        invalidateCompiledExecutionPlan();
         super.deactivate(ctx);
     }
     @Override
@@ -165,9 +201,57 @@ public class ListChain extends AbstractChain implements Chain {
         return executionPlan;
     }
 
+    @Override
+    public CompiledExecutionPlan getCompiledExecutionPlan() throws ChainException {
+        synchronized (epLock) {
+            if(compiledExecutionPlan == null && executionPlan != null){
+                compiledExecutionPlan = CompiledExecutionPlan.compile(executionPlan, tracker);
+            }
+            return compiledExecutionPlan;
+        }
+    }
+
     @Override
     public Set<String> getEngines() {
         return engineNames;
     }
 
+    @Override
+    public Object addingService(ServiceReference reference) {
+        invalidateCompiledExecutionPlan();
+        ComponentContext context = this.context;
+        if(context != null){
+            return context.getBundleContext().getService(reference);
+        } else {
+            log.warn("Unable to get EnhancementEngine for Reference {} because" +
+                    "this {} seams already be deactivated -> return null",
+                    reference.getProperty(EnhancementEngine.PROPERTY_NAME),
+                    toString());
+            return null;
+        }
+    }
+
+    @Override
+    public void modifiedService(ServiceReference reference, Object service) {
+        invalidateCompiledExecutionPlan();
+    }
+
+    @Override
+    public void removedService(ServiceReference reference, Object service) {
+        invalidateCompiledExecutionPlan();
+        ComponentContext context = this.context;
+        if(context != null){
+            context.getBundleContext().ungetService(reference);
+        }
+    }
+    /**
+     * Forces the {@link #compiledExecutionPlan} to be recompiled so that it
+     * uses the currently active engines
+     */
+    private void invalidateCompiledExecutionPlan(){
+        synchronized (epLock) {
+            this.compiledExecutionPlan = null;
+        }
+    }
+
 }
@@ -0,0 +1,128 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.chain.list.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.cm.ConfigurationException;
+
+/**
+ * Tests that the {@link ListChain} resolves the engines of its
+ * {@link CompiledExecutionPlan} and recompiles it if engines are
+ * registered/unregistered.
+ */
+public class ListChainTest {
+
+    private MockComponentContext ctx;
+    private ListChain chain;
+
+    @Before
+    public void activate() throws ConfigurationException {
+        Dictionary<String,Object> config = new Hashtable<String,Object>();
+        config.put(Chain.PROPERTY_NAME, "test");
+        config.put(ListChain.PROPERTY_ENGINE_LIST, new String[]{"first", "second;optional"});
+        ctx = new MockComponentContext(config);
+        chain = new ListChain();
+        chain.activate(ctx);
+    }
+
+    @After
+    public void deactivate(){
+        chain.deactivate(ctx);
+    }
+
+    private ServiceRegistration register(EnhancementEngine engine){
+        Dictionary<String,Object> props = new Hashtable<String,Object>();
+        props.put(EnhancementEngine.PROPERTY_NAME, engine.getName());
+        return ctx.getBundleContext().registerService(EnhancementEngine.class.getName(), engine, props);
+    }
+
+    @Test
+    public void testCompiledExecutionPlan() throws Exception {
+        CompiledExecutionPlan plan = chain.getCompiledExecutionPlan();
+        assertEquals(2, plan.size());
+        assertSame(chain.getExecutionPlan(), plan.getExecutionPlan());
+        assertEquals(1, plan.getRoots().length);
+        int first = plan.getRoots()[0];
+        assertEquals("first", plan.getEngineName(first));
+        assertFalse(plan.isOptional(first));
+        int second = plan.getDependents(first)[0];
+        assertEquals("second", plan.getEngineName(second));
+        assertTrue(plan.isOptional(second));
+        //cached as long as engines do not change
+        assertSame(plan, chain.getCompiledExecutionPlan());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        CompiledExecutionPlan plan = chain.getCompiledExecutionPlan();
+        int first = plan.getRoots()[0];
+        assertNull(plan.getEngine(first));
+        TestEngine engine = new TestEngine("first");
+        ServiceRegistration registration = register(engine);
+        CompiledExecutionPlan updated = chain.getCompiledExecutionPlan();
+        assertNotSame(plan, updated);
+        assertSame(engine, updated.getEngine(first));
+        //engines not referenced by the chain do not invalidate the plan
+        register(new TestEngine("other"));
+        assertSame(updated, chain.getCompiledExecutionPlan());
+        registration.unregister();
+        plan = chain.getCompiledExecutionPlan();
+        assertNotSame(updated, plan);
+        assertNull(plan.getEngine(first));
+    }
+
+    private static class TestEngine implements EnhancementEngine {
+
+        private final String name;
+
+        TestEngine(String name){
+            this.name = name;
+        }
+
+        @Override
+        public int canEnhance(ContentItem ci) throws EngineException {
+            return ENHANCE_SYNCHRONOUS;
+        }
+
+        @Override
+        public void computeEnhancements(ContentItem ci) throws EngineException {
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.chain.list.impl;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.ComponentInstance;
+
+/**
+ * {@link ComponentContext} with a {@link MockBundleContext} that supports
+ * registering services and notifying {@link ServiceListener}s. This allows
+ * to test components that track services.
+ */
+public class MockComponentContext implements ComponentContext {
+
+    protected final Dictionary<String, Object> properties;
+    protected final MockBundleContext bundleContext = new MockBundleContext();
+
+    public MockComponentContext(Dictionary<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    public void disableComponent(String name) {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public void enableComponent(String name) {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public MockBundleContext getBundleContext() {
+        return bundleContext;
+    }
+
+    public ComponentInstance getComponentInstance() {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public Dictionary<String, Object> getProperties() {
+        return properties;
+    }
+
+    public ServiceReference getServiceReference() {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public Bundle getUsingBundle() {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public Object locateService(String name) {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public Object locateService(String name, ServiceReference reference) {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    public Object[] locateServices(String name) {
+        throw new UnsupportedOperationException("Mock implementation");
+    }
+
+    /**
+     * {@link BundleContext} that keeps registered services in memory and
+     * notifies {@link ServiceListener}s about (un)registrations.
+     */
+    public static class MockBundleContext implements BundleContext {
+
+        private final Map<ServiceListener,Filter> listeners = new HashMap<ServiceListener,Filter>();
+        private final Map<MockServiceReference,Object> services = new HashMap<MockServiceReference,Object>();
+        private long serviceId = 0;
+
+        /**
+         * Registers a service and notifies the listeners
+         * @param clazz the interface
+         * @param service the service
+         * @param properties the service properties
+         * @return the registration
+         */
+        public ServiceRegistration registerService(String clazz, Object service, Dictionary properties) {
+            return registerService(new String[]{clazz}, service, properties);
+        }
+
+        public ServiceRegistration registerService(String[] clazzes, Object service, Dictionary properties) {
+            Map<String,Object> props = new HashMap<String,Object>();
+            if(properties != null){
+                for(Enumeration<?> keys = properties.keys(); keys.hasMoreElements();){
+                    Object key = keys.nextElement();
+                    props.put(key.toString(), properties.get(key));
+                }
+            }
+            props.put(Constants.OBJECTCLASS, clazzes);
+            props.put(Constants.SERVICE_ID, Long.valueOf(++serviceId));
+            final MockServiceReference ref = new MockServiceReference(props);
+            services.put(ref, service);
+            fireEvent(new ServiceEvent(ServiceEvent.REGISTERED, ref));
+            return new ServiceRegistration() {
+                @Override
+                public ServiceReference getReference() {
+                    return ref;
+                }
+                @Override
+                public void setProperties(Dictionary properties) {
+                    throw new UnsupportedOperationException("Mock implementation");
+                }
+                @Override
+                public void unregister() {
+                    fireEvent(new ServiceEvent(ServiceEvent.UNREGISTERING, ref));
+                    services.remove(ref);
+                }
+            };
+        }
+
+        public <S> ServiceRegistration<S> registerService(Class<S> clazz, S service, Dictionary<String,?> properties) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        private void fireEvent(ServiceEvent event){
+            for(Map.Entry<ServiceListener,Filter> entry : new ArrayList<Map.Entry<ServiceListener,Filter>>(listeners.entrySet())){
+                if(entry.getValue() == null || entry.getValue().match(event.getServiceReference())){
+                    entry.getKey().serviceChanged(event);
+                }
+            }
+        }
+
+        public void addServiceListener(ServiceListener listener, String filter) throws InvalidSyntaxException {
+            listeners.put(listener, filter == null ? null : createFilter(filter));
+        }
+
+        public void addServiceListener(ServiceListener listener) {
+            listeners.put(listener, null);
+        }
+
+        public void removeServiceListener(ServiceListener listener) {
+            listeners.remove(listener);
+        }
+
+        public ServiceReference[] getServiceReferences(String clazz, String filter) throws InvalidSyntaxException {
+            Filter f = filter == null ? null : createFilter(filter);
+            List<ServiceReference> refs = new ArrayList<ServiceReference>();
+            for(MockServiceReference ref : services.keySet()){
+                if((clazz == null || ref.isInterface(clazz)) && (f == null || f.match(ref))){
+                    refs.add(ref);
+                }
+            }
+            return refs.isEmpty() ? null : refs.toArray(new ServiceReference[refs.size()]);
+        }
+
+        public ServiceReference[] getAllServiceReferences(String clazz, String filter) throws InvalidSyntaxException {
+            return getServiceReferences(clazz, filter);
+        }
+
+        public Object getService(ServiceReference reference) {
+            return services.get(reference);
+        }
+
+        public boolean ungetService(ServiceReference reference) {
+            return services.containsKey(reference);
+        }
+
+        public Filter createFilter(String filter) throws InvalidSyntaxException {
+            return FrameworkUtil.createFilter(filter);
+        }
+
+        public ServiceReference getServiceReference(String clazz) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public <S> ServiceReference<S> getServiceReference(Class<S> clazz) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public <S> Collection<ServiceReference<S>> getServiceReferences(Class<S> clazz, String filter) throws InvalidSyntaxException {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public String getProperty(String key) {
+            return null;
+        }
+
+        public Bundle getBundle() {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public Bundle installBundle(String location, InputStream input) throws BundleException {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public Bundle installBundle(String location) throws BundleException {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public Bundle getBundle(long id) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public Bundle[] getBundles() {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public void addBundleListener(BundleListener listener) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public void removeBundleListener(BundleListener listener) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public void addFrameworkListener(FrameworkListener listener) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public void removeFrameworkListener(FrameworkListener listener) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public File getDataFile(String filename) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+
+        public Bundle getBundle(String location) {
+            throw new UnsupportedOperationException("Mock implementation");
+        }
+    }
+
+    private static class MockServiceReference implements ServiceReference {
+
+        private final Map<String,Object> properties;
+
+        MockServiceReference(Map<String,Object> properties) {
+            this.properties = properties;
+        }
+
+        boolean isInterface(String clazz){
+            for(String objectClass : (String[])properties.get(Constants.OBJECTCLASS)){
+                if(objectClass.equals(clazz)){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Object getProperty(String key) {
+            return properties.get(key);
+        }
+
+        public String[] getPropertyKeys() {
+            return properties.keySet().toArray(new String[properties.size()]);
+        }
+
+        public Bundle getBundle() {
+            return null;
+        }
+
+        public Bundle[] getUsingBundles() {
+            return null;
+        }
+
+        public boolean isAssignableTo(Bundle bundle, String className) {
+            return true;
+        }
+
+        public int compareTo(Object reference) {
+            Long id = (Long)properties.get(Constants.SERVICE_ID);
+            Long otherId = (Long)((MockServiceReference)reference).properties.get(Constants.SERVICE_ID);
+            //lower service ids are ranked higher
+            return otherId.compareTo(id);
+        }
+
+        @Override
+        public String toString() {
+            return "MockServiceReference " + properties;
+        }
+    }
+}
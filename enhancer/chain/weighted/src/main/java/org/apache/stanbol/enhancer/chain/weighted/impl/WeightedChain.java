@@ -39,8 +39,10 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.CompiledChain;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.helper.ConfigUtils;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
 import org.apache.stanbol.enhancer.servicesapi.impl.AbstractChain;
 import org.apache.stanbol.enhancer.servicesapi.impl.EnginesTracker;
 import org.osgi.framework.Constants;
@@ -93,7 +95,7 @@ policy=ConfigurationPolicy.REQUIRE)
     @Property(name=Constants.SERVICE_RANKING, intValue=0)
 })
 @Service(value=Chain.class)
-public class WeightedChain extends AbstractChain implements Chain, ServiceTrackerCustomizer {
+public class WeightedChain extends AbstractChain implements CompiledChain, ServiceTrackerCustomizer {
     
     private final Logger log = LoggerFactory.getLogger(WeightedChain.class);
 
@@ -121,6 +123,10 @@ public class WeightedChain extends AbstractChain implements Chain, ServiceTracke
     private Object epLock = new Object();
     
     private ImmutableGraph executionPlan = null;
+    /**
+     * The compiled {@link #executionPlan} with the resolved engines
+     */
+    private CompiledExecutionPlan compiledExecutionPlan = null;
     
     @Override
     protected void activate(ComponentContext ctx) throws ConfigurationException {
@@ -181,11 +187,26 @@ public class WeightedChain extends AbstractChain implements Chain, ServiceTracke
         synchronized (epLock) {
             if(executionPlan == null){
                 executionPlan = createExecutionPlan();
+                compiledExecutionPlan = null;
             }
             return executionPlan;
         }
     }
 
+    @Override
+    public CompiledExecutionPlan getCompiledExecutionPlan() throws ChainException {
+        synchronized (epLock) {
+            if(executionPlan == null){
+                executionPlan = createExecutionPlan();
+                compiledExecutionPlan = null;
+            }
+            if(compiledExecutionPlan == null){
+                compiledExecutionPlan = CompiledExecutionPlan.compile(executionPlan, tracker);
+            }
+            return compiledExecutionPlan;
+        }
+    }
+
     @Override
     public Set<String> getEngines() {
         return chain.keySet();
@@ -250,6 +271,7 @@ public class WeightedChain extends AbstractChain implements Chain, ServiceTracke
     private void invalidateExecutionPlan(){
         synchronized (epLock) {
             this.executionPlan = null;
+            this.compiledExecutionPlan = null;
         }
     }
 
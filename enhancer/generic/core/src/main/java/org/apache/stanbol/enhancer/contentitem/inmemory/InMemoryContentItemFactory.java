@@ -22,10 +22,15 @@ import java.io.OutputStream;
 
 import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Modified;
 import org.apache.felix.scr.annotations.Properties;
 import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.PropertyOption;
 import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.commons.indexedgraph.ColumnarIndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
@@ -34,15 +39,40 @@ import org.apache.stanbol.enhancer.servicesapi.ContentSource;
 import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.apache.stanbol.enhancer.servicesapi.impl.AbstractContentItemFactory;
 import org.osgi.framework.Constants;
-@Component(inherit=true)
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.component.ComponentContext;
+@Component(inherit=true,metatype=true)
 @Service(value=ContentItemFactory.class)
 @Properties(value={
     //set service ranking to an positive integer so that others do not accitently
     //override the default
-    @Property(name=Constants.SERVICE_RANKING,intValue=100)
+    @Property(name=Constants.SERVICE_RANKING,intValue=100),
+    @Property(name=InMemoryContentItemFactory.METADATA_GRAPH,options={
+            @PropertyOption(
+                    value='%'+InMemoryContentItemFactory.METADATA_GRAPH+".option.indexed",
+                    name=InMemoryContentItemFactory.METADATA_GRAPH_INDEXED),
+            @PropertyOption(
+                    value='%'+InMemoryContentItemFactory.METADATA_GRAPH+".option.columnar",
+                    name=InMemoryContentItemFactory.METADATA_GRAPH_COLUMNAR)
+            },value=InMemoryContentItemFactory.METADATA_GRAPH_INDEXED)
 })
 public class InMemoryContentItemFactory extends AbstractContentItemFactory implements ContentItemFactory {
     
+    /**
+     * Property used to configure the {@link Graph} implementation used for
+     * the metadata of created {@link ContentItem}s.
+     */
+    public static final String METADATA_GRAPH = "stanbol.enhancer.contentitem.inmemory.metadataGraph";
+    /**
+     * Uses the {@link IndexedGraph} for the metadata (default)
+     */
+    public static final String METADATA_GRAPH_INDEXED = "indexed";
+    /**
+     * Uses the {@link ColumnarIndexedGraph} for the metadata. This requires
+     * considerable less memory for ContentItems with a lot of metadata.
+     */
+    public static final String METADATA_GRAPH_COLUMNAR = "columnar";
+    
     private static InMemoryContentItemFactory instance;
     /**
      * Getter for the singleton instance of this factory. Within an OSGI 
@@ -57,18 +87,58 @@ public class InMemoryContentItemFactory extends AbstractContentItemFactory imple
         return instance;
     }
     
+    /**
+     * If the {@link ColumnarIndexedGraph} is used for the metadata
+     */
+    private volatile boolean columnarMetadata;
+    
     public InMemoryContentItemFactory() {
+        this(false);
+    }
+    /**
+     * Creates a factory that uses the parsed graph implementation for the
+     * metadata of created ContentItems.
+     * @param columnarMetadata if <code>true</code> the {@link ColumnarIndexedGraph}
+     * is used. Otherwise the {@link IndexedGraph}.
+     */
+    public InMemoryContentItemFactory(boolean columnarMetadata) {
         super(true); //lazy initialisation makes a lot of sense for in-memory implementations
+        this.columnarMetadata = columnarMetadata;
+    }
+    
+    @Activate
+    @Modified
+    protected void activate(ComponentContext ctx) throws ConfigurationException {
+        Object value = ctx.getProperties().get(METADATA_GRAPH);
+        if(value == null || value.toString().trim().isEmpty() ||
+                METADATA_GRAPH_INDEXED.equalsIgnoreCase(value.toString().trim())){
+            columnarMetadata = false;
+        } else if(METADATA_GRAPH_COLUMNAR.equalsIgnoreCase(value.toString().trim())){
+            columnarMetadata = true;
+        } else {
+            throw new ConfigurationException(METADATA_GRAPH, "Unsupported value '"
+                + value + "' (supported: " + METADATA_GRAPH_INDEXED + ", "
+                + METADATA_GRAPH_COLUMNAR + ")!");
+        }
     }
 
     @Override
     protected ContentItem createContentItem(IRI id, Blob blob, Graph metadata) {
-        return new InMemoryContentItem(id, blob, metadata);
+        return new InMemoryContentItem(id, blob, metadata == null ? createMetadata() : metadata);
     }
     
     @Override
     protected ContentItem createContentItem(String prefix, Blob blob, Graph metadata) {
-        return new InMemoryContentItem(ContentItemHelper.makeDefaultUri(prefix, blob), blob, metadata);
+        return new InMemoryContentItem(ContentItemHelper.makeDefaultUri(prefix, blob), blob, 
+            metadata == null ? createMetadata() : metadata);
+    }
+    /**
+     * Creates the (empty) metadata graph for a new ContentItem based on the
+     * {@link #METADATA_GRAPH} configuration
+     * @return the graph for the metadata
+     */
+    protected Graph createMetadata() {
+        return columnarMetadata ? new ColumnarIndexedGraph() : new IndexedGraph();
     }
 
     @Override
@@ -0,0 +1,121 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.metrics.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.enhancer.servicesapi.impl.EnhancementMetricsRegistry;
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
+import org.apache.stanbol.enhancer.servicesapi.metrics.ExecutionStatistics;
+import org.osgi.service.component.ComponentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of the {@link EnhancementMetrics} interface as OSGI component
+ * based on {@link EnhancementMetricsRegistry}. If enabled the statistics of
+ * engines and chains are registered as MBeans with the platform MBeanServer
+ * using the names
+ * <code>org.apache.stanbol.enhancer:type={Engine|Chain},name={name}</code>.
+ */
+@Component(immediate=true,enabled=true,metatype=true)
+@Service(value=EnhancementMetrics.class)
+public class EnhancementMetricsImpl extends EnhancementMetricsRegistry {
+
+    private final Logger log = LoggerFactory.getLogger(EnhancementMetricsImpl.class);
+
+    /**
+     * If statistics are registered as JMX MBeans
+     */
+    @Property(boolValue=EnhancementMetricsImpl.DEFAULT_JMX)
+    public static final String JMX = "stanbol.enhancer.metrics.jmx";
+
+    public static final boolean DEFAULT_JMX = true;
+
+    public static final String JMX_DOMAIN = "org.apache.stanbol.enhancer";
+
+    private volatile MBeanServer mBeanServer;
+    private final Set<ObjectName> registered = new CopyOnWriteArraySet<ObjectName>();
+
+    @Activate
+    protected void activate(ComponentContext ctx){
+        Object value = ctx.getProperties().get(JMX);
+        boolean jmx = value instanceof Boolean ? ((Boolean)value).booleanValue() :
+            value != null ? Boolean.parseBoolean(value.toString()) : DEFAULT_JMX;
+        if(jmx){
+            mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            //register statistics created before the activation
+            for(Map.Entry<String,ExecutionStatistics> entry : getEngineStatistics().entrySet()){
+                register(ENGINE, entry.getValue());
+            }
+            for(Map.Entry<String,ExecutionStatistics> entry : getChainStatistics().entrySet()){
+                register(CHAIN, entry.getValue());
+            }
+        }
+    }
+
+    @Deactivate
+    protected void deactivate(ComponentContext ctx){
+        MBeanServer server = mBeanServer;
+        mBeanServer = null;
+        if(server != null){
+            for(ObjectName name : registered){
+                try {
+                    server.unregisterMBean(name);
+                } catch (JMException e) {
+                    log.debug("Unable to unregister MBean "+name, e);
+                }
+            }
+        }
+        registered.clear();
+    }
+
+    @Override
+    protected void statisticsCreated(String type, ExecutionStatistics statistics) {
+        if(mBeanServer != null){
+            register(type, statistics);
+        }
+    }
+
+    private void register(String type, ExecutionStatistics statistics) {
+        MBeanServer server = mBeanServer;
+        if(server == null){
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=" + type
+                + ",name=" + ObjectName.quote(statistics.getName()));
+            if(registered.add(name)){
+                server.registerMBean(statistics, name);
+            }
+        } catch (JMException e) {
+            log.warn("Unable to register MBean for " + type + " " + statistics.getName(), e);
+        }
+    }
+}
@@ -17,12 +17,14 @@
 package org.apache.stanbol.enhancer.nlp.model;
 
 import java.io.IOException;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.stanbol.enhancer.nlp.model.impl.AnalysedTextFactoryImpl;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 
 /**
  * Abstract implementation of the {@link AnalysedTextFactory} that
@@ -56,7 +58,8 @@ public abstract class AnalysedTextFactory {
      * @throws IOException on any error while reading data from the parsed blob
      */
     public final AnalysedText createAnalysedText(ContentItem ci, Blob blob) throws IOException {
-        ci.getLock().readLock().lock();
+        ReadWriteLock lock = ContentItemHelper.getPartLock(ci, AnalysedText.ANALYSED_TEXT_URI);
+        lock.readLock().lock();
         try {
             AnalysedText existing = ci.getPart(AnalysedText.ANALYSED_TEXT_URI, AnalysedText.class);
             throw new IllegalStateException("The AnalysedText ContentPart already exists (impl: "
@@ -69,17 +72,17 @@ public abstract class AnalysedTextFactory {
                 + "type is not compatible with "+AnalysedText.class.getSimpleName()+"!",
                 e);
         } finally {
-            ci.getLock().readLock().unlock();
+            lock.readLock().unlock();
         }
         //create the Analysed text
         AnalysedText at = createAnalysedText(blob);
-        ci.getLock().writeLock().lock();
+        lock.writeLock().lock();
         try {
             //NOTE: there is a possibility that an other thread has added
             // the contentpart
             ci.addPart(AnalysedText.ANALYSED_TEXT_URI, at);
         } finally {
-            ci.getLock().writeLock().unlock();
+            lock.writeLock().unlock();
         }
         return at;
     }
@@ -28,6 +28,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.Map.Entry;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.stanbol.enhancer.nlp.model.impl.SectionImpl;
@@ -37,6 +38,7 @@ import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.SubstituteLoggerFactory;
@@ -64,13 +66,14 @@ public final class AnalysedTextUtils {
      * to {@link AnalysedText}.
      */
     public static AnalysedText getAnalysedText(ContentItem ci){
-        ci.getLock().readLock().lock();
+        Lock readLock = ContentItemHelper.getPartLock(ci, AnalysedText.ANALYSED_TEXT_URI).readLock();
+        readLock.lock();
         try {
             return ci.getPart(AnalysedText.ANALYSED_TEXT_URI, AnalysedText.class);
         } catch (NoSuchPartException e) {
             return null;
         } finally {
-            ci.getLock().readLock().unlock();
+            readLock.unlock();
         }
     }
 
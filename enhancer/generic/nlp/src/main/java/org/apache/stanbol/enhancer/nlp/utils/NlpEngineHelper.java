@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.Dictionary;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.stanbol.enhancer.nlp.NlpProcessingRole;
@@ -181,7 +182,9 @@ public final class NlpEngineHelper {
             }
             Entry<IRI,Blob> textBlob = getPlainText(engine, ci, true);
             //we need to create
-            ci.getLock().writeLock().lock();
+            Lock writeLock = ContentItemHelper.getPartLock(ci, 
+                AnalysedText.ANALYSED_TEXT_URI).writeLock();
+            writeLock.lock();
             try {
                 //try again to retrieve (maybe an concurrent thread has created
                 //the content part in the meantime
@@ -194,7 +197,7 @@ public final class NlpEngineHelper {
                 throw new EngineException("Unable to create AnalysetText instance for Blob "
                     + textBlob.getKey()+ " of ContentItem "+ci.getUri()+"!",e);
             } finally {
-                ci.getLock().writeLock().unlock();
+                writeLock.unlock();
             }
         } else {
             log.debug(" ... use existing AnalysedText instance for Engine {}", engine.getName());
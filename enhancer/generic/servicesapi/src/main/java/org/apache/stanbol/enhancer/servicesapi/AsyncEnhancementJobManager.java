@@ -0,0 +1,73 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+import java.util.concurrent.Future;
+
+/**
+ * Extends the {@link EnhancementJobManager} interface with a non-blocking
+ * variant of {@link #enhanceContent(ContentItem, Chain)}. This allows
+ * callers to keep a large number of enhancement requests in flight without
+ * blocking a thread for every single request.<p>
+ * NOTE: the RESTful interface of the Stanbol Enhancer only uses this
+ * interface for the batch enhancement endpoint. Single enhancement requests
+ * are still processed synchronously, because the Jersey servlet is
+ * registered via the OSGi HttpService that does not support suspended
+ * (Servlet 3.0 async) requests.<p>
+ * Callers are expected to check if the used {@link EnhancementJobManager}
+ * is an instance of this interface and otherwise to fall back to the
+ * blocking {@link #enhanceContent(ContentItem, Chain)} method.
+ */
+public interface AsyncEnhancementJobManager extends EnhancementJobManager {
+
+    /**
+     * Starts the asynchronous enhancement of the parsed {@link ContentItem}
+     * by using the {@link Chain#getExecutionPlan() execution plan} of the
+     * parsed {@link Chain}. This method does not wait for the enhancement
+     * process to complete.<p>
+     * Implementations MAY block the calling thread while waiting for resources
+     * (e.g. if the maximum number of concurrently processed ContentItems is
+     * reached) and reject requests by throwing an {@link EnhancementException}
+     * if those do not become available in time. Implementations are expected
+     * to apply the same timeout to enhancement processes as used by
+     * {@link #enhanceContent(ContentItem, Chain)} and to notify the callback
+     * about the failure. 
+     * @param ci the ContentItem to be enhanced
+     * @param chain the enhancement Chain used to process the content item
+     * @param callback the callback notified as soon as the enhancement has
+     * completed or failed. <code>null</code> if no callback is needed.
+     * @return the future for the enhancement process. {@link Future#get()}
+     * returns the enhanced {@link ContentItem} or throws an
+     * {@link java.util.concurrent.ExecutionException} with the exception that
+     * caused the enhancement process to fail. {@link Future#cancel(boolean)}
+     * stops the execution of engines not yet started.
+     * @throws EnhancementException if the enhancement process could not be
+     * started
+     */
+    Future<ContentItem> enhanceContentAsync(ContentItem ci, Chain chain, 
+            EnhancementJobCallback callback) throws EnhancementException;
+    /**
+     * The maximum time an enhancement process started by
+     * {@link #enhanceContentAsync(ContentItem, Chain, EnhancementJobCallback)}
+     * may take (including the time waiting for a free slot). Processes that
+     * take longer are cancelled and the callback is notified about the
+     * failure.
+     * @return the maximum wait time in milliseconds
+     */
+    long getMaxEnhancementJobWaitTime();
+
+}
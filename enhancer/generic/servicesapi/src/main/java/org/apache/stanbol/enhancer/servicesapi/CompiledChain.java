@@ -0,0 +1,41 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+
+/**
+ * A {@link Chain} that provides a {@link CompiledExecutionPlan} for its
+ * execution plan. This allows {@link EnhancementJobManager}s to schedule
+ * the execution of engines without querying the RDF graph of the execution
+ * plan.
+ */
+public interface CompiledChain extends Chain {
+    /**
+     * Getter for the compiled version of the current execution plan. 
+     * Implementations are expected to cache the returned instance until
+     * the {@link #getExecutionPlan() execution plan} changes or engines
+     * referenced by the chain come and go.
+     * {@link CompiledExecutionPlan#getExecutionPlan()} MUST return the
+     * {@link ImmutableGraph} the plan was compiled from.
+     * @return the compiled execution plan
+     * @throws ChainException If the execution plan can not be created.
+     */
+    CompiledExecutionPlan getCompiledExecutionPlan() throws ChainException;
+
+}
@@ -78,6 +78,11 @@ public interface EnhancementEngine {
      * modifying information of the {@link ContentItem}. For Engines that that
      * do use {@link #ENHANCE_SYNCHRONOUS} the {@link EnhancementJobManager}
      * is responsible to acquire a write lock before calling this method. 
+     * Engines that declare the 
+     * {@link ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES} property
+     * might get a view of the ContentItem that buffers all changes. In this
+     * case no write lock is acquired and the engine uses the metadata and
+     * part locks of the view (see {@link PartLockingContentItem}).
      * <p>
      * <b>NOTE</b>: If an EnhancementEngine can not extract any information it
      * is expected to return. In case an error is encountered during processing
@@ -0,0 +1,45 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+/**
+ * Callback notified by an {@link AsyncEnhancementJobManager} as soon as the
+ * enhancement of a {@link ContentItem} has finished.<p>
+ * Implementations MUST expect to be called by threads of the
+ * {@link EnhancementJobManager} and therefore SHOULD NOT perform long
+ * running or blocking operations.
+ */
+public interface EnhancementJobCallback {
+
+    /**
+     * Called if the {@link ContentItem} was successfully enhanced
+     * @param ci the enhanced content item
+     */
+    void completed(ContentItem ci);
+
+    /**
+     * Called if the enhancement of the {@link ContentItem} has failed. This
+     * includes cancelled enhancement jobs.
+     * @param ci the content item
+     * @param e the exception. The same as thrown by the synchronous
+     * {@link EnhancementJobManager#enhanceContent(ContentItem, Chain)} method.
+     * NOTE that {@link SecurityException}s thrown by engines are wrapped by
+     * an {@link EnhancementException}.
+     */
+    void failed(ContentItem ci, EnhancementException e);
+
+}
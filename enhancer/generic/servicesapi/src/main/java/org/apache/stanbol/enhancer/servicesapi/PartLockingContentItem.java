@@ -0,0 +1,56 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.clerezza.commons.rdf.IRI;
+
+/**
+ * A {@link ContentItem} that uses a separate lock for its metadata and for
+ * every content part in addition to the lock returned by
+ * {@link ContentItem#getLock()}.<p>
+ * Typically implemented by the views parsed to engines that declare the
+ * {@link ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES} property.
+ * Engines should not check for this interface but use
+ * {@link org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper#getMetadataLock(ContentItem)}
+ * and {@link org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper#getPartLock(ContentItem, IRI)}
+ * as those fall back to {@link ContentItem#getLock()} for other ContentItems.
+ */
+public interface PartLockingContentItem extends ContentItem {
+
+    /**
+     * The lock used to access the {@link #getMetadata() metadata}. Equals
+     * to the lock of the metadata {@link org.apache.clerezza.commons.rdf.Graph}.
+     * @return the lock for the metadata
+     */
+    ReadWriteLock getMetadataLock();
+
+    /**
+     * The lock used to read/modify the content part with the parsed URI.
+     * The same lock is returned for all views of the same ContentItem.
+     * The part does not need to exist (e.g. to guard adding it).<p>
+     * If several part locks are needed they should be acquired in the
+     * order of the {@link IRI#getUnicodeString() URIs} of the parts to
+     * avoid deadlocks.
+     * @param partUri the URI of the content part
+     * @return the lock for the content part
+     * @throws IllegalArgumentException if <code>null</code> is parsed as URI
+     */
+    ReadWriteLock getPartLock(IRI partUri);
+
+}
@@ -40,6 +40,31 @@ public interface ServiceProperties {
      */
     String ENHANCEMENT_ENGINE_ORDERING = "org.apache.stanbol.enhancer.engine.order";
 
+    /**
+     * Property Key used by {@link EnhancementEngine}s to declare that they
+     * support to be executed in the "buffered writes" mode. This property
+     * expects a single {@link Boolean} as value.<p>
+     * In this mode {@link EnhancementJobManager} implementations that support
+     * it parse a view of the {@link ContentItem} to 
+     * {@link EnhancementEngine#computeEnhancements(ContentItem)}: the content
+     * and the metadata are read from the ContentItem, but all changes to the
+     * metadata and all added/removed content parts are buffered and only
+     * committed to the ContentItem after the engine has completed. Because
+     * of that the engine does not need an exclusive write lock on the 
+     * ContentItem while computing its enhancements and other engines of the
+     * same execution plan can run in parallel.<p>
+     * Engines that declare this property MUST use
+     * {@link org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper#getMetadataLock(ContentItem)}
+     * to lock the metadata and
+     * {@link org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper#getPartLock(ContentItem, org.apache.clerezza.commons.rdf.IRI)}
+     * to lock content parts they read or modify (e.g. an existing
+     * AnalysedText) instead of {@link ContentItem#getLock()}. The view parsed
+     * in this mode implements {@link PartLockingContentItem}. For other
+     * ContentItems both methods return {@link ContentItem#getLock()}.<p>
+     * Job managers that do not support this mode will ignore this property.
+     */
+    String ENHANCEMENT_ENGINE_BUFFERED_WRITES = "org.apache.stanbol.enhancer.engine.bufferedWrites";
+
     /**
      * Ordering values >= this value indicate, that an enhancement engine
      * dose some pre processing on the content
@@ -32,12 +32,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.commons.io.IOUtils;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.PartLockingContentItem;
 
 
 /**
@@ -356,6 +358,47 @@ public final class ContentItemHelper {
         return mimeType.toString();
     }
 
+    /**
+     * Getter for the lock that needs to be used to read/write the
+     * {@link ContentItem#getMetadata() metadata} of the parsed ContentItem.
+     * This is the {@link PartLockingContentItem#getMetadataLock() metadata lock}
+     * for {@link PartLockingContentItem}s and {@link ContentItem#getLock()}
+     * for all other ContentItems.
+     * @param ci the content item
+     * @return the lock for the metadata
+     * @throws IllegalArgumentException if the parsed {@link ContentItem} is
+     * <code>null</code>
+     */
+    public static ReadWriteLock getMetadataLock(ContentItem ci){
+        if(ci == null){
+            throw new IllegalArgumentException("The parsed ContentItem MUST NOT be NULL!");
+        }
+        return ci instanceof PartLockingContentItem ? 
+                ((PartLockingContentItem)ci).getMetadataLock() : ci.getLock();
+    }
+    /**
+     * Getter for the lock that needs to be used to read/modify the content
+     * part with the parsed URI. This is the
+     * {@link PartLockingContentItem#getPartLock(IRI) part lock} for
+     * {@link PartLockingContentItem}s and {@link ContentItem#getLock()} for
+     * all other ContentItems.
+     * @param ci the content item
+     * @param partUri the URI of the content part
+     * @return the lock for the content part
+     * @throws IllegalArgumentException if the parsed {@link ContentItem} or
+     * URI is <code>null</code>
+     */
+    public static ReadWriteLock getPartLock(ContentItem ci, IRI partUri){
+        if(ci == null){
+            throw new IllegalArgumentException("The parsed ContentItem MUST NOT be NULL!");
+        }
+        if(partUri == null){
+            throw new IllegalArgumentException("The parsed content part URI MUST NOT be NULL!");
+        }
+        return ci instanceof PartLockingContentItem ? 
+                ((PartLockingContentItem)ci).getPartLock(partUri) : ci.getLock();
+    }
+
     /*
      * EnhancementProperties support for 0.12 (see STANBOL-1280) 
      */
@@ -20,6 +20,7 @@ import static org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHe
 import static org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper.getReference;
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.getEngine;
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.getExecutionNodes;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.ADDED_TRIPLES;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.CHAIN_EXECUTION;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.COMPLETED;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.ENGINE_EXECUTION;
@@ -30,6 +31,7 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.EXEC
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.EXECUTION_PART;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.EXECUTION_PLAN;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.IS_DEFAULT_CHAIN;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.REMOVED_TRIPLES;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STARTED;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STATUS;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STATUS_COMPLETED;
@@ -183,6 +185,26 @@ public final class ExecutionMetadataHelper {
         graph.add(new TripleImpl(execution, STARTED, dateTime));
     }
     
+    /**
+     * Sets the number of triples added/removed to the metadata of the
+     * ContentItem by an execution. Existing values are replaced.
+     * @param graph the graph holding the execution metadata
+     * @param execution the execution node
+     * @param added the number of added triples
+     * @param removed the number of removed triples
+     */
+    public static void setExecutionDelta(Graph graph, BlankNodeOrIRI execution, int added, int removed){
+        for(IRI property : new IRI[]{ADDED_TRIPLES, REMOVED_TRIPLES}){
+            Iterator<Triple> it = graph.filter(execution, property, null);
+            while(it.hasNext()){
+                it.next();
+                it.remove();
+            }
+        }
+        graph.add(new TripleImpl(execution, ADDED_TRIPLES, lf.createTypedLiteral(added)));
+        graph.add(new TripleImpl(execution, REMOVED_TRIPLES, lf.createTypedLiteral(removed)));
+    }
+    
     /**
      * Removes the current value of {@link ExecutionMetadata#STATUS} and set it
      * to the parsed value.
@@ -544,4 +566,24 @@ public final class ExecutionMetadataHelper {
     public static Date getCompleted(Graph graph, BlankNodeOrIRI execution){
         return get(graph, execution, ExecutionMetadata.COMPLETED, Date.class, lf);
     }
+    /**
+     * Getter for the number of triples an 'em:Execution' has added to the
+     * metadata of the ContentItem
+     * @param graph the graph
+     * @param execution the execution instance
+     * @return the number of added triples or <code>null</code> if not present
+     */
+    public static Integer getAddedTriples(Graph graph, BlankNodeOrIRI execution){
+        return get(graph, execution, ADDED_TRIPLES, Integer.class, lf);
+    }
+    /**
+     * Getter for the number of triples an 'em:Execution' has removed from the
+     * metadata of the ContentItem
+     * @param graph the graph
+     * @param execution the execution instance
+     * @return the number of removed triples or <code>null</code> if not present
+     */
+    public static Integer getRemovedTriples(Graph graph, BlankNodeOrIRI execution){
+        return get(graph, execution, REMOVED_TRIPLES, Integer.class, lf);
+    }
 }
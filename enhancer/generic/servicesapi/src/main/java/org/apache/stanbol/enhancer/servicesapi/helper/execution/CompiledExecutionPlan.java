@@ -0,0 +1,307 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.helper.execution;
+
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.DEPENDS_ON;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.EXECUTION_NODE;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDF_TYPE;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.CompiledChain;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+
+/**
+ * Immutable, compiled representation of an ExecutionPlan. All
+ * {@link org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan#EXECUTION_NODE ep:ExecutionNode}s
+ * are assigned an int id in the range <code>[0..{@link #size()})</code>.
+ * Engine names, optional flags and dependencies are read once from the RDF
+ * graph so that {@link org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager}
+ * implementations can schedule executions without querying the graph.<p>
+ * If an {@link EnhancementEngineManager} is parsed to
+ * {@link #compile(ImmutableGraph, EnhancementEngineManager)} the engines
+ * active at that time are resolved. Chains that track engines are expected
+ * to compile a new instance if engines come and go.
+ *
+ * @see CompiledChain
+ */
+public final class CompiledExecutionPlan {
+
+    private final ImmutableGraph executionPlan;
+    private final BlankNodeOrIRI[] nodes;
+    private final Map<BlankNodeOrIRI,Integer> nodeIds;
+    private final String[] engineNames;
+    private final EnhancementEngine[] engines;
+    private final boolean[] optional;
+    /**
+     * The ids of the nodes a node depends on
+     */
+    private final BitSet[] dependsOn;
+    /**
+     * The ids of the nodes depending on a node
+     */
+    private final int[][] dependents;
+    /**
+     * The ids of the nodes without dependencies
+     */
+    private final int[] roots;
+
+    private CompiledExecutionPlan(ImmutableGraph executionPlan, List<BlankNodeOrIRI> nodeList,
+            EnhancementEngineManager engineManager) throws ChainException {
+        this.executionPlan = executionPlan;
+        int size = nodeList.size();
+        nodes = nodeList.toArray(new BlankNodeOrIRI[size]);
+        nodeIds = new HashMap<BlankNodeOrIRI,Integer>(size * 2);
+        for(int i = 0; i < size; i++){
+            nodeIds.put(nodes[i], i);
+        }
+        engineNames = new String[size];
+        engines = new EnhancementEngine[size];
+        optional = new boolean[size];
+        dependsOn = new BitSet[size];
+        int[] dependentCount = new int[size];
+        List<Integer> rootList = new ArrayList<Integer>();
+        for(int i = 0; i < size; i++){
+            engineNames[i] = ExecutionPlanHelper.getEngine(executionPlan, nodes[i]);
+            if(engineNames[i] == null){
+                throw new ChainException("Execution Node "+nodes[i]+" does not define " +
+                        "an engine!");
+            }
+            if(engineManager != null){
+                engines[i] = engineManager.getEngine(engineNames[i]);
+            }
+            optional[i] = ExecutionPlanHelper.isOptional(executionPlan, nodes[i]);
+            BitSet deps = new BitSet(size);
+            for(Iterator<Triple> it = executionPlan.filter(nodes[i], DEPENDS_ON, null); it.hasNext();){
+                RDFTerm o = it.next().getObject();
+                Integer dep = nodeIds.get(o);
+                if(dep == null){
+                    throw new ChainException("Execution Node "+nodes[i]+
+                        " defines a dependency to an non existent ex:ExectutionNode "+
+                        o+"!");
+                }
+                deps.set(dep);
+                dependentCount[dep]++;
+            }
+            dependsOn[i] = deps;
+            if(deps.isEmpty()){
+                rootList.add(i);
+            }
+        }
+        dependents = new int[size][];
+        for(int i = 0; i < size; i++){
+            dependents[i] = new int[dependentCount[i]];
+            dependentCount[i] = 0;
+        }
+        for(int i = 0; i < size; i++){
+            for(int dep = dependsOn[i].nextSetBit(0); dep >= 0; dep = dependsOn[i].nextSetBit(dep+1)){
+                dependents[dep][dependentCount[dep]++] = i;
+            }
+        }
+        roots = new int[rootList.size()];
+        for(int i = 0; i < roots.length; i++){
+            roots[i] = rootList.get(i);
+        }
+    }
+    /**
+     * Compiles the parsed execution plan
+     * @param executionPlan the execution plan
+     * @param engineManager used to resolve the engines or <code>null</code>
+     * to not resolve engines
+     * @return the compiled execution plan
+     * @throws ChainException if the parsed execution plan is not valid
+     */
+    public static CompiledExecutionPlan compile(ImmutableGraph executionPlan,
+            EnhancementEngineManager engineManager) throws ChainException {
+        if(executionPlan == null){
+            throw new IllegalArgumentException("The parsed execution plan MUST NOT be NULL!");
+        }
+        List<BlankNodeOrIRI> nodes = new ArrayList<BlankNodeOrIRI>();
+        for(Iterator<Triple> it = executionPlan.filter(null, RDF_TYPE, EXECUTION_NODE); it.hasNext();){
+            nodes.add(it.next().getSubject());
+        }
+        return new CompiledExecutionPlan(executionPlan, nodes, engineManager);
+    }
+    /**
+     * Compiles the execution plan of the parsed chain. If the chain is a
+     * {@link CompiledChain} its compiled plan is returned.
+     * @param chain the chain
+     * @return the compiled execution plan
+     * @throws ChainException if the execution plan of the chain is not
+     * available or not valid
+     */
+    public static CompiledExecutionPlan compile(Chain chain) throws ChainException {
+        if(chain instanceof CompiledChain){
+            CompiledExecutionPlan plan = ((CompiledChain)chain).getCompiledExecutionPlan();
+            if(plan != null){
+                return plan;
+            }
+        }
+        ImmutableGraph ep = chain.getExecutionPlan();
+        if(ep == null){
+            throw new ChainException("The Chain '"+chain.getName()+"' does not provide an "
+                + "execution plan!");
+        }
+        return compile(ep, null);
+    }
+    /**
+     * The execution plan this instance was compiled from
+     * @return the execution plan
+     */
+    public ImmutableGraph getExecutionPlan() {
+        return executionPlan;
+    }
+    /**
+     * The number of ep:ExecutionNodes
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.length;
+    }
+    /**
+     * The ep:ExecutionNode for the parsed id
+     * @param id the id
+     * @return the node
+     */
+    public BlankNodeOrIRI getNode(int id) {
+        return nodes[id];
+    }
+    /**
+     * The id of an ep:ExecutionNode
+     * @param node the node
+     * @return the id or <code>-1</code> if the parsed node is not part of
+     * this execution plan
+     */
+    public int getId(BlankNodeOrIRI node) {
+        Integer id = nodeIds.get(node);
+        return id == null ? -1 : id.intValue();
+    }
+    /**
+     * The name of the engine executed by a node
+     * @param id the node id
+     * @return the engine name
+     */
+    public String getEngineName(int id) {
+        return engineNames[id];
+    }
+    /**
+     * The engine executed by a node as resolved when this plan was compiled.
+     * @param id the node id
+     * @return the engine or <code>null</code> if engines where not resolved
+     * or the engine was not active
+     */
+    public EnhancementEngine getEngine(int id) {
+        return engines[id];
+    }
+    /**
+     * If the execution of a node is optional
+     * @param id the node id
+     * @return the optional state
+     */
+    public boolean isOptional(int id) {
+        return optional[id];
+    }
+    /**
+     * The ids of the nodes the parsed node depends on
+     * @param id the node id
+     * @return a copy of the dependencies
+     */
+    public BitSet getDependsOn(int id) {
+        return (BitSet)dependsOn[id].clone();
+    }
+    /**
+     * The number of nodes the parsed node depends on
+     * @param id the node id
+     * @return the number of dependencies
+     */
+    public int getDependencyCount(int id) {
+        return dependsOn[id].cardinality();
+    }
+    /**
+     * If all dependencies of the parsed node are contained in the parsed set
+     * @param id the node id
+     * @param completed the ids of completed nodes
+     * @return <code>true</code> if all dependencies are completed
+     */
+    public boolean isExecutable(int id, BitSet completed) {
+        BitSet deps = dependsOn[id];
+        for(int dep = deps.nextSetBit(0); dep >= 0; dep = deps.nextSetBit(dep+1)){
+            if(!completed.get(dep)){
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * The ids of the nodes depending on the parsed node. The returned array
+     * MUST NOT be modified.
+     * @param id the node id
+     * @return the ids of the dependent nodes
+     */
+    public int[] getDependents(int id) {
+        return dependents[id];
+    }
+    /**
+     * The ids of the nodes without dependencies. The returned array MUST
+     * NOT be modified.
+     * @return the ids of the nodes to start the execution with
+     */
+    public int[] getRoots() {
+        return roots;
+    }
+    /**
+     * The names of all engines referenced by this plan
+     * @return the engine names
+     */
+    public List<String> getEngineNames() {
+        List<String> names = new ArrayList<String>(engineNames.length);
+        Collections.addAll(names, engineNames);
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CompiledExecutionPlan[");
+        for(int i = 0; i < nodes.length; i++){
+            if(i > 0){
+                sb.append(", ");
+            }
+            sb.append(i).append(':').append(engineNames[i]);
+            if(optional[i]){
+                sb.append("(optional)");
+            }
+            if(!dependsOn[i].isEmpty()){
+                sb.append(" -> ").append(dependsOn[i]);
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -14,7 +14,7 @@
 * See the License for the specific language governing permissions and
 * limitations under the License.
 */
-package org.apache.stanbol.enhancer.jobmanager.event.impl;
+package org.apache.stanbol.enhancer.servicesapi.helper.execution;
 
 import static org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper.getReference;
 import static org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper.getString;
@@ -27,35 +27,37 @@ import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHe
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionFaild;
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionInProgress;
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.getDependend;
-import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.getEngine;
-import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.isOptional;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STATUS;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STATUS_IN_PROGRESS;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.CHAIN;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.clerezza.commons.rdf.ImmutableGraph;
 import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
 import org.apache.clerezza.commons.rdf.IRI;
-import org.apache.commons.collections.BidiMap;
-import org.apache.commons.collections.bidimap.DualHashBidiMap;
+import org.apache.stanbol.commons.indexedgraph.IndexedImmutableGraph;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
 import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper;
-import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
 import org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,7 +66,9 @@ import org.slf4j.LoggerFactory;
  * Represents the enhancement of a {@link ContentItem} by following the
  * execution plan provided by a {@link Chain} as parsed to an
  * {@link EnhancementJobManager}.<p>
- * TODO: This might become part of the Stanbol Enhancer Services API.
+ * Shared by the {@link EnhancementJobManager} implementations. Scheduling
+ * is based on the {@link CompiledExecutionPlan} so that the state of the
+ * job can be updated without querying the execution plan graph.
  * 
  * @author Rupert Westenthaler
  */
@@ -89,6 +93,16 @@ public class EnhancementJob {
      * The read only executionPlan
      */
     private final ImmutableGraph executionPlan;
+    /**
+     * The compiled {@link #executionPlan} used to schedule executions
+     * without querying the RDF graph
+     */
+    private final CompiledExecutionPlan plan;
+    /**
+     * The em:Execution instances indexed by the id of their ep:ExecutionNode
+     * in the {@link #plan}
+     */
+    private final BlankNodeOrIRI[] executions;
     /**
      * The read/write able execution metadata. Also accessible via
      * {@link ContentItem#getPart(IRI, Class)} with the URI
@@ -99,7 +113,11 @@ public class EnhancementJob {
      * Map with the em:Execution nodes of the em:ChainExecution for this
      * ContentItem. Values are are ep:ExecutionNodes of the ep:ExecutionPlan
      */
-    private final BidiMap executionsMap;
+    private final Map<BlankNodeOrIRI,BlankNodeOrIRI> executionsMap;
+    /**
+     * The inverse of the {@link #executionsMap}
+     */
+    private final Map<BlankNodeOrIRI,BlankNodeOrIRI> executionNodesMap;
     /**
      * The em:ChainExecution for this {@link ContentItem}
      */
@@ -137,6 +155,27 @@ public class EnhancementJob {
      * instance every time {@link #running} changes.
      */
     private Set<BlankNodeOrIRI> runningExec = Collections.emptySet();
+    /**
+     * The ids of the {@link #completed} nodes
+     */
+    private final BitSet completedIds;
+    /**
+     * The ids of the {@link #running} nodes
+     */
+    private final BitSet runningIds;
+    /**
+     * The number of not yet completed dependencies of the nodes (by id)
+     */
+    private final int[] pendingDependencies;
+    /**
+     * The ids of nodes that are neither running nor completed and do not
+     * have pending dependencies.
+     */
+    private final BitSet readyIds;
+    /**
+     * If the em:ChainExecution is failed
+     */
+    private boolean failed;
 
     /**
      * Unmodifiable and final set of executable em:Execution nodes. 
@@ -152,6 +191,20 @@ public class EnhancementJob {
      * @see #getError()
      */
     private Exception error = null;
+    /**
+     * Immutable snapshot of the metadata of the {@link #contentItem}. Created
+     * lazily by {@link #getMetadataSnapshot()} and reset by
+     * {@link #invalidateMetadataSnapshot()}.
+     */
+    private Graph metadataSnapshot;
+    private final Object snapshotLock = new Object();
+    /**
+     * Locks for the content parts of the {@link #contentItem} used by
+     * engines executed on a {@link org.apache.stanbol.enhancer.servicesapi.PartLockingContentItem}.
+     * Created lazily by {@link #getPartLock(IRI)}.
+     */
+    private final ConcurrentMap<IRI,ReadWriteLock> partLocks = 
+            new ConcurrentHashMap<IRI,ReadWriteLock>();
     /**
      * Constructor used to create and initialise a new enhancement job. This
      * will create the initial set of ExecutionMetadata and add them as
@@ -163,16 +216,29 @@ public class EnhancementJob {
      * @param isDefaultChain
      */
     public EnhancementJob(ContentItem contentItem, String chainName, ImmutableGraph executionPlan, boolean isDefaultChain) {
-        if (contentItem == null || chainName == null || executionPlan == null) {
+        this(contentItem, chainName, compile(executionPlan), isDefaultChain);
+    }
+    /**
+     * Constructor used to create and initialise a new enhancement job based
+     * on a compiled execution plan (e.g. as cached by a
+     * {@link org.apache.stanbol.enhancer.servicesapi.CompiledChain}).
+     * @param contentItem
+     * @param chainName
+     * @param compiledPlan
+     * @param isDefaultChain
+     */
+    public EnhancementJob(ContentItem contentItem, String chainName, CompiledExecutionPlan compiledPlan, boolean isDefaultChain) {
+        if (contentItem == null || chainName == null || compiledPlan == null) {
             throw new IllegalArgumentException("The parsed contentItem and executionPlan MUST NOT be NULL");
         }
+        ImmutableGraph executionPlan = compiledPlan.getExecutionPlan();
         this.readLock = contentItem.getLock().readLock();
         this.writeLock = contentItem.getLock().writeLock();
         executionMetadata = initExecutionMetadataContentPart(contentItem);
         if(executionMetadata.isEmpty()){
             //if we init from scratch 
-            this.executionsMap = new DualHashBidiMap(initExecutionMetadata(executionMetadata, executionPlan, 
-                contentItem.getUri(), chainName, isDefaultChain));
+            this.executionsMap = initExecutionMetadata(executionMetadata, executionPlan, 
+                contentItem.getUri(), chainName, isDefaultChain);
             chainExecutionNode = getChainExecution(executionMetadata, contentItem.getUri());
             executionPlanNode = getExecutionPlanNode(executionMetadata, chainExecutionNode);
             executionMetadata.addAll(executionPlan);
@@ -184,6 +250,14 @@ public class EnhancementJob {
         this.contentItem = contentItem;
         this.executionPlan = executionPlan;
         this.chain = chainName;
+        this.executionNodesMap = invert(executionsMap);
+        this.plan = compiledPlan;
+        this.executions = new BlankNodeOrIRI[plan.size()];
+        this.completedIds = new BitSet(plan.size());
+        this.runningIds = new BitSet(plan.size());
+        this.readyIds = new BitSet(plan.size());
+        this.pendingDependencies = new int[plan.size()];
+        initSchedulingState();
         //check the first engines to execute
         checkExecutable();
     }
@@ -249,10 +323,65 @@ public class EnhancementJob {
                completed.add(executionEntry.getValue());
             }
         }
-        this.executionsMap = new DualHashBidiMap(executionsMap);
+        this.executionsMap = executionsMap;
+        this.executionNodesMap = invert(executionsMap);
+        this.plan = compile(executionPlan);
+        this.executions = new BlankNodeOrIRI[plan.size()];
+        this.completedIds = new BitSet(plan.size());
+        this.runningIds = new BitSet(plan.size());
+        this.readyIds = new BitSet(plan.size());
+        this.pendingDependencies = new int[plan.size()];
+        this.failed = isExecutionFailed(executionMetadata, chainExecutionNode);
+        initSchedulingState();
         //check the first engines to execute after continuation
         checkExecutable();
     }
+    /**
+     * Creates the inverse of the parsed em:Execution to ep:ExecutionNode map
+     */
+    private static Map<BlankNodeOrIRI,BlankNodeOrIRI> invert(Map<BlankNodeOrIRI,BlankNodeOrIRI> map){
+        Map<BlankNodeOrIRI,BlankNodeOrIRI> inverse = new HashMap<BlankNodeOrIRI,BlankNodeOrIRI>(map.size()*2);
+        for(Entry<BlankNodeOrIRI,BlankNodeOrIRI> entry : map.entrySet()){
+            inverse.put(entry.getValue(), entry.getKey());
+        }
+        return inverse;
+    }
+    /**
+     * Compiles the parsed execution plan
+     * @throws IllegalArgumentException if the execution plan is not valid
+     */
+    private static CompiledExecutionPlan compile(ImmutableGraph executionPlan){
+        if(executionPlan == null){
+            throw new IllegalArgumentException("The parsed executionPlan MUST NOT be NULL");
+        }
+        try {
+            return CompiledExecutionPlan.compile(executionPlan, null);
+        } catch (ChainException e) {
+            throw new IllegalArgumentException("Unable to compile the parsed execution plan", e);
+        }
+    }
+    /**
+     * Initialises {@link #executions}, {@link #completedIds},
+     * {@link #pendingDependencies} and {@link #readyIds} based on the
+     * {@link #plan}, {@link #executionsMap} and {@link #completed}
+     */
+    private void initSchedulingState(){
+        for(int id = 0; id < plan.size(); id++){
+            BlankNodeOrIRI node = plan.getNode(id);
+            executions[id] = getExecution(node);
+            if(completed.contains(node)){
+                completedIds.set(id);
+            }
+        }
+        for(int id = 0; id < plan.size(); id++){
+            BitSet dependsOn = plan.getDependsOn(id);
+            dependsOn.andNot(completedIds);
+            pendingDependencies[id] = dependsOn.cardinality();
+            if(pendingDependencies[id] == 0 && !completedIds.get(id)){
+                readyIds.set(id);
+            }
+        }
+    }
 
     /**
      * Getter for the ep:ExecutionNode linked to a em:Execution
@@ -261,7 +390,7 @@ public class EnhancementJob {
      * part of the execution metadata of this enhancement job
      */
     public BlankNodeOrIRI getExecutionNode(BlankNodeOrIRI execution){
-        BlankNodeOrIRI node = (BlankNodeOrIRI)executionsMap.get(execution);
+        BlankNodeOrIRI node = executionsMap.get(execution);
         if(node == null){
             throw new IllegalArgumentException("Unknown sp:ExecutionNode instance "+node);
         }
@@ -274,13 +403,52 @@ public class EnhancementJob {
      * part of the execution plan of this enhancement job
      */
     public BlankNodeOrIRI getExecution(BlankNodeOrIRI executionNode){
-        BlankNodeOrIRI execution = (BlankNodeOrIRI)executionsMap.getKey(executionNode);
+        BlankNodeOrIRI execution = executionNodesMap.get(executionNode);
         if(execution == null){
             throw new IllegalArgumentException("Unknown em:Execution instance "+executionNode);
         }
         return execution;
     }
 
+    /**
+     * The compiled execution plan used for processing the {@link ContentItem}
+     * @return the compiled execution plan
+     */
+    public final CompiledExecutionPlan getCompiledExecutionPlan() {
+        return plan;
+    }
+    /**
+     * Getter for the name of the engine of an em:Execution
+     * @param execution the em:Execution
+     * @return the name of the engine
+     * @throws IllegalArgumentException if the parsed em:Execution is not
+     * part of the execution metadata of this enhancement job
+     */
+    public String getEngineName(BlankNodeOrIRI execution){
+        return plan.getEngineName(getId(getExecutionNode(execution)));
+    }
+    /**
+     * Getter for the engine of an em:Execution as resolved when the execution
+     * plan was compiled.
+     * @param execution the em:Execution
+     * @return the engine or <code>null</code> if not resolved
+     * @throws IllegalArgumentException if the parsed em:Execution is not
+     * part of the execution metadata of this enhancement job
+     */
+    public EnhancementEngine getEngine(BlankNodeOrIRI execution){
+        return plan.getEngine(getId(getExecutionNode(execution)));
+    }
+    /**
+     * The id of the parsed ep:ExecutionNode in the {@link #plan}
+     */
+    private int getId(BlankNodeOrIRI executionNode){
+        int id = plan.getId(executionNode);
+        if(id < 0){
+            throw new IllegalArgumentException("Unknown ep:ExecutionNode instance "+executionNode);
+        }
+        return id;
+    }
+
     /**
      * The used execution plan for processing the {@link ContentItem}
      * 
@@ -377,13 +545,14 @@ public class EnhancementJob {
         }
         writeLock.lock();
         BlankNodeOrIRI executionNode = getExecutionNode(execution);
-        log.trace("++ w: {}: {}","setCompleted",getEngine(executionPlan, executionNode));
+        String engine = plan.getEngineName(getId(executionNode));
+        log.trace("++ w: {}: {}","setCompleted",engine);
         try {
-            log.trace(">> w: {}: {}","setCompleted",getEngine(executionPlan, executionNode));
+            log.trace(">> w: {}: {}","setCompleted",engine);
             setNodeCompleted(executionNode);
             setExecutionCompleted(executionMetadata, execution, null);
         } finally {
-            log.trace("<< w: {}: {}","setCompleted",getEngine(executionPlan, executionNode));
+            log.trace("<< w: {}: {}","setCompleted",engine);
             writeLock.unlock();
         }
     }
@@ -397,10 +566,10 @@ public class EnhancementJob {
      * finished. 
      */
     private void setNodeCompleted(BlankNodeOrIRI executionNode) {
-        String engine = getEngine(executionPlan, executionNode);
-        boolean optional = isOptional(executionPlan, executionNode);
-        Set<BlankNodeOrIRI> dependsOn = getDependend(executionPlan, executionNode);
-        if (completed.contains(executionNode)) {
+        int id = getId(executionNode);
+        String engine = plan.getEngineName(id);
+        boolean optional = plan.isOptional(id);
+        if (completedIds.get(id)) {
             log.warn("Execution of Engine '{}' for ContentItem {} already "
                      + "marked as completed(chain: {}, node: {}, optional {})."
                      + " -> call ignored", 
@@ -408,7 +577,7 @@ public class EnhancementJob {
                                    chain, executionNode, optional});
             return;
         }
-        if (!completed.containsAll(dependsOn)) {
+        if (pendingDependencies[id] > 0) {
             // TODO maybe define an own Exception for such cases
             throw new IllegalStateException("Unable to set state of ExectionNode '"
                     + executionNode+ "' (chain '"+ chain
@@ -416,9 +585,12 @@ public class EnhancementJob {
                     + "') to completed, because some of its depended "
                     + "nodes are not marked completed yet. This indicates an Bug in the "
                     + "implementation of the JobManager used to execute the ExecutionPlan. "
-                    + "(this.dependsOn=" + dependsOn + "| chain.completed " + completed
+                    + "(this.dependsOn=" + getDependend(executionPlan, executionNode)
+                    + "| chain.completed " + completed
                     + " | chain.running " + running + ")!");
         }
+        runningIds.clear(id);
+        readyIds.clear(id);
         if (running.remove(executionNode)) {
             log.trace(
                 "Execution of '{}' for ContentItem {} completed "
@@ -427,6 +599,14 @@ public class EnhancementJob {
                               chain, executionNode, optional});
         }
         completed.add(executionNode);
+        completedIds.set(id);
+        //nodes depending on the completed one might become executable
+        for(int dependent : plan.getDependents(id)){
+            if(--pendingDependencies[dependent] == 0 && !completedIds.get(dependent)
+                    && !runningIds.get(dependent)){
+                readyIds.set(dependent);
+            }
+        }
         //update the set with the completed and running executables
         updateCompletedExec();
         updateRunningExec();
@@ -452,14 +632,14 @@ public class EnhancementJob {
             throw new IllegalArgumentException("The parsed em:Execution instance MUST NOT be NULL!");
         }
         BlankNodeOrIRI executionNode = getExecutionNode(execution);
-        String engine = getEngine(executionPlan, executionNode);
-        boolean optional = isOptional(executionPlan, executionNode);
-        Set<BlankNodeOrIRI> dependsOn = getDependend(executionPlan, executionNode);
-        log.trace("++ w: {}: {}","setRunning",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+        int id = getId(executionNode);
+        String engine = plan.getEngineName(id);
+        boolean optional = plan.isOptional(id);
+        log.trace("++ w: {}: {}","setRunning",engine);
         writeLock.lock();
         try {
-            log.trace(">> w: {}: {}","setRunning",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
-            if (completed.contains(executionNode)) {
+            log.trace(">> w: {}: {}","setRunning",engine);
+            if (completedIds.get(id)) {
                 String message = "Unable to set state of ExectionNode '" + executionNode + "'(chain '"
                                  + chain + "' | contentItem '" + contentItem.getUri()
                                  + "') to running, because"
@@ -470,14 +650,15 @@ public class EnhancementJob {
                 log.error(message);
                 throw new IllegalStateException(message);
             }
-            if (!completed.containsAll(dependsOn)) {
+            if (pendingDependencies[id] > 0) {
                 // TODO maybe define an own Exception for such cases
                 String message = "Unable to set state of ExectionNode '" + executionNode + "' (chain '"
                                  + chain + "' | contentItem '" + contentItem.getUri()
                                  + "') to running, because " + "some of its depended nodes are not marked "
                                  + "completed yet. This indicates an Bug in the "
                                  + "implementation of the JobManager used to execute "
-                                 + "the ExecutionPlan (this.dependsOn=" + dependsOn + "| chain.completed "
+                                 + "the ExecutionPlan (this.dependsOn=" 
+                                 + getDependend(executionPlan, executionNode) + "| chain.completed "
                                  + completed + " | chain.running " + running + ")!";
                 log.error(message);
                 throw new IllegalStateException(message);
@@ -490,6 +671,8 @@ public class EnhancementJob {
                                        chain, executionNode, optional});
                 return;
             } else { //added an engine to running
+                runningIds.set(id);
+                readyIds.clear(id);
                 log.trace("Started Execution of '{}' for ContentItem {} "
                          + "(chain: {}, node: {}, optional {})",
                     new Object[] {engine, contentItem.getUri().getUnicodeString(), chain,
@@ -502,7 +685,7 @@ public class EnhancementJob {
                 checkExecutable();
             }
         } finally {
-            log.trace("<< w: {}: {}","setRunning",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+            log.trace("<< w: {}: {}","setRunning",engine);
             writeLock.unlock();
         }
     }
@@ -531,28 +714,26 @@ public class EnhancementJob {
      * Assumed to be called within a write lock!
      */
     private void checkExecutable(){
-        Set<BlankNodeOrIRI> executeableNodes = 
-                ExecutionPlanHelper.getExecutable(executionPlan, completed);
         //a Chain finishes if no engine is running and no more nodes are executable
-        if(!ExecutionMetadata.STATUS_FAILED.equals(
-                getReference(executionMetadata, chainExecutionNode, STATUS))) { 
-            executeableNodes.removeAll(running);
-            if(log.isDebugEnabled()){
-                Collection<String> engines = new ArrayList<String>(executeableNodes.size());
-                for(BlankNodeOrIRI node : executeableNodes){
-                    engines.add(getEngine(executionPlan, node));
+        if(!failed) { 
+            //readyIds excludes running and completed nodes
+            int size = readyIds.cardinality();
+            if(log.isTraceEnabled()){
+                Collection<String> engines = new ArrayList<String>(size);
+                for(int id = readyIds.nextSetBit(0); id >= 0; id = readyIds.nextSetBit(id+1)){
+                    engines.add(plan.getEngineName(id));
                 }
                 log.trace("MARK {} as executeable",engines);
             }
             //we need to get the em:Executables for the ep:ExecutionNodes ...
-            if(executeableNodes.isEmpty()){
+            if(size == 0){
                 this.executable = Collections.emptySet();
-            } else if( executeableNodes.size() == 1){
-                this.executable = Collections.singleton(getExecution(executeableNodes.iterator().next()));
+            } else if(size == 1){
+                this.executable = Collections.singleton(executions[readyIds.nextSetBit(0)]);
             } else {
-                Set<BlankNodeOrIRI> executable = new HashSet<BlankNodeOrIRI>(executeableNodes.size());
-                for(BlankNodeOrIRI exeutableNode : executeableNodes){
-                    executable.add(getExecution(exeutableNode));
+                Set<BlankNodeOrIRI> executable = new HashSet<BlankNodeOrIRI>(size*2);
+                for(int id = readyIds.nextSetBit(0); id >= 0; id = readyIds.nextSetBit(id+1)){
+                    executable.add(executions[id]);
                 }
                 this.executable = Collections.unmodifiableSet(executable);
             }
@@ -603,12 +784,13 @@ public class EnhancementJob {
             throw new IllegalArgumentException("The parsed em:Execution instance MUST NOT be NULL!");
         }
         BlankNodeOrIRI executionNode = getExecutionNode(execution);
-        final boolean optional = isOptional(executionPlan, executionNode);
-        final String engineName = getEngine(executionPlan, executionNode);
-        log.trace("++ w: {}: {}","setFailed",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+        int id = getId(executionNode);
+        final boolean optional = plan.isOptional(id);
+        final String engineName = plan.getEngineName(id);
+        log.trace("++ w: {}: {}","setFailed",engineName);
         writeLock.lock();
         try {
-            log.trace(">> w: {}: {}","setFailed",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+            log.trace(">> w: {}: {}","setFailed",engineName);
             StringBuilder message = new StringBuilder();
             message.append(String.format("Unable to process ContentItem '%s' with " +
             		"Enhancement Engine '%s' because the engine ", 
@@ -627,17 +809,18 @@ public class EnhancementJob {
             //set this execution to failed
             setExecutionFaild(executionMetadata, execution, message.toString());
             //if not optional and the chain is not yet failed
-            if(!optional && !isExecutionFailed(executionMetadata, chainExecutionNode)){
+            if(!optional && !failed){
                 //set also the whole chain to faild!
                 String chainMessage = String.format(
                     "Enhancement Chain failed because of required Engine '%s' failed " +
                     "with Message: %s", engineName, message);
                 setExecutionFaild(executionMetadata, chainExecutionNode, chainMessage);
+                failed = true;
                 error = exception; //this member stores the exception to allow
                 //re-throwing by the EnhancementJobManager.
             }
         } finally {
-            log.trace("<< w: {}: {}","setFailed",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+            log.trace("<< w: {}: {}","setFailed",engineName);
             writeLock.unlock();
         }
 
@@ -652,7 +835,7 @@ public class EnhancementJob {
         readLock.lock();
         try {
             log.trace(">> r: {}","isFailed");
-            return isExecutionFailed(executionMetadata, chainExecutionNode);
+            return failed;
         } finally {
             log.trace("<< r: {}","isFailed");
             readLock.unlock();
@@ -699,6 +882,63 @@ public class EnhancementJob {
     public Graph getExecutionMetadata() {
         return executionMetadata;
     }
+    /**
+     * Getter for an immutable snapshot of the current metadata of the
+     * {@link ContentItem}. The same snapshot is returned until the
+     * snapshot is {@link #invalidateMetadataSnapshot() invalidated}. The
+     * snapshot is only created by this method, so the metadata are only
+     * copied if an engine actually needs to read from a snapshot.
+     * @return the snapshot of the metadata
+     */
+    public Graph getMetadataSnapshot() {
+        readLock.lock();
+        try {
+            synchronized (snapshotLock) {
+                if(metadataSnapshot == null){
+                    metadataSnapshot = new IndexedImmutableGraph(contentItem.getMetadata());
+                }
+                return metadataSnapshot;
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+    /**
+     * Invalidates the {@link #getMetadataSnapshot() metadata snapshot}. Needs
+     * to be called after the metadata of the {@link ContentItem} were
+     * modified.
+     */
+    public void invalidateMetadataSnapshot() {
+        synchronized (snapshotLock) {
+            metadataSnapshot = null;
+        }
+    }
+    /**
+     * Getter for the lock of the content part with the parsed URI. The same
+     * lock is returned for all calls with the same URI for the lifetime of
+     * this job. Used by job managers that execute engines on views of the
+     * {@link ContentItem} with separate locks for every content part.<p>
+     * <b>NOTE:</b> This lock does not exclude engines that use
+     * {@link ContentItem#getLock()}. Views need to combine it with the read
+     * lock of the ContentItem.
+     * @param partUri the URI of the content part
+     * @return the lock
+     * @throws IllegalArgumentException if <code>null</code> is parsed as URI
+     */
+    public ReadWriteLock getPartLock(IRI partUri) {
+        if(partUri == null){
+            throw new IllegalArgumentException("The parsed content part URI MUST NOT be NULL!");
+        }
+        ReadWriteLock lock = partLocks.get(partUri);
+        if(lock == null){
+            lock = new ReentrantReadWriteLock();
+            ReadWriteLock existing = partLocks.putIfAbsent(partUri, lock);
+            if(existing != null){
+                lock = existing;
+            }
+        }
+        return lock;
+    }
     /**
      * Marks the execution of the enhancement process as started. In other
      * words this sets the status of the 'em:ChainExecution' instance that
@@ -40,6 +40,8 @@ public class Execution implements Comparable<Execution>{
     private final Date started;
     private final Date completed;
     private final Long duration;
+    private final Integer addedTriples;
+    private final Integer removedTriples;
     private final ChainExecution chain;
     public Execution(ChainExecution parent, Graph graph, BlankNodeOrIRI node) {
         this.chain = parent;
@@ -59,6 +61,8 @@ public class Execution implements Comparable<Execution>{
         } else {
             this.duration = null;
         }
+        this.addedTriples = ExecutionMetadataHelper.getAddedTriples(graph, node);
+        this.removedTriples = ExecutionMetadataHelper.getRemovedTriples(graph, node);
     }
     
     /**
@@ -94,6 +98,22 @@ public class Execution implements Comparable<Execution>{
     public Date getCompleted(){
         return completed;
     }
+    /**
+     * The number of triples added to the metadata by this Execution.
+     * @return the number of added triples or <code>null</code> if not
+     * tracked by the EnhancementJobManager
+     */
+    public Integer getAddedTriples() {
+        return addedTriples;
+    }
+    /**
+     * The number of triples removed from the metadata by this Execution.
+     * @return the number of removed triples or <code>null</code> if not
+     * tracked by the EnhancementJobManager
+     */
+    public Integer getRemovedTriples() {
+        return removedTriples;
+    }
     public boolean isFailed(){
         return ExecutionMetadata.STATUS_FAILED.equals(status);
     }
@@ -0,0 +1,101 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
+import org.apache.stanbol.enhancer.servicesapi.metrics.ExecutionStatistics;
+
+/**
+ * Default {@link EnhancementMetrics} implementation based on
+ * {@link ConcurrentHashMap}s. Subclasses can override
+ * {@link #statisticsCreated(String, ExecutionStatistics)} to get notified
+ * about new statistics (e.g. to register them as MBeans).
+ */
+public class EnhancementMetricsRegistry implements EnhancementMetrics {
+
+    /**
+     * Type used for engine statistics
+     */
+    public static final String ENGINE = "Engine";
+    /**
+     * Type used for chain statistics
+     */
+    public static final String CHAIN = "Chain";
+
+    private final ConcurrentMap<String,ExecutionStatistics> engines =
+            new ConcurrentHashMap<String,ExecutionStatistics>();
+    private final ConcurrentMap<String,ExecutionStatistics> chains =
+            new ConcurrentHashMap<String,ExecutionStatistics>();
+
+    @Override
+    public ExecutionStatistics getEngineStatistics(String engineName) {
+        return getStatistics(ENGINE, engines, engineName);
+    }
+
+    @Override
+    public ExecutionStatistics getChainStatistics(String chainName) {
+        return getStatistics(CHAIN, chains, chainName);
+    }
+
+    private ExecutionStatistics getStatistics(String type,
+            ConcurrentMap<String,ExecutionStatistics> map, String name) {
+        ExecutionStatistics statistics = map.get(name);
+        if(statistics == null){
+            statistics = new ExecutionStatistics(name);
+            ExecutionStatistics existing = map.putIfAbsent(name, statistics);
+            if(existing != null){
+                statistics = existing;
+            } else {
+                statisticsCreated(type, statistics);
+            }
+        }
+        return statistics;
+    }
+    /**
+     * Called when statistics for a new engine or chain are created. The
+     * default implementation does nothing.
+     * @param type the type ({@link #ENGINE} or {@link #CHAIN})
+     * @param statistics the created statistics
+     */
+    protected void statisticsCreated(String type, ExecutionStatistics statistics) {
+    }
+
+    @Override
+    public Map<String,ExecutionStatistics> getEngineStatistics() {
+        return Collections.unmodifiableMap(engines);
+    }
+
+    @Override
+    public Map<String,ExecutionStatistics> getChainStatistics() {
+        return Collections.unmodifiableMap(chains);
+    }
+
+    @Override
+    public void reset() {
+        for(ExecutionStatistics statistics : engines.values()){
+            statistics.reset();
+        }
+        for(ExecutionStatistics statistics : chains.values()){
+            statistics.reset();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.metrics;
+
+import java.util.Map;
+
+/**
+ * Registry for runtime statistics of {@link org.apache.stanbol.enhancer.servicesapi.EnhancementEngine}s
+ * and {@link org.apache.stanbol.enhancer.servicesapi.Chain}s. Statistics are
+ * recorded by the {@link org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager}
+ * and can be used for monitoring without the need to parse the
+ * ExecutionMetadata of the enhancement results.<p>
+ * Implementations MUST support concurrent access and SHOULD NOT use locks
+ * on the recording path.
+ */
+public interface EnhancementMetrics {
+
+    /**
+     * Getter for the statistics of an engine. Statistics are created on the
+     * first request.
+     * @param engineName the name of the engine
+     * @return the statistics. Never <code>null</code>
+     */
+    ExecutionStatistics getEngineStatistics(String engineName);
+    /**
+     * Getter for the statistics of a chain. Statistics are created on the
+     * first request.
+     * @param chainName the name of the chain
+     * @return the statistics. Never <code>null</code>
+     */
+    ExecutionStatistics getChainStatistics(String chainName);
+    /**
+     * @return read-only view over the statistics of all engines by name
+     */
+    Map<String,ExecutionStatistics> getEngineStatistics();
+    /**
+     * @return read-only view over the statistics of all chains by name
+     */
+    Map<String,ExecutionStatistics> getChainStatistics();
+    /**
+     * Resets the statistics of all engines and chains
+     */
+    void reset();
+}
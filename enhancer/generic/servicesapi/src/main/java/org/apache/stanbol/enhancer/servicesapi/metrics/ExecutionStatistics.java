@@ -0,0 +1,150 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime statistics of an {@link org.apache.stanbol.enhancer.servicesapi.EnhancementEngine}
+ * or {@link org.apache.stanbol.enhancer.servicesapi.Chain}: the number of
+ * invocations, rejections, failures and cancellations as well as a
+ * {@link LatencyHistogram} of the execution times. Cancelled executions are
+ * neither counted as invocations nor recorded by the histogram.<p>
+ * All methods are lock free and can be called concurrently. The
+ * {@link #reset()} method is not atomic in respect to concurrent recordings.
+ */
+public class ExecutionStatistics implements ExecutionStatisticsMBean {
+
+    private final String name;
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong cancellations = new AtomicLong();
+    private volatile LatencyHistogram latency = new LatencyHistogram();
+
+    public ExecutionStatistics(String name) {
+        if(name == null){
+            throw new IllegalArgumentException("The parsed name MUST NOT be NULL!");
+        }
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+    /**
+     * Records a completed execution
+     * @param nanos the duration of the execution in nanoseconds
+     */
+    public void recordCompleted(long nanos) {
+        invocations.incrementAndGet();
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+    /**
+     * Records a failed execution
+     * @param nanos the duration of the execution in nanoseconds
+     */
+    public void recordFailed(long nanos) {
+        invocations.incrementAndGet();
+        failures.incrementAndGet();
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+    /**
+     * Records a rejected ContentItem
+     */
+    public void recordRejected() {
+        rejections.incrementAndGet();
+    }
+    /**
+     * Records a cancelled execution (e.g. a job that did not complete
+     * within the timeout of the job manager)
+     */
+    public void recordCancelled() {
+        cancellations.incrementAndGet();
+    }
+
+    @Override
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    @Override
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getCancellations() {
+        return cancellations.get();
+    }
+    /**
+     * The latencies of the executions in microseconds
+     * @return the latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMean() / 1000d;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getValueAtPercentile(50) / 1000d;
+    }
+
+    @Override
+    public double getP90Millis() {
+        return latency.getValueAtPercentile(90) / 1000d;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getValueAtPercentile(99) / 1000d;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMax() / 1000d;
+    }
+
+    @Override
+    public void reset() {
+        latency = new LatencyHistogram();
+        invocations.set(0);
+        rejections.set(0);
+        failures.set(0);
+        cancellations.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[invocations: %d | rejections: %d | failures: %d | "
+            + "cancellations: %d | p50: %.1fms | p99: %.1fms | max: %.1fms]", name,
+            getInvocations(), getRejections(), getFailures(), getCancellations(),
+            getP50Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.metrics;
+
+/**
+ * JMX interface of {@link ExecutionStatistics}. Latencies are reported in
+ * milliseconds.
+ */
+public interface ExecutionStatisticsMBean {
+
+    /**
+     * @return the name of the engine or chain
+     */
+    String getName();
+    /**
+     * @return the number of executions (completed and failed)
+     */
+    long getInvocations();
+    /**
+     * @return the number of ContentItems that could not be enhanced
+     * (<code>canEnhance</code> returned <code>CANNOT_ENHANCE</code> or,
+     * for chains, the job was not accepted by the job manager)
+     */
+    long getRejections();
+    /**
+     * @return the number of failed executions
+     */
+    long getFailures();
+    /**
+     * @return the number of cancelled executions (e.g. enhancement jobs that
+     * did not complete within the timeout of the job manager). Cancelled
+     * executions are not counted as invocations.
+     */
+    long getCancellations();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+    /**
+     * Resets all counters and the latency histogram
+     */
+    void reset();
+}
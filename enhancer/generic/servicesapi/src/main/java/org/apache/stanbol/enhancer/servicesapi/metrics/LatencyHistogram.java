@@ -0,0 +1,145 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with a fixed relative precision following the layout of
+ * HDR histograms: values are recorded in buckets covering powers of two, each
+ * divided in {@link #SUB_BUCKETS} linear sub buckets. This keeps the relative
+ * error of reported percentiles below 1% over the whole <code>long</code>
+ * value range while using a fixed amount of memory.<p>
+ * Values are recorded lock free and can be recorded concurrently by multiple
+ * threads. Values are expected in microseconds.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of linear sub buckets of each power of two range
+     */
+    private static final int SUB_BUCKETS = 256;
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int HALF = SUB_BUCKETS / 2;
+    /**
+     * values smaller than {@link #SUB_BUCKETS} are counted exactly. The
+     * remaining 56 power of two ranges use {@link #HALF} buckets each.
+     */
+    private static final int LENGTH = SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Records a value
+     * @param value the value (MUST NOT be negative)
+     */
+    public void recordValue(long value) {
+        if(value < 0){
+            throw new IllegalArgumentException("The parsed value MUST NOT be negative!");
+        }
+        counts.incrementAndGet(index(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        long current;
+        while(value < (current = min.get()) && !min.compareAndSet(current, value));
+        while(value > (current = max.get()) && !max.compareAndSet(current, value));
+    }
+    /**
+     * Adds all values recorded by the parsed histogram to this one
+     * @param other the other histogram
+     */
+    public void add(LatencyHistogram other) {
+        for(int i = 0; i < LENGTH; i++){
+            long count = other.counts.get(i);
+            if(count > 0){
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalValue.addAndGet(other.totalValue.get());
+        long current;
+        long value = other.min.get();
+        while(value < (current = min.get()) && !min.compareAndSet(current, value));
+        value = other.max.get();
+        while(value > (current = max.get()) && !max.compareAndSet(current, value));
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+    /**
+     * @return the smallest recorded value or <code>0</code> if empty
+     */
+    public long getMin() {
+        return totalCount.get() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : totalValue.get() / (double)count;
+    }
+    /**
+     * The value at the parsed percentile. The returned value is the highest
+     * value equivalent (within the precision of the histogram) to the
+     * recorded value at this percentile.
+     * @param percentile the percentile in the range [0..100]
+     * @return the value or <code>0</code> if no values where recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if(count == 0){
+            return 0;
+        }
+        long target = Math.max(1, (long)Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < LENGTH; i++){
+            seen += counts.get(i);
+            if(seen >= target){
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int index(long value) {
+        if(value < SUB_BUCKETS){
+            return (int)value;
+        }
+        //shift so that the value is in the range [HALF..SUB_BUCKETS)
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int)(value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if(index < SUB_BUCKETS){
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
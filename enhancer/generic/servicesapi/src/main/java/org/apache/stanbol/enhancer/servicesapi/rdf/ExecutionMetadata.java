@@ -111,6 +111,21 @@ public final class ExecutionMetadata {
      * {@link ExecutionPlan#EXECUTION_NODE}
      */
     public static final IRI EXECUTION_NODE = new IRI(NamespaceEnum.em+"executionNode");
+    /**
+     * The number of triples an {@link #ENGINE_EXECUTION} has added to the
+     * metadata of the {@link ContentItem}. Values are expected to be of
+     * data type 'xsd:int'. Only present if the EnhancementJobManager has
+     * tracked the changes of the engine (e.g. by executing it on a delta
+     * graph).
+     */
+    public static final IRI ADDED_TRIPLES = new IRI(NamespaceEnum.em+"addedTriples");
+    /**
+     * The number of triples an {@link #ENGINE_EXECUTION} has removed from the
+     * metadata of the {@link ContentItem}. Values are expected to be of
+     * data type 'xsd:int'. Only present if the EnhancementJobManager has
+     * tracked the changes of the engine.
+     */
+    public static final IRI REMOVED_TRIPLES = new IRI(NamespaceEnum.em+"removedTriples");
 
     /**
      * Type for all ExecutionStatus values: {@link #STATUS_SCHEDULED},
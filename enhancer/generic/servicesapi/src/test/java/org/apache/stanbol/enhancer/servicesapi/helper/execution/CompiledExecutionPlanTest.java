@@ -0,0 +1,284 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.helper.execution;
+
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.createExecutionPlan;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.writeExecutionNode;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.DEPENDS_ON;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.simple.SimpleGraph;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.CompiledChain;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Tests the {@link CompiledExecutionPlan}: dependencies, optional flags,
+ * the resolution of engines and that plans only change if they are compiled
+ * again (e.g. after a {@link CompiledChain} has invalidated its plan).
+ */
+public class CompiledExecutionPlanTest {
+
+    private Graph ep;
+    private BlankNodeOrIRI epNode;
+    private Map<String,BlankNodeOrIRI> nodes;
+    private TestEngineManager engineManager;
+
+    @Before
+    public void init(){
+        ep = new SimpleGraph();
+        epNode = createExecutionPlan(ep, "test", null);
+        nodes = new HashMap<String,BlankNodeOrIRI>();
+        //   a
+        //  / \
+        // b   c (optional)
+        //  \ /
+        //   d
+        addNode("a", false);
+        addNode("b", false, "a");
+        addNode("c", true, "a");
+        addNode("d", false, "b", "c");
+        engineManager = new TestEngineManager();
+    }
+
+    private void addNode(String engine, boolean optional, String...dependsOn){
+        Set<BlankNodeOrIRI> deps = new HashSet<BlankNodeOrIRI>();
+        for(String dep : dependsOn){
+            deps.add(nodes.get(dep));
+        }
+        nodes.put(engine, writeExecutionNode(ep, epNode, engine, optional, deps, null));
+    }
+
+    private static int[] sorted(int[] ids){
+        int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    public void testDependencies() throws ChainException {
+        CompiledExecutionPlan plan = CompiledExecutionPlan.compile(ep.getImmutableGraph(), null);
+        assertEquals(4, plan.size());
+        int a = plan.getId(nodes.get("a"));
+        int b = plan.getId(nodes.get("b"));
+        int c = plan.getId(nodes.get("c"));
+        int d = plan.getId(nodes.get("d"));
+        assertEquals("a", plan.getEngineName(a));
+        assertEquals(nodes.get("d"), plan.getNode(d));
+        assertEquals(-1, plan.getId(new IRI("urn:test:unknown")));
+
+        assertTrue(Arrays.equals(new int[]{a}, plan.getRoots()));
+        assertEquals(0, plan.getDependencyCount(a));
+        assertEquals(2, plan.getDependencyCount(d));
+        assertTrue(Arrays.equals(sorted(new int[]{b, c}), sorted(plan.getDependents(a))));
+        assertTrue(Arrays.equals(new int[]{d}, plan.getDependents(b)));
+        assertEquals(0, plan.getDependents(d).length);
+
+        BitSet completed = new BitSet();
+        assertTrue(plan.isExecutable(a, completed));
+        assertFalse(plan.isExecutable(b, completed));
+        completed.set(a);
+        assertTrue(plan.isExecutable(b, completed));
+        assertTrue(plan.isExecutable(c, completed));
+        completed.set(b);
+        assertFalse(plan.isExecutable(d, completed));
+        completed.set(c);
+        assertTrue(plan.isExecutable(d, completed));
+        //getDependsOn returns a copy
+        plan.getDependsOn(d).clear();
+        assertEquals(2, plan.getDependencyCount(d));
+    }
+
+    @Test
+    public void testOptional() throws ChainException {
+        CompiledExecutionPlan plan = CompiledExecutionPlan.compile(ep.getImmutableGraph(), null);
+        assertFalse(plan.isOptional(plan.getId(nodes.get("a"))));
+        assertFalse(plan.isOptional(plan.getId(nodes.get("b"))));
+        assertTrue(plan.isOptional(plan.getId(nodes.get("c"))));
+        assertFalse(plan.isOptional(plan.getId(nodes.get("d"))));
+        assertTrue(plan.toString().contains("c(optional)"));
+    }
+
+    @Test
+    public void testInvalidDependency() {
+        ep.add(new TripleImpl(nodes.get("a"), DEPENDS_ON, new IRI("urn:test:unknown")));
+        try {
+            CompiledExecutionPlan.compile(ep.getImmutableGraph(), null);
+            fail("ChainException expected for a dependency to an unknown node");
+        } catch (ChainException e) {
+            //expected
+        }
+    }
+
+    /**
+     * Engines are resolved when the plan is compiled. Changes of the active
+     * engines are only visible in plans compiled afterwards.
+     */
+    @Test
+    public void testEngineResolution() throws ChainException {
+        ImmutableGraph executionPlan = ep.getImmutableGraph();
+        CompiledExecutionPlan plan = CompiledExecutionPlan.compile(executionPlan, null);
+        for(int i = 0; i < plan.size(); i++){
+            assertNull(plan.getEngine(i));
+        }
+        TestEngine a = new TestEngine("a");
+        engineManager.engines.put("a", a);
+        plan = CompiledExecutionPlan.compile(executionPlan, engineManager);
+        int id = plan.getId(nodes.get("a"));
+        assertSame(a, plan.getEngine(id));
+        assertNull(plan.getEngine(plan.getId(nodes.get("b"))));
+        //the compiled plan is immutable
+        engineManager.engines.remove("a");
+        assertSame(a, plan.getEngine(id));
+        //a newly compiled plan reflects the change
+        plan = CompiledExecutionPlan.compile(executionPlan, engineManager);
+        assertNull(plan.getEngine(id));
+        assertSame(executionPlan, plan.getExecutionPlan());
+    }
+
+    /**
+     * {@link CompiledExecutionPlan#compile(Chain)} uses the plan of a
+     * {@link CompiledChain} and compiles the execution plan of other chains
+     */
+    @Test
+    public void testCompileChain() throws ChainException {
+        final ImmutableGraph executionPlan = ep.getImmutableGraph();
+        final CompiledExecutionPlan compiled = CompiledExecutionPlan.compile(executionPlan, engineManager);
+        Chain chain = new TestChain(executionPlan, compiled);
+        assertSame(compiled, CompiledExecutionPlan.compile(chain));
+        //chains that invalidated their plan return null
+        chain = new TestChain(executionPlan, null);
+        CompiledExecutionPlan plan = CompiledExecutionPlan.compile(chain);
+        assertSame(executionPlan, plan.getExecutionPlan());
+        assertEquals(4, plan.size());
+    }
+
+    private static class TestChain implements CompiledChain {
+
+        private final ImmutableGraph executionPlan;
+        private final CompiledExecutionPlan compiled;
+
+        TestChain(ImmutableGraph executionPlan, CompiledExecutionPlan compiled){
+            this.executionPlan = executionPlan;
+            this.compiled = compiled;
+        }
+
+        @Override
+        public ImmutableGraph getExecutionPlan() throws ChainException {
+            return executionPlan;
+        }
+
+        @Override
+        public Set<String> getEngines() throws ChainException {
+            return new HashSet<String>(Arrays.asList("a", "b", "c", "d"));
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public CompiledExecutionPlan getCompiledExecutionPlan() throws ChainException {
+            return compiled;
+        }
+    }
+
+    private static class TestEngineManager implements EnhancementEngineManager {
+
+        final Map<String,EnhancementEngine> engines = new HashMap<String,EnhancementEngine>();
+
+        @Override
+        public ServiceReference getReference(String name) {
+            return null;
+        }
+
+        @Override
+        public List<ServiceReference> getReferences(String name) throws IllegalArgumentException {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public EnhancementEngine getEngine(String name) {
+            return engines.get(name);
+        }
+
+        @Override
+        public boolean isEngine(String name) {
+            return engines.containsKey(name);
+        }
+
+        @Override
+        public Set<String> getActiveEngineNames() {
+            return Collections.unmodifiableSet(engines.keySet());
+        }
+
+        @Override
+        public EnhancementEngine getEngine(ServiceReference engineReference) {
+            return null;
+        }
+    }
+
+    private static class TestEngine implements EnhancementEngine {
+
+        private final String name;
+
+        TestEngine(String name){
+            this.name = name;
+        }
+
+        @Override
+        public int canEnhance(ContentItem ci) throws EngineException {
+            return ENHANCE_SYNCHRONOUS;
+        }
+
+        @Override
+        public void computeEnhancements(ContentItem ci) throws EngineException {
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        long prev = -1;
+        for(long value : new long[]{0, 1, 255, 256, 257, 511, 512, 1000, 123456789L, Long.MAX_VALUE}){
+            int index = LatencyHistogram.index(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            //relative error < 1%
+            assertTrue((highest - value) <= value / 100);
+            assertTrue(highest >= prev);
+            prev = highest;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(int i = 1; i <= 10000; i++){
+            histogram.recordValue(i * 10);
+        }
+        assertEquals(10000, histogram.getTotalCount());
+        assertEquals(10, histogram.getMin());
+        assertEquals(100000, histogram.getMax());
+        assertEquals(50005, histogram.getMean(), 0.001);
+        assertWithinPrecision(50000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(99000, histogram.getValueAtPercentile(99));
+        assertEquals(100000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testAdd() {
+        LatencyHistogram h1 = new LatencyHistogram();
+        LatencyHistogram h2 = new LatencyHistogram();
+        h1.recordValue(100);
+        h2.recordValue(5);
+        h2.recordValue(1000);
+        h1.add(h2);
+        assertEquals(3, h1.getTotalCount());
+        assertEquals(5, h1.getMin());
+        assertEquals(1000, h1.getMax());
+        assertEquals(100, h1.getValueAtPercentile(50));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+            actual >= expected && actual - expected <= expected / 100);
+    }
+}
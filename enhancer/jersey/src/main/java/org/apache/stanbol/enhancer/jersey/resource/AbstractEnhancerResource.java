@@ -51,7 +51,6 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
-import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.stanbol.commons.web.base.resource.BaseStanbolResource;
@@ -59,6 +58,7 @@ import org.apache.stanbol.commons.web.base.resource.LayoutConfiguration;
 import org.apache.stanbol.commons.web.base.resource.TemplateLayoutConfiguration;
 import org.apache.stanbol.commons.web.base.utils.MediaTypeUtil;
 import org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper;
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
 import org.apache.stanbol.enhancer.servicesapi.ChainManager;
@@ -67,6 +67,7 @@ import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobCallback;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
 import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
@@ -157,7 +158,11 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
     }
 
     /**
-     * Media-Type based handling of the raw POST data.
+     * Media-Type based handling of the raw POST data.<p>
+     * The request thread is blocked until the enhancement process completes.
+     * Suspending the response is not possible, as the Jersey servlet is
+     * registered via the OSGi HttpService that does not support async
+     * requests.
      * 
      * @param data
      *            binary payload to analyze
@@ -230,6 +235,69 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
         if (jobManager != null) {
             jobManager.enhanceContent(ci, getChain());
         }
+        addExecutionMetadata(ci, reqProp);
+    }
+    /**
+     * Enhances the parsed ContentItem without blocking the calling thread if
+     * the {@link EnhancementJobManager} is an {@link AsyncEnhancementJobManager}.
+     * Otherwise the ContentItem is enhanced by the calling thread before the
+     * parsed callback is notified.<p>
+     * Used by the batch enhancement endpoint to keep several documents of a
+     * single request in flight. The callback is called by a thread of the
+     * EnhancementJobManager and therefore MUST NOT resume a servlet response.
+     * @param ci the content item to enhance
+     * @param reqProp the request properties or <code>null</code> if none
+     * @param callback the callback notified as soon as the enhancement
+     * process has completed or failed.
+     */
+    protected void enhance(final ContentItem ci, final Map<String,Object> reqProp,
+            final EnhancementJobCallback callback) {
+        if (jobManager instanceof AsyncEnhancementJobManager) {
+            try {
+                ((AsyncEnhancementJobManager)jobManager).enhanceContentAsync(ci, getChain(), 
+                    new EnhancementJobCallback() {
+                        @Override
+                        public void completed(ContentItem ci) {
+                            addExecutionMetadata(ci, reqProp);
+                            callback.completed(ci);
+                        }
+                        @Override
+                        public void failed(ContentItem ci, EnhancementException e) {
+                            callback.failed(ci, e);
+                        }
+                    });
+            } catch (EnhancementException e) {
+                callback.failed(ci, e);
+            }
+        } else {
+            try {
+                enhance(ci, reqProp);
+            } catch (EnhancementException e) {
+                callback.failed(ci, e);
+                return;
+            }
+            callback.completed(ci);
+        }
+    }
+    /**
+     * The maximum time in milliseconds an enhancement process started by
+     * {@link #enhance(ContentItem, Map, EnhancementJobCallback)} may take
+     * before the callback is notified.
+     * @return the maximum wait time of the {@link AsyncEnhancementJobManager}
+     * or <code>-1</code> if the callback is always notified by the calling
+     * thread.
+     */
+    protected long getMaxEnhancementJobWaitTime() {
+        return jobManager instanceof AsyncEnhancementJobManager ?
+                ((AsyncEnhancementJobManager)jobManager).getMaxEnhancementJobWaitTime() : -1;
+    }
+    /**
+     * Adds the execution metadata to the metadata of the ContentItem if
+     * requested by the parsed request properties.
+     * @param ci the content item
+     * @param reqProp the request properties or <code>null</code> if none
+     */
+    private void addExecutionMetadata(ContentItem ci, Map<String,Object> reqProp) {
         Graph graph = ci.getMetadata();
         Boolean includeExecutionMetadata = RequestPropertiesHelper.isIncludeExecutionMetadata(reqProp);
         if (includeExecutionMetadata != null && includeExecutionMetadata.booleanValue()) {
@@ -241,4 +309,4 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
         }
     }
 
-}
\ No newline at end of file
+}
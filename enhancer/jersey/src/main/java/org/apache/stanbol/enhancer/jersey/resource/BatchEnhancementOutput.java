@@ -0,0 +1,445 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jersey.resource;
+
+import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.INCLUDE_EXECUTION_METADATA;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.rdf.core.serializedform.Serializer;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.RequestContext;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobCallback;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.apache.stanbol.enhancer.servicesapi.impl.StreamSource;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link StreamingOutput} used by the batch enhancement endpoint. It reads
+ * documents from the request stream, enhances up to <code>maxInFlight</code>
+ * of them concurrently and writes a JSON object per line as soon as the
+ * enhancement of a document has finished. Results are therefore not
+ * written in the order of the parsed documents. The <code>index</code>
+ * of the document in the request is included in every result.<p>
+ * Supported request formats:<ul>
+ * <li> <code>application/x-ndjson</code>: one JSON object per line with the
+ * fields <code>content</code> (required), <code>id</code> (optional, echoed
+ * in the result), <code>uri</code> (optional URI of the ContentItem) and
+ * <code>type</code> (optional media type, default <code>text/plain</code>).
+ * <li> <code>multipart/form-data</code>: every part is a document. The field
+ * name is used as <code>id</code> and the content type of the part as media
+ * type.
+ * </ul>
+ * Results have the fields <code>index</code>, <code>id</code>,
+ * <code>uri</code>, <code>status</code> (HTTP status code of the document)
+ * and ether <code>metadata</code> (the enhancement results serialised in the
+ * requested RDF format - embedded as JSON for JSON based formats) or
+ * <code>error</code>.<p>
+ * Documents that do not complete within the maximum wait time of the
+ * EnhancementJobManager are reported with the status <code>504</code>. Late
+ * results of such documents are ignored.<p>
+ * Memory is bounded as at most <code>maxInFlight</code> documents (and their
+ * results) are kept in memory. NOTE: the request is read while the response
+ * is written. Clients need to read the response while sending the request.
+ */
+class BatchEnhancementOutput implements StreamingOutput {
+
+    private final Logger log = LoggerFactory.getLogger(BatchEnhancementOutput.class);
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final MediaType NDJSON_TYPE = MediaType.valueOf(NDJSON);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final byte[] NEW_LINE = new byte[]{'\n'};
+    private static final String DEFAULT_MEDIA_TYPE = "text/plain";
+    /**
+     * Additional time to wait for the result of a document after the maximum
+     * wait time of the job manager. This gives the job manager the chance to
+     * report its own (more detailed) timeout error.
+     */
+    private static final long TIMEOUT_GRACE_TIME = 1000;
+
+    private final AbstractEnhancerResource resource;
+    private final ContentItemFactory ciFactory;
+    private final Serializer serializer;
+    private final InputStream in;
+    private final MediaType mediaType;
+    private final String rdfFormat;
+    private final boolean inclExecMetadata;
+    private final int maxInFlight;
+    /**
+     * Serialised results of finished documents. Filled by the
+     * {@link EnhancementJobCallback}s and consumed by the thread writing
+     * the response.
+     */
+    private final BlockingQueue<byte[]> results = new LinkedBlockingQueue<byte[]>();
+    /**
+     * The documents currently enhanced (in the order they were started) and
+     * the time until their results are expected. Used to report timeouts.
+     * Also guards that only a single result is written per document.
+     */
+    private final Map<Document,Long> pending = new LinkedHashMap<Document,Long>();
+    /**
+     * The maximum time to wait for the result of a document or
+     * <code>-1</code> if the results are added by the thread starting the
+     * enhancement
+     */
+    private final long maxWait;
+
+    BatchEnhancementOutput(AbstractEnhancerResource resource, ContentItemFactory ciFactory,
+            Serializer serializer, InputStream in, MediaType mediaType, String rdfFormat,
+            boolean inclExecMetadata, int maxInFlight) {
+        this.resource = resource;
+        this.ciFactory = ciFactory;
+        this.serializer = serializer;
+        this.in = in;
+        this.mediaType = mediaType;
+        this.rdfFormat = rdfFormat;
+        this.inclExecMetadata = inclExecMetadata;
+        this.maxInFlight = maxInFlight;
+        long maxWait = resource.getMaxEnhancementJobWaitTime();
+        this.maxWait = maxWait < 0 ? -1 : maxWait + TIMEOUT_GRACE_TIME;
+    }
+
+    @Override
+    public void write(OutputStream out) throws IOException, WebApplicationException {
+        DocumentIterator documents;
+        if(MediaType.MULTIPART_FORM_DATA_TYPE.isCompatible(mediaType)){
+            documents = new MultipartDocumentIterator();
+        } else {
+            documents = new NdjsonDocumentIterator();
+        }
+        int inFlight = 0;
+        int index = 0;
+        Document document;
+        while((document = documents.next(index)) != null){
+            index++;
+            if(document.error != null){
+                writeResult(out, createError(document, 400, document.error));
+                continue;
+            }
+            //wait for a free slot
+            while(inFlight >= maxInFlight){
+                writeResult(out, takeResult());
+                inFlight--;
+            }
+            enhance(document);
+            inFlight++;
+            //write already finished results
+            byte[] result;
+            while((result = results.poll()) != null){
+                writeResult(out, result);
+                inFlight--;
+            }
+        }
+        while(inFlight > 0){
+            writeResult(out, takeResult());
+            inFlight--;
+        }
+        log.debug("enhanced batch of {} documents", index);
+    }
+
+    /**
+     * Waits for the next result. If the oldest pending document does not
+     * complete within {@link #maxWait} a timeout error is returned for this
+     * document.
+     */
+    private byte[] takeResult() throws IOException {
+        try {
+            if(maxWait < 0){
+                return results.take();
+            }
+            while(true){
+                Entry<Document,Long> oldest;
+                synchronized (pending) {
+                    oldest = pending.isEmpty() ? null : pending.entrySet().iterator().next();
+                }
+                long wait = oldest == null ? maxWait :
+                    Math.max(0, oldest.getValue() - System.currentTimeMillis());
+                byte[] result = results.poll(wait, TimeUnit.MILLISECONDS);
+                if(result != null){
+                    return result;
+                }
+                if(oldest != null){
+                    Document document = oldest.getKey();
+                    synchronized (pending) {
+                        if(pending.remove(document) == null){
+                            continue; //completed in the meantime
+                        }
+                    }
+                    log.warn("Enhancement of document {} (ContentItem {}) did not complete within {}ms",
+                        new Object[]{document.index, document.ci.getUri(), maxWait});
+                    return createError(document, 504, "Enhancement did not complete within "
+                        + maxWait + "ms");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for enhancement results",e);
+        }
+    }
+    /**
+     * Adds the result of a pending document to {@link #results}. Ignored if
+     * a timeout was already reported for the document.
+     */
+    private void addResult(Document document, byte[] result) {
+        synchronized (pending) {
+            if(pending.remove(document) == null){
+                log.debug("ignore result of document {} as a timeout was already reported",
+                    document.index);
+                return;
+            }
+        }
+        results.add(result);
+    }
+
+    private void writeResult(OutputStream out, byte[] result) throws IOException {
+        out.write(result);
+        out.write(NEW_LINE);
+        out.flush();
+    }
+    /**
+     * Enhances the parsed document. The result is added to {@link #results}
+     * by the callback.
+     */
+    private void enhance(final Document document) {
+        Map<String,Object> reqProp = ContentItemHelper.initRequestPropertiesContentPart(document.ci);
+        reqProp.put(INCLUDE_EXECUTION_METADATA, inclExecMetadata);
+        synchronized (pending) {
+            pending.put(document, System.currentTimeMillis() + maxWait);
+        }
+        resource.enhance(document.ci, reqProp, new EnhancementJobCallback() {
+
+            @Override
+            public void completed(ContentItem ci) {
+                byte[] result;
+                try {
+                    result = createResult(document);
+                } catch (RuntimeException e) {
+                    log.warn("Unable to serialise enhancement results for ContentItem "
+                        + ci.getUri(), e);
+                    result = createError(document, 500, e.getMessage());
+                }
+                addResult(document, result);
+            }
+
+            @Override
+            public void failed(ContentItem ci, EnhancementException e) {
+                addResult(document, createError(document, 500, e.getMessage()));
+            }
+        });
+    }
+
+    private byte[] createResult(Document document) {
+        ByteArrayOutputStream metadata = new ByteArrayOutputStream();
+        document.ci.getLock().readLock().lock();
+        try {
+            serializer.serialize(metadata, document.ci.getMetadata(), rdfFormat);
+        } finally {
+            document.ci.getLock().readLock().unlock();
+        }
+        String serialised = new String(metadata.toByteArray(), UTF8);
+        try {
+            JSONObject result = createJson(document, 200);
+            if(rdfFormat.endsWith("json")){ //embed the JSON
+                serialised = serialised.trim();
+                result.put("metadata", serialised.startsWith("[") ? 
+                        new JSONArray(serialised) : new JSONObject(serialised));
+            } else {
+                result.put("metadata", serialised);
+            }
+            return result.toString().getBytes(UTF8);
+        } catch (JSONException e) {
+            throw new IllegalStateException("Unable to create JSON result", e);
+        }
+    }
+
+    private byte[] createError(Document document, int status, String message) {
+        try {
+            JSONObject result = createJson(document, status);
+            result.put("error", message == null ? "unknown error" : message);
+            return result.toString().getBytes(UTF8);
+        } catch (JSONException e) {
+            throw new IllegalStateException("Unable to create JSON result", e);
+        }
+    }
+
+    private JSONObject createJson(Document document, int status) throws JSONException {
+        JSONObject result = new JSONObject();
+        result.put("index", document.index);
+        if(document.id != null){
+            result.put("id", document.id);
+        }
+        if(document.ci != null){
+            result.put("uri", document.ci.getUri().getUnicodeString());
+        }
+        result.put("status", status);
+        return result;
+    }
+
+    /**
+     * A document of the batch. Either {@link #ci} or {@link #error} is
+     * present.
+     */
+    private static class Document {
+        final int index;
+        final String id;
+        final ContentItem ci;
+        final String error;
+
+        Document(int index, String id, ContentItem ci, String error) {
+            this.index = index;
+            this.id = id;
+            this.ci = ci;
+            this.error = error;
+        }
+    }
+
+    private interface DocumentIterator {
+        /**
+         * The next document
+         * @param index the index of the next document
+         * @return the document or <code>null</code> if there are no more
+         * documents
+         * @throws IOException on any error while reading from the request
+         */
+        Document next(int index) throws IOException;
+    }
+
+    private class NdjsonDocumentIterator implements DocumentIterator {
+
+        private final BufferedReader reader;
+
+        NdjsonDocumentIterator() {
+            String charset = mediaType.getParameters().get("charset");
+            reader = new BufferedReader(new InputStreamReader(in,
+                charset == null ? UTF8 : Charset.forName(charset)));
+        }
+
+        @Override
+        public Document next(int index) throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if(line == null){
+                    return null;
+                }
+                line = line.trim();
+            } while(line.isEmpty());
+            String id = null;
+            try {
+                JSONObject json = new JSONObject(line);
+                id = json.optString("id", null);
+                String content = json.optString("content", null);
+                if(content == null){
+                    return new Document(index, id, null, "Missing required field 'content'!");
+                }
+                String uri = json.optString("uri", null);
+                StringSource source = new StringSource(content,
+                    json.optString("type", DEFAULT_MEDIA_TYPE));
+                ContentItem ci = uri == null ? ciFactory.createContentItem(source) :
+                    ciFactory.createContentItem(new IRI(uri), source);
+                return new Document(index, id, ci, null);
+            } catch (JSONException e) {
+                return new Document(index, id, null, "Unable to parse document: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                return new Document(index, id, null, e.getMessage());
+            }
+        }
+    }
+
+    private class MultipartDocumentIterator implements DocumentIterator {
+
+        private final FileItemIterator parts;
+
+        MultipartDocumentIterator() throws IOException {
+            try {
+                parts = new FileUpload().getItemIterator(new RequestContext() {
+                    @Override
+                    public String getCharacterEncoding() {
+                        String charset = mediaType.getParameters().get("charset");
+                        return charset == null ? "UTF-8" : charset;
+                    }
+                    @Override
+                    public String getContentType() {
+                        return mediaType.toString();
+                    }
+                    @Override
+                    public int getContentLength() {
+                        return -1;
+                    }
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        return in;
+                    }
+                });
+            } catch (FileUploadException e) {
+                throw new IOException("Unable to parse multipart request", e);
+            }
+        }
+
+        @Override
+        public Document next(int index) throws IOException {
+            FileItemStream part;
+            try {
+                if(!parts.hasNext()){
+                    return null;
+                }
+                part = parts.next();
+            } catch (FileUploadException e) {
+                throw new IOException("Unable to parse multipart request", e);
+            }
+            String id = part.getFieldName();
+            String type = part.getContentType();
+            try {
+                ContentItem ci = ciFactory.createContentItem(new StreamSource(part.openStream(),
+                    type == null ? DEFAULT_MEDIA_TYPE : type));
+                return new Document(index, id, ci, null);
+            } catch (IllegalArgumentException e) {
+                return new Document(index, id, null, e.getMessage());
+            }
+        }
+    }
+}
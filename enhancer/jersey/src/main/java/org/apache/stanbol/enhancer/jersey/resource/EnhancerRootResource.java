@@ -32,6 +32,9 @@ import static org.apache.stanbol.enhancer.jersey.utils.EnhancerUtils.addActiveEn
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.FormParam;
@@ -72,6 +75,10 @@ import org.apache.stanbol.enhancer.servicesapi.ChainManager;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
+import org.apache.stanbol.enhancer.servicesapi.metrics.ExecutionStatistics;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 
 /**
  * RESTful interface to browse the list of available engines and allow to call
@@ -98,6 +105,8 @@ public final class EnhancerRootResource extends BaseStanbolResource {
     private Serializer serializer;
     @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
     private QueryEngine queryEngine;
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    private EnhancementMetrics metrics;
     
     @Path("")
     public EnhancerResource get() {
@@ -183,5 +192,43 @@ public final class EnhancerRootResource extends BaseStanbolResource {
                 @Context HttpHeaders headers) throws ParseException {
             return sparql(sparqlQuery, headers);
         }
+
+        /**
+         * Returns the runtime statistics of all chains and engines as
+         * recorded by the {@link EnhancementMetrics} registry.
+         */
+        @GET
+        @Path("/metrics")
+        @Produces(APPLICATION_JSON)
+        public Response getMetrics(@Context HttpHeaders headers) throws JSONException {
+            if(metrics == null){
+                return Response.status(Status.SERVICE_UNAVAILABLE)
+                        .entity("No EnhancementMetrics registry available").build();
+            }
+            JSONObject json = new JSONObject();
+            json.put("chains", toJson(metrics.getChainStatistics()));
+            json.put("engines", toJson(metrics.getEngineStatistics()));
+            return Response.ok(json.toString(), APPLICATION_JSON).build();
+        }
+
+        private JSONObject toJson(Map<String,ExecutionStatistics> statistics) throws JSONException {
+            JSONObject json = new JSONObject();
+            for(Entry<String,ExecutionStatistics> entry :
+                    new TreeMap<String,ExecutionStatistics>(statistics).entrySet()){
+                ExecutionStatistics stats = entry.getValue();
+                JSONObject jStats = new JSONObject();
+                jStats.put("invocations", stats.getInvocations());
+                jStats.put("rejections", stats.getRejections());
+                jStats.put("failures", stats.getFailures());
+                jStats.put("cancellations", stats.getCancellations());
+                jStats.put("mean", stats.getMeanMillis());
+                jStats.put("p50", stats.getP50Millis());
+                jStats.put("p90", stats.getP90Millis());
+                jStats.put("p99", stats.getP99Millis());
+                jStats.put("max", stats.getMaxMillis());
+                json.put(entry.getKey(), jStats);
+            }
+            return json;
+        }
     }
 }
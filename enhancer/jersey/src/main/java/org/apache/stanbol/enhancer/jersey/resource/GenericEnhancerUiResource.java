@@ -17,9 +17,12 @@
 package org.apache.stanbol.enhancer.jersey.resource;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_FORM_URLENCODED;
+import static javax.ws.rs.core.MediaType.MULTIPART_FORM_DATA;
 import static javax.ws.rs.core.MediaType.TEXT_HTML;
+import static org.apache.stanbol.commons.web.base.utils.MediaTypeUtil.JSON_LD;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -28,10 +31,13 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
+import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -64,7 +70,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Abstract super class for all Enhancer endpoint that do also provide the
  * Stanbol Enhancer Web UI. This includes "/enhancer", /enhancer/chain/{name}
- * and "/engines".
+ * and "/engines".<p>
+ * All those endpoints also support batch enhancement requests by
+ * POSTing documents to "{endpoint}/batch".
  * 
  * @author Rupert Westenthaler
  *
@@ -80,6 +88,14 @@ public class GenericEnhancerUiResource extends AbstractEnhancerResource {
     private Set<ExecutionNode> _executionNodes;
     private Set<ExecutionNode> _activeNodes;
     protected final Chain chain;
+    /**
+     * The default number of documents enhanced concurrently by a batch request
+     */
+    public static final int DEFAULT_BATCH_CONCURRENCY = 16;
+    /**
+     * The maximum number of documents enhanced concurrently by a batch request
+     */
+    public static final int MAX_BATCH_CONCURRENCY = 256;
     
     public GenericEnhancerUiResource(String chainName,
             EnhancementJobManager jobManager, 
@@ -164,6 +180,53 @@ public class GenericEnhancerUiResource extends AbstractEnhancerResource {
         }
     }
 
+    /**
+     * Batch enhancement of documents. The documents are read from the
+     * request as a stream of JSON objects (<code>application/x-ndjson</code>)
+     * or as parts of a <code>multipart/form-data</code> request. Up to
+     * <code>concurrency</code> documents are enhanced concurrently and the
+     * results are streamed back (one JSON object per line) as soon as the
+     * enhancement of a document finishes. Errors are reported per document.
+     * See {@link BatchEnhancementOutput} for details about the formats.
+     * @param in the request stream
+     * @param rdfFormat the RDF format used to serialise the enhancement results
+     * @param inclExecMetadata if the execution metadata should be included
+     * @param concurrency the maximum number of concurrently enhanced documents
+     * @param headers the request headers
+     * @return the streamed results
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(value = {BatchEnhancementOutput.NDJSON, MULTIPART_FORM_DATA})
+    @Produces(BatchEnhancementOutput.NDJSON)
+    public Response enhanceBatch(InputStream in,
+            @QueryParam(value = "rdfFormat") String rdfFormat,
+            @QueryParam(value = "executionmetadata") boolean inclExecMetadata,
+            @QueryParam(value = "concurrency") Integer concurrency,
+            @Context HttpHeaders headers) {
+        if(rdfFormat == null || rdfFormat.isEmpty()){
+            rdfFormat = JSON_LD;
+        } else {
+            try {
+                rdfFormat = MediaType.valueOf(rdfFormat).toString();
+            } catch (IllegalArgumentException e) {
+                throw new WebApplicationException(e, 
+                    Response.status(Response.Status.BAD_REQUEST)
+                    .entity(String.format("Unable to parse MediaType form parameter" +
+                            "rdfFormat=%s",rdfFormat))
+                    .build());
+            }
+        }
+        int maxInFlight;
+        if(concurrency == null || concurrency < 1){
+            maxInFlight = DEFAULT_BATCH_CONCURRENCY;
+        } else {
+            maxInFlight = Math.min(concurrency, MAX_BATCH_CONCURRENCY);
+        }
+        return Response.ok(new BatchEnhancementOutput(this, ciFactory, serializer, in,
+            headers.getMediaType(), rdfFormat, inclExecMetadata, maxInFlight),
+            BatchEnhancementOutput.NDJSON_TYPE).build();
+    }
     public boolean isEngineActive(String name) {
         return engineManager.isEngine(name);
     }
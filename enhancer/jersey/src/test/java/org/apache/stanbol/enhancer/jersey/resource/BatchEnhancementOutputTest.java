@@ -0,0 +1,408 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jersey.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.clerezza.rdf.core.serializedform.Serializer;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ChainManager;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobCallback;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.glassfish.jersey.internal.RuntimeDelegateImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Tests batch enhancement requests processed by
+ * {@link GenericEnhancerUiResource#enhanceBatch(java.io.InputStream, String, boolean, Integer, HttpHeaders)}
+ * and the {@link BatchEnhancementOutput}: results written in the order the
+ * documents complete, per document errors and documents that do not
+ * complete within the maximum wait time.<p>
+ * The content of the documents controls the {@link TestJobManager}:
+ * <code>"wait"</code> completes only after a <code>"release"</code> document
+ * has completed, <code>"fail"</code> fails and <code>"hang"</code> does not
+ * complete before the end of the test.
+ */
+public class BatchEnhancementOutputTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String RDF_JSON = "application/rdf+json";
+    private static final String TURTLE = "text/turtle";
+    private static final IRI PROPERTY = new IRI("urn:test:property");
+
+    private TestJobManager jobManager;
+    private GenericEnhancerUiResource resource;
+
+    @BeforeClass
+    public static void initRuntimeDelegate(){
+        RuntimeDelegate.setInstance(new RuntimeDelegateImpl());
+    }
+
+    @Before
+    public void init(){
+        jobManager = new TestJobManager();
+        resource = new GenericEnhancerUiResource(null, jobManager, null, new TestChainManager(),
+            InMemoryContentItemFactory.getInstance(), Serializer.getInstance(), null, null);
+    }
+
+    @After
+    public void close(){
+        jobManager.close();
+    }
+
+    /**
+     * Results are written as soon as a document completes. The
+     * <code>index</code> allows to map them to the parsed documents.
+     */
+    @Test
+    public void testOrdering() throws IOException, JSONException {
+        List<JSONObject> results = enhanceBatch(RDF_JSON, 2,
+            "{\"id\":\"first\",\"content\":\"wait\"}",
+            "{\"id\":\"second\",\"content\":\"release\",\"uri\":\"urn:test:second\"}");
+        assertEquals(2, results.size());
+        JSONObject second = results.get(0);
+        assertEquals(1, second.getInt("index"));
+        assertEquals("second", second.getString("id"));
+        assertEquals("urn:test:second", second.getString("uri"));
+        assertEquals(200, second.getInt("status"));
+        //RDF/JSON results are embedded as JSON object
+        JSONObject metadata = second.getJSONObject("metadata");
+        assertTrue(metadata.getJSONObject("urn:test:second").has(PROPERTY.getUnicodeString()));
+        JSONObject first = results.get(1);
+        assertEquals(0, first.getInt("index"));
+        assertEquals("first", first.getString("id"));
+        assertEquals(200, first.getInt("status"));
+        assertTrue(first.getJSONObject("metadata").has(first.getString("uri")));
+    }
+
+    /**
+     * Invalid documents and failed enhancement processes are reported for
+     * the affected document without failing the whole batch.
+     */
+    @Test
+    public void testDocumentErrors() throws IOException, JSONException {
+        List<JSONObject> results = enhanceBatch(TURTLE, 1,
+            "no JSON",
+            "{\"id\":\"missing\"}",
+            "{\"id\":\"failing\",\"content\":\"fail\"}",
+            "{\"id\":\"valid\",\"content\":\"Paris is a city in France\"}");
+        Map<Integer,JSONObject> byIndex = byIndex(results);
+        assertEquals(4, byIndex.size());
+        assertEquals(400, byIndex.get(0).getInt("status"));
+        assertTrue(byIndex.get(0).has("error"));
+        assertFalse(byIndex.get(0).has("uri"));
+        assertEquals(400, byIndex.get(1).getInt("status"));
+        assertEquals("missing", byIndex.get(1).getString("id"));
+        assertEquals(500, byIndex.get(2).getInt("status"));
+        assertEquals("test failure", byIndex.get(2).getString("error"));
+        assertFalse(byIndex.get(2).has("metadata"));
+        JSONObject valid = byIndex.get(3);
+        assertEquals(200, valid.getInt("status"));
+        //non JSON formats are embedded as string
+        assertTrue(valid.getString("metadata").contains(PROPERTY.getUnicodeString()));
+    }
+
+    /**
+     * Documents that do not complete within the maximum wait time are
+     * reported with the status <code>504</code> after the other results.
+     */
+    @Test
+    public void testTimeout() throws IOException, JSONException {
+        jobManager.maxWait = 100;
+        long start = System.currentTimeMillis();
+        List<JSONObject> results = enhanceBatch(TURTLE, 2,
+            "{\"id\":\"hanging\",\"content\":\"hang\"}",
+            "{\"id\":\"valid\",\"content\":\"Paris is a city in France\"}");
+        assertTrue(System.currentTimeMillis() - start >= jobManager.maxWait);
+        assertEquals(2, results.size());
+        assertEquals("valid", results.get(0).getString("id"));
+        assertEquals(200, results.get(0).getInt("status"));
+        JSONObject timeout = results.get(1);
+        assertEquals(0, timeout.getInt("index"));
+        assertEquals("hanging", timeout.getString("id"));
+        assertEquals(504, timeout.getInt("status"));
+        assertTrue(timeout.has("error"));
+    }
+
+    @Test
+    public void testInvalidRdfFormat() {
+        try {
+            resource.enhanceBatch(new ByteArrayInputStream(new byte[0]), "noMediaType",
+                false, null, new TestHttpHeaders());
+            fail("Invalid RDF formats MUST BE rejected");
+        } catch (WebApplicationException e) {
+            assertEquals(400, e.getResponse().getStatus());
+        }
+    }
+
+    private List<JSONObject> enhanceBatch(String rdfFormat, int concurrency, String...documents)
+            throws IOException, JSONException {
+        StringBuilder request = new StringBuilder();
+        for(String document : documents){
+            request.append(document).append('\n');
+        }
+        Response response = resource.enhanceBatch(
+            new ByteArrayInputStream(request.toString().getBytes(UTF8)),
+            rdfFormat, false, concurrency, new TestHttpHeaders());
+        assertEquals(200, response.getStatus());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput)response.getEntity()).write(out);
+        List<JSONObject> results = new ArrayList<JSONObject>();
+        for(String line : new String(out.toByteArray(), UTF8).split("\n")){
+            if(!line.isEmpty()){
+                results.add(new JSONObject(line));
+            }
+        }
+        return results;
+    }
+
+    private static Map<Integer,JSONObject> byIndex(List<JSONObject> results) throws JSONException {
+        Map<Integer,JSONObject> byIndex = new HashMap<Integer,JSONObject>();
+        for(JSONObject result : results){
+            assertTrue("duplicate result", byIndex.put(result.getInt("index"), result) == null);
+        }
+        return byIndex;
+    }
+
+    /**
+     * Enhances ContentItems asynchronously based on their content (see the
+     * documentation of the test)
+     */
+    private static class TestJobManager implements AsyncEnhancementJobManager {
+
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+        long maxWait = 10000;
+
+        @Override
+        public Future<ContentItem> enhanceContentAsync(final ContentItem ci, Chain chain,
+                final EnhancementJobCallback callback) throws EnhancementException {
+            return executor.submit(new Callable<ContentItem>() {
+                @Override
+                public ContentItem call() throws Exception {
+                    String content = ContentItemHelper.getText(ci.getBlob());
+                    if("wait".equals(content)){
+                        released.await();
+                    } else if("hang".equals(content)){
+                        closed.await();
+                    } else if("fail".equals(content)){
+                        ChainException e = new ChainException("test failure");
+                        callback.failed(ci, e);
+                        throw e;
+                    }
+                    ci.getMetadata().add(new TripleImpl(ci.getUri(), PROPERTY,
+                        new PlainLiteralImpl(content)));
+                    callback.completed(ci);
+                    if("release".equals(content)){
+                        released.countDown();
+                    }
+                    return ci;
+                }
+            });
+        }
+
+        @Override
+        public long getMaxEnhancementJobWaitTime() {
+            return maxWait;
+        }
+
+        @Override
+        public void enhanceContent(ContentItem ci) throws EnhancementException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enhanceContent(ContentItem ci, Chain chain) throws EnhancementException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<EnhancementEngine> getActiveEngines() {
+            return Collections.emptyList();
+        }
+
+        void close(){
+            closed.countDown();
+            released.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static class TestChain implements Chain {
+
+        @Override
+        public ImmutableGraph getExecutionPlan() throws ChainException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> getEngines() throws ChainException {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+    }
+
+    private static class TestChainManager implements ChainManager {
+
+        private final Chain chain = new TestChain();
+
+        @Override
+        public Set<String> getActiveChainNames() {
+            return Collections.singleton(chain.getName());
+        }
+
+        @Override
+        public ServiceReference getReference(String name) {
+            return null;
+        }
+
+        @Override
+        public List<ServiceReference> getReferences(String name) throws IllegalArgumentException {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Chain getChain(String name) {
+            return chain.getName().equals(name) ? chain : null;
+        }
+
+        @Override
+        public Chain getChain(ServiceReference chainReference) {
+            return null;
+        }
+
+        @Override
+        public boolean isChain(String name) {
+            return chain.getName().equals(name);
+        }
+
+        @Override
+        public Chain getDefault() {
+            return chain;
+        }
+    }
+
+    /**
+     * {@link HttpHeaders} of a <code>application/x-ndjson</code> request
+     */
+    private static class TestHttpHeaders implements HttpHeaders {
+
+        @Override
+        public List<String> getRequestHeader(String name) {
+            return getRequestHeaders().get(name);
+        }
+
+        @Override
+        public String getHeaderString(String name) {
+            return getRequestHeaders().getFirst(name);
+        }
+
+        @Override
+        public MultivaluedMap<String,String> getRequestHeaders() {
+            MultivaluedMap<String,String> headers = new MultivaluedHashMap<String,String>();
+            headers.putSingle(CONTENT_TYPE, BatchEnhancementOutput.NDJSON);
+            return headers;
+        }
+
+        @Override
+        public List<MediaType> getAcceptableMediaTypes() {
+            return Collections.singletonList(BatchEnhancementOutput.NDJSON_TYPE);
+        }
+
+        @Override
+        public List<Locale> getAcceptableLanguages() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return BatchEnhancementOutput.NDJSON_TYPE;
+        }
+
+        @Override
+        public Locale getLanguage() {
+            return null;
+        }
+
+        @Override
+        public Map<String,Cookie> getCookies() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Date getDate() {
+            return null;
+        }
+
+        @Override
+        public int getLength() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.nlp.NlpAnnotations;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedTextFactory;
+import org.apache.stanbol.enhancer.nlp.model.Chunk;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+import org.apache.stanbol.enhancer.nlp.model.annotation.Value;
+import org.apache.stanbol.enhancer.nlp.ner.NerTag;
+import org.apache.stanbol.enhancer.nlp.pos.LexicalCategory;
+import org.apache.stanbol.enhancer.nlp.pos.Pos;
+import org.apache.stanbol.enhancer.nlp.pos.PosTag;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the creation of {@link Span}s and the iteration over the spans
+ * of the {@link AnalysedText}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysedTextBenchmark {
+
+    static final PosTag NOUN = new PosTag("NN", LexicalCategory.Noun);
+    static final PosTag PROPER_NOUN = new PosTag("NNP", Pos.ProperNoun);
+    static final NerTag NE = new NerTag("entity");
+
+    private static final AnalysedTextFactory atFactory = AnalysedTextFactory.getDefaultInstance();
+
+    @Param({"10000", "100000"})
+    public int textLength;
+
+    private Blob blob;
+    private List<int[]> sentences;
+    private List<int[]> namedEntities;
+    /**
+     * AnalysedText with sentences, tokens, chunks and annotations
+     */
+    private AnalysedText analysedText;
+
+    @Setup
+    public void setup() throws IOException {
+        String text = Fixtures.repeat(Fixtures.load(Fixtures.NEWS_EN), textLength);
+        blob = InMemoryContentItemFactory.getInstance().createBlob(new StringSource(text));
+        sentences = Fixtures.sentences(text);
+        namedEntities = Fixtures.namedEntities(text);
+        analysedText = createAnalysedText(blob, sentences, namedEntities, true);
+    }
+    /**
+     * Creates an AnalysedText with the parsed sentences and named entities.
+     * Tokens are created for all sentences.
+     * @param annotate if POS and NER annotations are added
+     */
+    static AnalysedText createAnalysedText(Blob blob, List<int[]> sentences,
+            List<int[]> namedEntities, boolean annotate) throws IOException {
+        AnalysedText at = atFactory.createAnalysedText(blob);
+        String text = at.getSpan();
+        for(int[] s : sentences){
+            Sentence sentence = at.addSentence(s[0], s[1]);
+            for(int[] t : Fixtures.tokens(text, s[0], s[1])){
+                Token token = sentence.addToken(t[0] - s[0], t[1] - s[0]);
+                if(annotate){
+                    token.addAnnotation(NlpAnnotations.POS_ANNOTATION, Value.value(
+                        Character.isUpperCase(text.charAt(t[0])) ? PROPER_NOUN : NOUN, 0.9));
+                }
+            }
+        }
+        for(int[] ne : namedEntities){
+            Chunk chunk = at.addChunk(ne[0], ne[1]);
+            if(annotate){
+                chunk.addAnnotation(NlpAnnotations.NER_ANNOTATION, Value.value(NE, 0.8));
+            }
+        }
+        return at;
+    }
+
+    @Benchmark
+    public AnalysedText createSpans() throws IOException {
+        return createAnalysedText(blob, sentences, namedEntities, false);
+    }
+
+    @Benchmark
+    public AnalysedText createAnnotatedSpans() throws IOException {
+        return createAnalysedText(blob, sentences, namedEntities, true);
+    }
+
+    @Benchmark
+    public void iterateTokens(Blackhole bh) {
+        for(Iterator<Sentence> sentences = analysedText.getSentences(); sentences.hasNext();){
+            for(Iterator<Token> tokens = sentences.next().getTokens(); tokens.hasNext();){
+                Token token = tokens.next();
+                bh.consume(token.getAnnotation(NlpAnnotations.POS_ANNOTATION));
+            }
+        }
+    }
+
+    @Benchmark
+    public void iterateEnclosed(Blackhole bh) {
+        for(Iterator<Span> spans = analysedText.getEnclosed(
+                EnumSet.of(SpanTypeEnum.Sentence, SpanTypeEnum.Chunk, SpanTypeEnum.Token));
+                spans.hasNext();){
+            bh.consume(spans.next().getSpan());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.nlp.json.AnalyzedTextParser;
+import org.apache.stanbol.enhancer.nlp.json.AnalyzedTextSerializer;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedTextFactory;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JSON serialisation and parsing of {@link AnalysedText}
+ * content parts as used to transfer them to remote engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyzedTextJsonBenchmark {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Param({"10000", "100000"})
+    public int textLength;
+
+    private final AnalyzedTextSerializer serializer = AnalyzedTextSerializer.getDefaultInstance();
+    private final AnalyzedTextParser parser = AnalyzedTextParser.getDefaultInstance();
+    private final AnalysedTextFactory atFactory = AnalysedTextFactory.getDefaultInstance();
+
+    private Blob blob;
+    private AnalysedText analysedText;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        String text = Fixtures.repeat(Fixtures.load(Fixtures.NEWS_EN), textLength);
+        blob = InMemoryContentItemFactory.getInstance().createBlob(new StringSource(text));
+        analysedText = AnalysedTextBenchmark.createAnalysedText(blob,
+            Fixtures.sentences(text), Fixtures.namedEntities(text), true);
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+            serialized == null ? 8192 : serialized.length);
+        serializer.serialize(analysedText, out, UTF8);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public AnalysedText parse() throws IOException {
+        return parser.parse(new ByteArrayInputStream(serialized), UTF8,
+            atFactory.createAnalysedText(blob));
+    }
+}
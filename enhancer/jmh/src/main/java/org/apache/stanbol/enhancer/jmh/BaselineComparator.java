@@ -0,0 +1,125 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Compares the JSON results of a JMH run (<code>-rf json</code>) with the
+ * results of a baseline run of the same benchmarks (e.g. recorded for the
+ * unchanged code on the same machine). Benchmarks are matched by
+ * their name and parameters. For {@link org.openjdk.jmh.annotations.Mode#AverageTime}
+ * results higher scores are regressions, for throughput results lower
+ * scores are.<p>
+ * Usage:
+ * <code><pre>
+ *   java -cp target/benchmarks.jar org.apache.stanbol.enhancer.jmh.BaselineComparator \
+ *       base.json jmh-result.json [{threshold-percent}]
+ * </pre></code>
+ * The process exits with <code>1</code> if any benchmark regressed by more
+ * than the threshold (default: <code>10</code> percent).
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_THRESHOLD = 10;
+
+    private BaselineComparator() {/* no instances */}
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2){
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        Map<String,JsonNode> baseline = read(new File(args[0]));
+        Map<String,JsonNode> result = read(new File(args[1]));
+        int regressions = 0;
+        for(Entry<String,JsonNode> entry : result.entrySet()){
+            JsonNode current = entry.getValue();
+            JsonNode base = baseline.get(entry.getKey());
+            if(base == null){
+                System.out.printf("  NEW  %s: %.3f %s%n", entry.getKey(),
+                    score(current), unit(current));
+                continue;
+            }
+            double change = (score(current) - score(base)) / score(base) * 100;
+            if(!isAverageTime(current)){ //for throughput lower is worse
+                change = -change;
+            }
+            boolean regression = change > threshold;
+            if(regression){
+                regressions++;
+            }
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                regression ? "SLOWER" : "  OK  ", entry.getKey(),
+                score(base), score(current), unit(current), change);
+        }
+        for(String missing : baseline.keySet()){
+            if(!result.containsKey(missing)){
+                System.out.printf("MISSING %s%n", missing);
+            }
+        }
+        if(regressions > 0){
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n",
+                regressions, threshold);
+            System.exit(1);
+        }
+    }
+    /**
+     * Reads a JMH JSON result file
+     * @return the results by benchmark name and parameters
+     */
+    private static Map<String,JsonNode> read(File file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file);
+        Map<String,JsonNode> results = new TreeMap<String,JsonNode>();
+        for(JsonNode benchmark : root){
+            StringBuilder key = new StringBuilder(benchmark.path("benchmark").getTextValue());
+            JsonNode params = benchmark.path("params");
+            if(params.size() > 0){
+                Map<String,String> sorted = new TreeMap<String,String>();
+                for(Iterator<Entry<String,JsonNode>> it = params.getFields(); it.hasNext();){
+                    Entry<String,JsonNode> param = it.next();
+                    sorted.put(param.getKey(), param.getValue().asText());
+                }
+                key.append(sorted);
+            }
+            results.put(key.toString(), benchmark);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode benchmark) {
+        return benchmark.path("primaryMetric").path("score").getDoubleValue();
+    }
+
+    private static String unit(JsonNode benchmark) {
+        return benchmark.path("primaryMetric").path("scoreUnit").getTextValue();
+    }
+
+    private static boolean isAverageTime(JsonNode benchmark) {
+        String mode = benchmark.path("mode").getTextValue();
+        return "avgt".equals(mode) || "sample".equals(mode) || "ss".equals(mode);
+    }
+}
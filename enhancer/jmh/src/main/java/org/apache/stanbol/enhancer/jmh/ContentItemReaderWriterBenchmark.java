@@ -0,0 +1,145 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.OUTPUT_CONTENT;
+import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.OUTPUT_CONTENT_PART;
+import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.PARSED_CONTENT_URIS;
+import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.RDF_FORMAT;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper.initRequestPropertiesContentPart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.rdf.core.serializedform.Parser;
+import org.apache.clerezza.rdf.core.serializedform.Serializer;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.jersey.reader.ContentItemReader;
+import org.apache.stanbol.enhancer.jersey.writers.ContentItemWriter;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.glassfish.jersey.internal.RuntimeDelegateImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the serialisation of {@link ContentItem}s as multipart MIME by
+ * the {@link ContentItemWriter} and the parsing by the
+ * {@link ContentItemReader} as used by the RESTful API of the Stanbol
+ * Enhancer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentItemReaderWriterBenchmark {
+
+    @Param({"application/rdf+xml", "application/json", "text/turtle"})
+    public String rdfFormat;
+
+    @Param({"10000"})
+    public int textLength;
+
+    private final ContentItemFactory ciFactory = InMemoryContentItemFactory.getInstance();
+
+    private ContentItem contentItem;
+    private ContentItemWriter ciWriter;
+    private ContentItemReader ciReader;
+    private byte[] serialized;
+    private MediaType serializedType;
+
+    @Setup
+    public void setup() throws IOException {
+        RuntimeDelegate.setInstance(new RuntimeDelegateImpl());
+        String text = Fixtures.repeat(Fixtures.load(Fixtures.NEWS_EN), textLength);
+        contentItem = ciFactory.createContentItem(new IRI("urn:jmh:content-item"),
+            new StringSource(text));
+        Fixtures.writeEnhancements(contentItem.getMetadata(), contentItem.getUri(), text);
+        //serialise the metadata and the main content
+        Map<String,Object> properties = initRequestPropertiesContentPart(contentItem);
+        properties.put(PARSED_CONTENT_URIS, Collections.singleton(
+            contentItem.getPartUri(0).getUnicodeString()));
+        properties.put(OUTPUT_CONTENT, Collections.singleton("*/*"));
+        properties.put(OUTPUT_CONTENT_PART, Collections.singleton("*"));
+        properties.put(RDF_FORMAT, rdfFormat);
+        ciWriter = new ContentItemWriter(Serializer.getInstance());
+        ciReader = new ContentItemReader(){
+            @Override
+            protected Parser getParser() {
+                return Parser.getInstance();
+            }
+            @Override
+            protected ContentItemFactory getContentItemFactory() {
+                return ciFactory;
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializedType = write(out);
+        serialized = out.toByteArray();
+    }
+
+    private MediaType write(ByteArrayOutputStream out) throws IOException {
+        MultivaluedMap<String,Object> headers = new MultivaluedHashMap<String, Object>();
+        ciWriter.writeTo(contentItem, ContentItem.class, null, null,
+            MediaType.MULTIPART_FORM_DATA_TYPE, headers, out);
+        return MediaType.valueOf((String)headers.getFirst(HttpHeaders.CONTENT_TYPE));
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(serialized.length);
+        write(out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public ContentItem read() throws IOException {
+        return ciReader.readFrom(ContentItem.class, null, null, serializedType, null,
+            new ByteArrayInputStream(serialized));
+    }
+
+    @Benchmark
+    public ContentItem roundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(serialized.length);
+        MediaType type = write(out);
+        return ciReader.readFrom(ContentItem.class, null, null, type, null,
+            new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.commons.indexedgraph.ColumnarIndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the creation of fise:TextAnnotations and fise:EntityAnnotations
+ * by using the {@link EnhancementEngineHelper} as done by most engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnhancementEngineHelperBenchmark {
+
+    @Param({"indexed", "columnar"})
+    public String graph;
+
+    @Param({"10000"})
+    public int textLength;
+
+    private String text;
+    private IRI ciUri;
+
+    @Setup
+    public void setup() {
+        text = Fixtures.repeat(Fixtures.load(Fixtures.NEWS_EN), textLength);
+        ciUri = new IRI("urn:jmh:content-item");
+    }
+
+    private Graph createGraph() {
+        return "columnar".equals(graph) ? new ColumnarIndexedGraph() : new IndexedGraph();
+    }
+    /**
+     * Creates 100 fise:TextAnnotations with the default properties only
+     */
+    @Benchmark
+    public Graph createTextEnhancements() {
+        Graph metadata = createGraph();
+        for(int i = 0; i < 100; i++){
+            EnhancementEngineHelper.createTextEnhancement(metadata, Fixtures.ENGINE, ciUri);
+        }
+        return metadata;
+    }
+    /**
+     * Creates fise:TextAnnotations (including the occurrence) and linked
+     * fise:EntityAnnotations for all named entities of the text
+     */
+    @Benchmark
+    public Graph writeEnhancements() {
+        Graph metadata = createGraph();
+        Fixtures.writeEnhancements(metadata, ciUri, text);
+        return metadata;
+    }
+}
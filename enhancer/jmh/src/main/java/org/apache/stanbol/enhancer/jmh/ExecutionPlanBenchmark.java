@@ -0,0 +1,123 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the traversal of execution plans as done by
+ * EnhancementJobManager implementations: starting with an empty set of
+ * completed nodes the executable nodes are calculated and marked as
+ * completed until all nodes are completed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionPlanBenchmark {
+
+    @Param({"6", "24"})
+    public int engines;
+
+    private ImmutableGraph executionPlan;
+    private CompiledExecutionPlan compiledPlan;
+
+    @Setup
+    public void setup() throws ChainException {
+        executionPlan = Fixtures.executionPlan(engines);
+        compiledPlan = CompiledExecutionPlan.compile(executionPlan, null);
+    }
+    /**
+     * Traversal based on {@link ExecutionPlanHelper} (queries the RDF graph)
+     */
+    @Benchmark
+    public void traverse(Blackhole bh) {
+        Set<BlankNodeOrIRI> completed = new HashSet<BlankNodeOrIRI>();
+        Set<BlankNodeOrIRI> executable = ExecutionPlanHelper.getExecutable(executionPlan, completed);
+        while(!executable.isEmpty()){
+            for(BlankNodeOrIRI node : executable){
+                bh.consume(ExecutionPlanHelper.getEngine(executionPlan, node));
+                bh.consume(ExecutionPlanHelper.isOptional(executionPlan, node));
+                completed.add(node);
+            }
+            executable = ExecutionPlanHelper.getExecutable(executionPlan, completed);
+        }
+    }
+    /**
+     * Traversal based on the {@link CompiledExecutionPlan}
+     */
+    @Benchmark
+    public void traverseCompiled(Blackhole bh) {
+        int size = compiledPlan.size();
+        BitSet completed = new BitSet(size);
+        int[] pending = new int[size];
+        BitSet ready = new BitSet(size);
+        for(int i = 0; i < size; i++){
+            pending[i] = compiledPlan.getDependencyCount(i);
+        }
+        for(int root : compiledPlan.getRoots()){
+            ready.set(root);
+        }
+        while(!ready.isEmpty()){
+            BitSet executable = (BitSet)ready.clone();
+            ready.clear();
+            for(int id = executable.nextSetBit(0); id >= 0; id = executable.nextSetBit(id + 1)){
+                bh.consume(compiledPlan.getEngineName(id));
+                bh.consume(compiledPlan.isOptional(id));
+                completed.set(id);
+                for(int dependent : compiledPlan.getDependents(id)){
+                    if(--pending[dependent] == 0){
+                        ready.set(dependent);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public CompiledExecutionPlan compile() throws ChainException {
+        return CompiledExecutionPlan.compile(executionPlan, null);
+    }
+
+    @Benchmark
+    public Set<String> validate() throws ChainException {
+        return ExecutionPlanHelper.validateExecutionPlan(executionPlan);
+    }
+}
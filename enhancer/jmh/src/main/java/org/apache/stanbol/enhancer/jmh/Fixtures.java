@@ -0,0 +1,186 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.DC_RELATION;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.ENHANCER_ENTITY_REFERENCE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.commons.io.IOUtils;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+
+/**
+ * Fixtures shared by the benchmarks. All fixtures are created from the
+ * documents in <code>src/main/resources/fixtures</code>.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    /**
+     * English news article with ~340 words, ~15 sentences and a lot of
+     * named entities
+     */
+    public static final String NEWS_EN = "fixtures/news-en.txt";
+
+    private static final Pattern SENTENCE = Pattern.compile("[^.!?\\s][^.!?]*[.!?]");
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+|[^\\p{L}\\p{N}\\s]");
+    private static final Pattern NAMED_ENTITY = Pattern.compile("\\p{Lu}[\\p{L}-]+(?: \\p{Lu}[\\p{L}-]+)*");
+
+    /**
+     * Engine used as dc:creator for created enhancements
+     */
+    public static final EnhancementEngine ENGINE = new EnhancementEngine() {
+
+        @Override
+        public String getName() {
+            return "jmh";
+        }
+
+        @Override
+        public int canEnhance(ContentItem ci) throws EngineException {
+            return ENHANCE_SYNCHRONOUS;
+        }
+
+        @Override
+        public void computeEnhancements(ContentItem ci) throws EngineException {
+        }
+    };
+
+    /**
+     * Loads a fixture document
+     * @param name the name of the fixture
+     * @return the text
+     */
+    public static String load(String name) {
+        InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(name);
+        if(in == null){
+            throw new IllegalArgumentException("Unknown fixture '"+name+"'!");
+        }
+        try {
+            return IOUtils.toString(in, "UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read fixture '"+name+"'!",e);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+    /**
+     * Concatenates the parsed text until it has at least the parsed length
+     */
+    public static String repeat(String text, int minLength) {
+        StringBuilder sb = new StringBuilder(minLength + text.length());
+        while(sb.length() < minLength){
+            if(sb.length() > 0){
+                sb.append("\n\n");
+            }
+            sb.append(text);
+        }
+        return sb.toString();
+    }
+    /**
+     * Simple sentence detection
+     * @return the [start,end] offsets of the sentences
+     */
+    public static List<int[]> sentences(String text) {
+        return match(SENTENCE, text, 0, text.length());
+    }
+    /**
+     * Simple tokenizer
+     * @return the [start,end] offsets of the tokens in the parsed section
+     */
+    public static List<int[]> tokens(String text, int start, int end) {
+        return match(TOKEN, text, start, end);
+    }
+    /**
+     * Sequences of upper case words are considered named entities
+     * @return the [start,end] offsets of the named entities
+     */
+    public static List<int[]> namedEntities(String text) {
+        return match(NAMED_ENTITY, text, 0, text.length());
+    }
+
+    private static List<int[]> match(Pattern pattern, String text, int start, int end) {
+        List<int[]> spans = new ArrayList<int[]>();
+        Matcher m = pattern.matcher(text);
+        m.region(start, end);
+        while(m.find()){
+            spans.add(new int[]{m.start(), m.end()});
+        }
+        return spans;
+    }
+    /**
+     * Writes a fise:TextAnnotation and a fise:EntityAnnotation for every
+     * named entity in the parsed text (similar to the results of a NER and
+     * entity linking engine)
+     * @param metadata the graph to write the enhancements
+     * @param ciUri the URI of the content item
+     * @param text the text
+     */
+    public static void writeEnhancements(Graph metadata, IRI ciUri, String text) {
+        for(int[] ne : namedEntities(text)){
+            IRI ta = EnhancementEngineHelper.createTextEnhancement(metadata, ENGINE, ciUri);
+            String selected = text.substring(ne[0], ne[1]);
+            EnhancementEngineHelper.setOccurrence(metadata, ta, text, ne[0], ne[1], null, -1, false);
+            IRI ea = EnhancementEngineHelper.createEntityEnhancement(metadata, ENGINE, ciUri);
+            metadata.add(new TripleImpl(ea, DC_RELATION, ta));
+            metadata.add(new TripleImpl(ea, ENHANCER_ENTITY_REFERENCE, new IRI(
+                "http://dbpedia.org/resource/" + selected.replace(' ', '_'))));
+        }
+    }
+    /**
+     * Creates an execution plan with the parsed number of engines. Similar to
+     * the plans created by the WeightedChain engines are grouped (three
+     * engines per group). All engines of a group depend on all engines of the
+     * previous group. Every 4th engine is optional.
+     * @param engines the number of engines
+     * @return the execution plan
+     */
+    public static ImmutableGraph executionPlan(int engines) {
+        Graph ep = new IndexedGraph();
+        BlankNodeOrIRI epNode = ExecutionPlanHelper.createExecutionPlan(ep, "jmh", null);
+        Set<BlankNodeOrIRI> previous = null;
+        Set<BlankNodeOrIRI> current = new HashSet<BlankNodeOrIRI>();
+        for(int i = 0; i < engines; i++){
+            if(i % 3 == 0 && !current.isEmpty()){
+                previous = current;
+                current = new HashSet<BlankNodeOrIRI>();
+            }
+            current.add(ExecutionPlanHelper.writeExecutionNode(ep, epNode, "engine-" + i, 
+                i % 4 == 3, previous, null));
+        }
+        return ep.getImmutableGraph();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jmh;
+
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.DC_RELATION;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.ENHANCER_EXTRACTED_FROM;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDF_TYPE;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.TechnicalClasses.ENHANCER_TEXTANNOTATION;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.simple.SimpleGraph;
+import org.apache.stanbol.commons.indexedgraph.ColumnarIndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks adding triples to and filtering triples of the {@link Graph}
+ * implementations used for the metadata of ContentItems. The triples are
+ * the enhancements written for the {@link Fixtures#NEWS_EN} fixture repeated
+ * until the text has the configured length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    @Param({"indexed", "columnar", "simple"})
+    public String graph;
+
+    @Param({"10000", "100000"})
+    public int textLength;
+
+    private List<Triple> triples;
+    private Graph metadata;
+    private BlankNodeOrIRI[] subjects;
+    private RDFTerm[] objects;
+    private IRI ciUri;
+
+    @Setup
+    public void setup() {
+        String text = Fixtures.repeat(Fixtures.load(Fixtures.NEWS_EN), textLength);
+        ciUri = new IRI("urn:jmh:content-item");
+        Graph source = new SimpleGraph();
+        Fixtures.writeEnhancements(source, ciUri, text);
+        triples = new ArrayList<Triple>(source);
+        metadata = createGraph();
+        metadata.addAll(triples);
+        //the TextAnnotations are used for filter requests with bound subjects
+        //and objects
+        List<BlankNodeOrIRI> subjectList = new ArrayList<BlankNodeOrIRI>();
+        for(Iterator<Triple> it = metadata.filter(null, RDF_TYPE, ENHANCER_TEXTANNOTATION);
+                it.hasNext() && subjectList.size() < 100;){
+            subjectList.add(it.next().getSubject());
+        }
+        subjects = subjectList.toArray(new BlankNodeOrIRI[subjectList.size()]);
+        objects = subjects;
+    }
+
+    private Graph createGraph() {
+        if("indexed".equals(graph)){
+            return new IndexedGraph();
+        } else if("columnar".equals(graph)){
+            return new ColumnarIndexedGraph();
+        } else if("simple".equals(graph)){
+            return new SimpleGraph();
+        } else {
+            throw new IllegalArgumentException("Unknown graph '"+graph+"'!");
+        }
+    }
+
+    @Benchmark
+    public Graph add() {
+        Graph g = createGraph();
+        for(Triple t : triples){
+            g.add(t);
+        }
+        return g;
+    }
+
+    @Benchmark
+    public void filterSubject(Blackhole bh) {
+        for(BlankNodeOrIRI s : subjects){
+            consume(metadata.filter(s, null, null), bh);
+        }
+    }
+
+    @Benchmark
+    public void filterSubjectPredicate(Blackhole bh) {
+        for(BlankNodeOrIRI s : subjects){
+            consume(metadata.filter(s, RDF_TYPE, null), bh);
+        }
+    }
+
+    @Benchmark
+    public void filterPredicateObject(Blackhole bh) {
+        consume(metadata.filter(null, RDF_TYPE, ENHANCER_TEXTANNOTATION), bh);
+    }
+
+    @Benchmark
+    public void filterPredicateObjectSubjects(Blackhole bh) {
+        for(RDFTerm o : objects){
+            consume(metadata.filter(null, DC_RELATION, o), bh);
+        }
+    }
+
+    @Benchmark
+    public void filterObject(Blackhole bh) {
+        consume(metadata.filter(null, ENHANCER_EXTRACTED_FROM, ciUri), bh);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        consume(metadata.iterator(), bh);
+    }
+
+    private static void consume(Iterator<Triple> it, Blackhole bh) {
+        while(it.hasNext()){
+            bh.consume(it.next());
+        }
+    }
+}
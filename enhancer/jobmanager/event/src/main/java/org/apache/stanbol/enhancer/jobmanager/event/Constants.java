@@ -17,7 +17,7 @@
 package org.apache.stanbol.enhancer.jobmanager.event;
 
 import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
-import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJob;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
 import org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventConstants;
@@ -44,8 +44,11 @@ import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
 import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper;
 import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.ChainExecution;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.ExecutionMetadata;
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
+import org.apache.stanbol.enhancer.servicesapi.metrics.ExecutionStatistics;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
 import org.osgi.service.event.EventHandler;
@@ -56,6 +59,11 @@ public class EnhancementJobHandler implements EventHandler {
 
     private EnhancementEngineManager engineManager;
     private EventAdmin eventAdmin;
+    /**
+     * Used to record statistics about engine and chain executions.
+     * <code>null</code> if not available.
+     */
+    private volatile EnhancementMetrics metrics;
 
     /*
      * NOTE on debug level Loggings
@@ -100,6 +108,14 @@ public class EnhancementJobHandler implements EventHandler {
         observerDaemon.start();
         
     }
+    /**
+     * Setter for the registry used to record execution statistics
+     * @param metrics the metrics registry or <code>null</code> to stop
+     * recording statistics
+     */
+    public void setMetrics(EnhancementMetrics metrics) {
+        this.metrics = metrics;
+    }
     /**
      * Closes this Handler and notifies all components that wait for still
      * running jobs
@@ -243,6 +259,10 @@ public class EnhancementJobHandler implements EventHandler {
         //(1) execute the parsed ExecutionNode
         EnhancementEngine engine = engineManager.getEngine(engineName);
         if(engine != null){
+            final EnhancementMetrics metrics = this.metrics;
+            final ExecutionStatistics statistics = metrics == null ? null :
+                metrics.getEngineStatistics(engineName);
+            final long start = System.nanoTime();
             //execute the engine
             Exception exception = null;
             int engineState;
@@ -262,13 +282,13 @@ public class EnhancementJobHandler implements EventHandler {
                 log.trace(">> w: {}: {}","start sync execution", engine.getName());
                 try {
                     engine.computeEnhancements(job.getContentItem());
-                    job.setCompleted(execution);
+                    completed(job, execution, statistics, start);
                 } catch (EngineException e){
                     log.warn(e.getMessage(),e);
-                    job.setFailed(execution, engine, e);
+                    failed(job, execution, engine, e, statistics, start);
                 } catch (RuntimeException e){
                     log.warn(e.getMessage(),e);
-                    job.setFailed(execution, engine, e);
+                    failed(job, execution, engine, e, statistics, start);
                 } finally{
                     log.trace("<< w: {}: {}","finished sync execution", engine.getName());
                     job.getLock().writeLock().unlock();
@@ -278,19 +298,22 @@ public class EnhancementJobHandler implements EventHandler {
                     log.trace("++ n: start async execution of Engine {}",engine.getName());
                     engine.computeEnhancements(job.getContentItem());
                     log.trace("++ n: finished async execution of Engine {}",engine.getName());
-                    job.setCompleted(execution);
+                    completed(job, execution, statistics, start);
                 } catch (EngineException e) {
                     log.warn(e.getMessage(),e);
-                    job.setFailed(execution, engine, e);
+                    failed(job, execution, engine, e, statistics, start);
                 } catch (RuntimeException e) {
                     log.warn(e.getMessage(),e);
-                    job.setFailed(execution, engine, e);
+                    failed(job, execution, engine, e, statistics, start);
                 }
             } else { //CANNOT_ENHANCE
                 if(exception != null){
-                    job.setFailed(execution,engine,exception);
+                    failed(job, execution, engine, exception, statistics, start);
                 } else { //can not enhance is not an error
                     //it just says this engine can not enhance this content item
+                    if(statistics != null){
+                        statistics.recordRejected();
+                    }
                     job.setCompleted(execution);
                 }
             }
@@ -298,6 +321,26 @@ public class EnhancementJobHandler implements EventHandler {
             job.setFailed(execution, null, null);
         }
     }
+    /**
+     * Marks the execution as completed and records its duration
+     */
+    private static void completed(EnhancementJob job, BlankNodeOrIRI execution,
+            ExecutionStatistics statistics, long start){
+        if(statistics != null){
+            statistics.recordCompleted(System.nanoTime() - start);
+        }
+        job.setCompleted(execution);
+    }
+    /**
+     * Marks the execution as failed and records its duration
+     */
+    private static void failed(EnhancementJob job, BlankNodeOrIRI execution,
+            EnhancementEngine engine, Exception e, ExecutionStatistics statistics, long start){
+        if(statistics != null){
+            statistics.recordFailed(System.nanoTime() - start);
+        }
+        job.setFailed(execution, engine, e);
+    }
     /**
      * Removes a finished job from {@link #processingJobs} and notifies
      * all waiting components
@@ -318,6 +361,16 @@ public class EnhancementJobHandler implements EventHandler {
                 }
                 log.trace("++ n: finished processing ContentItem {} with Chain {}",
                     job.getContentItem().getUri(),job.getChainName());
+                EnhancementMetrics metrics = this.metrics;
+                if(metrics != null){
+                    ExecutionStatistics statistics = metrics.getChainStatistics(job.getChainName());
+                    long duration = System.nanoTime() - observer.started;
+                    if(job.isFailed()){
+                        statistics.recordFailed(duration);
+                    } else {
+                        statistics.recordCompleted(duration);
+                    }
+                }
             } finally {
                 //release the semaphore to send signal to the EventJobManager waiting
                 //for the results
@@ -449,6 +502,10 @@ public class EnhancementJobHandler implements EventHandler {
         private static final int MIN_WAIT_TIME = 500;
         private final EnhancementJob enhancementJob;
         private final Semaphore semaphore;
+        /**
+         * {@link System#nanoTime()} when the job was registered
+         */
+        private final long started = System.nanoTime();
         
         private EnhancementJobObserver(EnhancementJob job){
             if(job == null){
@@ -37,6 +37,8 @@ import org.apache.felix.scr.annotations.Properties;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
+import org.apache.felix.scr.annotations.ReferenceStrategy;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandler.EnhancementJobObserver;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
@@ -48,8 +50,10 @@ import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.ExecutionMetadata;
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
@@ -96,10 +100,20 @@ public class EventJobManagerImpl implements EnhancementJobManager {
      */
     @Reference(cardinality=ReferenceCardinality.OPTIONAL_UNARY)
     protected Serializer serializer;
+    /**
+     * If available engine and chain executions are recorded with the
+     * metrics registry (OPTIONAL)
+     */
+    @Reference(cardinality=ReferenceCardinality.OPTIONAL_UNARY,
+        bind="bindMetrics",
+        unbind="unbindMetrics",
+        strategy=ReferenceStrategy.EVENT,
+        policy=ReferencePolicy.DYNAMIC)
+    private volatile EnhancementMetrics metrics;
     
     @SuppressWarnings("rawtypes")
     private ServiceRegistration jobHandlerRegistration;
-    private EnhancementJobHandler jobHandler;
+    private volatile EnhancementJobHandler jobHandler;
     private int maxEnhancementJobWaitTime = DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME;
     
     
@@ -113,6 +127,7 @@ public class EventJobManagerImpl implements EnhancementJobManager {
     protected void activate(ComponentContext ctx){
         log.info("activate {}",getClass().getName());
         jobHandler = new EnhancementJobHandler(eventAdmin,engineManager);
+        jobHandler.setMetrics(metrics);
         Dictionary<String,Object> properties = new Hashtable<String,Object>();
         properties.put(org.osgi.service.event.EventConstants.EVENT_TOPIC, TOPIC_JOB_MANAGER);
         jobHandlerRegistration = ctx.getBundleContext().registerService(
@@ -123,6 +138,24 @@ public class EventJobManagerImpl implements EnhancementJobManager {
             this.maxEnhancementJobWaitTime = (Integer) maxWaitTime;
         }
     }
+
+    protected void bindMetrics(EnhancementMetrics metrics){
+        this.metrics = metrics;
+        EnhancementJobHandler jobHandler = this.jobHandler;
+        if(jobHandler != null){
+            jobHandler.setMetrics(metrics);
+        }
+    }
+
+    protected void unbindMetrics(EnhancementMetrics metrics){
+        if(this.metrics == metrics){
+            this.metrics = null;
+            EnhancementJobHandler jobHandler = this.jobHandler;
+            if(jobHandler != null){
+                jobHandler.setMetrics(null);
+            }
+        }
+    }
     /**
      * Unregisters the {@link EnhancementJobHandler}
      * @param ctx
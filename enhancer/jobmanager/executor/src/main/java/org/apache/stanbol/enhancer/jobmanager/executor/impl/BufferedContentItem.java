@@ -0,0 +1,381 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.PartLockingContentItem;
+import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
+
+/**
+ * {@link ContentItem} view used to execute engines in the
+ * {@link ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES buffered writes}
+ * mode.<p>
+ * Reads are delegated to the wrapped ContentItem - each read only holding
+ * its read lock for the duration of the call. Changes to the metadata are
+ * buffered by a {@link DeltaGraph} and content parts added/removed by the
+ * engine are kept in this view. {@link #commit()} applies all changes to
+ * the wrapped ContentItem while holding its write lock.<p>
+ * Optionally the metadata can be read from an immutable snapshot. In this
+ * case reading the metadata does not need any lock on the wrapped
+ * ContentItem. Without a snapshot every access to the metadata acquires the
+ * read lock of the wrapped ContentItem and therefore waits for engines that
+ * hold its write lock (see {@link DeltaGraph}).<p>
+ * {@link #getLock()} returns the lock of the wrapped ContentItem, because
+ * content parts returned by {@link #getPart(IRI, Class)} are shared with
+ * other engines processing the same ContentItem. Engines that declare
+ * buffered writes are expected to use the finer grained locks instead:
+ * <ul>
+ * <li> {@link #getMetadataLock()}: the lock of the buffered metadata. As
+ * the metadata are private to this view it only blocks the engine itself.
+ * <li> {@link #getPartLock(IRI)}: a lock for a single content part shared
+ * by all views of the same {@link EnhancementJob}. It also holds the read
+ * lock of the wrapped ContentItem (see {@link ContentPartLock}).
+ * </ul>
+ * Locks are always acquired in the order: lock of the ContentItem, part
+ * locks, lock of the buffered metadata and finally the monitor guarding the
+ * buffered content parts.
+ */
+public class BufferedContentItem implements PartLockingContentItem {
+
+    private final EnhancementJob job;
+    private final ContentItem ci;
+    private final DeltaGraph metadata;
+    private final Lock readLock;
+    /**
+     * Monitor guarding {@link #addedParts} and {@link #removedParts}. Calls to
+     * the wrapped ContentItem are never made while holding it.
+     */
+    private final Object partsLock = new Object();
+    /**
+     * Content parts added by the engine
+     */
+    private final Map<IRI,Object> addedParts = new LinkedHashMap<IRI,Object>();
+    /**
+     * Content parts of the wrapped ContentItem removed by the engine
+     */
+    private final Set<IRI> removedParts = new HashSet<IRI>();
+
+    /**
+     * Creates a view that reads the metadata of the ContentItem of the
+     * parsed job
+     * @param job the enhancement job
+     */
+    public BufferedContentItem(EnhancementJob job) {
+        this(job, null);
+    }
+    /**
+     * Creates a view that reads the metadata from the parsed snapshot. As
+     * the snapshot is immutable reading the metadata does not require any
+     * lock on the ContentItem.
+     * @param job the enhancement job
+     * @param metadataSnapshot an immutable snapshot of the metadata of the
+     * content item or <code>null</code> to directly read the metadata of the
+     * content item
+     */
+    public BufferedContentItem(EnhancementJob job, Graph metadataSnapshot) {
+        if(job == null){
+            throw new IllegalArgumentException("The parsed EnhancementJob MUST NOT be NULL!");
+        }
+        this.job = job;
+        this.ci = job.getContentItem();
+        if(metadataSnapshot == null){
+            this.metadata = new DeltaGraph(ci.getMetadata(), ci.getLock().readLock());
+        } else {
+            this.metadata = new DeltaGraph(metadataSnapshot, null);
+        }
+        this.readLock = metadata.getLock().readLock();
+    }
+    /**
+     * The wrapped ContentItem
+     * @return the content item
+     */
+    public ContentItem getContentItem() {
+        return ci;
+    }
+
+    @Override
+    public IRI getUri() {
+        return ci.getUri();
+    }
+
+    @Override
+    public InputStream getStream() {
+        return ci.getStream();
+    }
+
+    @Override
+    public String getMimeType() {
+        return ci.getMimeType();
+    }
+
+    @Override
+    public ReadWriteLock getLock() {
+        return ci.getLock();
+    }
+    /**
+     * The lock of the buffered metadata
+     */
+    @Override
+    public ReadWriteLock getMetadataLock() {
+        return metadata.getLock();
+    }
+
+    @Override
+    public ReadWriteLock getPartLock(IRI partUri) {
+        return new ContentPartLock(ci.getLock(), job.getPartLock(partUri));
+    }
+    /**
+     * The buffered metadata
+     */
+    @Override
+    public Graph getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public Blob getBlob() {
+        return ci.getBlob();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getPart(int index, Class<T> clazz) throws NoSuchPartException {
+        IRI partUri = getPartUri(index);
+        synchronized (partsLock) {
+            Object part = addedParts.get(partUri);
+            if(part != null){
+                if(!clazz.isAssignableFrom(part.getClass())){
+                    throw new NoSuchPartException("The body part "+index+" is of type "
+                        + part.getClass().getName()+" which cannot be converted to "
+                        + clazz.getName());
+                }
+                return (T)part;
+            }
+        }
+        return ci.getPart(partUri, clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getPart(IRI uri, Class<T> clazz) throws NoSuchPartException {
+        synchronized (partsLock) {
+            Object part = addedParts.get(uri);
+            if(part != null){
+                if(clazz.isAssignableFrom(part.getClass())){
+                    return (T)part;
+                } else {
+                    throw new ClassCastException("The part '"+part+"'(class: "
+                            + part.getClass()+") is not compatiple to the requested"
+                            + "type "+clazz);
+                }
+            }
+            if(removedParts.contains(uri)){
+                throw new NoSuchPartException(uri);
+            }
+        }
+        return ci.getPart(uri, clazz);
+    }
+
+    @Override
+    public IRI getPartUri(int index) throws NoSuchPartException {
+        List<IRI> partUris = getPartUris();
+        if(index < 0 || index >= partUris.size()){
+            throw new NoSuchPartException(index);
+        }
+        return partUris.get(index);
+    }
+    /**
+     * The URIs of the parts of this view in the order of their index
+     * @return the part URIs
+     */
+    private List<IRI> getPartUris() {
+        List<IRI> partUris = new ArrayList<IRI>();
+        Set<IRI> existing = new HashSet<IRI>();
+        List<IRI> ciPartUris = new ArrayList<IRI>();
+        ci.getLock().readLock().lock();
+        try {
+            for(int i = 0; ; i++){
+                try {
+                    ciPartUris.add(ci.getPartUri(i));
+                } catch (NoSuchPartException e) {
+                    break;
+                }
+            }
+        } finally {
+            ci.getLock().readLock().unlock();
+        }
+        synchronized (partsLock) {
+            for(IRI partUri : ciPartUris){
+                existing.add(partUri);
+                if(!removedParts.contains(partUri)){
+                    partUris.add(partUri);
+                }
+            }
+            for(IRI partUri : addedParts.keySet()){
+                if(!existing.contains(partUri)){
+                    partUris.add(partUri);
+                } //else replaced part keeps its position
+            }
+        }
+        return partUris;
+    }
+
+    @Override
+    public Object addPart(IRI uriRef, Object object) {
+        if(uriRef == null || object == null){
+            throw new IllegalArgumentException("The parsed content part ID and " +
+                    "object MUST NOT be NULL!");
+        }
+        if(uriRef.equals(ci.getPartUri(0))){
+            throw new IllegalArgumentException("The parsed content part ID MUST " +
+                    "NOT be equals to the ID used by the main Content Part");
+        }
+        Object existing;
+        try {
+            existing = ci.getPart(uriRef, Object.class);
+        } catch (NoSuchPartException e) {
+            existing = null; //not present
+        }
+        synchronized (partsLock) {
+            Object old = addedParts.put(uriRef, object);
+            if(old == null && !removedParts.remove(uriRef)){
+                old = existing;
+            }
+            return old;
+        }
+    }
+
+    @Override
+    public void removePart(int index) {
+        if(index < 0) {
+            throw new IllegalArgumentException("The parsed index MUST NOT be < 0");
+        }
+        if(index == 0){
+            throw new IllegalStateException("The main ContentPart (index == 0) CAN NOT be removed!");
+        }
+        removePart(getPartUri(index));
+    }
+
+    @Override
+    public void removePart(IRI uriRef) {
+        if(uriRef == null){
+            throw new IllegalArgumentException("The parsed uriRef MUST NOT be NULL!");
+        }
+        if(uriRef.equals(ci.getPartUri(0))){
+            throw new IllegalStateException("The main ContentPart (uri '"
+                + uriRef+"') CAN NOT be removed!");
+        }
+        boolean existing;
+        try {
+            ci.getPart(uriRef, Object.class);
+            existing = true;
+        } catch (NoSuchPartException e) {
+            existing = false;
+        }
+        synchronized (partsLock) {
+            if(addedParts.remove(uriRef) != null){
+                if(existing){
+                    removedParts.add(uriRef);
+                } //else part was only added to this view
+            } else if(existing && !removedParts.contains(uriRef)){
+                removedParts.add(uriRef);
+            } else {
+                throw new NoSuchPartException(uriRef);
+            }
+        }
+    }
+    /**
+     * Applies all changes to the wrapped ContentItem. This acquires the
+     * write lock of the wrapped ContentItem for the duration of the commit.
+     * <p>
+     * Expected to be called after the engine has completed.
+     */
+    public void commit() {
+        ci.getLock().writeLock().lock();
+        try {
+            metadata.commit(ci.getMetadata());
+            for(IRI partUri : removedParts){
+                try {
+                    ci.removePart(partUri);
+                } catch (NoSuchPartException e) {
+                    //already removed
+                }
+            }
+            for(Entry<IRI,Object> part : addedParts.entrySet()){
+                ci.addPart(part.getKey(), part.getValue());
+            }
+        } finally {
+            ci.getLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * The number of triples added to the metadata
+     * @return the number of added triples
+     */
+    public int getAddedTriples() {
+        readLock.lock();
+        try {
+            return metadata.getAdded().size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+    /**
+     * The number of triples removed from the metadata
+     * @return the number of removed triples
+     */
+    public int getRemovedTriples() {
+        readLock.lock();
+        try {
+            return metadata.getRemoved().size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return ci.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ContentItem && ((ContentItem)o).getUri().equals(getUri());
+    }
+
+    @Override
+    public String toString() {
+        return "Buffered "+ci.toString();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+
+/**
+ * Lock for a single content part as returned by
+ * {@link BufferedContentItem#getPartLock(org.apache.clerezza.commons.rdf.IRI)}.
+ * <p>
+ * Both the read and the write lock first acquire the read lock of the
+ * {@link ContentItem} and then the read/write lock of the content part.
+ * Holding the read lock of the ContentItem excludes engines that hold its
+ * write lock (e.g. {@link org.apache.stanbol.enhancer.servicesapi.EnhancementEngine#ENHANCE_SYNCHRONOUS}
+ * engines) and commits of other buffered engines, while engines that use
+ * the locks of different content parts do not block each other.
+ */
+final class ContentPartLock implements ReadWriteLock {
+
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    /**
+     * @param contentItemLock the lock of the ContentItem
+     * @param partLock the lock of the content part
+     */
+    ContentPartLock(ReadWriteLock contentItemLock, ReadWriteLock partLock) {
+        this.readLock = new NestedLock(contentItemLock.readLock(), partLock.readLock());
+        this.writeLock = new NestedLock(contentItemLock.readLock(), partLock.writeLock());
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * Acquires the outer lock before the inner one and releases them in the
+     * reverse order
+     */
+    private static final class NestedLock implements Lock {
+
+        private final Lock outer;
+        private final Lock inner;
+
+        NestedLock(Lock outer, Lock inner) {
+            this.outer = outer;
+            this.inner = inner;
+        }
+
+        @Override
+        public void lock() {
+            outer.lock();
+            boolean locked = false;
+            try {
+                inner.lock();
+                locked = true;
+            } finally {
+                if(!locked){
+                    outer.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            outer.lockInterruptibly();
+            boolean locked = false;
+            try {
+                inner.lockInterruptibly();
+                locked = true;
+            } finally {
+                if(!locked){
+                    outer.unlock();
+                }
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            if(!outer.tryLock()){
+                return false;
+            }
+            boolean locked = false;
+            try {
+                locked = inner.tryLock();
+            } finally {
+                if(!locked){
+                    outer.unlock();
+                }
+            }
+            return locked;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if(!outer.tryLock(time, unit)){
+                return false;
+            }
+            boolean locked = false;
+            try {
+                locked = inner.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } finally {
+                if(!locked){
+                    outer.unlock();
+                }
+            }
+            return locked;
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                inner.unlock();
+            } finally {
+                outer.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by content part locks");
+        }
+    }
+}
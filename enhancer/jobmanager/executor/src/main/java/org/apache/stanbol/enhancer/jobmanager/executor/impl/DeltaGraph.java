@@ -0,0 +1,285 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.AbstractGraph;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+
+/**
+ * {@link Graph} layered over a base graph that buffers all modifications.
+ * Read operations see the triples of the base graph (minus the removed ones)
+ * and the added triples. Modifications are only applied by calling
+ * {@link #commit(Graph)}.<p>
+ * The base graph is only accessed while holding the parsed base read lock
+ * and only for the duration of a single operation. Because of that the
+ * triples of the base graph matching a filter are copied before they are
+ * returned. The lock of this graph ({@link #getLock()}) is independent of
+ * the lock of the base graph. To allow callers to hold the lock of the base
+ * graph while using this graph the base read lock is always acquired before
+ * the lock of this graph. If the base graph is an immutable snapshot no lock
+ * is used to access it.<p>
+ * <b>Limitation:</b> if a base read lock is parsed, every read (and every
+ * modification, as it needs to check the base graph) acquires it. Callers
+ * therefore wait for any holder of the base write lock (e.g. engines executed
+ * with {@link org.apache.stanbol.enhancer.servicesapi.EnhancementEngine#ENHANCE_SYNCHRONOUS}
+ * and commits of other delta graphs). Only delta graphs layered over an
+ * immutable snapshot provide reads without any locking on the base graph.
+ */
+public class DeltaGraph extends AbstractGraph {
+
+    private final Graph base;
+    private final Lock baseReadLock;
+    /**
+     * Triples added to this graph that are not present in the base graph
+     */
+    private final Graph added = new IndexedGraph();
+    /**
+     * Triples of the base graph removed from this graph
+     */
+    private final Set<Triple> removed = new HashSet<Triple>();
+
+    /**
+     * Creates a delta graph
+     * @param base the base graph
+     * @param baseReadLock the read lock used for accessing the base graph or
+     * <code>null</code> if the base graph is immutable
+     */
+    public DeltaGraph(Graph base, Lock baseReadLock) {
+        super();
+        if(base == null){
+            throw new IllegalArgumentException("The parsed base Graph MUST NOT be NULL!");
+        }
+        this.base = base;
+        this.baseReadLock = baseReadLock;
+    }
+
+    @Override
+    protected Iterator<Triple> performFilter(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        final List<Triple> triples = new ArrayList<Triple>();
+        lockBase();
+        try {
+            for(Iterator<Triple> it = base.filter(subject, predicate, object); it.hasNext();){
+                Triple t = it.next();
+                if(removed.isEmpty() || !removed.contains(t)){
+                    triples.add(t);
+                }
+            }
+        } finally {
+            unlockBase();
+        }
+        for(Iterator<Triple> it = added.filter(subject, predicate, object); it.hasNext();){
+            triples.add(it.next());
+        }
+        return new Iterator<Triple>() {
+            private final Iterator<Triple> it = triples.iterator();
+            private Triple current;
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+            @Override
+            public Triple next() {
+                current = it.next();
+                return current;
+            }
+            @Override
+            public void remove() {
+                if(current == null){
+                    throw new IllegalStateException();
+                }
+                it.remove();
+                //the triple is either an added one or part of the base graph
+                if(!added.remove(current)){
+                    removed.add(current);
+                }
+                current = null;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Triple> filter(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        lockBase();
+        try {
+            return super.filter(subject, predicate, object);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    public boolean add(Triple triple) {
+        lockBase();
+        try {
+            return super.add(triple);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Triple> c) {
+        lockBase();
+        try {
+            return super.addAll(c);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        lockBase();
+        try {
+            return super.remove(o);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        lockBase();
+        try {
+            return super.removeAll(c);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        lockBase();
+        try {
+            return super.contains(o);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    public int size() {
+        lockBase();
+        try {
+            return super.size();
+        } finally {
+            unlockBase();
+        }
+    }
+
+    @Override
+    protected boolean performAdd(Triple triple) {
+        if(removed.remove(triple)){
+            return true; //re-added a removed triple of the base graph
+        }
+        if(baseContains(triple)){
+            return false;
+        }
+        return added.add(triple);
+    }
+
+    @Override
+    protected boolean performRemove(Object o) {
+        if(!(o instanceof Triple)){
+            return false;
+        }
+        Triple triple = (Triple)o;
+        if(added.remove(triple)){
+            return true;
+        }
+        if(!removed.contains(triple) && baseContains(triple)){
+            return removed.add(triple);
+        }
+        return false;
+    }
+
+    @Override
+    protected int performSize() {
+        int baseSize;
+        lockBase();
+        try {
+            baseSize = base.size();
+        } finally {
+            unlockBase();
+        }
+        return baseSize - removed.size() + added.size();
+    }
+
+    private boolean baseContains(Triple triple) {
+        lockBase();
+        try {
+            return base.contains(triple);
+        } finally {
+            unlockBase();
+        }
+    }
+
+    private void lockBase() {
+        if(baseReadLock != null){
+            baseReadLock.lock();
+        }
+    }
+
+    private void unlockBase() {
+        if(baseReadLock != null){
+            baseReadLock.unlock();
+        }
+    }
+    /**
+     * The triples added to this graph (not present in the base graph)
+     * @return the added triples
+     */
+    public Graph getAdded() {
+        return added;
+    }
+    /**
+     * The triples of the base graph removed from this graph
+     * @return the removed triples
+     */
+    public Set<Triple> getRemoved() {
+        return removed;
+    }
+    /**
+     * Applies the buffered modifications to the parsed target graph. Callers
+     * need to hold the write lock of the target graph.<p>
+     * The target is typically the base graph. If the base graph is a
+     * snapshot the target is the graph the snapshot was taken from.
+     * @param target the graph to apply the changes to
+     */
+    public void commit(Graph target) {
+        if(!removed.isEmpty()){
+            target.removeAll(removed);
+        }
+        if(!added.isEmpty()){
+            target.addAll(added);
+        }
+    }
+
+}
@@ -0,0 +1,714 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.ChainExecution;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.ExecutionMetadata;
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
+import org.apache.stanbol.enhancer.servicesapi.metrics.ExecutionStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the ExecutionPlan of registered {@link EnhancementJob}s by
+ * submitting the executions of {@link EnhancementEngine}s to a bounded
+ * {@link ThreadPoolExecutor}. As soon as an execution completes the worker
+ * thread directly schedules the next executable nodes of the job - so there
+ * is no central dispatcher that could become the bottleneck.<p>
+ * Backpressure is applied on two levels:<ul>
+ * <li> the number of concurrently processed {@link EnhancementJob}s is
+ * limited by a {@link Semaphore}. {@link #register(EnhancementJob, long, Runnable)}
+ * waits until a permit becomes available.
+ * <li> the queue of the executor is bounded. If it is full the thread that
+ * schedules the next execution will execute it itself
+ * ({@link ThreadPoolExecutor.CallerRunsPolicy}).
+ * </ul>
+ * Engines that declare the {@link ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES}
+ * property are executed on a {@link BufferedContentItem}. This avoids
+ * holding the write lock of the ContentItem while computing the enhancements
+ * for {@link EnhancementEngine#ENHANCE_SYNCHRONOUS} engines.<p>
+ * In the optional delta graphs mode those engines read the metadata from an
+ * immutable snapshot ({@link EnhancementJob#getMetadataSnapshot()}) and
+ * the number of triples added/removed by every execution is recorded in the
+ * execution metadata (see
+ * {@link #commit(EnhancementJob, BlankNodeOrIRI, BufferedContentItem)}).
+ * Engines that do not declare buffered writes are always executed directly
+ * on the ContentItem.
+ */
+public class EnhancementJobExecutor {
+
+    /*
+     * NOTE on debug level Loggings
+     *
+     *  ++ ... init some activity
+     *  >> ... started some activity (thread has the requested lock)
+     *  << ... completed some activity (thread has released the lock)
+     *
+     *  n: ... no lock
+     *  r: ... read lock
+     *  w: ... write lock
+     */
+    private static Logger log = LoggerFactory.getLogger(EnhancementJobExecutor.class);
+
+    private final EnhancementEngineManager engineManager;
+    /**
+     * Keys are {@link EnhancementJob}s currently enhancing contentItems and
+     * the values are the futures completed as soon as the enhancement process
+     * has finished.
+     */
+    private final Map<EnhancementJob,EnhancementJobFuture> processingJobs =
+            new ConcurrentHashMap<EnhancementJob,EnhancementJobFuture>();
+    /**
+     * Limits the number of concurrently processed jobs. <code>null</code>
+     * if no limit is configured.
+     */
+    private final Semaphore jobPermits;
+    private final ThreadPoolExecutor executor;
+    /**
+     * If engines with buffered writes read from a snapshot of the metadata
+     */
+    private final boolean deltaGraphs;
+    private volatile boolean closed = false;
+    /**
+     * Used to record statistics about engine and chain executions.
+     * <code>null</code> if not available.
+     */
+    private volatile EnhancementMetrics metrics;
+
+    /**
+     * Creates an EnhancementJobExecutor
+     * @param engineManager the engine manager used to lookup engines
+     * @param poolSize the number of worker threads. If <code>&lt;= 0</code>
+     * the number of available processors is used.
+     * @param queueSize the maximum number of queued executions. If
+     * <code>&lt;= 0</code> <code>poolSize * 64</code> is used.
+     * @param maxJobs the maximum number of concurrently processed jobs. If
+     * <code>&lt;= 0</code> the number of jobs is not limited.
+     */
+    public EnhancementJobExecutor(EnhancementEngineManager engineManager,
+                                  int poolSize, int queueSize, int maxJobs) {
+        this(engineManager, poolSize, queueSize, maxJobs, false);
+    }
+    /**
+     * Creates an EnhancementJobExecutor
+     * @param engineManager the engine manager used to lookup engines
+     * @param poolSize the number of worker threads. If <code>&lt;= 0</code>
+     * the number of available processors is used.
+     * @param queueSize the maximum number of queued executions. If
+     * <code>&lt;= 0</code> <code>poolSize * 64</code> is used.
+     * @param maxJobs the maximum number of concurrently processed jobs. If
+     * <code>&lt;= 0</code> the number of jobs is not limited.
+     * @param deltaGraphs if <code>true</code> engines that declare buffered
+     * writes read from a snapshot of the metadata. Deltas are merged with the
+     * metadata of the ContentItem as soon as the execution completes.
+     */
+    public EnhancementJobExecutor(EnhancementEngineManager engineManager,
+                                  int poolSize, int queueSize, int maxJobs,
+                                  boolean deltaGraphs) {
+        if(engineManager == null){
+            throw new IllegalArgumentException("The parsed EnhancementEngineManager MUST NOT be NULL!");
+        }
+        this.engineManager = engineManager;
+        if(poolSize <= 0){
+            poolSize = Runtime.getRuntime().availableProcessors();
+        }
+        if(queueSize <= 0){
+            queueSize = poolSize * 64;
+        }
+        this.jobPermits = maxJobs > 0 ? new Semaphore(maxJobs) : null;
+        this.deltaGraphs = deltaGraphs;
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(queueSize),
+            new WorkerThreadFactory(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        log.info("created {} (poolSize: {}, queueSize: {}, maxJobs: {}, deltaGraphs: {})",
+            new Object[]{getClass().getSimpleName(), poolSize, queueSize,
+                    maxJobs > 0 ? maxJobs : "unlimited", deltaGraphs});
+    }
+    /**
+     * Setter for the registry used to record execution statistics
+     * @param metrics the metrics registry or <code>null</code> to stop
+     * recording statistics
+     */
+    public void setMetrics(EnhancementMetrics metrics) {
+        this.metrics = metrics;
+    }
+    /**
+     * Closes this executor. Running engines are not interrupted, but no
+     * further executions are scheduled. All futures of not yet finished jobs
+     * are completed with an {@link IllegalStateException}.
+     */
+    public void close(){
+        log.info("close {}",getClass().getName());
+        closed = true;
+        executor.shutdown();
+        for(EnhancementJob job : new ArrayList<EnhancementJob>(processingJobs.keySet())){
+            EnhancementJobFuture future = processingJobs.remove(job);
+            if(future != null){
+                releasePermit();
+                future.complete(new IllegalStateException("EnhancementJobManager was "
+                    + "deactivated while enhancing ContentItem "+job.getContentItem().getUri()));
+            }
+        }
+    }
+
+    /**
+     * Registers an EnhancementJob and starts the enhancement process.
+     * @param enhancementJob the enhancement job to register
+     * @param maxWait the maximum time in milliseconds to wait for a free slot
+     * if the maximum number of concurrently processed jobs is reached.
+     * <code>0</code> to fail immediately.
+     * @param listener called as soon as the returned future completes or
+     * <code>null</code> if none
+     * @return the future completed as soon as {@link EnhancementJob#isFinished()}
+     * or this instance is closed.
+     * @throws RejectedExecutionException if this executor is closed or if no
+     * free slot for the job becomes available within <code>maxWait</code>
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     */
+    public EnhancementJobFuture register(EnhancementJob enhancementJob, long maxWait, Runnable listener)
+            throws InterruptedException{
+        if(enhancementJob == null){
+            throw new IllegalArgumentException("The parsed EnhancementJob MUST NOT be NULL!");
+        }
+        if(closed){
+            throw new RejectedExecutionException("The "+getClass().getSimpleName()
+                + " is already closed!");
+        }
+        if(jobPermits != null && !jobPermits.tryAcquire(maxWait, TimeUnit.MILLISECONDS)){
+            EnhancementMetrics metrics = this.metrics;
+            if(metrics != null){
+                metrics.getChainStatistics(enhancementJob.getChainName()).recordRejected();
+            }
+            throw new RejectedExecutionException("Unable to enhance ContentItem "
+                + enhancementJob.getContentItem().getUri() + " because the maximum number of "
+                + "concurrently processed EnhancementJobs is reached (waited " + maxWait
+                + "ms for a free slot | queued executions: " + executor.getQueue().size()+")!");
+        }
+        final EnhancementJob job = enhancementJob;
+        EnhancementJobFuture future = new EnhancementJobFuture(enhancementJob, listener){
+            @Override
+            protected void onCancel() {
+                cancelled(job);
+            }
+        };
+        if(processingJobs.put(enhancementJob, future) != null){
+            log.warn("Request to register an EnhancementJob for an ContentItem {} that is" +
+                    "already registered "+enhancementJob.getContentItem().getUri());
+        }
+        if(log.isDebugEnabled()){
+            logJobInfo(log, enhancementJob, "Add EnhancementJob:",log.isTraceEnabled());
+        }
+        enhancementJob.startProcessing();
+        if(!executeNextNodes(enhancementJob)){
+            String message = "Unable to start Execution of "+enhancementJob.getContentItem().getUri();
+            log.warn(message);
+            logJobInfo(log, enhancementJob, null, true);
+            log.warn("finishing job ...");
+            finish(enhancementJob);
+        }
+        return future;
+    }
+    /**
+     * The number of executions currently waiting in the queue of the executor
+     * @return the number of queued executions
+     */
+    public int getQueuedExecutions(){
+        return executor.getQueue().size();
+    }
+    /**
+     * The number of registered {@link EnhancementJob}s that are not yet
+     * finished
+     * @return the number of active jobs
+     */
+    public int getActiveJobs(){
+        return processingJobs.size();
+    }
+
+    /**
+     * Called by the worker threads after the execution of an engine has
+     * completed (successfully or not) to trigger the next actions.
+     * @param job the job
+     */
+    private void executionCompleted(EnhancementJob job){
+        final boolean finished;
+        EnhancementJobFuture future = processingJobs.get(job);
+        if(future == null){ //closed, cancelled or already finished
+            return;
+        }
+        log.trace("++ w: {}","check for next Executions");
+        job.getLock().writeLock().lock();
+        log.trace(">> w: {}","check for next Executions");
+        try {
+            if(job.isFinished()){
+                finished = true;
+            } else if(future.isCancelled()){
+                //do not schedule further executions of cancelled jobs
+                finished = job.getRunning().isEmpty();
+            } else if(job.isFailed()){
+                if(log.isInfoEnabled()){
+                    Collection<String> running = new ArrayList<String>(3);
+                    for(BlankNodeOrIRI runningNode : job.getRunning()){
+                        running.add(job.getEngineName(runningNode));
+                    }
+                    log.info("Job {} failed, but {} still running!",
+                        job.getContentItem().getUri(),running);
+                }
+                finished = false;
+            } else {
+                finished = false;
+            }
+        } finally {
+            log.trace("<< w: {}","check for next Executions");
+            job.getLock().writeLock().unlock();
+        }
+        if(finished){
+            finish(job);
+        } else if(!future.isCancelled() && !job.isFailed()){
+            if(!executeNextNodes(job) && job.getRunning().isEmpty() && !job.isFinished()){
+                log.warn("Unexpected state in the Execution of ContentItem {}:"
+                    + " Job is not finished AND no executions are running AND"
+                    + " no further execution could be started! -> finishing"
+                    + " this job :(", job.getContentItem().getUri());
+                finish(job);
+            } //else execution started of other jobs are running
+        }
+    }
+    /**
+     * Executes the engine referenced by the parsed em:Execution
+     * @param job the job
+     * @param execution the em:Execution
+     */
+    private void execute(EnhancementJob job, BlankNodeOrIRI execution) {
+        String engineName = job.getEngineName(execution);
+        //use the engine resolved by the compiled execution plan if available
+        EnhancementEngine engine = job.getEngine(execution);
+        if(engine == null){
+            engine = engineManager.getEngine(engineName);
+        }
+        if(engine != null){
+            final EnhancementMetrics metrics = this.metrics;
+            final ExecutionStatistics statistics = metrics == null ? null :
+                metrics.getEngineStatistics(engineName);
+            final long start = System.nanoTime();
+            //execute the engine
+            Exception exception = null;
+            int engineState;
+            try {
+                engineState = engine.canEnhance(job.getContentItem());
+            } catch (EngineException e) {
+                exception = e;
+                log.warn("Unable to check if engine '" + engineName
+                    + "'(type: " + engine.getClass() + ") can enhance ContentItem '"
+                    + job.getContentItem().getUri()+ "'!",e);
+                engineState = EnhancementEngine.CANNOT_ENHANCE;
+            }
+            if(engineState != EnhancementEngine.CANNOT_ENHANCE && isBufferedWrites(engine)){
+                //the engine reads from the content item (or a snapshot of its
+                //metadata), but all changes are buffered and committed after
+                //the engine has completed. So there is no need to exclusively
+                //lock the content item. Only engines that declare buffered
+                //writes are executed this way, as other engines may expect
+                //changes to be visible to engines running in parallel.
+                BufferedContentItem bufferedCi = deltaGraphs ? 
+                        new BufferedContentItem(job, job.getMetadataSnapshot()) :
+                            new BufferedContentItem(job);
+                try {
+                    log.trace("++ n: start buffered execution of Engine {}",engine.getName());
+                    engine.computeEnhancements(bufferedCi);
+                    log.trace("++ n: finished buffered execution of Engine {}",engine.getName());
+                    commit(job, execution, bufferedCi);
+                    completed(job, execution, statistics, start);
+                } catch (EngineException e) {
+                    log.warn(e.getMessage(),e);
+                    failed(job, execution, engine, e, statistics, start);
+                } catch (RuntimeException e) {
+                    log.warn(e.getMessage(),e);
+                    failed(job, execution, engine, e, statistics, start);
+                }
+            } else if(engineState == EnhancementEngine.ENHANCE_SYNCHRONOUS){
+                //ensure that this engine exclusively access the content item
+                log.trace("++ w: {}: {}","start sync execution", engine.getName());
+                job.getLock().writeLock().lock();
+                log.trace(">> w: {}: {}","start sync execution", engine.getName());
+                try {
+                    engine.computeEnhancements(job.getContentItem());
+                    completed(job, execution, statistics, start);
+                } catch (EngineException e){
+                    log.warn(e.getMessage(),e);
+                    failed(job, execution, engine, e, statistics, start);
+                } catch (RuntimeException e){
+                    log.warn(e.getMessage(),e);
+                    failed(job, execution, engine, e, statistics, start);
+                } finally{
+                    if(deltaGraphs){ //the engine has modified the metadata
+                        job.invalidateMetadataSnapshot();
+                    }
+                    log.trace("<< w: {}: {}","finished sync execution", engine.getName());
+                    job.getLock().writeLock().unlock();
+                }
+            } else if(engineState == EnhancementEngine.ENHANCE_ASYNC){
+                try {
+                    log.trace("++ n: start async execution of Engine {}",engine.getName());
+                    engine.computeEnhancements(job.getContentItem());
+                    log.trace("++ n: finished async execution of Engine {}",engine.getName());
+                    if(deltaGraphs){ //the engine has modified the metadata
+                        job.invalidateMetadataSnapshot();
+                    }
+                    completed(job, execution, statistics, start);
+                } catch (EngineException e) {
+                    log.warn(e.getMessage(),e);
+                    if(deltaGraphs){
+                        job.invalidateMetadataSnapshot();
+                    }
+                    failed(job, execution, engine, e, statistics, start);
+                } catch (RuntimeException e) {
+                    log.warn(e.getMessage(),e);
+                    if(deltaGraphs){
+                        job.invalidateMetadataSnapshot();
+                    }
+                    failed(job, execution, engine, e, statistics, start);
+                }
+            } else { //CANNOT_ENHANCE
+                if(exception != null){
+                    failed(job, execution, engine, exception, statistics, start);
+                } else { //can not enhance is not an error
+                    //it just says this engine can not enhance this content item
+                    if(statistics != null){
+                        statistics.recordRejected();
+                    }
+                    job.setCompleted(execution);
+                }
+            }
+        } else { //engine with that name is not available
+            job.setFailed(execution, null, null);
+        }
+    }
+    /**
+     * Commits the changes of an engine executed on a {@link BufferedContentItem}
+     * and records the number of added/removed triples for the parsed
+     * execution.
+     * @param job the job
+     * @param execution the em:Execution
+     * @param bufferedCi the buffered content item used to execute the engine
+     */
+    private static void commit(EnhancementJob job, BlankNodeOrIRI execution,
+            BufferedContentItem bufferedCi){
+        int added = bufferedCi.getAddedTriples();
+        int removed = bufferedCi.getRemovedTriples();
+        log.trace("++ w: {}: {}","commit",execution);
+        job.getLock().writeLock().lock();
+        try {
+            log.trace(">> w: {}: {}","commit",execution);
+            bufferedCi.commit();
+            if(added > 0 || removed > 0){
+                job.invalidateMetadataSnapshot();
+            }
+            ExecutionMetadataHelper.setExecutionDelta(job.getExecutionMetadata(),
+                execution, added, removed);
+        } finally {
+            log.trace("<< w: {}: {}","commit",execution);
+            job.getLock().writeLock().unlock();
+        }
+    }
+    /**
+     * Marks the execution as completed and records its duration
+     */
+    private static void completed(EnhancementJob job, BlankNodeOrIRI execution,
+            ExecutionStatistics statistics, long start){
+        if(statistics != null){
+            statistics.recordCompleted(System.nanoTime() - start);
+        }
+        job.setCompleted(execution);
+    }
+    /**
+     * Marks the execution as failed and records its duration
+     */
+    private static void failed(EnhancementJob job, BlankNodeOrIRI execution,
+            EnhancementEngine engine, Exception e, ExecutionStatistics statistics, long start){
+        if(statistics != null){
+            statistics.recordFailed(System.nanoTime() - start);
+        }
+        job.setFailed(execution, engine, e);
+    }
+    /**
+     * Checks if the parsed engine declares the
+     * {@link ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES} property
+     * @param engine the engine
+     * @return if the engine supports the buffered writes mode
+     */
+    private static boolean isBufferedWrites(EnhancementEngine engine){
+        if(engine instanceof ServiceProperties){
+            Object value = ((ServiceProperties)engine).getServiceProperties().get(
+                ServiceProperties.ENHANCEMENT_ENGINE_BUFFERED_WRITES);
+            return value instanceof Boolean ? ((Boolean)value).booleanValue() :
+                value != null && Boolean.parseBoolean(value.toString());
+        } else {
+            return false;
+        }
+    }
+    /**
+     * Removes a finished job from {@link #processingJobs} and completes
+     * its future
+     * @param job the finished job
+     */
+    private void finish(EnhancementJob job){
+        EnhancementJobFuture future = processingJobs.remove(job);
+        if(future != null) {
+            releasePermit();
+            if(log.isDebugEnabled()){
+                logJobInfo(log, job, "Finished EnhancementJob:",log.isTraceEnabled());
+            }
+            log.trace("++ n: finished processing ContentItem {} with Chain {}",
+                job.getContentItem().getUri(),job.getChainName());
+            EnhancementMetrics metrics = this.metrics;
+            if(metrics != null){
+                ExecutionStatistics statistics = metrics.getChainStatistics(job.getChainName());
+                long duration = System.nanoTime() - future.getStarted();
+                if(job.isFailed()){
+                    statistics.recordFailed(duration);
+                } else {
+                    statistics.recordCompleted(duration);
+                }
+            }
+            future.complete(null);
+        } else if(!closed){
+            log.debug("EnhancementJob for ContentItem {} is no longer " +
+                    "registered with {} (cancelled)",
+                    job.getContentItem().getUri(), getClass().getName());
+        }
+    }
+    /**
+     * Called as soon as the future of a job is cancelled (e.g. because it
+     * did not complete within the timeout). Removes the job from
+     * {@link #processingJobs} and releases its permit without waiting for
+     * running engines to return. Engines that are already running are not
+     * interrupted, but no further executions of the job are started.
+     * @param job the cancelled job
+     */
+    private void cancelled(EnhancementJob job){
+        EnhancementJobFuture future = processingJobs.remove(job);
+        if(future != null){
+            releasePermit();
+            log.debug("cancelled EnhancementJob for ContentItem {} ({} executions still running)",
+                job.getContentItem().getUri(), job.getRunning().size());
+            EnhancementMetrics metrics = this.metrics;
+            if(metrics != null){
+                metrics.getChainStatistics(job.getChainName()).recordCancelled();
+            }
+        }
+    }
+
+    private void releasePermit() {
+        if(jobPermits != null){
+            jobPermits.release();
+        }
+    }
+    /**
+     * Marks all executable nodes of the job as running and submits them to
+     * the executor. Nodes are marked while holding the write lock of the job,
+     * but submitted after the lock is released to avoid executing engines
+     * within the lock in case the {@link ThreadPoolExecutor.CallerRunsPolicy}
+     * is triggered.
+     * @param job the enhancement job to process
+     * @return if an execution was started
+     */
+    protected boolean executeNextNodes(EnhancementJob job) {
+        Collection<BlankNodeOrIRI> scheduled;
+        log.trace("++ w: {}","schedule next Executions");
+        job.getLock().writeLock().lock();
+        log.trace(">> w: {}","schedule next Executions");
+        try {
+            //getExecutable returns an snapshot
+            scheduled = job.getExecutable();
+            for(BlankNodeOrIRI executable : scheduled){
+                if(log.isTraceEnabled()){
+                    log.trace("SCHEDULE execution of Engine {}",
+                        job.getEngineName(executable));
+                }
+                job.setRunning(executable);
+            }
+        } finally {
+            log.trace("<< w: {}","schedule next Executions");
+            job.getLock().writeLock().unlock();
+        }
+        for(BlankNodeOrIRI executable : scheduled){
+            executor.execute(new EngineExecution(job, executable));
+        }
+        return !scheduled.isEmpty();
+    }
+    /**
+     * Helper method that logs the execution time for the Chain and all the
+     * Enhancement Engines on DEBUG level
+     * @param logger The logger used for logging
+     * @param job the job to log. This expects that
+     * <code>{@link EnhancementJob#isFinished()} == true</code>
+     */
+    protected static void logExecutionTimes(Logger logger, EnhancementJob job){
+        if(logger.isInfoEnabled()){
+            try {
+                ExecutionMetadata em = ExecutionMetadata.parseFrom(
+                        job.getExecutionMetadata(),job.getContentItem().getUri());
+                ChainExecution ce = em.getChainExecution();
+                long cd = ce.getDuration();
+                StringBuilder message = new StringBuilder("> processed ContentItem ")
+                .append(job.getContentItem().getUri()).append(" with Chain '")
+                .append(ce.getChainName()).append("' in ").append(ce.getDuration()).append("ms | ");
+                List<Execution> ees = new ArrayList<Execution>(em.getEngineExecutions().values());
+                //sort by start date (execution order)
+                Collections.sort(ees, new Comparator<Execution>() {
+                    @Override
+                    public int compare(Execution e1, Execution e2) {
+                        return e1.getStarted().compareTo(e2.getStarted());
+                    }
+                });
+                message.append("chain:[");
+                long eds = 0;
+                boolean first = true;
+                for(Execution ee : ees){
+                    if(first){
+                        first = false;
+                    } else {
+                        message.append(", ");
+                    }
+                    long ed = ee.getDuration();
+                    eds = eds + ed;
+                    int edp = Math.round(ed*100/(float)cd);
+                    message.append(ee.getExecutionNode().getEngineName())
+                        .append(": ").append(ed).append("ms (").append(edp).append("%)");
+                }
+                float cf = eds/cd;
+                int cfp = Math.round((cf-1)*100);
+                message.append("], concurrency: ").append(cf).append(" (").append(cfp).append("%)");
+                logger.info(message.toString());
+            } catch (RuntimeException e) {
+                log.warn("Exception while logging ExecutionTimes for Chain: '" +
+                        job.getChainName() + " and ContentItem "+
+                        job.getContentItem().getUri() +" to Logger " +
+                        logger.getName(),e);
+            }
+        }
+    }
+
+    /**
+     * Logs basic infos about the Job as INFO and detailed infos as DEBUG
+     * @param job
+     */
+    protected static void logJobInfo(Logger log, EnhancementJob job, String header, boolean logExecutions) {
+        if(header != null){
+            log.info(header);
+        }
+        log.info("   finished:     {}",job.isFinished());
+        log.info("   state:        {}",job.isFailed()?"failed":"processing");
+        log.info("   chain:        {}",job.getChainName());
+        log.info("   content-item: {}", job.getContentItem().getUri());
+        if(logExecutions){
+            log.info("  executions:");
+            for(BlankNodeOrIRI completedExec : job.getCompleted()){
+                log.info("    - {} completed",job.getEngineName(completedExec));
+            }
+            for(BlankNodeOrIRI runningExec : job.getRunning()){
+                log.info("    - {} running",job.getEngineName(runningExec));
+            }
+            for(BlankNodeOrIRI executeable : job.getExecutable()){
+                log.info("    - {} executeable",job.getEngineName(executeable));
+            }
+        }
+        if(job.getErrorMessage() != null){
+            log.info("Error Message: {}",job.getErrorMessage());
+        }
+        if(job.getError() != null){
+            log.info("Reported Exception:",job.getError());
+        }
+    }
+    /**
+     * The task submitted to the executor for the execution of a single
+     * em:Execution of an {@link EnhancementJob}
+     */
+    private class EngineExecution implements Runnable {
+
+        private final EnhancementJob job;
+        private final BlankNodeOrIRI execution;
+
+        EngineExecution(EnhancementJob job, BlankNodeOrIRI execution){
+            this.job = job;
+            this.execution = execution;
+        }
+
+        @Override
+        public void run() {
+            if(!processingJobs.containsKey(job)){
+                //the job was cancelled (or this executor closed) while this
+                //execution was queued
+                log.debug("skip execution of Engine {} for cancelled EnhancementJob {}",
+                    job.getEngineName(execution), job.getContentItem().getUri());
+                return;
+            }
+            try {
+                execute(job, execution);
+            } catch (Throwable t) {
+                String message = String.format("Unexpected Exception while processing " +
+                        "ContentItem %s with EnhancementJobManager: %s",
+                        job.getContentItem().getUri(),ExecutorJobManagerImpl.class);
+                //this ensures that an runtime exception does not stop the job
+                job.setFailed(execution, null, new IllegalStateException(message,t));
+                log.error(message,t);
+            }
+            //trigger the next actions
+            executionCompleted(job);
+        }
+    }
+    /**
+     * Creates named daemon threads for the worker pool
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "Stanbol Enhancer Executor Job Manager Worker-"+count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Future} completed by the {@link EnhancementJobExecutor} as soon as
+ * the {@link EnhancementJob} for a {@link ContentItem} has finished. <p>
+ * The future completes normally if all engines of the execution plan where
+ * executed (or skipped). If the job has failed {@link #get()} throws an
+ * {@link ExecutionException} with the {@link EnhancementJob#getError()} as
+ * cause.<p>
+ * Canceling the future does not interrupt engines that are already running.
+ * It only prevents the {@link EnhancementJobExecutor} from scheduling the
+ * remaining executions of the job. The slot of the job is released as soon
+ * as the future is cancelled (see {@link #onCancel()}).<p>
+ * An optional listener is called once by the thread that completes (or
+ * cancels) this future.
+ */
+public class EnhancementJobFuture implements Future<ContentItem> {
+
+    private static final Logger log = LoggerFactory.getLogger(EnhancementJobFuture.class);
+
+    private final EnhancementJob job;
+    private final Runnable listener;
+    private final CountDownLatch latch = new CountDownLatch(1);
+    /**
+     * {@link System#nanoTime()} when this future was created. Used to record
+     * the duration of the job.
+     */
+    private final long started = System.nanoTime();
+    private volatile boolean cancelled = false;
+    /**
+     * Set by {@link #complete(Throwable)} if the job was not finished as
+     * expected (e.g. because the job manager was deactivated)
+     */
+    private volatile Throwable error;
+
+    protected EnhancementJobFuture(EnhancementJob job, Runnable listener) {
+        if(job == null){
+            throw new IllegalArgumentException("The parsed EnhancementJob MUST NOT be NULL!");
+        }
+        this.job = job;
+        this.listener = listener;
+    }
+    /**
+     * The EnhancementJob this future waits for
+     * @return the enhancement job
+     */
+    public final EnhancementJob getJob() {
+        return job;
+    }
+    /**
+     * The {@link System#nanoTime()} when this future was created
+     * @return the start time in nanoseconds
+     */
+    final long getStarted() {
+        return started;
+    }
+    /**
+     * Completes this future. Subsequent calls are ignored.
+     * @param error the error if the job could not be finished or
+     * <code>null</code> if the job finished. Note that failures of the
+     * enhancement job itself are reported by {@link EnhancementJob#getError()}.
+     * @return <code>true</code> if this call completed the future or
+     * <code>false</code> if it was already completed.
+     */
+    protected boolean complete(Throwable error){
+        synchronized (latch) {
+            if(latch.getCount() == 0){
+                return false;
+            }
+            this.error = error;
+            latch.countDown();
+        }
+        notifyListener();
+        return true;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (latch) {
+            if(latch.getCount() == 0){
+                return false;
+            }
+            cancelled = true;
+            latch.countDown();
+        }
+        try {
+            onCancel();
+        } catch (RuntimeException e) {
+            log.warn("Exception while cancelling "+this, e);
+        }
+        notifyListener();
+        return true;
+    }
+    /**
+     * Called once after this future was cancelled and before the listener
+     * is notified. The default implementation does nothing.
+     */
+    protected void onCancel(){
+    }
+    /**
+     * Calls the {@link #listener} (if present)
+     */
+    private void notifyListener() {
+        if(listener != null){
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Exception while notifying listener of "+this, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    @Override
+    public ContentItem get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return getResult();
+    }
+
+    @Override
+    public ContentItem get(long timeout, TimeUnit unit) throws InterruptedException,
+                                                       ExecutionException,
+                                                       TimeoutException {
+        if(!latch.await(timeout, unit)){
+            throw new TimeoutException("EnhancementJob for ContentItem "
+                + job.getContentItem().getUri() + " has not completed within "
+                + unit.toMillis(timeout) + "ms!");
+        }
+        return getResult();
+    }
+    /**
+     * Getter for the result. Assumes that the {@link #latch} is released.
+     */
+    private ContentItem getResult() throws ExecutionException {
+        if(cancelled){
+            throw new CancellationException("EnhancementJob for ContentItem "
+                + job.getContentItem().getUri() + " was cancelled!");
+        }
+        if(error != null){
+            throw new ExecutionException(error);
+        }
+        if(job.isFailed()){
+            throw new ExecutionException(job.getErrorMessage(), job.getError());
+        }
+        return job.getContentItem();
+    }
+
+    @Override
+    public String toString() {
+        return "EnhancementJobFuture for ContentItem " + job.getContentItem().getUri()
+                + (isDone() ? (cancelled ? " (cancelled)" : " (done)") : "");
+    }
+}
@@ -0,0 +1,573 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Dictionary;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.rdf.core.serializedform.Serializer;
+import org.apache.clerezza.rdf.core.serializedform.SupportedFormat;
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
+import org.apache.felix.scr.annotations.ReferenceStrategy;
+import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ChainManager;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobCallback;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.ExecutionMetadata;
+import org.apache.stanbol.enhancer.servicesapi.metrics.EnhancementMetrics;
+import org.osgi.framework.Constants;
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.component.ComponentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link EnhancementJobManager} implementation that executes the
+ * {@link Chain#getExecutionPlan() execution plan} of enhancement chains by
+ * using a bounded pool of worker threads. Compared to the EventJobManager
+ * this avoids the dispatching overhead of the OSGi EventAdmin and the
+ * limitations of its thread pool.<p>
+ * This implementation also supports the non-blocking
+ * {@link AsyncEnhancementJobManager#enhanceContentAsync(ContentItem, Chain, EnhancementJobCallback)}
+ * method.
+ * @see EnhancementJobExecutor
+ */
+@Component(immediate=true,metatype=true)
+@Service(value={EnhancementJobManager.class, AsyncEnhancementJobManager.class})
+@Properties(value={
+    //register with a lower ranking as the EventJobManager
+    @Property(name=Constants.SERVICE_RANKING,intValue=ExecutorJobManagerImpl.DEFAULT_SERVICE_RANKING),
+    @Property(name=ExecutorJobManagerImpl.MAX_ENHANCEMENT_JOB_WAIT_TIME,intValue=ExecutorJobManagerImpl.DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME),
+    @Property(name=ExecutorJobManagerImpl.POOL_SIZE,intValue=ExecutorJobManagerImpl.DEFAULT_POOL_SIZE),
+    @Property(name=ExecutorJobManagerImpl.QUEUE_SIZE,intValue=ExecutorJobManagerImpl.DEFAULT_QUEUE_SIZE),
+    @Property(name=ExecutorJobManagerImpl.MAX_CONCURRENT_JOBS,intValue=ExecutorJobManagerImpl.DEFAULT_MAX_CONCURRENT_JOBS),
+    @Property(name=ExecutorJobManagerImpl.DELTA_GRAPHS,boolValue=ExecutorJobManagerImpl.DEFAULT_DELTA_GRAPHS)
+})
+public class ExecutorJobManagerImpl implements AsyncEnhancementJobManager {
+
+    private final Logger log = LoggerFactory.getLogger(ExecutorJobManagerImpl.class);
+    /**
+     * Logger for the {@link EnhancementJobManager} interface. This is used
+     * to log statistics about execution times for enhancement jobs
+     */
+    private final Logger enhancementJobManagerLog = LoggerFactory.getLogger(EnhancementJobManager.class);
+
+    /**
+     * By default this job manager is registered with a lower ranking as the
+     * EventJobManager (<code>0</code>). Configure a higher
+     * {@link Constants#SERVICE_RANKING} to use it for enhancement requests.
+     */
+    public static final int DEFAULT_SERVICE_RANKING = -100;
+
+    public static final String MAX_ENHANCEMENT_JOB_WAIT_TIME = "stanbol.maxEnhancementJobWaitTime";
+    /**
+     * default max wait time is 60sec (similar to the http timeout)
+     */
+    public static final int DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME = 60 * 1000;
+    /**
+     * The number of worker threads used to execute enhancement engines.
+     * Values <code>&lt;= 0</code> will use the number of available processors.
+     */
+    public static final String POOL_SIZE = "stanbol.enhancer.jobmanager.executor.poolSize";
+    /**
+     * By default the number of available processors is used
+     */
+    public static final int DEFAULT_POOL_SIZE = 0;
+    /**
+     * The maximum number of engine executions waiting in the queue for a
+     * free worker thread. If the queue is full the thread scheduling the
+     * execution will execute the engine. Values <code>&lt;= 0</code> will
+     * use <code>64 * {@link #POOL_SIZE}</code>
+     */
+    public static final String QUEUE_SIZE = "stanbol.enhancer.jobmanager.executor.queueSize";
+    /**
+     * By default the queue size is calculated based on the pool size
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 0;
+    /**
+     * The maximum number of ContentItems enhanced concurrently. Additional
+     * requests will wait until a job finishes (but at maximum for
+     * {@link #MAX_ENHANCEMENT_JOB_WAIT_TIME}). Values <code>&lt;= 0</code>
+     * deactivate this limit.
+     */
+    public static final String MAX_CONCURRENT_JOBS = "stanbol.enhancer.jobmanager.executor.maxJobs";
+    /**
+     * The default for the maximum number of concurrently enhanced ContentItems
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_JOBS = 256;
+    /**
+     * If enabled every execution of an engine that declares
+     * {@link org.apache.stanbol.enhancer.servicesapi.ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES
+     * buffered writes} writes to a private delta graph layered over an
+     * immutable snapshot of the metadata. Deltas are merged
+     * into the metadata of the ContentItem as soon as the execution completes
+     * and the number of added/removed triples is recorded in the execution
+     * metadata.<p>
+     * If disabled those engines still write to a delta graph, but it is
+     * layered directly over the metadata of the ContentItem. In this case
+     * every read of the metadata acquires the read lock of the ContentItem
+     * and waits for engines that hold its write lock.
+     */
+    public static final String DELTA_GRAPHS = "stanbol.enhancer.jobmanager.executor.deltaGraphs";
+    /**
+     * Delta graphs are deactivated by default
+     */
+    public static final boolean DEFAULT_DELTA_GRAPHS = false;
+
+    @Reference
+    protected ChainManager chainManager;
+    @Reference
+    protected EnhancementEngineManager engineManager;
+    /**
+     * If available it is used for logging ExecutionMetadata of failed or
+     * timed out Enhancement Requests (OPTIONAL)
+     */
+    @Reference(cardinality=ReferenceCardinality.OPTIONAL_UNARY)
+    protected Serializer serializer;
+    /**
+     * If available engine and chain executions are recorded with the
+     * metrics registry (OPTIONAL)
+     */
+    @Reference(cardinality=ReferenceCardinality.OPTIONAL_UNARY,
+        bind="bindMetrics",
+        unbind="unbindMetrics",
+        strategy=ReferenceStrategy.EVENT,
+        policy=ReferencePolicy.DYNAMIC)
+    private volatile EnhancementMetrics metrics;
+
+    private volatile EnhancementJobExecutor jobExecutor;
+    /**
+     * Used to cancel jobs started by
+     * {@link #enhanceContentAsync(ContentItem, Chain, EnhancementJobCallback)}
+     * that do not complete within the {@link #maxEnhancementJobWaitTime}
+     */
+    private volatile ScheduledExecutorService timeoutScheduler;
+    private int maxEnhancementJobWaitTime = DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME;
+
+    /**
+     * Instantiates the {@link EnhancementJobExecutor} based on the
+     * configuration
+     * @param ctx
+     * @throws ConfigurationException if the configuration is invalid
+     */
+    @Activate
+    protected void activate(ComponentContext ctx) throws ConfigurationException {
+        log.info("activate {}",getClass().getName());
+        @SuppressWarnings("unchecked")
+        Dictionary<String,Object> properties = ctx.getProperties();
+        Object maxWaitTime = properties.get(MAX_ENHANCEMENT_JOB_WAIT_TIME);
+        if (maxWaitTime instanceof Integer) {
+            this.maxEnhancementJobWaitTime = (Integer) maxWaitTime;
+        }
+        int poolSize = getInt(properties, POOL_SIZE, DEFAULT_POOL_SIZE);
+        int queueSize = getInt(properties, QUEUE_SIZE, DEFAULT_QUEUE_SIZE);
+        int maxJobs = getInt(properties, MAX_CONCURRENT_JOBS, DEFAULT_MAX_CONCURRENT_JOBS);
+        Object value = properties.get(DELTA_GRAPHS);
+        boolean deltaGraphs = value instanceof Boolean ? ((Boolean)value).booleanValue() :
+            value != null ? Boolean.parseBoolean(value.toString()) : DEFAULT_DELTA_GRAPHS;
+        EnhancementJobExecutor jobExecutor = new EnhancementJobExecutor(engineManager,
+            poolSize, queueSize, maxJobs, deltaGraphs);
+        jobExecutor.setMetrics(metrics);
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Stanbol Enhancer Job Timeouts");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.jobExecutor = jobExecutor;
+    }
+
+    protected void bindMetrics(EnhancementMetrics metrics){
+        this.metrics = metrics;
+        EnhancementJobExecutor jobExecutor = this.jobExecutor;
+        if(jobExecutor != null){
+            jobExecutor.setMetrics(metrics);
+        }
+    }
+
+    protected void unbindMetrics(EnhancementMetrics metrics){
+        if(this.metrics == metrics){
+            this.metrics = null;
+            EnhancementJobExecutor jobExecutor = this.jobExecutor;
+            if(jobExecutor != null){
+                jobExecutor.setMetrics(null);
+            }
+        }
+    }
+    /**
+     * Parses an integer configuration property
+     * @param properties the configuration
+     * @param key the key
+     * @param defaultValue the default if no value is present
+     * @return the parsed value
+     * @throws ConfigurationException if the value is not an integer
+     */
+    private static int getInt(Dictionary<String,Object> properties, String key, int defaultValue)
+            throws ConfigurationException {
+        Object value = properties.get(key);
+        if(value instanceof Number){
+            return ((Number)value).intValue();
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(key, "The configured value '"
+                    + value + "' is not a valid integer!", e);
+            }
+        } else {
+            return defaultValue;
+        }
+    }
+    /**
+     * Closes the {@link EnhancementJobExecutor}
+     * @param ctx
+     */
+    @Deactivate
+    protected void deactivate(ComponentContext ctx){
+        log.info("deactivate {}",getClass().getName());
+        EnhancementJobExecutor jobExecutor = this.jobExecutor;
+        //set first the field to null
+        this.jobExecutor = null;
+        //and than close the instance to ensure that running jobs are shut down
+        //correctly
+        if(jobExecutor != null){
+            jobExecutor.close();
+        }
+        ScheduledExecutorService timeoutScheduler = this.timeoutScheduler;
+        this.timeoutScheduler = null;
+        if(timeoutScheduler != null){
+            timeoutScheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void enhanceContent(ContentItem ci) throws EnhancementException {
+        Chain defaultChain = chainManager.getDefault();
+        if(defaultChain == null){
+            throw new ChainException("Unable to enhance ContentItem '"+ci.getUri()+
+                "' because currently no enhancement chain is active. Please" +
+                "configure a Chain or enable the default chain");
+        }
+        enhanceContent(ci, defaultChain);
+    }
+
+    @Override
+    public void enhanceContent(ContentItem ci, Chain chain) throws EnhancementException {
+        EnhancementJobExecutor jobExecutor = getJobExecutor(ci, chain);
+        long start = System.currentTimeMillis();
+        EnhancementJob job = createJob(ci, chain);
+        //start the execution
+        EnhancementJobFuture future;
+        try {
+            future = jobExecutor.register(job, maxEnhancementJobWaitTime, null);
+        } catch (RejectedExecutionException e) {
+            throw new ChainException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            throw new ChainException("Interrupted while waiting to enhance ContentItem "
+                    + ci.getUri(), e);
+        }
+        //now wait for the execution to finish for the remaining time
+        long remaining = Math.max(0, maxEnhancementJobWaitTime - (System.currentTimeMillis()-start));
+        try {
+            future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            //do not schedule further executions for this job
+            future.cancel(false);
+            throw createTimeoutException(job, start);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw new ChainException("Interrupted while waiting for the enhancement of ContentItem "
+                    + ci.getUri(), e);
+        } catch (ExecutionException e) {
+            //failed jobs are handled by processResult
+        }
+        processResult(job, start);
+    }
+
+    @Override
+    public Future<ContentItem> enhanceContentAsync(final ContentItem ci, Chain chain,
+            final EnhancementJobCallback callback) throws EnhancementException {
+        EnhancementJobExecutor jobExecutor = getJobExecutor(ci, chain);
+        ScheduledExecutorService timeoutScheduler = this.timeoutScheduler;
+        final long start = System.currentTimeMillis();
+        final EnhancementJob job = createJob(ci, chain);
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
+        final EnhancementJobFuture[] futureRef = new EnhancementJobFuture[1];
+        final ScheduledFuture<?>[] timeoutRef = new ScheduledFuture<?>[1];
+        Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                ScheduledFuture<?> timeout;
+                synchronized (timeoutRef) {
+                    timeout = timeoutRef[0];
+                    timeoutRef[0] = null;
+                }
+                if(timeout != null){
+                    timeout.cancel(false);
+                }
+                if(callback == null){
+                    return;
+                }
+                EnhancementException exception;
+                if(futureRef[0] != null && futureRef[0].isCancelled()){
+                    exception = timedOut.get() ? createTimeoutException(job, start) :
+                        new ChainException("Enhancement of ContentItem "
+                            + ci.getUri() + " was cancelled after "
+                            + (System.currentTimeMillis()-start) + "ms");
+                } else {
+                    try {
+                        processResult(job, start);
+                        exception = null;
+                    } catch (EnhancementException e) {
+                        exception = e;
+                    } catch (SecurityException e) {
+                        exception = new ChainException(e.getMessage(), e);
+                    }
+                }
+                if(exception == null){
+                    callback.completed(ci);
+                } else {
+                    callback.failed(ci, exception);
+                }
+            }
+        };
+        //wait for a free slot the same way as the synchronous enhanceContent
+        //method. This keeps callers that submit many ContentItems from being
+        //rejected as soon as maxJobs is reached.
+        final EnhancementJobFuture future;
+        try {
+            future = jobExecutor.register(job, maxEnhancementJobWaitTime, listener);
+        } catch (RejectedExecutionException e) {
+            throw new ChainException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            throw new ChainException("Interrupted while waiting to enhance ContentItem "
+                    + ci.getUri(), e);
+        }
+        futureRef[0] = future;
+        //cancel the job if it does not complete within the remaining time
+        long remaining = Math.max(0, maxEnhancementJobWaitTime - (System.currentTimeMillis()-start));
+        if(timeoutScheduler != null && !future.isDone()){
+            try {
+                ScheduledFuture<?> timeout = timeoutScheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        timedOut.set(true);
+                        //do not schedule further executions for this job
+                        future.cancel(false);
+                    }
+                }, remaining, TimeUnit.MILLISECONDS);
+                synchronized (timeoutRef) {
+                    if(future.isDone()){ //completed while scheduling
+                        timeout.cancel(false);
+                    } else {
+                        timeoutRef[0] = timeout;
+                    }
+                }
+            } catch (RejectedExecutionException e) {
+                //deactivated in the meantime ... the future is completed by
+                //closing the EnhancementJobExecutor
+            }
+        }
+        return future;
+    }
+    @Override
+    public long getMaxEnhancementJobWaitTime() {
+        return maxEnhancementJobWaitTime;
+    }
+    /**
+     * Checks the parsed parameters and returns the currently active
+     * {@link EnhancementJobExecutor}
+     * @throws ChainException if this job manager is not active
+     */
+    private EnhancementJobExecutor getJobExecutor(ContentItem ci, Chain chain) throws ChainException {
+        if(ci == null) {
+            throw new IllegalArgumentException("The parsed contentItem MUST NOT be NULL!");
+        }
+        if(chain == null){
+            throw new IllegalArgumentException("Unable to enhance ContentItem '"+ci.getUri()+
+                "' because NULL was passed as enhancement chain");
+        }
+        EnhancementJobExecutor jobExecutor = this.jobExecutor;
+        if(jobExecutor == null){
+            throw new ChainException("Unable to enhance ContentItem '"+ci.getUri()+
+                "' because the EnhancementJobManager (type: "+getClass()+") is not active");
+        }
+        return jobExecutor;
+    }
+
+    private EnhancementJob createJob(ContentItem ci, Chain chain) throws ChainException {
+        enhancementJobManagerLog.debug(">> enhance {} with chain {}", ci.getUri(), chain.getName());
+        boolean isDefaultChain = chain.equals(chainManager.getDefault());
+        //uses the compiled execution plan cached by the chain (if available)
+        return new EnhancementJob(ci, chain.getName(), CompiledExecutionPlan.compile(chain),
+            isDefaultChain);
+    }
+    /**
+     * Creates the exception for a job that did not complete within the
+     * {@link #maxEnhancementJobWaitTime}.
+     */
+    private ChainException createTimeoutException(EnhancementJob job, long start) {
+        ContentItem ci = job.getContentItem();
+        StringBuilder sb = new StringBuilder("Status:\n");
+        ExecutionMetadata em = ExecutionMetadata.parseFrom(job.getExecutionMetadata(), ci.getUri());
+        for(Entry<String,Execution> ex : em.getEngineExecutions().entrySet()){
+            sb.append("  -").append(ex.getKey()).append(": ").append(ex.getValue().getStatus()).append('\n');
+        }
+        return new ChainException("Execution timeout after "
+                +((System.currentTimeMillis()-start)/1000f)+"sec (timeout:"+(maxEnhancementJobWaitTime/1000)
+            + "sec) for ContentItem "+ci.getUri()+"\n"+sb.toString()
+            + " \n To change the timeout change value of property '"+
+                MAX_ENHANCEMENT_JOB_WAIT_TIME+"' for the service "+getClass());
+    }
+    /**
+     * Processes the result of an {@link EnhancementJob} after its future
+     * has completed.
+     * @param job the job
+     * @param start the start time of the enhancement process
+     * @throws EnhancementException if the job has failed or could not be
+     * finished (e.g. because this job manager was deactivated)
+     */
+    private void processResult(EnhancementJob job, long start) throws EnhancementException {
+        log.info("Execution of Chain {} {} after {}ms for ContentItem {}",
+            new Object[]{ job.getChainName(), job.isFailed() ? "failed" : "finished",
+                    System.currentTimeMillis()-start,
+                    job.getContentItem().getUri()});
+        //NOTE: ExecutionMetadata are not added to the metadata of the ContentItem
+        //      by the EnhancementJobManager.
+        if(job.isFailed()){
+            Exception e = job.getError();
+            EnhancementJobExecutor.logJobInfo(log, job, null, true);
+            logExecutionMetadata(enhancementJobManagerLog, job, true);
+            if (e instanceof SecurityException) {
+                throw (SecurityException)e;
+            } else if(e instanceof EnhancementException){
+                throw (EnhancementException)e;
+            } else {
+                throw new ChainException(job.getErrorMessage(), e);
+            }
+        }
+        if(!job.isFinished()){
+            log.warn("Execution finished, but Job is not finished!");
+            EnhancementJobExecutor.logJobInfo(log, job, null, true);
+            logExecutionMetadata(log, job, true);
+            throw new ChainException("EnhancementJobManager was deactivated while" +
+                    " enhancing the passed ContentItem "+job.getContentItem()+
+                    " (EnhancementJobManager type: "+getClass()+")");
+        } else {
+            //log infos about the execution times to the enhancementJobManager
+            EnhancementJobExecutor.logExecutionTimes(enhancementJobManagerLog, job);
+            logExecutionMetadata(enhancementJobManagerLog, job, false);
+        }
+    }
+    /**
+     * Logs the ExecutionMetadata
+     * @param logger the logger to log the execution metadata to
+     * @param job the enhancement job to log the execution metadata for
+     * @param isWarn if <code>true</code> the data are logged with <code>WARN</code> level.
+     * If <code>false</code> the <code>DEBUG</code> level is used
+     */
+    protected void logExecutionMetadata(Logger logger, EnhancementJob job, boolean isWarn) {
+        if(logger.isDebugEnabled() || (isWarn && logger.isWarnEnabled())){
+            StringBuilder message = new StringBuilder(1024);
+            message.append("ExecutionMetadata for ContentItem ").append(job.getContentItem().getUri())
+                .append(" and Chain ").append(job.getChainName()).append(": \n");
+            boolean serialized = false;
+            if(serializer != null){
+                ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                try {
+                    serializer.serialize(bout, job.getExecutionMetadata(), SupportedFormat.TURTLE);
+                    message.append(bout.toString("utf-8"));
+                    serialized = true;
+                } catch (RuntimeException e){
+                    log.warn("   ... unable to serialize Execution Metadata | {}: {}",
+                            e.getClass(), e.getMessage());
+                } catch (UnsupportedEncodingException e) {
+                    log.warn("   ... unable to serialize Execution Metadata | {}: {}",
+                            e.getClass(), e.getMessage());
+                }
+            }
+            if(!serialized){
+                //TURTLE serialization not possible ... use the toString method of triple
+                for(Triple t : job.getExecutionMetadata()){
+                    message.append(t.toString()).append('\n');
+                }
+            }
+            //finally write the serialized graph to the logger
+            if(isWarn){
+                logger.warn(message.toString());
+            } else {
+                logger.debug(message.toString());
+            }
+        }
+    }
+
+    @Override
+    public List<EnhancementEngine> getActiveEngines() {
+        //This implementation return the list of active engined for the default
+        //Chain in the order they would be executed
+        Chain defaultChain = chainManager.getDefault();
+        if(defaultChain == null){
+            throw new IllegalStateException("Currently no enhancement chain is " +
+                "active. Please configure a Chain or enable the default chain");
+        }
+        ImmutableGraph ep;
+        try {
+            ep = defaultChain.getExecutionPlan();
+        } catch (ChainException e) {
+            throw new IllegalStateException("Unable to get Execution Plan for " +
+                    "default enhancement chain (name: '"+defaultChain.getName()+
+                    "'| class: '"+defaultChain.getClass()+"')!",e);
+        }
+        return ExecutionPlanHelper.getActiveEngines(engineManager,ep);
+    }
+
+}
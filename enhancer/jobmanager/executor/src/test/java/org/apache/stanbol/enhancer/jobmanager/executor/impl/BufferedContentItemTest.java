@@ -0,0 +1,244 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link BufferedContentItem} buffers changes until
+ * {@link BufferedContentItem#commit()} and the separation of the metadata
+ * and content part locks from the lock of the ContentItem.
+ */
+public class BufferedContentItemTest {
+
+    private static final IRI SUBJECT = new IRI("urn:test:subject");
+    private static final IRI PROPERTY = new IRI("urn:test:property");
+    private static final Triple EXISTING = new TripleImpl(SUBJECT, PROPERTY, new PlainLiteralImpl("existing"));
+    private static final Triple ADDED = new TripleImpl(SUBJECT, PROPERTY, new PlainLiteralImpl("added"));
+    private static final IRI PART = new IRI("urn:test:part");
+    private static final IRI OTHER_PART = new IRI("urn:test:otherPart");
+
+    private ContentItem ci;
+    private EnhancementJob job;
+
+    @Before
+    public void init() throws IOException, ChainException {
+        ci = InMemoryContentItemFactory.getInstance().createContentItem(
+            new StringSource("The Stanbol enhancer can detect famous cities such as Paris."));
+        ci.getMetadata().add(EXISTING);
+        ci.addPart(PART, "part");
+        TestEngine engine = new TestEngine("engine", new ArrayList<String>());
+        job = new EnhancementJob(ci, "test", CompiledExecutionPlan.compile(
+            new TestChain("test").addEngine("engine", false).getExecutionPlan(),
+            new TestEngineManager(engine)), false);
+    }
+
+    @Test
+    public void testBufferedMetadata() {
+        int size = ci.getMetadata().size();
+        BufferedContentItem view = new BufferedContentItem(job);
+        assertTrue(view.getMetadata().contains(EXISTING));
+        assertTrue(view.getMetadata().add(ADDED));
+        assertTrue(view.getMetadata().remove(EXISTING));
+        //not visible in the ContentItem
+        assertEquals(size, ci.getMetadata().size());
+        assertTrue(ci.getMetadata().contains(EXISTING));
+        assertFalse(ci.getMetadata().contains(ADDED));
+        //but in the view
+        assertEquals(size, view.getMetadata().size());
+        assertTrue(view.getMetadata().filter(SUBJECT, PROPERTY, null).next().equals(ADDED));
+        assertEquals(1, view.getAddedTriples());
+        assertEquals(1, view.getRemovedTriples());
+        view.commit();
+        assertTrue(ci.getMetadata().contains(ADDED));
+        assertFalse(ci.getMetadata().contains(EXISTING));
+        assertEquals(size, ci.getMetadata().size());
+    }
+
+    @Test
+    public void testBufferedParts() {
+        //the job adds the execution metadata as additional part
+        int parts = ContentItemHelper.getContentParts(ci, Object.class).size();
+        BufferedContentItem view = new BufferedContentItem(job);
+        assertEquals("part", view.getPart(PART, String.class));
+        assertEquals(PART, view.getPartUri(1));
+        assertEquals("part", view.addPart(PART, "replaced"));
+        assertEquals(null, view.addPart(OTHER_PART, "other"));
+        //replaced parts keep their index
+        assertEquals(PART, view.getPartUri(1));
+        assertEquals(OTHER_PART, view.getPartUri(parts));
+        assertEquals("replaced", view.getPart(1, String.class));
+        //not visible in the ContentItem
+        assertEquals("part", ci.getPart(PART, String.class));
+        try {
+            ci.getPart(OTHER_PART, String.class);
+            fail("Parts added to the view MUST NOT be visible before the commit");
+        } catch (NoSuchPartException e) {
+            //expected
+        }
+        view.removePart(PART);
+        try {
+            view.getPart(PART, String.class);
+            fail("Removed parts MUST NOT be visible in the view");
+        } catch (NoSuchPartException e) {
+            //expected
+        }
+        assertEquals(OTHER_PART, view.getPartUri(parts - 1));
+        assertEquals("part", ci.getPart(PART, String.class));
+        view.commit();
+        assertEquals("other", ci.getPart(OTHER_PART, String.class));
+        try {
+            ci.getPart(PART, String.class);
+            fail("The removed part MUST BE removed from the ContentItem by the commit");
+        } catch (NoSuchPartException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testMainPart() {
+        BufferedContentItem view = new BufferedContentItem(job);
+        try {
+            view.removePart(0);
+            fail("The main content part MUST NOT be removed");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        try {
+            view.addPart(ci.getPartUri(0), "main");
+            fail("The main content part MUST NOT be replaced");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    /**
+     * The lock of the buffered metadata MUST NOT block other engines using
+     * the ContentItem
+     */
+    @Test
+    public void testMetadataLock() throws InterruptedException {
+        BufferedContentItem view = new BufferedContentItem(job);
+        assertSame(ci.getLock(), view.getLock());
+        assertSame(view.getMetadata().getLock(), view.getMetadataLock());
+        assertSame(view.getMetadataLock(), ContentItemHelper.getMetadataLock(view));
+        assertSame(ci.getLock(), ContentItemHelper.getMetadataLock(ci));
+        view.getMetadataLock().writeLock().lock();
+        try {
+            assertTrue(tryLock(ci.getLock().writeLock()));
+            //other views of the same job are not affected
+            assertTrue(tryLock(new BufferedContentItem(job).getMetadataLock().writeLock()));
+        } finally {
+            view.getMetadataLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * The lock of a content part is shared by all views of a job. It
+     * excludes engines that hold the write lock of the ContentItem, but not
+     * engines that use the locks of other parts.
+     */
+    @Test
+    public void testPartLocks() throws InterruptedException {
+        BufferedContentItem view = new BufferedContentItem(job);
+        BufferedContentItem other = new BufferedContentItem(job);
+        assertSame(ci.getLock(), ContentItemHelper.getPartLock(ci, PART));
+        assertNotSame(ci.getLock(), ContentItemHelper.getPartLock(view, PART));
+        Lock partWriteLock = ContentItemHelper.getPartLock(view, PART).writeLock();
+        partWriteLock.lock();
+        try {
+            assertFalse(tryLock(other.getPartLock(PART).writeLock()));
+            assertFalse(tryLock(other.getPartLock(PART).readLock()));
+            assertTrue(tryLock(other.getPartLock(OTHER_PART).writeLock()));
+            //part locks hold the read lock of the ContentItem
+            assertFalse(tryLock(ci.getLock().writeLock()));
+            assertTrue(tryLock(ci.getLock().readLock()));
+            //but not the metadata lock
+            assertTrue(tryLock(other.getMetadataLock().writeLock()));
+        } finally {
+            partWriteLock.unlock();
+        }
+        assertTrue(tryLock(other.getPartLock(PART).writeLock()));
+        assertTrue(tryLock(ci.getLock().writeLock()));
+        //read locks of a part do not exclude each other
+        view.getPartLock(PART).readLock().lock();
+        try {
+            assertTrue(tryLock(other.getPartLock(PART).readLock()));
+            assertFalse(tryLock(other.getPartLock(PART).writeLock()));
+        } finally {
+            view.getPartLock(PART).readLock().unlock();
+        }
+        //engines executed directly on the ContentItem hold its write lock
+        ci.getLock().writeLock().lock();
+        try {
+            assertFalse(tryLock(view.getPartLock(PART).readLock()));
+        } finally {
+            ci.getLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tries to acquire the parsed lock in an other thread and releases it
+     * if successful
+     * @return if the lock could be acquired
+     */
+    private static boolean tryLock(final Lock lock) throws InterruptedException {
+        final AtomicBoolean locked = new AtomicBoolean();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if(lock.tryLock(50, TimeUnit.MILLISECONDS)){
+                        locked.set(true);
+                        lock.unlock();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+        return locked.get();
+    }
+}
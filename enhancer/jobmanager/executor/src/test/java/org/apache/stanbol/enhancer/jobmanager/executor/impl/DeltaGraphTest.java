@@ -0,0 +1,155 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that a {@link DeltaGraph} buffers all modifications of its base
+ * graph.
+ */
+public class DeltaGraphTest {
+
+    private static final IRI SUBJECT = new IRI("urn:test:subject");
+    private static final IRI OTHER = new IRI("urn:test:other");
+    private static final IRI PROPERTY = new IRI("urn:test:property");
+
+    private Graph base;
+    private DeltaGraph delta;
+
+    private static Triple triple(IRI subject, String value){
+        return new TripleImpl(subject, PROPERTY, new PlainLiteralImpl(value));
+    }
+
+    @Before
+    public void init(){
+        base = new IndexedGraph();
+        base.add(triple(SUBJECT, "a"));
+        base.add(triple(SUBJECT, "b"));
+        base.add(triple(OTHER, "c"));
+        delta = new DeltaGraph(base, null);
+    }
+
+    private static Set<Triple> asSet(Iterator<Triple> it){
+        Set<Triple> triples = new HashSet<Triple>();
+        while(it.hasNext()){
+            triples.add(it.next());
+        }
+        return triples;
+    }
+
+    @Test
+    public void testAdd() {
+        assertFalse("triples of the base graph MUST NOT be added", delta.add(triple(SUBJECT, "a")));
+        assertTrue(delta.add(triple(SUBJECT, "d")));
+        assertFalse(delta.add(triple(SUBJECT, "d")));
+        assertEquals(4, delta.size());
+        assertEquals(3, base.size());
+        assertEquals(1, delta.getAdded().size());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertEquals(new HashSet<Triple>(Arrays.asList(triple(SUBJECT, "a"), triple(SUBJECT, "b"),
+            triple(SUBJECT, "d"))), asSet(delta.filter(SUBJECT, null, null)));
+    }
+
+    @Test
+    public void testRemove() {
+        assertTrue(delta.remove(triple(SUBJECT, "a")));
+        assertFalse(delta.remove(triple(SUBJECT, "a")));
+        assertFalse(delta.remove(triple(SUBJECT, "unknown")));
+        assertFalse(delta.contains(triple(SUBJECT, "a")));
+        assertTrue(base.contains(triple(SUBJECT, "a")));
+        assertEquals(2, delta.size());
+        assertEquals(1, delta.getRemoved().size());
+        assertEquals(asSet(Arrays.asList(triple(SUBJECT, "b")).iterator()),
+            asSet(delta.filter(SUBJECT, null, null)));
+        //re-adding a removed triple only reverts the removal
+        assertTrue(delta.add(triple(SUBJECT, "a")));
+        assertTrue(delta.getRemoved().isEmpty());
+        assertTrue(delta.getAdded().isEmpty());
+        assertEquals(3, delta.size());
+    }
+
+    @Test
+    public void testRemoveAdded() {
+        assertTrue(delta.add(triple(SUBJECT, "d")));
+        assertTrue(delta.remove(triple(SUBJECT, "d")));
+        assertTrue(delta.getAdded().isEmpty());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertEquals(3, delta.size());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        delta.add(triple(SUBJECT, "d"));
+        for(Iterator<Triple> it = delta.filter(SUBJECT, null, null); it.hasNext();){
+            it.next();
+            it.remove();
+        }
+        assertEquals(1, delta.size());
+        assertEquals(asSet(Arrays.asList(triple(OTHER, "c")).iterator()), asSet(delta.iterator()));
+        assertEquals(2, delta.getRemoved().size());
+        assertTrue(delta.getAdded().isEmpty());
+        assertEquals(3, base.size());
+    }
+
+    @Test
+    public void testCommit() {
+        delta.add(triple(SUBJECT, "d"));
+        delta.remove(triple(SUBJECT, "a"));
+        delta.commit(base);
+        assertEquals(asSet(Arrays.asList(triple(SUBJECT, "b"), triple(SUBJECT, "d"),
+            triple(OTHER, "c")).iterator()), asSet(base.iterator()));
+    }
+
+    /**
+     * Deltas over a snapshot are merged into the graph the snapshot was
+     * taken from. Changes of that graph done after the snapshot was taken
+     * MUST BE kept.
+     */
+    @Test
+    public void testCommitSnapshot() {
+        Graph snapshot = new IndexedGraph(base);
+        delta = new DeltaGraph(snapshot, null);
+        DeltaGraph other = new DeltaGraph(snapshot, null);
+        delta.add(triple(SUBJECT, "d"));
+        delta.remove(triple(SUBJECT, "a"));
+        other.add(triple(OTHER, "e"));
+        other.remove(triple(OTHER, "c"));
+        base.add(triple(OTHER, "f"));
+        delta.commit(base);
+        other.commit(base);
+        assertEquals(asSet(Arrays.asList(triple(SUBJECT, "b"), triple(SUBJECT, "d"),
+            triple(OTHER, "e"), triple(OTHER, "f")).iterator()), asSet(base.iterator()));
+        assertEquals(3, snapshot.size());
+    }
+}
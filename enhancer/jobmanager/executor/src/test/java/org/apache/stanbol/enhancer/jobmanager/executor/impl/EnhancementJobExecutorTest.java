@@ -0,0 +1,364 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.CompiledExecutionPlan;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.EnhancementJob;
+import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the scheduling, backpressure and cancellation of
+ * {@link EnhancementJob}s by the {@link EnhancementJobExecutor}
+ */
+public class EnhancementJobExecutorTest {
+
+    private static final long TIMEOUT = 10000;
+
+    private final List<String> executions = new ArrayList<String>();
+    private EnhancementJobExecutor executor;
+
+    @After
+    public void close(){
+        if(executor != null){
+            executor.close();
+        }
+    }
+
+    private static ContentItem createContentItem() throws IOException {
+        return InMemoryContentItemFactory.getInstance().createContentItem(
+            new StringSource("The Stanbol enhancer can detect famous cities such as Paris."));
+    }
+
+    private static EnhancementJob createJob(TestChain chain, TestEngineManager engineManager)
+            throws IOException, ChainException {
+        return new EnhancementJob(createContentItem(), chain.getName(),
+            CompiledExecutionPlan.compile(chain.getExecutionPlan(), engineManager), false);
+    }
+
+    private EnhancementJobExecutor createExecutor(int poolSize, int maxJobs, EnhancementEngine...engines){
+        executor = new EnhancementJobExecutor(new TestEngineManager(engines), poolSize, 0, maxJobs);
+        return executor;
+    }
+
+    /**
+     * Engines MUST only be executed after all engines they depend on
+     */
+    @Test
+    public void testDependencies() throws Exception {
+        TestEngine[] engines = new TestEngine[]{
+                new TestEngine("a", executions), new TestEngine("b", executions),
+                new TestEngine("c", executions), new TestEngine("d", executions)};
+        TestEngineManager engineManager = new TestEngineManager(engines);
+        TestChain chain = new TestChain("dependencies")
+            .addEngine("a", false)
+            .addEngine("b", false, "a")
+            .addEngine("c", false, "a")
+            .addEngine("d", false, "b", "c");
+        createExecutor(4, 0, engines);
+        EnhancementJob job = createJob(chain, engineManager);
+        EnhancementJobFuture future = executor.register(job, 0, null);
+        ContentItem ci = future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertSame(job.getContentItem(), ci);
+        assertTrue(job.isFinished());
+        assertFalse(job.isFailed());
+        assertEquals(4, executions.size());
+        assertEquals("a", executions.get(0));
+        assertEquals("d", executions.get(3));
+        assertEquals(0, executor.getActiveJobs());
+    }
+
+    /**
+     * Independent engines are executed in parallel. The engines wait on a
+     * barrier so the job can only complete if both are executed concurrently
+     */
+    @Test
+    public void testParallelExecution() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        TestEngine[] engines = new TestEngine[2];
+        for(int i = 0; i < engines.length; i++){
+            engines[i] = new TestEngine("parallel"+i, executions){
+                @Override
+                protected void enhance(ContentItem ci) throws EngineException {
+                    try {
+                        barrier.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        throw new EngineException(this, ci, e);
+                    } catch (BrokenBarrierException e) {
+                        throw new EngineException(this, ci, e);
+                    } catch (TimeoutException e) {
+                        throw new EngineException(this, ci, "not executed in parallel", e);
+                    }
+                }
+            };
+        }
+        TestChain chain = new TestChain("parallel")
+            .addEngine("parallel0", false)
+            .addEngine("parallel1", false);
+        createExecutor(2, 0, engines);
+        EnhancementJob job = createJob(chain, new TestEngineManager(engines));
+        executor.register(job, 0, null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertFalse(job.isFailed());
+        assertEquals(2, executions.size());
+    }
+
+    /**
+     * If <code>maxJobs</code> is reached further jobs wait for a free slot
+     * and are rejected if none becomes available.
+     */
+    @Test
+    public void testBackpressure() throws Exception {
+        TestEngine blocking = new TestEngine("blocking", executions);
+        TestEngine other = new TestEngine("other", executions);
+        TestEngineManager engineManager = new TestEngineManager(blocking, other);
+        CountDownLatch block = blocking.block();
+        createExecutor(2, 1, blocking, other);
+        EnhancementJobFuture blocked = executor.register(
+            createJob(new TestChain("blocking").addEngine("blocking", false), engineManager), 0, null);
+        assertTrue(blocking.started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        EnhancementJob job = createJob(new TestChain("other").addEngine("other", false), engineManager);
+        long start = System.currentTimeMillis();
+        try {
+            executor.register(job, 100, null);
+            fail("RejectedExecutionException expected if maxJobs is reached");
+        } catch (RejectedExecutionException e) {
+            //expected
+        }
+        assertTrue("register MUST wait for a free slot", System.currentTimeMillis() - start >= 100);
+        assertEquals(1, executor.getActiveJobs());
+        //the waiting job gets the slot as soon as the blocking one completes
+        block.countDown();
+        executor.register(job, TIMEOUT, null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(blocked.isDone());
+        assertFalse(blocked.isCancelled());
+        assertEquals(2, executions.size());
+    }
+
+    /**
+     * Cancelling a job (e.g. because of a timeout) MUST release its slot
+     * without waiting for running engines to return and MUST NOT start
+     * further executions of that job.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        TestEngine blocking = new TestEngine("blocking", executions);
+        TestEngine next = new TestEngine("next", executions);
+        TestEngine other = new TestEngine("other", executions);
+        TestEngineManager engineManager = new TestEngineManager(blocking, next, other);
+        CountDownLatch block = blocking.block();
+        createExecutor(2, 1, blocking, next, other);
+        final CountDownLatch notified = new CountDownLatch(1);
+        EnhancementJobFuture cancelled = executor.register(createJob(new TestChain("blocking")
+            .addEngine("blocking", false).addEngine("next", false, "blocking"), engineManager),
+            0, new Runnable() {
+                @Override
+                public void run() {
+                    notified.countDown();
+                }
+            });
+        assertTrue(blocking.started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(cancelled.cancel(false));
+        assertFalse("a 2nd cancel MUST NOT have an effect", cancelled.cancel(false));
+        assertTrue(cancelled.isDone());
+        assertTrue(cancelled.isCancelled());
+        assertTrue(notified.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        try {
+            cancelled.get();
+            fail("CancellationException expected");
+        } catch (CancellationException e) {
+            //expected
+        }
+        //the slot is free while the engine of the cancelled job still runs
+        assertEquals(0, executor.getActiveJobs());
+        EnhancementJob job = createJob(new TestChain("other").addEngine("other", false), engineManager);
+        executor.register(job, 0, null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertFalse(job.isFailed());
+        assertEquals(1, blocking.count.get());
+        //release the engine and check that no further engine is executed
+        block.countDown();
+        assertTrue(blocking.returned.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Thread.sleep(200);
+        assertEquals(0, next.count.get());
+        assertEquals(0, executor.getActiveJobs());
+    }
+
+    /**
+     * Failed required engines fail the job and release its slot. Failed
+     * optional engines do not fail the job.
+     */
+    @Test
+    public void testFailedEngines() throws Exception {
+        TestEngine failing = new TestEngine("failing", executions);
+        failing.fail(new IllegalStateException("test failure"));
+        TestEngine next = new TestEngine("next", executions);
+        TestEngineManager engineManager = new TestEngineManager(failing, next);
+        createExecutor(2, 1, failing, next);
+        EnhancementJob job = createJob(new TestChain("required")
+            .addEngine("failing", false).addEngine("next", false, "failing"), engineManager);
+        try {
+            executor.register(job, 0, null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+            fail("ExecutionException expected for a failed required engine");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(job.isFailed());
+        assertNotNull(job.getErrorMessage());
+        assertEquals(0, next.count.get());
+        //optional engines do not fail the job and the slot was released
+        job = createJob(new TestChain("optional")
+            .addEngine("failing", true).addEngine("next", false, "failing"), engineManager);
+        executor.register(job, 0, null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertFalse(job.isFailed());
+        assertEquals(1, next.count.get());
+    }
+
+    /**
+     * Closing the executor completes the futures of running jobs and rejects
+     * new ones
+     */
+    @Test
+    public void testClose() throws Exception {
+        TestEngine blocking = new TestEngine("blocking", executions);
+        TestEngineManager engineManager = new TestEngineManager(blocking);
+        CountDownLatch block = blocking.block();
+        createExecutor(1, 1, blocking);
+        EnhancementJobFuture future = executor.register(
+            createJob(new TestChain("blocking").addEngine("blocking", false), engineManager), 0, null);
+        assertTrue(blocking.started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        executor.close();
+        try {
+            future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            fail("ExecutionException expected for jobs running while closed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        try {
+            executor.register(createJob(new TestChain("blocking").addEngine("blocking", false),
+                engineManager), 0, null);
+            fail("RejectedExecutionException expected after close");
+        } catch (RejectedExecutionException e) {
+            //expected
+        } finally {
+            block.countDown();
+        }
+    }
+
+    /**
+     * The changes of engines with buffered writes are merged into the
+     * metadata and the number of added/removed triples is recorded in the
+     * execution metadata
+     */
+    @Test
+    public void testBufferedWrites() throws Exception {
+        assertBufferedWrites(false);
+    }
+
+    @Test
+    public void testBufferedWritesDeltaGraphs() throws Exception {
+        assertBufferedWrites(true);
+    }
+
+    private void assertBufferedWrites(boolean deltaGraphs) throws Exception {
+        final IRI subject = new IRI("urn:test:subject");
+        final IRI property = new IRI("urn:test:property");
+        final Triple existing = new TripleImpl(subject, property, new PlainLiteralImpl("existing"));
+        TestEngine writer = new TestEngine("writer", executions, EnhancementEngine.ENHANCE_ASYNC, true){
+            @Override
+            protected void enhance(ContentItem ci) throws EngineException {
+                Graph metadata = ci.getMetadata();
+                metadata.add(new TripleImpl(subject, property, new PlainLiteralImpl("a")));
+                metadata.add(new TripleImpl(subject, property, new PlainLiteralImpl("b")));
+                metadata.remove(existing);
+            }
+        };
+        TestEngine reader = new TestEngine("reader", executions, EnhancementEngine.ENHANCE_ASYNC, true){
+            @Override
+            protected void enhance(ContentItem ci) throws EngineException {
+                //the changes of the writer MUST BE visible
+                Graph metadata = ci.getMetadata();
+                if(metadata.contains(existing)
+                        || !metadata.contains(new TripleImpl(subject, property, new PlainLiteralImpl("a")))){
+                    throw new EngineException(this, ci, "changes of the writer not visible", null);
+                }
+                metadata.add(new TripleImpl(subject, property, new PlainLiteralImpl("c")));
+            }
+        };
+        TestEngineManager engineManager = new TestEngineManager(writer, reader);
+        executor = new EnhancementJobExecutor(engineManager, 2, 0, 0, deltaGraphs);
+        EnhancementJob job = createJob(new TestChain("buffered")
+            .addEngine("writer", false).addEngine("reader", false, "writer"), engineManager);
+        job.getContentItem().getMetadata().add(existing);
+        executor.register(job, 0, null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertFalse(job.getErrorMessage(), job.isFailed());
+        Graph metadata = job.getContentItem().getMetadata();
+        assertFalse(metadata.contains(existing));
+        assertEquals(3, countTriples(metadata.filter(subject, property, null)));
+        assertEquals(2, job.getCompleted().size());
+        for(BlankNodeOrIRI node : job.getCompleted()){
+            Execution execution = new Execution(null, job.getExecutionMetadata(), node);
+            if("writer".equals(job.getEngineName(node))){
+                assertEquals(Integer.valueOf(2), execution.getAddedTriples());
+                assertEquals(Integer.valueOf(1), execution.getRemovedTriples());
+            } else {
+                assertEquals(Integer.valueOf(1), execution.getAddedTriples());
+                assertEquals(Integer.valueOf(0), execution.getRemovedTriples());
+            }
+        }
+    }
+
+    private static int countTriples(Iterator<Triple> it){
+        int count = 0;
+        while(it.hasNext()){
+            it.next();
+            count++;
+        }
+        return count;
+    }
+}
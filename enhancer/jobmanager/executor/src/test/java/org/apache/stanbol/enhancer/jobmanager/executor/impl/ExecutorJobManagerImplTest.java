@@ -0,0 +1,306 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ChainManager;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobCallback;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.cm.ConfigurationException;
+
+/**
+ * Tests the {@link ExecutorJobManagerImpl} component with test engines
+ * and chains: synchronous and asynchronous enhancement, timeouts and the
+ * release of slots of timed out jobs.
+ */
+public class ExecutorJobManagerImplTest {
+
+    private static final long TIMEOUT = 10000;
+    private static final int JOB_TIMEOUT = 300;
+
+    private final List<String> executions = new ArrayList<String>();
+    private TestEngine first;
+    private TestEngine second;
+    private TestEngine blocking;
+    private TestEngine failing;
+    private CountDownLatch block;
+    private ExecutorJobManagerImpl jobManager;
+
+    @Before
+    public void activate() throws ConfigurationException {
+        first = new TestEngine("first", executions);
+        second = new TestEngine("second", executions);
+        blocking = new TestEngine("blocking", executions);
+        block = blocking.block();
+        failing = new TestEngine("failing", executions);
+        failing.fail(new IllegalStateException("test failure"));
+        Map<String,Chain> chains = new HashMap<String,Chain>();
+        chains.put("default", new TestChain("default")
+            .addEngine("first", false).addEngine("second", false, "first"));
+        chains.put("blocking", new TestChain("blocking")
+            .addEngine("blocking", false).addEngine("second", false, "blocking"));
+        chains.put("failing", new TestChain("failing")
+            .addEngine("failing", false).addEngine("second", false, "failing"));
+        jobManager = new ExecutorJobManagerImpl();
+        jobManager.chainManager = new TestChainManager(chains);
+        jobManager.engineManager = new TestEngineManager(first, second, blocking, failing);
+        Dictionary<String,Object> config = new Hashtable<String,Object>();
+        config.put(ExecutorJobManagerImpl.MAX_ENHANCEMENT_JOB_WAIT_TIME, JOB_TIMEOUT);
+        config.put(ExecutorJobManagerImpl.POOL_SIZE, 2);
+        config.put(ExecutorJobManagerImpl.MAX_CONCURRENT_JOBS, "1");
+        jobManager.activate(new MockComponentContext(config));
+    }
+
+    @After
+    public void deactivate(){
+        block.countDown();
+        jobManager.deactivate(null);
+    }
+
+    private ContentItem createContentItem() throws IOException {
+        return InMemoryContentItemFactory.getInstance().createContentItem(
+            new StringSource("The Stanbol enhancer can detect famous cities such as Paris."));
+    }
+
+    private Chain getChain(String name){
+        return jobManager.chainManager.getChain(name);
+    }
+
+    @Test
+    public void testEnhanceContent() throws Exception {
+        jobManager.enhanceContent(createContentItem());
+        assertEquals(2, executions.size());
+        assertEquals("first", executions.get(0));
+        assertEquals("second", executions.get(1));
+        assertEquals(JOB_TIMEOUT, jobManager.getMaxEnhancementJobWaitTime());
+    }
+
+    @Test
+    public void testFailedEnhancement() throws Exception {
+        try {
+            jobManager.enhanceContent(createContentItem(), getChain("failing"));
+            fail("EnhancementException expected for a failed required engine");
+        } catch (EnhancementException e) {
+            //expected
+        }
+        assertEquals(0, second.count.get());
+    }
+
+    /**
+     * Timed out jobs MUST release their slot, even if the engine is still
+     * running. Otherwise the following request would be rejected as
+     * {@link ExecutorJobManagerImpl#MAX_CONCURRENT_JOBS} is set to 1.
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        try {
+            jobManager.enhanceContent(createContentItem(), getChain("blocking"));
+            fail("ChainException expected for a timed out job");
+        } catch (ChainException e) {
+            assertTrue(e.getMessage().contains("Execution timeout"));
+        }
+        assertEquals(1, blocking.count.get());
+        jobManager.enhanceContent(createContentItem());
+        assertEquals(2, first.count.get() + second.count.get());
+        //release the engine of the timed out job
+        block.countDown();
+        assertTrue(blocking.returned.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Thread.sleep(200);
+        assertEquals("no engine MUST BE executed for a timed out job", 1, second.count.get());
+    }
+
+    @Test
+    public void testEnhanceContentAsync() throws Exception {
+        ContentItem ci = createContentItem();
+        TestCallback callback = new TestCallback();
+        Future<ContentItem> future = jobManager.enhanceContentAsync(ci, getChain("default"), callback);
+        assertSame(ci, future.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(callback.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertSame(ci, callback.completed);
+        assertNull(callback.failed);
+        assertEquals(2, executions.size());
+
+        callback = new TestCallback();
+        jobManager.enhanceContentAsync(createContentItem(), getChain("failing"), callback);
+        assertTrue(callback.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertNull(callback.completed);
+        assertTrue(callback.failed instanceof EnhancementException);
+    }
+
+    @Test
+    public void testEnhanceContentAsyncTimeout() throws Exception {
+        TestCallback callback = new TestCallback();
+        Future<ContentItem> future = jobManager.enhanceContentAsync(createContentItem(),
+            getChain("blocking"), callback);
+        assertTrue(callback.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(future.isCancelled());
+        assertNull(callback.completed);
+        assertTrue(callback.failed instanceof ChainException);
+        assertTrue(callback.failed.getMessage().contains("Execution timeout"));
+        //the slot of the timed out job is available
+        callback = new TestCallback();
+        jobManager.enhanceContentAsync(createContentItem(), getChain("default"), callback);
+        assertTrue(callback.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(callback.completed != null);
+    }
+
+    /**
+     * If maxJobs is reached enhanceContentAsync waits for a free slot
+     * instead of rejecting the request
+     */
+    @Test
+    public void testEnhanceContentAsyncWaitsForSlot() throws Exception {
+        TestCallback blocked = new TestCallback();
+        jobManager.enhanceContentAsync(createContentItem(), getChain("blocking"), blocked);
+        assertTrue(blocking.started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Thread release = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                block.countDown();
+            }
+        });
+        release.start();
+        long start = System.currentTimeMillis();
+        TestCallback callback = new TestCallback();
+        Future<ContentItem> future = jobManager.enhanceContentAsync(createContentItem(),
+            getChain("default"), callback);
+        assertTrue("enhanceContentAsync MUST wait for a free slot",
+            System.currentTimeMillis() - start >= 90);
+        assertTrue(future.get(TIMEOUT, TimeUnit.MILLISECONDS) != null);
+        assertTrue(callback.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(callback.completed != null);
+        assertTrue(blocked.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(blocked.completed != null);
+        release.join();
+    }
+
+    /**
+     * Cancelling the returned future notifies the callback and releases the
+     * slot of the job
+     */
+    @Test
+    public void testEnhanceContentAsyncCancel() throws Exception {
+        TestCallback callback = new TestCallback();
+        Future<ContentItem> future = jobManager.enhanceContentAsync(createContentItem(),
+            getChain("blocking"), callback);
+        assertTrue(blocking.started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(future.cancel(false));
+        assertTrue(callback.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertNull(callback.completed);
+        assertTrue(callback.failed instanceof ChainException);
+        assertTrue(callback.failed.getMessage().contains("cancelled"));
+        //the slot is available while the engine still runs
+        future = jobManager.enhanceContentAsync(createContentItem(), getChain("default"), null);
+        assertTrue(future.get(TIMEOUT, TimeUnit.MILLISECONDS) != null);
+        assertEquals(2, first.count.get() + second.count.get());
+    }
+
+    private static class TestCallback implements EnhancementJobCallback {
+
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile ContentItem completed;
+        volatile EnhancementException failed;
+
+        @Override
+        public void completed(ContentItem ci) {
+            completed = ci;
+            done.countDown();
+        }
+
+        @Override
+        public void failed(ContentItem ci, EnhancementException e) {
+            failed = e;
+            done.countDown();
+        }
+    }
+
+    private static class TestChainManager implements ChainManager {
+
+        private final Map<String,Chain> chains;
+
+        TestChainManager(Map<String,Chain> chains){
+            this.chains = chains;
+        }
+
+        @Override
+        public Set<String> getActiveChainNames() {
+            return Collections.unmodifiableSet(chains.keySet());
+        }
+
+        @Override
+        public ServiceReference getReference(String name) {
+            return null;
+        }
+
+        @Override
+        public List<ServiceReference> getReferences(String name) throws IllegalArgumentException {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Chain getChain(String name) {
+            return chains.get(name);
+        }
+
+        @Override
+        public Chain getChain(ServiceReference chainReference) {
+            return null;
+        }
+
+        @Override
+        public boolean isChain(String name) {
+            return chains.containsKey(name);
+        }
+
+        @Override
+        public Chain getDefault() {
+            return chains.get(DEFAULT_CHAIN_NAME);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.createExecutionPlan;
+import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.writeExecutionNode;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+
+/**
+ * {@link Chain} with an execution plan defined by
+ * {@link #addEngine(String, boolean, String...)}.
+ */
+public class TestChain implements Chain {
+
+    private final String name;
+    private final Graph ep = new IndexedGraph();
+    private final BlankNodeOrIRI epNode;
+    private final Map<String,BlankNodeOrIRI> nodes = new HashMap<String,BlankNodeOrIRI>();
+
+    public TestChain(String name) {
+        this.name = name;
+        this.epNode = createExecutionPlan(ep, name, null);
+    }
+    /**
+     * Adds an ep:ExecutionNode for the parsed engine
+     * @param engine the name of the engine
+     * @param optional if the execution is optional
+     * @param dependsOn the names of the engines this one depends on. Those
+     * MUST BE added before.
+     * @return this chain
+     */
+    public TestChain addEngine(String engine, boolean optional, String...dependsOn){
+        Set<BlankNodeOrIRI> dependsOnNodes = new HashSet<BlankNodeOrIRI>();
+        for(String dependency : dependsOn){
+            BlankNodeOrIRI node = nodes.get(dependency);
+            if(node == null){
+                throw new IllegalArgumentException("Unknown engine "+dependency);
+            }
+            dependsOnNodes.add(node);
+        }
+        nodes.put(engine, writeExecutionNode(ep, epNode, engine, optional, dependsOnNodes, null));
+        return this;
+    }
+
+    @Override
+    public ImmutableGraph getExecutionPlan() throws ChainException {
+        return ep.getImmutableGraph();
+    }
+
+    @Override
+    public Set<String> getEngines() throws ChainException {
+        return Collections.unmodifiableSet(new LinkedHashSet<String>(nodes.keySet()));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
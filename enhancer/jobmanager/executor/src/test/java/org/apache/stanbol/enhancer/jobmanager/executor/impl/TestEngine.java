@@ -0,0 +1,145 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
+
+/**
+ * {@link EnhancementEngine} used by the tests. Records its executions in
+ * a shared list and can be configured to block or to fail.
+ */
+public class TestEngine implements EnhancementEngine, ServiceProperties {
+
+    private final String name;
+    private final List<String> executions;
+    private final int enhanceMode;
+    private final Map<String,Object> serviceProperties;
+    /**
+     * Counted down as soon as this engine starts its first execution
+     */
+    final CountDownLatch started = new CountDownLatch(1);
+    /**
+     * If not <code>null</code> executions wait until this latch is released
+     */
+    private CountDownLatch block;
+    /**
+     * Counted down as soon as an execution of this engine returns
+     */
+    final CountDownLatch returned = new CountDownLatch(1);
+    private RuntimeException failure;
+    final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Creates an engine that executes {@link EnhancementEngine#ENHANCE_ASYNC}
+     * @param name the name
+     * @param executions the list the names of executed engines are added to
+     */
+    public TestEngine(String name, List<String> executions) {
+        this(name, executions, ENHANCE_ASYNC, false);
+    }
+    /**
+     * Creates an engine
+     * @param name the name
+     * @param executions the list the names of executed engines are added to
+     * @param enhanceMode the value returned by {@link #canEnhance(ContentItem)}
+     * @param bufferedWrites if the engine declares
+     * {@link ServiceProperties#ENHANCEMENT_ENGINE_BUFFERED_WRITES}
+     */
+    public TestEngine(String name, List<String> executions, int enhanceMode, boolean bufferedWrites) {
+        this.name = name;
+        this.executions = executions;
+        this.enhanceMode = enhanceMode;
+        this.serviceProperties = Collections.unmodifiableMap(Collections.singletonMap(
+            ENHANCEMENT_ENGINE_BUFFERED_WRITES, (Object)Boolean.valueOf(bufferedWrites)));
+    }
+    /**
+     * Executions block until the returned latch is released
+     * @return the latch
+     */
+    public CountDownLatch block(){
+        block = new CountDownLatch(1);
+        return block;
+    }
+    /**
+     * Executions fail with the parsed exception
+     */
+    public void fail(RuntimeException failure){
+        this.failure = failure;
+    }
+
+    @Override
+    public int canEnhance(ContentItem ci) throws EngineException {
+        return enhanceMode;
+    }
+
+    @Override
+    public void computeEnhancements(ContentItem ci) throws EngineException {
+        count.incrementAndGet();
+        started.countDown();
+        try {
+            if(block != null){
+                try {
+                    if(!block.await(10, TimeUnit.SECONDS)){
+                        throw new EngineException(this, ci, "blocked for more than 10sec", null);
+                    }
+                } catch (InterruptedException e) {
+                    throw new EngineException(this, ci, e);
+                }
+            }
+            if(failure != null){
+                throw failure;
+            }
+            enhance(ci);
+            synchronized (executions) {
+                executions.add(name);
+            }
+        } finally {
+            returned.countDown();
+        }
+    }
+    /**
+     * Called by {@link #computeEnhancements(ContentItem)}. The default
+     * implementation does nothing.
+     */
+    protected void enhance(ContentItem ci) throws EngineException {
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<String,Object> getServiceProperties() {
+        return serviceProperties;
+    }
+
+    @Override
+    public String toString() {
+        return "TestEngine " + name;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.executor.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * {@link EnhancementEngineManager} over a fixed set of engines. Does not
+ * support {@link ServiceReference}s.
+ */
+public class TestEngineManager implements EnhancementEngineManager {
+
+    private final Map<String,EnhancementEngine> engines = new HashMap<String,EnhancementEngine>();
+
+    public TestEngineManager(EnhancementEngine...engines) {
+        for(EnhancementEngine engine : engines){
+            this.engines.put(engine.getName(), engine);
+        }
+    }
+
+    @Override
+    public ServiceReference getReference(String name) {
+        return null;
+    }
+
+    @Override
+    public List<ServiceReference> getReferences(String name) throws IllegalArgumentException {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public EnhancementEngine getEngine(String name) {
+        return engines.get(name);
+    }
+
+    @Override
+    public boolean isEngine(String name) {
+        return engines.containsKey(name);
+    }
+
+    @Override
+    public Set<String> getActiveEngineNames() {
+        return Collections.unmodifiableSet(engines.keySet());
+    }
+
+    @Override
+    public EnhancementEngine getEngine(ServiceReference engineReference) {
+        return null;
+    }
+}
@@ -22,7 +22,10 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
@@ -216,6 +219,60 @@ public final class EntityhubImpl implements Entityhub {//, ServiceListener {
             return null;
         }
     }
+    /**
+     * Loads the data of all parsed Entities and afterwards their metadata by
+     * using a single {@link Yard#getRepresentations(Collection, Set)} request
+     * each.
+     */
+    @Override
+    public final Map<String,Entity> getEntities(Collection<String> entityIds, Set<String> fields) throws IllegalArgumentException, YardException {
+        if(entityIds == null){
+            throw new IllegalArgumentException("The parsed ids MUST NOT be NULL!");
+        }
+        if(fields != null){ //we need the about field to detect metadata
+            fields = new HashSet<String>(fields);
+            fields.add(RdfResourceEnum.aboutRepresentation.getUri());
+        }
+        Map<String,Entity> entities = new LinkedHashMap<String,Entity>();
+        Map<String,Representation> dataById = entityhubYard.getRepresentations(entityIds, fields);
+        Map<String,String> metadataIds = new LinkedHashMap<String,String>(dataById.size());
+        for(Representation rep : dataById.values()){
+            if(ModelUtils.getAboutRepresentation(rep) != null){
+                //the parsed id refers to metadata -> load it as in getEntity(..)
+                Entity entity = loadEntity(rep);
+                if(entity != null && ManagedEntity.canWrap(entity)){
+                    entities.put(rep.getId(), entity);
+                }
+            } else {
+                metadataIds.put(rep.getId()+".meta", rep.getId());
+            }
+        }
+        if(metadataIds.isEmpty()){
+            return entities;
+        }
+        Map<String,Representation> metadataById = entityhubYard.getRepresentations(metadataIds.keySet(), null);
+        for(Map.Entry<String,String> entry : metadataIds.entrySet()){
+            Representation metadata = metadataById.get(entry.getKey());
+            if(metadata == null){
+                metadata = entityhubYard.create(entry.getKey());
+            }
+            Entity entity = new EntityImpl(config.getID(), dataById.get(entry.getValue()), metadata);
+            if(ManagedEntity.canWrap(entity)){
+                entities.put(entry.getValue(), entity);
+            } else {
+                log.info("The parsed id does not represent a locally managed Entity {}", entity);
+            }
+        }
+        //keep the order of the parsed ids
+        Map<String,Entity> ordered = new LinkedHashMap<String,Entity>(entities.size());
+        for(String id : entityIds){
+            Entity entity = entities.get(id);
+            if(entity != null){
+                ordered.put(id, entity);
+            }
+        }
+        return ordered;
+    }
     @Override
     public final boolean isRepresentation(String entityId) throws EntityhubException, IllegalArgumentException {
         if(entityId == null || entityId.isEmpty()){
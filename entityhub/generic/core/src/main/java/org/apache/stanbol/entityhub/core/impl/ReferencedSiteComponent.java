@@ -26,6 +26,14 @@ import static org.apache.stanbol.entityhub.servicesapi.site.Site.PROHIBITED_SITE
 import static org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration.DEFAULT_SYMBOL_STATE;
 import static org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration.SITE_FIELD_MAPPINGS;
 
+import java.util.Dictionary;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.ConfigurationPolicy;
@@ -138,10 +146,42 @@ import org.slf4j.LoggerFactory;
             @PropertyOption(value = '%' + CACHE_STRATEGY + ".option.used", name = "used"),
             @PropertyOption(value = '%' + CACHE_STRATEGY + ".option.all", name = "all")}, value = "none"),
     @Property(name = CACHE_ID), 
+    @Property(name = ReferencedSiteComponent.ENTITY_CACHE_SIZE,
+        intValue = ReferencedSiteComponent.DEFAULT_ENTITY_CACHE_SIZE),
+    @Property(name = ReferencedSiteComponent.ENTITY_CACHE_TTL),
+    @Property(name = ReferencedSiteComponent.DEREFERENCE_THREADS,
+        intValue = ReferencedSiteComponent.DEFAULT_DEREFERENCE_THREADS),
     @Property(name = SITE_FIELD_MAPPINGS, cardinality = Integer.MAX_VALUE)})
 public class ReferencedSiteComponent {
     
     private static final Logger log = LoggerFactory.getLogger(ReferencedSiteComponent.class);
+    /**
+     * The maximum number of threads used by {@link Site#getEntities(java.util.Collection, java.util.Set)}
+     * to dereference Entities in parallel. Values <code>&lt;= 1</code>
+     * dereference Entities sequentially.
+     */
+    public static final String DEREFERENCE_THREADS = "org.apache.stanbol.entityhub.site.dereferenceThreads";
+    /**
+     * The default for {@link #DEREFERENCE_THREADS}
+     */
+    public static final int DEFAULT_DEREFERENCE_THREADS = 8;
+    /**
+     * The maximum weight (number of values) of the Entities kept in the
+     * in-memory {@link RepresentationCache} of this Site. <code>0</code>
+     * deactivates the in-memory cache.
+     */
+    public static final String ENTITY_CACHE_SIZE = "org.apache.stanbol.entityhub.site.entityCacheSize";
+    /**
+     * The default for {@link #ENTITY_CACHE_SIZE}
+     */
+    public static final int DEFAULT_ENTITY_CACHE_SIZE = 100000;
+    /**
+     * The time to live (in seconds) of Entities in the in-memory
+     * {@link RepresentationCache}. If not present the default is chosen based
+     * on the {@link CacheStrategy} (see
+     * {@link RepresentationCache#getDefaultTimeToLive(CacheStrategy)}).
+     */
+    public static final String ENTITY_CACHE_TTL = "org.apache.stanbol.entityhub.site.entityCacheTtl";
 
     private ComponentContext cc;
     private BundleContext bc;
@@ -190,6 +230,16 @@ public class ReferencedSiteComponent {
     private ServiceRegistration referencedSiteRegistration;
     
     private Site referencedSite;
+    /**
+     * Used by the {@link ReferencedSiteImpl} to dereference entities in
+     * parallel. Created on activation and shut down on deactivation.
+     */
+    private ExecutorService dereferenceExecutor;
+    /**
+     * The in-memory cache used by the {@link ReferencedSiteImpl} in front of
+     * the {@link #cache}. <code>null</code> if deactivated.
+     */
+    private RepresentationCache entityCache;
     
     
     protected void bindNamespacePrefixService(NamespacePrefixService ps){
@@ -257,6 +307,23 @@ public class ReferencedSiteComponent {
         }
         
         log.info(" > initialise Referenced Site {}", siteConfiguration.getName());
+        final String siteId = siteConfiguration.getId();
+        int dereferenceThreads = getDereferenceThreads(ctx.getProperties());
+        log.info("   - dereference threads: {}", dereferenceThreads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(dereferenceThreads, dereferenceThreads,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "Entityhub Site " + siteId + " dereferencer-"
+                            + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        executor.allowCoreThreadTimeOut(true);
+        dereferenceExecutor = executor;
+        entityCache = createEntityCache(ctx.getProperties(), siteConfiguration.getCacheStrategy());
 
         // if the accessUri is the same as the queryUri and both the
         // dereferencer and the entitySearcher uses the same component, than we 
@@ -341,6 +408,78 @@ public class ReferencedSiteComponent {
         }
     }
 
+    /**
+     * Parses the {@link #DEREFERENCE_THREADS} property
+     * @param properties the configuration
+     * @return the number of dereference threads (<code>&gt;= 1</code>)
+     * @throws ConfigurationException if the value is not an integer
+     */
+    private static int getDereferenceThreads(Dictionary<?,?> properties) throws ConfigurationException {
+        Object value = properties.get(DEREFERENCE_THREADS);
+        int threads;
+        if(value instanceof Number){
+            threads = ((Number)value).intValue();
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                threads = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(DEREFERENCE_THREADS, "Unable to parse the number "
+                    + "of dereference threads from '" + value + "'!", e);
+            }
+        } else {
+            threads = DEFAULT_DEREFERENCE_THREADS;
+        }
+        return Math.max(1, threads);
+    }
+
+    /**
+     * Creates the {@link RepresentationCache} based on the
+     * {@link #ENTITY_CACHE_SIZE} and {@link #ENTITY_CACHE_TTL} properties
+     * @return the cache or <code>null</code> if deactivated
+     */
+    private static RepresentationCache createEntityCache(Dictionary<?,?> properties,
+            CacheStrategy strategy) throws ConfigurationException {
+        Object value = properties.get(ENTITY_CACHE_SIZE);
+        long size;
+        if(value instanceof Number){
+            size = ((Number)value).longValue();
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                size = Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(ENTITY_CACHE_SIZE, "Unable to parse the size of "
+                    + "the Entity cache from '" + value + "'!", e);
+            }
+        } else {
+            size = DEFAULT_ENTITY_CACHE_SIZE;
+        }
+        if(size <= 0){
+            log.info("   - in-memory Entity cache deactivated");
+            return null;
+        }
+        long ttl;
+        value = properties.get(ENTITY_CACHE_TTL);
+        if(value instanceof Number){
+            ttl = TimeUnit.SECONDS.toMillis(((Number)value).longValue());
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                ttl = TimeUnit.SECONDS.toMillis(Long.parseLong(value.toString().trim()));
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(ENTITY_CACHE_TTL, "Unable to parse the time to "
+                    + "live of the Entity cache from '" + value + "'!", e);
+            }
+        } else {
+            ttl = RepresentationCache.getDefaultTimeToLive(strategy);
+        }
+        try {
+            RepresentationCache entityCache = new RepresentationCache(size, ttl, TimeUnit.MILLISECONDS);
+            log.info("   - in-memory Entity cache (size: {}, ttl: {}ms)", size, ttl);
+            return entityCache;
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(ENTITY_CACHE_SIZE, e.getMessage(), e);
+        }
+    }
+
     /**
      * Initialise the dereferencer and searcher component as soon as the according {@link ComponentFactory}
      * gets registered.
@@ -536,6 +675,15 @@ public class ReferencedSiteComponent {
             referencedSiteRegistration.unregister();
             referencedSiteRegistration = null;
         }
+        if(dereferenceExecutor != null){
+            dereferenceExecutor.shutdown();
+            dereferenceExecutor = null;
+        }
+        if(entityCache != null){
+            log.info("  - {}", entityCache);
+            entityCache.clear();
+            entityCache = null;
+        }
     }
     /**
      * Updates the ServiceRegistration based on the parsed parameters
@@ -560,6 +708,9 @@ public class ReferencedSiteComponent {
             log.debug(" - not active ... return");
             return;
         }
+        if(entityCache != null){ //the cache or the dereferencer might have changed
+            entityCache.clear();
+        }
         //validate the parsed parameter
         boolean valid = true; //use state so that we check all services for logging
         log.debug(" - validate available services:");
@@ -596,7 +747,7 @@ public class ReferencedSiteComponent {
                     offlineMode == null && searcherComponentInstance != null ? 
                         (EntitySearcher)searcherComponentInstance.getInstance() :
                             null,
-                    cache, nsPrefixService);
+                    cache, nsPrefixService, dereferenceExecutor, entityCache);
                 referencedSiteRegistration = bc.registerService(Site.class.getName(), referencedSite, 
                     OsgiUtils.copyConfig(cc.getProperties()));
             } catch (RuntimeException e) {
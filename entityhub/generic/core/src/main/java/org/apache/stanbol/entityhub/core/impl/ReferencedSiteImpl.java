@@ -22,14 +22,28 @@ import static org.apache.stanbol.entityhub.core.utils.SiteUtils.initEntityMetada
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
 import org.apache.stanbol.entityhub.core.mapping.FieldMappingUtils;
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory;
 import org.apache.stanbol.entityhub.core.model.EntityImpl;
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapper;
@@ -98,10 +112,34 @@ public class ReferencedSiteImpl implements Site {
      * Stores keys -> values to be added to the metadata of {@link Entity Entities} created by this site.
      */
     private Map<String,Object> siteMetadata;
+    /**
+     * Used by {@link #getEntities(Collection, Set)} to dereference entities
+     * in parallel. If <code>null</code> entities are dereferenced sequentially.
+     */
+    private final ExecutorService dereferenceExecutor;
+    /**
+     * In-memory cache used in front of the {@link #cache} (or the
+     * {@link #dereferencer} if no cache is used). <code>null</code> if not
+     * available.
+     */
+    private final RepresentationCache entityCache;
 
     public ReferencedSiteImpl(ReferencedSiteConfiguration config, 
             EntityDereferencer dereferencer, EntitySearcher searcher,
             Cache cache, NamespacePrefixService nsPrefixService) {
+        this(config, dereferencer, searcher, cache, nsPrefixService, null, null);
+    }
+    /**
+     * @param dereferenceExecutor used to dereference entities not present
+     * in the cache in parallel or <code>null</code> to dereference them
+     * sequentially.
+     * @param entityCache the in-memory cache used in front of the parsed
+     * {@link Cache} or <code>null</code> if none
+     */
+    public ReferencedSiteImpl(ReferencedSiteConfiguration config, 
+            EntityDereferencer dereferencer, EntitySearcher searcher,
+            Cache cache, NamespacePrefixService nsPrefixService,
+            ExecutorService dereferenceExecutor, RepresentationCache entityCache) {
         if(config == null){
             throw new IllegalArgumentException("The parsed SiteConfiguration MUST NOT be NULL!");
         }
@@ -122,6 +160,8 @@ public class ReferencedSiteImpl implements Site {
         this.cache = cache;
         this.dereferencer = dereferencer;
         this.entitySearcher = searcher;
+        this.dereferenceExecutor = dereferenceExecutor;
+        this.entityCache = entityCache;
         // init the fieldMapper based on the configuration
         fieldMappings = new DefaultFieldMapperImpl(ValueConverterFactory.getDefaultInstance());
         if (siteConfiguration.getFieldMappings() != null) {
@@ -141,6 +181,13 @@ public class ReferencedSiteImpl implements Site {
     public String getId() {
         return siteConfiguration.getId();
     }
+    /**
+     * Getter for the in-memory cache (e.g. to monitor its statistics)
+     * @return the in-memory cache or <code>null</code> if not used
+     */
+    public RepresentationCache getEntityCache() {
+        return entityCache;
+    }
 
     @Override
     public QueryResultList<Entity> findEntities(FieldQuery query) throws SiteException {
@@ -309,6 +356,12 @@ public class ReferencedSiteImpl implements Site {
         Representation rep = null;
         Boolean cachedVersion = Boolean.FALSE;
         long start = System.currentTimeMillis();
+        if (entityCache != null) {
+            rep = entityCache.get(id);
+            if (rep != null) {
+                return createEntity(rep, cache != null);
+            }
+        }
         if (cache != null) {
             try {
                 rep = cache.getRepresentation(id);
@@ -356,15 +409,248 @@ public class ReferencedSiteImpl implements Site {
             }
         }
         if(rep != null){
-            Entity entity = new EntityImpl(getId(), rep, null);
-            initEntityMetadata(entity, siteMetadata,
-                singletonMap(RdfResourceEnum.isChached.getUri(), (Object) cachedVersion));
-            return entity;
+            // only cache versions that would be returned on a cache miss
+            if(entityCache != null && cachedVersion.booleanValue() == (cache != null)){
+                entityCache.put(rep);
+            }
+            return createEntity(rep, cachedVersion);
         } else {
             return null;
         }
     }
 
+    private Entity createEntity(Representation rep, Boolean cachedVersion) {
+        Entity entity = new EntityImpl(getId(), rep, null);
+        initEntityMetadata(entity, siteMetadata,
+            singletonMap(RdfResourceEnum.isChached.getUri(), (Object) cachedVersion));
+        return entity;
+    }
+
+    /**
+     * Retrieves all cached entities with a single request to the {@link Cache}.
+     * Entities not present in the cache are dereferenced in parallel and
+     * stored to the cache with a single request. Entities present in the
+     * {@link #entityCache} are not requested from the {@link Cache}.
+     */
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> ids, Set<String> fields) throws SiteException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed ids MUST NOT be NULL!");
+        }
+        Set<String> uris = new LinkedHashSet<String>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                uris.add(id);
+            }
+        }
+        Map<String,Representation> reps = new HashMap<String,Representation>();
+        Set<String> cached = new HashSet<String>();
+        Set<String> requested = uris;
+        if (entityCache != null) {
+            requested = new LinkedHashSet<String>(uris.size());
+            for(String uri : uris){
+                Representation rep = entityCache.get(uri);
+                if(rep != null){
+                    reps.put(uri, select(rep, fields));
+                    if(cache != null){
+                        cached.add(uri);
+                    }
+                } else {
+                    requested.add(uri);
+                }
+            }
+        }
+        if (cache != null && !requested.isEmpty()) {
+            try {
+                Map<String,Representation> cachedReps = cache.getRepresentations(requested, fields);
+                reps.putAll(cachedReps);
+                cached.addAll(cachedReps.keySet());
+                if (entityCache != null && fields == null) { // only complete Representations
+                    for(Representation rep : cachedReps.values()){
+                        entityCache.put(rep);
+                    }
+                }
+            } catch (YardException e) {
+                if (dereferencer == null) {
+                    throw new SiteException(String.format("Unable to get Represetnations %s form Cache %s",
+                        requested, siteConfiguration.getCacheId()), e);
+                } else {
+                    log.warn(String.format(
+                        "Unable to get Represetnations %s form Cache %s. Will dereference from remote site %s",
+                        requested, siteConfiguration.getCacheId(), siteConfiguration.getAccessUri()), e);
+                }
+            }
+        }
+        // do no remote lookups on CacheStrategy.all!!
+        if (dereferencer != null && siteConfiguration.getCacheStrategy() != CacheStrategy.all) {
+            List<String> missing = new ArrayList<String>();
+            for(String uri : uris){
+                if(!reps.containsKey(uri)){
+                    missing.add(uri);
+                }
+            }
+            Map<String,Representation> dereferenced = dereference(missing);
+            reps.putAll(dereferenced);
+            if (entityCache != null && cache == null) {
+                for(Representation rep : dereferenced.values()){
+                    entityCache.put(rep);
+                }
+            }
+            if (!dereferenced.isEmpty() && cache != null) {// -> cache the representations
+                try {
+                    long start = System.currentTimeMillis();
+                    //NOTE: Yards do not preserve the order -> match stored by id
+                    for(Representation rep : cache.store(dereferenced.values())){
+                        if(rep != null && dereferenced.containsKey(rep.getId())){
+                            reps.put(rep.getId(), rep); // return the the cached version
+                            cached.add(rep.getId());
+                            if(entityCache != null){
+                                entityCache.put(rep);
+                            }
+                        }
+                    }
+                    log.debug("  - cached {} Representations in {} ms", dereferenced.size(),
+                        (System.currentTimeMillis() - start));
+                } catch (YardException e) {
+                    log.warn(String.format(
+                        "Unable to cache Represetnations %s in Cache %s! Representations not cached!",
+                        dereferenced.keySet(), siteConfiguration.getCacheId()), e);
+                }
+            }
+            if (fields != null) { //project dereferenced Representations to the selected fields
+                for(String uri : dereferenced.keySet()){
+                    reps.put(uri, copy(reps.get(uri), fields));
+                }
+            }
+        }
+        Map<String,Entity> entities = new LinkedHashMap<String,Entity>(reps.size());
+        for(String uri : uris){ //keep the order of the parsed ids
+            Representation rep = reps.get(uri);
+            if(rep != null){
+                Entity entity = new EntityImpl(getId(), rep, null);
+                initEntityMetadata(entity, siteMetadata, singletonMap(
+                    RdfResourceEnum.isChached.getUri(), (Object) Boolean.valueOf(cached.contains(uri))));
+                entities.put(uri, entity);
+            }
+        }
+        return entities;
+    }
+    /**
+     * Removes all fields not included in the parsed selection from a
+     * Representation returned by the {@link #entityCache}.
+     * @param rep a copy returned by the {@link #entityCache}
+     * @param fields the selected fields or <code>null</code> for all
+     * @return the parsed representation
+     */
+    private static Representation select(Representation rep, Set<String> fields) {
+        if(fields != null){
+            List<String> removed = new ArrayList<String>();
+            for(Iterator<String> it = rep.getFieldNames(); it.hasNext();){
+                String field = it.next();
+                if(!fields.contains(field)){
+                    removed.add(field);
+                }
+            }
+            for(String field : removed){
+                rep.removeAll(field);
+            }
+        }
+        return rep;
+    }
+    /**
+     * Creates a copy of the parsed Representation that only contains the
+     * selected fields. Used for dereferenced Representations as those might
+     * also be referenced by the {@link #cache}.
+     * @param rep the representation
+     * @param fields the selected fields
+     * @return the copy
+     */
+    private static Representation copy(Representation rep, Set<String> fields) {
+        Representation copy = InMemoryValueFactory.getInstance().createRepresentation(rep.getId());
+        for(Iterator<String> it = rep.getFieldNames(); it.hasNext();){
+            String field = it.next();
+            if(fields.contains(field)){
+                for(Iterator<Object> values = rep.get(field); values.hasNext();){
+                    copy.add(field, values.next());
+                }
+            }
+        }
+        return copy;
+    }
+    /**
+     * Dereferences the parsed ids by using the {@link #dereferenceExecutor}
+     * (if available)
+     * @param ids the ids to dereference
+     * @return the dereferenced representations by id
+     * @throws SiteException if the dereferencing of any id fails
+     */
+    private Map<String,Representation> dereference(List<String> ids) throws SiteException {
+        Map<String,Representation> reps = new LinkedHashMap<String,Representation>(ids.size());
+        ExecutorService executor = this.dereferenceExecutor;
+        if (executor == null || ids.size() < 2) {
+            for(String id : ids){
+                Representation rep = dereference(id);
+                if(rep != null){
+                    reps.put(id, rep);
+                }
+            }
+            return reps;
+        }
+        Map<String,Future<Representation>> futures = new LinkedHashMap<String,Future<Representation>>(ids.size());
+        try {
+            for(final String id : ids){
+                Future<Representation> future;
+                try {
+                    future = executor.submit(new Callable<Representation>() {
+                        @Override
+                        public Representation call() throws SiteException {
+                            return dereference(id);
+                        }
+                    });
+                } catch (RejectedExecutionException e) { //executor was shut down
+                    Representation rep = dereference(id);
+                    if(rep != null){
+                        reps.put(id, rep);
+                    }
+                    continue;
+                }
+                futures.put(id, future);
+            }
+            for(Entry<String,Future<Representation>> entry : futures.entrySet()){
+                Representation rep = entry.getValue().get();
+                if(rep != null){
+                    reps.put(entry.getKey(), rep);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SiteException(String.format("Interrupted while dereferencing Entities %s "
+                + "from remote site %s", ids, siteConfiguration.getAccessUri()), e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof SiteException){
+                throw (SiteException)e.getCause();
+            } else {
+                throw new SiteException(String.format("Unable to dereference Entities %s from "
+                    + "remote site %s", ids, siteConfiguration.getAccessUri()), e.getCause());
+            }
+        } finally { //cancel remaining requests in case of an error
+            for(Future<Representation> future : futures.values()){
+                future.cancel(false);
+            }
+        }
+        return reps;
+    }
+
+    private Representation dereference(String id) throws SiteException {
+        try {
+            return dereferencer.dereference(id);
+        } catch (IOException e) {
+            throw new SiteException(String.format(
+                "Unable to load Representation for entity %s form remote site %s with dereferencer %s",
+                id, siteConfiguration.getAccessUri(), siteConfiguration.getEntityDereferencerType()), e);
+        }
+    }
+
     @Override
     public SiteConfiguration getConfiguration() {
         return siteConfiguration;
@@ -0,0 +1,445 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryRepresentation;
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.yard.Cache;
+import org.apache.stanbol.entityhub.servicesapi.yard.CacheStrategy;
+
+/**
+ * On-heap cache for {@link Representation}s used by the {@link ReferencedSiteImpl}
+ * in front of its {@link Cache} (L1 cache). A hit avoids the query to the
+ * {@link Cache} (and the creation of the {@link Representation} from the
+ * results of that query).
+ * <p>
+ * Representations are stored as private snapshots. {@link #get(String)}
+ * returns a copy of the snapshot so that callers can not change the cached
+ * state.
+ * <p>
+ * The cache is bounded by the weight of the cached Representations (the
+ * number of values). The eviction follows W-TinyLFU: new entries are added to
+ * a small LRU window. Entries evicted from the window are only admitted
+ * to the main LRU region if they were accessed more frequently as the entry
+ * they would replace. Access frequencies are estimated by a Count-Min sketch
+ * with 4 bit counters that are halved periodically. The cache is split in
+ * {@link #SEGMENTS} segments with their own lock.
+ * <p>
+ * Entries expire after the configured time to live. See
+ * {@link #getDefaultTimeToLive(CacheStrategy)} for the defaults.
+ */
+public final class RepresentationCache {
+
+    private static final int SEGMENTS = 16;
+    /**
+     * The percentage of the weight used by the window
+     */
+    private static final int WINDOW_PERCENT = 1;
+
+    private final Segment[] segments;
+    private final long maxWeight;
+    private final long timeToLive;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * Creates a new cache
+     * @param maxWeight the maximum weight (number of values of all cached
+     * Representations)
+     * @param timeToLive the time to live of cached entries or a value &lt;= 0
+     * if entries do not expire
+     * @param unit the unit of the time to live
+     */
+    public RepresentationCache(long maxWeight, long timeToLive, TimeUnit unit) {
+        if(maxWeight < SEGMENTS){
+            throw new IllegalArgumentException("The maximum weight MUST BE >= " + SEGMENTS);
+        }
+        this.maxWeight = maxWeight;
+        this.timeToLive = timeToLive > 0 ? unit.toMillis(timeToLive) : -1;
+        this.segments = new Segment[SEGMENTS];
+        for(int i = 0; i < SEGMENTS; i++){
+            segments[i] = new Segment(maxWeight / SEGMENTS);
+        }
+    }
+    /**
+     * The default time to live of cached Representations based on the
+     * {@link CacheStrategy} of the site:<ul>
+     * <li> {@link CacheStrategy#all}: 1 hour as the {@link Cache} does not
+     * change at runtime
+     * <li> {@link CacheStrategy#used}: 10 minutes
+     * <li> {@link CacheStrategy#none}: 1 minute as Representations are
+     * dereferenced from the remote site
+     * </ul>
+     * @param strategy the cache strategy
+     * @return the time to live in milliseconds
+     */
+    public static long getDefaultTimeToLive(CacheStrategy strategy) {
+        if(strategy == null){
+            strategy = CacheStrategy.none;
+        }
+        switch (strategy) {
+            case all:
+                return TimeUnit.HOURS.toMillis(1);
+            case used:
+                return TimeUnit.MINUTES.toMillis(10);
+            default:
+                return TimeUnit.MINUTES.toMillis(1);
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> 28) & (SEGMENTS - 1)];
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    /**
+     * Getter for a copy of the cached Representation
+     * @param id the id
+     * @return the copy or <code>null</code> if not cached or expired
+     */
+    public Representation get(String id) {
+        if(id == null){
+            return null;
+        }
+        int hash = hash(id);
+        InMemoryRepresentation rep = segmentFor(hash).get(id, hash, System.currentTimeMillis());
+        if(rep == null){
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        try {
+            return (Representation)rep.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Unable to clone InMemoryRepresentation",e);
+        }
+    }
+    /**
+     * Adds a snapshot of the parsed representation to the cache
+     * @param rep the representation
+     */
+    public void put(Representation rep) {
+        if(rep == null){
+            return;
+        }
+        InMemoryRepresentation snapshot = (InMemoryRepresentation)
+                InMemoryValueFactory.getInstance().createRepresentation(rep.getId());
+        int weight = 1;
+        for(Iterator<String> fields = rep.getFieldNames(); fields.hasNext();){
+            String field = fields.next();
+            for(Iterator<Object> values = rep.get(field); values.hasNext();){
+                snapshot.add(field, values.next());
+                weight++;
+            }
+        }
+        long expires = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : Long.MAX_VALUE;
+        int hash = hash(rep.getId());
+        segmentFor(hash).put(rep.getId(), hash, new Node(snapshot, weight, expires));
+    }
+    /**
+     * Removes the representation with the parsed id from the cache
+     * @param id the id
+     */
+    public void invalidate(String id) {
+        if(id != null){
+            int hash = hash(id);
+            segmentFor(hash).remove(id);
+        }
+    }
+    /**
+     * Removes all entries. Statistics are not reset
+     */
+    public void clear() {
+        for(Segment segment : segments){
+            segment.clear();
+        }
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+    /**
+     * @return the time to live in milliseconds or <code>-1</code> if entries
+     * do not expire
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+    /**
+     * @return the number of cached Representations
+     */
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments){
+            size += segment.size();
+        }
+        return size;
+    }
+    /**
+     * @return the weight of all cached Representations
+     */
+    public long getWeight() {
+        long weight = 0;
+        for(Segment segment : segments){
+            weight += segment.getWeight();
+        }
+        return weight;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+    /**
+     * @return the number of entries evicted because of the size limit
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+    /**
+     * @return the number of entries removed because they were expired
+     */
+    public long getExpirations() {
+        return expirations.get();
+    }
+    /**
+     * @return the number of Representations not admitted to the cache
+     */
+    public long getRejections() {
+        return rejections.get();
+    }
+    /**
+     * @return the ratio of lookups answered by the cache or <code>0</code> if
+     * no lookup was performed
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long requests = h + misses.get();
+        return requests == 0 ? 0 : (double)h / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RepresentationCache [size: %d | weight: %d/%d | hits: %d | misses: %d | "
+            + "hit-rate: %.1f%% | evictions: %d | expirations: %d | rejections: %d]",
+            size(), getWeight(), maxWeight, getHits(), getMisses(), getHitRate() * 100,
+            getEvictions(), getExpirations(), getRejections());
+    }
+
+    private static final class Node {
+        final InMemoryRepresentation rep;
+        final int weight;
+        final long expires;
+
+        Node(InMemoryRepresentation rep, int weight, long expires) {
+            this.rep = rep;
+            this.weight = weight;
+            this.expires = expires;
+        }
+    }
+    /**
+     * A segment with a LRU window, a LRU main region and the frequency
+     * sketch used for the admission to the main region.
+     */
+    private final class Segment {
+
+        private final long windowMaxWeight;
+        private final long mainMaxWeight;
+        private final LinkedHashMap<String,Node> window = new LinkedHashMap<String,Node>(16, 0.75f, true);
+        private final LinkedHashMap<String,Node> main = new LinkedHashMap<String,Node>(16, 0.75f, true);
+        private long windowWeight;
+        private long mainWeight;
+        private final FrequencySketch sketch;
+
+        Segment(long maxWeight) {
+            windowMaxWeight = Math.max(1, maxWeight * WINDOW_PERCENT / 100);
+            mainMaxWeight = Math.max(1, maxWeight - windowMaxWeight);
+            //assume an average weight of 16 values per Representation
+            sketch = new FrequencySketch((int)Math.min(1 << 20, Math.max(64, maxWeight / 16)));
+        }
+
+        synchronized InMemoryRepresentation get(String id, int hash, long now) {
+            sketch.increment(hash);
+            Node node = window.get(id);
+            boolean inWindow = node != null;
+            if(node == null){
+                node = main.get(id);
+            }
+            if(node == null){
+                return null;
+            }
+            if(node.expires <= now){
+                if(inWindow){
+                    window.remove(id);
+                    windowWeight -= node.weight;
+                } else {
+                    main.remove(id);
+                    mainWeight -= node.weight;
+                }
+                expirations.incrementAndGet();
+                return null;
+            }
+            return node.rep;
+        }
+
+        synchronized void put(String id, int hash, Node node) {
+            sketch.increment(hash);
+            remove(id);
+            if(node.weight > mainMaxWeight){
+                rejections.incrementAndGet();
+                return;
+            }
+            window.put(id, node);
+            windowWeight += node.weight;
+            while(windowWeight > windowMaxWeight && !window.isEmpty()){
+                Iterator<Entry<String,Node>> it = window.entrySet().iterator();
+                Entry<String,Node> candidate = it.next();
+                it.remove();
+                windowWeight -= candidate.getValue().weight;
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+        /**
+         * Adds a candidate evicted from the window to the main region if
+         * its frequency is higher as the one of the LRU entry of the main
+         * region
+         */
+        private void admit(String id, Node candidate) {
+            long now = System.currentTimeMillis();
+            boolean compared = false;
+            Iterator<Entry<String,Node>> it = main.entrySet().iterator();
+            while(mainWeight + candidate.weight > mainMaxWeight && it.hasNext()){
+                Entry<String,Node> victim = it.next();
+                if(victim.getValue().expires <= now){
+                    expirations.incrementAndGet();
+                } else if(!compared){
+                    compared = true;
+                    if(sketch.frequency(hash(victim.getKey())) >= sketch.frequency(hash(id))){
+                        rejections.incrementAndGet();
+                        return;
+                    }
+                    evictions.incrementAndGet();
+                } else {
+                    evictions.incrementAndGet();
+                }
+                it.remove();
+                mainWeight -= victim.getValue().weight;
+            }
+            main.put(id, candidate);
+            mainWeight += candidate.weight;
+        }
+
+        synchronized void remove(String id) {
+            Node node = window.remove(id);
+            if(node != null){
+                windowWeight -= node.weight;
+            }
+            node = main.remove(id);
+            if(node != null){
+                mainWeight -= node.weight;
+            }
+        }
+
+        synchronized void clear() {
+            window.clear();
+            main.clear();
+            windowWeight = 0;
+            mainWeight = 0;
+        }
+
+        synchronized int size() {
+            return window.size() + main.size();
+        }
+
+        synchronized long getWeight() {
+            return windowWeight + mainWeight;
+        }
+    }
+    /**
+     * Count-Min sketch with 4 bit counters (stored in bytes) and a depth of
+     * four. Counters are halved after <code>10 * width</code> increments so
+     * that the frequencies adapt to changes in the workload. Not thread safe.
+     */
+    private static final class FrequencySketch {
+
+        private static final int[] SEEDS = new int[]{0x97CB3127, 0xB3A7C5E1, 0x2545F491, 0x9E3779B9};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int width) {
+            int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+            table = new byte[SEEDS.length][size];
+            mask = size - 1;
+            sampleSize = 10 * size;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash + SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        void increment(int hash) {
+            for(int row = 0; row < table.length; row++){
+                int i = index(hash, row);
+                if(table[row][i] < MAX_COUNT){
+                    table[row][i]++;
+                }
+            }
+            if(++additions >= sampleSize){
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for(int row = 0; row < table.length; row++){
+                frequency = Math.min(frequency, table[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for(byte[] row : table){
+                for(int i = 0; i < row.length; i++){
+                    row[i] = (byte)(row[i] >>> 1);
+                }
+            }
+            additions = additions / 2;
+        }
+    }
+}
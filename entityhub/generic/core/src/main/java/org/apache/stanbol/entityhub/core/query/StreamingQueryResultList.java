@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+
+/**
+ * {@link QueryResultList} that does not hold the results in memory but
+ * consumes them lazily from the parsed {@link Iterator} (e.g. one that
+ * pages through the results of a query).<p>
+ * Results can only be iterated once. Use {@link #peek()} and
+ * {@link #isEmpty()} to inspect the first result without consuming it.
+ * Calling {@link #results()} or {@link #size()} before {@link #iterator()}
+ * reads all remaining results into memory (as {@link QueryResultListImpl}
+ * does). Calling them after {@link #iterator()} results in an
+ * {@link IllegalStateException}.<p>
+ * Errors while fetching results are thrown as {@link RuntimeException}s by
+ * the iterator.<p>
+ * This class is not thread safe.
+ *
+ * @param <T> the type of the results
+ */
+public class StreamingQueryResultList<T> implements QueryResultList<T> {
+
+    private final FieldQuery query;
+    private final Class<T> type;
+    /**
+     * The source of the results. <code>null</code> after all results
+     * were {@link #materialised}
+     */
+    private Iterator<T> source;
+    /**
+     * Results read from the source but not yet returned by the iterator
+     */
+    private final LinkedList<T> buffer = new LinkedList<T>();
+    /**
+     * All results if {@link #results()} or {@link #size()} was called before
+     * {@link #iterator()}
+     */
+    private List<T> materialised;
+    /**
+     * If the results were already iterated
+     */
+    private boolean consumed;
+    /**
+     * If at least a single result was read from the source
+     */
+    private boolean hasResults;
+
+    /**
+     * Creates a streaming QueryResultList
+     * @param query the query
+     * @param results the lazily evaluated results. <code>null</code> elements
+     * are ignored.
+     * @param type the type of the results
+     * @throws IllegalArgumentException if the parsed type is <code>null</code>
+     */
+    public StreamingQueryResultList(FieldQuery query, Iterator<T> results, Class<T> type) {
+        if(type == null){
+            throw new IllegalArgumentException("The type of the results MUST NOT be NULL");
+        }
+        this.query = query;
+        this.type = type;
+        this.source = results == null ? Collections.<T>emptyList().iterator() : results;
+    }
+
+    @Override
+    public final FieldQuery getQuery() {
+        return query;
+    }
+
+    @Override
+    public final Set<String> getSelectedFields() {
+        return query.getSelectedFields();
+    }
+
+    @Override
+    public final Class<T> getType() {
+        return type;
+    }
+    /**
+     * Getter for the first result without consuming it
+     * @return the first result or <code>null</code> if the result list is empty
+     * @throws IllegalStateException if the results where already iterated
+     */
+    public T peek() {
+        if(materialised != null){
+            return materialised.isEmpty() ? null : materialised.get(0);
+        }
+        checkNotConsumed();
+        return fill() ? buffer.getFirst() : null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if(materialised != null){
+            return materialised.isEmpty();
+        }
+        return !(hasResults || fill());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if(materialised != null){
+            return materialised.iterator();
+        }
+        checkNotConsumed();
+        consumed = true;
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return fill();
+            }
+            @Override
+            public T next() {
+                if(!fill()){
+                    throw new NoSuchElementException();
+                }
+                return buffer.removeFirst();
+            }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Results are read-only");
+            }
+        };
+    }
+    /**
+     * Reads all results into memory.
+     * @throws IllegalStateException if the results where already iterated
+     */
+    @Override
+    public Collection<T> results() {
+        return materialise();
+    }
+    /**
+     * Reads all results into memory to determine the size.
+     * @throws IllegalStateException if the results where already iterated
+     */
+    @Override
+    public int size() {
+        return materialise().size();
+    }
+    /**
+     * If the results are streamed (<code>true</code>) or were already read
+     * into memory (<code>false</code>)
+     * @return the state
+     */
+    public boolean isStreaming() {
+        return materialised == null;
+    }
+
+    private List<T> materialise() {
+        if(materialised == null){
+            checkNotConsumed();
+            List<T> results = new ArrayList<T>(buffer);
+            buffer.clear();
+            while(source.hasNext()){
+                T result = source.next();
+                if(result != null){
+                    results.add(result);
+                }
+            }
+            source = null;
+            materialised = Collections.unmodifiableList(results);
+        }
+        return materialised;
+    }
+    /**
+     * Ensures that the {@link #buffer} contains the next result
+     * @return <code>true</code> if a next result is available
+     */
+    private boolean fill() {
+        while(buffer.isEmpty() && source.hasNext()){
+            T result = source.next();
+            if(result != null){
+                buffer.add(result);
+                hasResults = true;
+            }
+        }
+        return !buffer.isEmpty();
+    }
+
+    private void checkNotConsumed() {
+        if(consumed){
+            throw new IllegalStateException("The results of this streaming "
+                + "QueryResultList where already consumed!");
+        }
+    }
+}
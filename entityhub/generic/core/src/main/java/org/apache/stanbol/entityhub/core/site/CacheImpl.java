@@ -17,6 +17,10 @@
 package org.apache.stanbol.entityhub.core.site;
 
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.ConfigurationPolicy;
 import org.apache.felix.scr.annotations.Properties;
@@ -217,6 +221,12 @@ public class CacheImpl implements Cache {
         return yard.getRepresentation(id);
     }
 
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields)
+            throws YardException, IllegalArgumentException {
+        return yard.getRepresentations(ids, fields);
+    }
+
     @Override
     public ValueFactory getValueFactory() {
         return yard.getValueFactory();
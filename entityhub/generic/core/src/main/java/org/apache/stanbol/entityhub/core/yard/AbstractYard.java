@@ -16,8 +16,12 @@
  */
 package org.apache.stanbol.entityhub.core.yard;
 
+import java.util.Collection;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Properties;
@@ -220,6 +224,30 @@ public abstract class AbstractYard implements Yard {
     protected String getUriPrefix(){
         return defaultPrefix;
     }
+    /**
+     * Default implementation that calls {@link #getRepresentation(String)}
+     * for all parsed ids and ignores the parsed fields. Subclasses are
+     * encouraged to override this to retrieve all Representations with a
+     * single request.
+     * @see Yard#getRepresentations(Collection, Set)
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields)
+            throws YardException, IllegalArgumentException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed ids MUST NOT be NULL!");
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty() && !representations.containsKey(id)){
+                Representation rep = getRepresentation(id);
+                if(rep != null){
+                    representations.put(id, rep);
+                }
+            }
+        }
+        return representations;
+    }
     protected final YardConfig getConfig() {
         return config;
     }
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.core.site.ReferencedSiteConfigurationImpl;
+import org.apache.stanbol.entityhub.servicesapi.model.Entity;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
+import org.apache.stanbol.entityhub.servicesapi.site.EntityDereferencer;
+import org.apache.stanbol.entityhub.servicesapi.site.ReferencedSiteConfiguration;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteException;
+import org.apache.stanbol.entityhub.servicesapi.yard.Cache;
+import org.apache.stanbol.entityhub.servicesapi.yard.CacheStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.cm.ConfigurationException;
+
+/**
+ * Tests the retrieval of multiple entities with
+ * {@link ReferencedSiteImpl#getEntities(Collection, Set)}
+ */
+public class ReferencedSiteImplTest {
+
+    private static final String FIELD = "http://www.example.org/field";
+    private static final String OTHER_FIELD = "http://www.example.org/other";
+    private static final String PREFIX = "http://www.example.org/entity/";
+    /**
+     * Entities that are known by the remote site
+     */
+    private static final int NUM_REMOTE = 600;
+
+    private ExecutorService executor;
+    private TestCache cache;
+    private TestDereferencer dereferencer;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(4);
+        cache = new TestCache();
+        dereferencer = new TestDereferencer();
+    }
+
+    @After
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static Representation create(String id, String value) {
+        Representation rep = InMemoryValueFactory.getInstance().createRepresentation(id);
+        rep.add(FIELD, value);
+        return rep;
+    }
+
+    private static ReferencedSiteConfiguration createConfig(CacheStrategy strategy)
+            throws ConfigurationException {
+        Dictionary<String,Object> config = new Hashtable<String,Object>();
+        config.put(ReferencedSiteConfiguration.ID, "test");
+        config.put(ReferencedSiteConfiguration.ACCESS_URI, "http://www.example.org/sparql");
+        config.put(ReferencedSiteConfiguration.ENTITY_DEREFERENCER_TYPE, TestDereferencer.class.getName());
+        config.put(ReferencedSiteConfiguration.CACHE_STRATEGY, strategy.name());
+        config.put(ReferencedSiteConfiguration.CACHE_ID, "testCache");
+        return new ReferencedSiteConfigurationImpl(config);
+    }
+
+    private ReferencedSiteImpl createSite(CacheStrategy strategy, RepresentationCache entityCache)
+            throws ConfigurationException {
+        return new ReferencedSiteImpl(createConfig(strategy), dereferencer, null,
+            cache.getCache(), null, executor, entityCache);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetEntitiesWithNull() throws Exception {
+        createSite(CacheStrategy.used, null).getEntities(null, null);
+    }
+
+    /**
+     * Requests more entities as fit into a single VALUES query including
+     * duplicates, <code>null</code> as well as ids that are neither cached
+     * nor known by the remote site.
+     */
+    @Test
+    public void testGetEntities() throws Exception {
+        ReferencedSiteImpl site = createSite(CacheStrategy.used, null);
+        for (int i = 0; i < NUM_REMOTE; i = i + 2) { //every 2nd entity is cached
+            cache.representations.put(PREFIX + i, create(PREFIX + i, "cached " + i));
+        }
+        List<String> ids = new ArrayList<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < NUM_REMOTE + 50; i++) { //the last 50 are unknown
+            ids.add(PREFIX + i);
+            if (i < NUM_REMOTE) {
+                expected.add(PREFIX + i);
+            }
+        }
+        ids.add(null);
+        ids.add("");
+        ids.addAll(new ArrayList<String>(ids.subList(0, 100))); //add some duplicates
+
+        Map<String,Entity> entities = site.getEntities(ids, null);
+        assertEquals(expected, new ArrayList<String>(entities.keySet()));
+        for (int i = 0; i < NUM_REMOTE; i++) {
+            Entity entity = entities.get(PREFIX + i);
+            assertNotNull(entity);
+            assertEquals(PREFIX + i, entity.getRepresentation().getId());
+            String prefix = i % 2 == 0 ? "cached " : "remote ";
+            assertEquals(prefix + i, entity.getRepresentation().getFirst(FIELD));
+            assertEquals(Boolean.TRUE, entity.getMetadata().getFirst(RdfResourceEnum.isChached.getUri()));
+        }
+        //a single request to the Cache
+        assertEquals(1, cache.getRequests.get());
+        //every missing entity is dereferenced exactly once
+        for (int i = 0; i < NUM_REMOTE + 50; i++) {
+            AtomicInteger count = dereferencer.requests.get(PREFIX + i);
+            if (i % 2 == 0 && i < NUM_REMOTE) {
+                assertNull("cached entity " + i + " was dereferenced", count);
+            } else {
+                assertNotNull("missing entity " + i + " was not dereferenced", count);
+                assertEquals(1, count.get());
+            }
+        }
+        //dereferenced entities are stored to the Cache with a single request
+        assertEquals(1, cache.storeRequests.get());
+        assertEquals(NUM_REMOTE, cache.representations.size());
+
+        //a second call only dereferences the entities unknown to the remote site
+        dereferencer.requests.clear();
+        entities = site.getEntities(ids, null);
+        assertEquals(expected, new ArrayList<String>(entities.keySet()));
+        assertEquals(2, cache.getRequests.get());
+        assertEquals(50, dereferencer.requests.size());
+        assertEquals(1, cache.storeRequests.get());
+    }
+
+    /**
+     * Entities present in the {@link RepresentationCache} MUST NOT be
+     * requested from the {@link Cache}
+     */
+    @Test
+    public void testGetEntitiesWithEntityCache() throws Exception {
+        RepresentationCache entityCache = new RepresentationCache(1000000, -1, TimeUnit.SECONDS);
+        ReferencedSiteImpl site = createSite(CacheStrategy.used, entityCache);
+        for (int i = 0; i < 10; i++) {
+            cache.representations.put(PREFIX + i, create(PREFIX + i, "cached " + i));
+        }
+        entityCache.put(create(PREFIX + 0, "cached 0"));
+        entityCache.put(create(PREFIX + 1, "cached 1"));
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(PREFIX + i);
+        }
+        Map<String,Entity> entities = site.getEntities(ids, null);
+        assertEquals(ids, new ArrayList<String>(entities.keySet()));
+        assertEquals(18, cache.requestedIds.size());
+        assertFalse(cache.requestedIds.contains(PREFIX + 0));
+        assertFalse(cache.requestedIds.contains(PREFIX + 1));
+        assertEquals(10, dereferencer.requests.size());
+        //now all entities are in the entity cache
+        cache.requestedIds.clear();
+        dereferencer.requests.clear();
+        entities = site.getEntities(ids, null);
+        assertEquals(ids, new ArrayList<String>(entities.keySet()));
+        assertTrue(cache.requestedIds.isEmpty());
+        assertTrue(dereferencer.requests.isEmpty());
+    }
+
+    /**
+     * No remote requests if all entities are in the Cache
+     */
+    @Test
+    public void testGetEntitiesCacheStrategyAll() throws Exception {
+        ReferencedSiteImpl site = createSite(CacheStrategy.all, null);
+        cache.representations.put(PREFIX + 0, create(PREFIX + 0, "cached 0"));
+        List<String> ids = new ArrayList<String>();
+        ids.add(PREFIX + 1);
+        ids.add(PREFIX + 0);
+        Map<String,Entity> entities = site.getEntities(ids, null);
+        assertEquals(1, entities.size());
+        assertNotNull(entities.get(PREFIX + 0));
+        assertTrue(dereferencer.requests.isEmpty());
+    }
+
+    /**
+     * Dereferenced entities are projected to the selected fields while the
+     * {@link Cache} and the {@link RepresentationCache} store the complete
+     * Representations
+     */
+    @Test
+    public void testGetEntitiesWithFields() throws Exception {
+        RepresentationCache entityCache = new RepresentationCache(1000000, -1, TimeUnit.SECONDS);
+        ReferencedSiteImpl site = createSite(CacheStrategy.used, entityCache);
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(PREFIX + i);
+        }
+        Map<String,Entity> entities = site.getEntities(ids, Collections.singleton(FIELD));
+        assertEquals(ids, new ArrayList<String>(entities.keySet()));
+        for (int i = 0; i < 10; i++) {
+            Representation rep = entities.get(PREFIX + i).getRepresentation();
+            assertEquals("remote " + i, rep.getFirst(FIELD));
+            assertNull(rep.getFirst(OTHER_FIELD));
+            assertEquals("other " + i, cache.representations.get(PREFIX + i).getFirst(OTHER_FIELD));
+            assertEquals("other " + i, entityCache.get(PREFIX + i).getFirst(OTHER_FIELD));
+        }
+    }
+
+    @Test(expected = SiteException.class)
+    public void testGetEntitiesDereferenceError() throws Exception {
+        ReferencedSiteImpl site = createSite(CacheStrategy.used, null);
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(PREFIX + i);
+        }
+        ids.add(TestDereferencer.ERROR_ID);
+        site.getEntities(ids, null);
+    }
+
+    /**
+     * {@link EntityDereferencer} that counts the requests per id
+     */
+    private static class TestDereferencer implements EntityDereferencer {
+
+        static final String ERROR_ID = "http://www.example.org/error";
+
+        private final ConcurrentMap<String,AtomicInteger> requests =
+                new ConcurrentHashMap<String,AtomicInteger>();
+
+        @Override
+        public String getAccessUri() {
+            return "http://www.example.org/sparql";
+        }
+
+        @Override
+        public boolean canDereference(String uri) {
+            return true;
+        }
+
+        @Override
+        public InputStream dereference(String uri, String contentType) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Representation dereference(String uri) throws IOException {
+            AtomicInteger count = requests.putIfAbsent(uri, new AtomicInteger(1));
+            if (count != null) {
+                count.incrementAndGet();
+            }
+            if (ERROR_ID.equals(uri)) {
+                throw new IOException("Test Exception");
+            }
+            int index = Integer.parseInt(uri.substring(PREFIX.length()));
+            if (index >= NUM_REMOTE) {
+                return null;
+            }
+            Representation rep = create(uri, "remote " + index);
+            rep.add(OTHER_FIELD, "other " + index);
+            return rep;
+        }
+    }
+
+    /**
+     * {@link Cache} that keeps Representations in memory and only supports
+     * {@link Cache#getRepresentations(Collection, Set)} and
+     * {@link Cache#store(Iterable)}
+     */
+    private static class TestCache implements InvocationHandler {
+
+        private final Map<String,Representation> representations =
+                new ConcurrentHashMap<String,Representation>();
+        private final List<String> requestedIds = new ArrayList<String>();
+        private final AtomicInteger getRequests = new AtomicInteger();
+        private final AtomicInteger storeRequests = new AtomicInteger();
+
+        Cache getCache() {
+            return (Cache) Proxy.newProxyInstance(Cache.class.getClassLoader(),
+                new Class<?>[] {Cache.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getRepresentations".equals(name)) {
+                getRequests.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                Collection<String> ids = (Collection<String>) args[0];
+                Map<String,Representation> found = new LinkedHashMap<String,Representation>();
+                for (String id : ids) {
+                    requestedIds.add(id);
+                    Representation rep = representations.get(id);
+                    if (rep != null) {
+                        found.put(id, create(id, (String) rep.getFirst(FIELD))); // a copy
+                    }
+                }
+                return found;
+            } else if ("store".equals(name) && args[0] instanceof Iterable) {
+                storeRequests.incrementAndGet();
+                List<Representation> stored = new ArrayList<Representation>();
+                for (Object rep : (Iterable<?>) args[0]) {
+                    representations.put(((Representation) rep).getId(), (Representation) rep);
+                    stored.add((Representation) rep);
+                }
+                return stored;
+            } else if ("getId".equals(name)) {
+                return "testCache";
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            } else if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("toString".equals(name)) {
+                return "TestCache";
+            }
+            throw new UnsupportedOperationException(method.toString());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.junit.Test;
+
+public class RepresentationCacheTest {
+
+    private static final String FIELD = "http://www.example.org/field";
+
+    private static Representation create(String id, int values) {
+        Representation rep = InMemoryValueFactory.getInstance().createRepresentation(id);
+        for(int i = 0; i < values; i++){
+            rep.add(FIELD, "value " + i);
+        }
+        return rep;
+    }
+
+    @Test
+    public void testCopyOnRead() {
+        RepresentationCache cache = new RepresentationCache(1000, -1, TimeUnit.SECONDS);
+        Representation rep = create("urn:test:1", 3);
+        cache.put(rep);
+        rep.add(FIELD, "not cached");
+        Representation cached = cache.get("urn:test:1");
+        assertNotNull(cached);
+        assertEquals("urn:test:1", cached.getId());
+        cached.removeAll(FIELD);
+        cached = cache.get("urn:test:1");
+        assertNotNull(cached.getFirst(FIELD));
+        int count = 0;
+        for(Iterator<Object> it = cached.get(FIELD); it.hasNext(); it.next()){
+            count++;
+        }
+        assertEquals(3, count);
+        assertNull(cache.get("urn:test:2"));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        RepresentationCache cache = new RepresentationCache(1000, 10, TimeUnit.MILLISECONDS);
+        cache.put(create("urn:test:1", 1));
+        Thread.sleep(50);
+        assertNull(cache.get("urn:test:1"));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testWeightBound() {
+        RepresentationCache cache = new RepresentationCache(1600, -1, TimeUnit.SECONDS);
+        for(int i = 0; i < 1000; i++){
+            cache.put(create("urn:test:" + i, 9));
+            assertTrue(cache.getWeight() <= 1600);
+        }
+        assertTrue(cache.getEvictions() + cache.getRejections() > 0);
+        //Representations heavier as a segment are not cached
+        cache.put(create("urn:test:heavy", 1000));
+        assertNull(cache.get("urn:test:heavy"));
+    }
+
+    @Test
+    public void testFrequentEntriesAreKept() {
+        RepresentationCache cache = new RepresentationCache(1600, -1, TimeUnit.SECONDS);
+        for(int i = 0; i < 10; i++){
+            cache.put(create("urn:hot:" + i, 9));
+        }
+        for(int round = 0; round < 20; round++){
+            for(int i = 0; i < 10; i++){
+                cache.get("urn:hot:" + i);
+            }
+            //scan over entities that are used only once
+            for(int i = 0; i < 100; i++){
+                cache.put(create("urn:cold:" + round + "-" + i, 9));
+            }
+        }
+        for(int i = 0; i < 10; i++){
+            assertNotNull(cache.get("urn:hot:" + i));
+        }
+    }
+}
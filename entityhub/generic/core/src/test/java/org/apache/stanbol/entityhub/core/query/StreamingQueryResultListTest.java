@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StreamingQueryResultListTest {
+
+    /**
+     * Iterator that counts the number of consumed elements
+     */
+    private static class CountingIterator implements Iterator<String> {
+        private final Iterator<String> it;
+        int consumed = 0;
+        CountingIterator(String...values){
+            it = Arrays.asList(values).iterator();
+        }
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+        @Override
+        public String next() {
+            consumed++;
+            return it.next();
+        }
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    public void testLazyIteration() {
+        CountingIterator source = new CountingIterator("a",null,"b","c");
+        StreamingQueryResultList<String> list = 
+                new StreamingQueryResultList<String>(null, source, String.class);
+        assertEquals(0, source.consumed);
+        assertFalse(list.isEmpty());
+        assertEquals("a", list.peek());
+        assertEquals(1, source.consumed);
+        Iterator<String> it = list.iterator();
+        assertEquals("a", it.next());
+        assertEquals(1, source.consumed);
+        assertEquals("b", it.next()); //null values are skipped
+        assertEquals(3, source.consumed);
+        assertEquals("c", it.next());
+        assertFalse(it.hasNext());
+        assertFalse(list.isEmpty());
+        assertTrue(list.isStreaming());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testSingleIteration() {
+        StreamingQueryResultList<String> list = new StreamingQueryResultList<String>(
+                null, new CountingIterator("a","b"), String.class);
+        list.iterator().next();
+        list.iterator();
+    }
+
+    @Test
+    public void testMaterialise() {
+        StreamingQueryResultList<String> list = new StreamingQueryResultList<String>(
+                null, new CountingIterator("a","b","c"), String.class);
+        assertEquals("a", list.peek());
+        assertEquals(3, list.size());
+        assertFalse(list.isStreaming());
+        List<String> results = new ArrayList<String>();
+        for(String result : list){
+            results.add(result);
+        }
+        for(String result : list){ //materialised lists can be iterated several times
+            results.add(result);
+        }
+        assertEquals(Arrays.asList("a","b","c","a","b","c"), results);
+    }
+
+    @Test
+    public void testEmpty() {
+        StreamingQueryResultList<String> list = new StreamingQueryResultList<String>(
+                null, Collections.<String>emptyList().iterator(), String.class);
+        assertTrue(list.isEmpty());
+        assertNull(list.peek());
+        assertFalse(list.iterator().hasNext());
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapper;
@@ -120,6 +121,23 @@ public interface Entityhub {
      * @throws EntityhubException On any error while performing the operation
      */
     Entity getEntity(String entityId) throws IllegalArgumentException, EntityhubException;
+    /**
+     * Getter for several Entities managed by the Entityhub. Same as
+     * {@link #getEntity(String)} but allows to retrieve all Entities with
+     * a single request to the Entityhub {@link Yard}. <code>null</code> and
+     * empty ids are ignored.
+     * @param entityIds the IDs of the locally managed Entities
+     * @param fields if not <code>null</code> the representations of the
+     * returned entities are only required to contain values for the parsed
+     * fields. <code>null</code> to request all fields.
+     * @return the found Entities by id in the iteration order of the parsed
+     * ids. IDs that do not represent a locally managed Entity are not
+     * contained in the returned map.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as
+     * entityIds
+     * @throws EntityhubException On any error while performing the operation
+     */
+    Map<String,Entity> getEntities(Collection<String> entityIds, Set<String> fields) throws IllegalArgumentException, EntityhubException;
     /**
      * Imports an Entity from a referenced site to the Entityhub. If there is 
      * already an Entity present for the parsed reference, than this Method throws an
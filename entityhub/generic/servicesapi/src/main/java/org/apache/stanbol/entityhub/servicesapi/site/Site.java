@@ -17,6 +17,8 @@
 package org.apache.stanbol.entityhub.servicesapi.site;
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
@@ -109,6 +111,22 @@ public interface Site {
      * Sites are usually IOExceptions.
      */
     Entity getEntity(String id) throws SiteException;
+    /**
+     * Getter for the Entities with the parsed ids. Allows implementations
+     * to lookup all Entities with a single request to the {@link Cache} and
+     * to dereference Entities not present in the cache in parallel.
+     * <code>null</code> and empty ids are ignored.
+     * @param ids the ids of the entities
+     * @param fields if not <code>null</code> the representations of the
+     * returned entities are only required to contain values for the parsed
+     * fields. <code>null</code> to request all fields.
+     * @return the found entities by id in the iteration order of the parsed
+     * ids. Entities that are not found are not contained in the returned map.
+     * @throws SiteException If the request can not be executed both on
+     * the {@link Cache} and by using the {@link EntityDereferencer} accessing
+     * the remote site.
+     */
+    Map<String,Entity> getEntities(Collection<String> ids, Set<String> fields) throws SiteException;
     /**
      * Getter for the Content of the Entity
      * @param id the id of the Entity
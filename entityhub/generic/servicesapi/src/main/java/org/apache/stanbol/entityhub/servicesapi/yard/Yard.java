@@ -16,6 +16,10 @@
  */
 package org.apache.stanbol.entityhub.servicesapi.yard;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
@@ -182,6 +186,24 @@ public interface Yard {
      */
     Representation getRepresentation(String id) throws YardException, IllegalArgumentException;
 
+    /**
+     * Getter for the representations with the parsed ids. In contrast to
+     * calling {@link #getRepresentation(String)} for every id this allows
+     * implementations to retrieve all representations with a single request.
+     * <code>null</code> and empty ids are ignored.
+     *
+     * @param ids the ids
+     * @param fields if not <code>null</code> the returned representations are
+     * only required to contain the values of the parsed fields. Implementations
+     * MAY return additional fields. <code>null</code> to request all fields.
+     * @return the found representations by id in the iteration order of the
+     * parsed ids. Ids of representations not present in the Yard are not
+     * contained in the returned map.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as ids
+     * @throws YardException On any error related to the Yard
+     */
+    Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields) throws YardException, IllegalArgumentException;
+
     /**
      * Updates the store with the new state of the parsed representation
      *
@@ -24,12 +24,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.apache.stanbol.entityhub.test.Utils.asCollection;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -299,6 +301,90 @@ public abstract class YardTest {
 
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRepresentationsWithNull() throws YardException {
+        getYard().getRepresentations(null, null);
+    }
+
+    /**
+     * Tests that {@link Yard#getRepresentations(Collection, Set)} returns the
+     * same Representations as {@link Yard#getRepresentation(String)} in the
+     * order of the parsed ids, ignores <code>null</code>, empty and duplicate
+     * ids and does not contain entries for ids not present in the Yard.
+     *
+     * @throws YardException
+     */
+    @Test
+    public void testGetRepresentations() throws YardException {
+        String id1 = "urn:yard.test.testGetRepresentations:representation.id1";
+        String id2 = "urn:yard.test.testGetRepresentations:representation.id2";
+        String missing = "urn:yard.test.testGetRepresentations:representation.missing";
+        String field = "urn:the.field:used.for.this.Test";
+        String field2 = "urn:the.field:used.for.this.Test2";
+        Yard yard = getYard();
+        Representation test1 = create(id1, false);
+        test1.add(field, "test value 1");
+        test1.add(field2, "other value 1");
+        Representation test2 = create(id2, false);
+        test2.add(field, "test value 2");
+        yard.store(Arrays.asList(test1, test2));
+
+        Map<String,Representation> reps = yard.getRepresentations(
+            Arrays.asList(id2, missing, null, "", id1, id2), null);
+        assertNotNull(reps);
+        assertEquals(Arrays.asList(id2, id1), new ArrayList<String>(reps.keySet()));
+        assertEquals(yard.getRepresentation(id1), reps.get(id1));
+        assertEquals("test value 1", reps.get(id1).getFirst(field));
+        assertEquals("other value 1", reps.get(id1).getFirst(field2));
+        assertEquals("test value 2", reps.get(id2).getFirst(field));
+        assertFalse(reps.containsKey(missing));
+        //the returned Representations MUST NOT be the stored ones
+        reps.get(id1).removeAll(field);
+        assertEquals("test value 1", yard.getRepresentation(id1).getFirst(field));
+
+        //selected fields MUST BE contained
+        reps = yard.getRepresentations(Arrays.asList(id1), Collections.singleton(field));
+        assertEquals(1, reps.size());
+        assertEquals("test value 1", reps.get(id1).getFirst(field));
+
+        //no ids and only missing ids
+        assertTrue(yard.getRepresentations(Collections.<String>emptyList(), null).isEmpty());
+        assertTrue(yard.getRepresentations(Arrays.asList(missing), null).isEmpty());
+    }
+
+    /**
+     * Tests {@link Yard#getRepresentations(Collection, Set)} with more ids
+     * than implementations typically send with a single request
+     *
+     * @throws YardException
+     */
+    @Test
+    public void testGetManyRepresentations() throws YardException {
+        String prefix = "urn:yard.test.testGetManyRepresentations:representation.id";
+        String field = "urn:the.field:used.for.this.Test";
+        Yard yard = getYard();
+        List<Representation> stored = new ArrayList<Representation>();
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 600; i++) {
+            String id = prefix + i;
+            ids.add(id);
+            if (i % 3 != 0) { // every 3rd id is missing
+                Representation rep = create(id, false);
+                rep.add(field, "value " + i);
+                stored.add(rep);
+            }
+        }
+        yard.store(stored);
+        Map<String,Representation> reps = yard.getRepresentations(ids, null);
+        assertEquals(stored.size(), reps.size());
+        Iterator<String> foundIds = reps.keySet().iterator();
+        for (Representation rep : stored) {
+            assertEquals(rep.getId(), foundIds.next());
+            assertEquals(rep, reps.get(rep.getId()));
+            assertEquals(rep.getFirst(field), reps.get(rep.getId()).getFirst(field));
+        }
+    }
+
     @Test
     public void testIsRepresentation() throws YardException {
         String id = "urn:yard.test.testIsRepresentation:representation.id";
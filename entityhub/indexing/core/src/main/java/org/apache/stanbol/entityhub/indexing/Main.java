@@ -45,6 +45,13 @@ public final class Main {
         options.addOption("c","chunksize",true, 
             String.format("the number of documents stored to the Yard in one chunk (default: %s)",
                 Indexer.DEFAULT_CHUNK_SIZE));
+        options.addOption("t","threads",true, 
+            "the number of threads used to process entities. Overrides the "
+            + "'processorThreads' of the indexing.properties (default: 1, "
+            + "values <= 0 use the number of available processors)");
+        options.addOption("r","resume",false, 
+            "resumes an interrupted indexing process from the last checkpoint "
+            + "(requires the 'checkpointInterval' to be set in the indexing.properties)");
     }
     /**
      * @param args
@@ -77,6 +84,12 @@ public final class Main {
                 int cunckSize = Integer.parseInt(line.getOptionValue('c'));
                 indexer.setChunkSize(cunckSize);
             }
+            if(line.hasOption('t')){
+                indexer.setProcessorThreads(Integer.parseInt(line.getOptionValue('t')));
+            }
+            if(line.hasOption('r')){
+                indexer.setResume(true);
+            }
             if("index".equalsIgnoreCase(args[0])){
                 indexer.index();
             } else if("postprocess".equalsIgnoreCase(args[0])){
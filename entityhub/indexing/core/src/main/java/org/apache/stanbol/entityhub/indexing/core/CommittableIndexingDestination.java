@@ -0,0 +1,35 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core;
+
+import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
+
+/**
+ * Optional interface for {@link IndexingDestination}s that do not persist
+ * stored entities immediately (e.g. because of lazy commits). Required to
+ * write indexing checkpoints that allow to resume an interrupted indexing
+ * process.
+ */
+public interface CommittableIndexingDestination extends IndexingDestination {
+
+    /**
+     * Ensures that all entities stored to the {@link #getYard() Yard} until
+     * now are persisted.
+     * @throws YardException on any error while committing
+     */
+    void commit() throws YardException;
+}
@@ -16,6 +16,8 @@
 */
 package org.apache.stanbol.entityhub.indexing.core;
 
+import java.io.File;
+
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 
@@ -96,6 +98,92 @@ public interface Indexer {
      */
     int getChunkSize();
 
+    /**
+     * Setter for the number of threads used to process entities with the
+     * configured {@link EntityProcessor}s. Parsing values &lt;= 0 results in
+     * the number of available processors to be used. Using multiple threads
+     * requires all configured {@link EntityProcessor}s to be thread safe.
+     * @param threads the number of threads
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setProcessorThreads(int threads) throws IllegalStateException;
+
+    /**
+     * Getter for the number of threads used to process entities
+     * @return the number of processor threads
+     */
+    int getProcessorThreads();
+
+    /**
+     * Setter for the number of threads used to store processed entities to
+     * the {@link Yard}. Parsing values &lt;= 0 results in the number of
+     * available processors to be used.
+     * @param threads the number of threads
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setPersisterThreads(int threads) throws IllegalStateException;
+
+    /**
+     * Getter for the number of threads used to store entities
+     * @return the number of persister threads
+     */
+    int getPersisterThreads();
+
+    /**
+     * Setter for the file used to store indexing checkpoints. Checkpoints are
+     * only written if the file is not <code>null</code> and the 
+     * {@link #setCheckpointInterval(int) checkpoint interval} is &gt; 0.
+     * @param file the checkpoint file or <code>null</code> to deactivate
+     * checkpoints
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#UNINITIALISED}
+     */
+    void setCheckpointFile(File file) throws IllegalStateException;
+
+    /**
+     * Getter for the file used to store indexing checkpoints
+     * @return the checkpoint file or <code>null</code> if none
+     */
+    File getCheckpointFile();
+
+    /**
+     * Setter for the number of indexed entities between two checkpoints. On
+     * every checkpoint the {@link CommittableIndexingDestination} is committed
+     * and the position within the indexing source is written to the
+     * {@link #getCheckpointFile() checkpoint file}. Values &lt;= 0 deactivate
+     * checkpoints.
+     * @param interval the number of entities
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setCheckpointInterval(int interval) throws IllegalStateException;
+
+    /**
+     * Getter for the number of indexed entities between two checkpoints
+     * @return the checkpoint interval. Values &lt;= 0 indicate that
+     * checkpoints are deactivated
+     */
+    int getCheckpointInterval();
+
+    /**
+     * Setter for the resume mode. If enabled the indexer reads the last
+     * checkpoint and skips all entities that where already indexed by the
+     * interrupted indexing process. Resuming requires the indexing source
+     * to provide the entities in the same order.
+     * @param resume the state
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#UNINITIALISED}
+     */
+    void setResume(boolean resume) throws IllegalStateException;
+
+    /**
+     * Getter for the resume mode
+     * @return the state
+     */
+    boolean isResume();
+
     /**
      * Getter for the Yard used to store the indexed entities.
      * @return the yard
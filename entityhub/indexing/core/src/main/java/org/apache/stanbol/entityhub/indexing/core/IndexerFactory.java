@@ -165,6 +165,10 @@ public final class IndexerFactory {
             "configure an EntityIterator and an EntityDataProvider");
             throw new IllegalArgumentException("Invalid Indexing Source configuration");
         }
+        indexer.setProcessorThreads(config.getProcessorThreads());
+        indexer.setPersisterThreads(config.getPersisterThreads());
+        indexer.setCheckpointInterval(config.getCheckpointInterval());
+        indexer.setCheckpointFile(config.getCheckpointFile());
         return indexer;
     }
 
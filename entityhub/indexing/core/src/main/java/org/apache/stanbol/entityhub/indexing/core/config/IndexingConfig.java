@@ -91,6 +91,7 @@ public class IndexingConfig {
     private static final String DEFAULT_INDEX_FIELD_CONFIG_FILE_NAME = "indexFieldConfig.txt";
     
     public static final String DEFAULT_INDEXED_ENTITIES_ID_FILE_NAME = "indexed-entities-ids.zip";
+    public static final String DEFAULT_CHECKPOINT_FILE_NAME = "indexing-checkpoint.properties";
     
     /**
      * This stores the context within the classpath to initialise missing
@@ -795,6 +796,60 @@ public class IndexingConfig {
         }
     	return failOnError;
     }
+    /**
+     * Getter for the number of threads used to process Entities as configured
+     * by the {@link IndexingConstants#KEY_PROCESSOR_THREADS}.
+     * @return the number of threads. <code>1</code> if not configured.
+     */
+    public int getProcessorThreads(){
+        return getThreads(IndexingConstants.KEY_PROCESSOR_THREADS);
+    }
+    /**
+     * Getter for the number of threads used to store Entities as configured
+     * by the {@link IndexingConstants#KEY_PERSISTER_THREADS}.
+     * @return the number of threads. <code>1</code> if not configured.
+     */
+    public int getPersisterThreads(){
+        return getThreads(IndexingConstants.KEY_PERSISTER_THREADS);
+    }
+    /**
+     * Getter for the number of indexed Entities between two checkpoints as
+     * configured by the {@link IndexingConstants#KEY_CHECKPOINT_INTERVAL}.
+     * @return the checkpoint interval. <code>0</code> if not configured.
+     */
+    public int getCheckpointInterval(){
+        Object value = configuration.get(IndexingConstants.KEY_CHECKPOINT_INTERVAL);
+        if(value == null || value.toString().trim().isEmpty()){
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value '"+value+"' of the '"
+                + IndexingConstants.KEY_CHECKPOINT_INTERVAL + "' property is not a valid integer!",e);
+        }
+    }
+    /**
+     * The file used to store indexing checkpoints
+     * @return the checkpoint file within the {@link #getDestinationFolder()}
+     */
+    public File getCheckpointFile(){
+        return new File(getDestinationFolder(),DEFAULT_CHECKPOINT_FILE_NAME);
+    }
+    private int getThreads(String key){
+        Object value = configuration.get(key);
+        if(value == null || value.toString().trim().isEmpty()){
+            return 1;
+        }
+        int threads;
+        try {
+            threads = Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value '"+value+"' of the '"
+                + key + "' property is not a valid integer!",e);
+        }
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
     /**
      * The {@link ScoreNormaliser} as configured by the {@link IndexingConstants#KEY_SCORE_NORMALIZER}
      * by the main indexing configuration.
@@ -49,5 +49,26 @@ public interface IndexingConstants {
     String KEY_ENTITY_PROCESSOR      = "entityProcessor";
     String KEY_ENTITY_POST_PROCESSOR = "entityPostProcessor";
     String KEY_FAIL_ON_ERROR_LOADING_RESOURCE = "failOnErrorLoadingResource";
+    /**
+     * The number of threads used to process Entities with the configured
+     * {@link #KEY_ENTITY_PROCESSOR entity processors} (and
+     * {@link #KEY_ENTITY_POST_PROCESSOR post processors}). Values &lt;= 0
+     * use the number of available processors. If not present a single thread
+     * is used. Using multiple threads requires all configured processors to
+     * be thread safe.
+     */
+    String KEY_PROCESSOR_THREADS = "processorThreads";
+    /**
+     * The number of threads used to store processed Entities to the
+     * {@link #KEY_INDEXING_DESTINATION indexing destination}. If not present
+     * a single thread is used.
+     */
+    String KEY_PERSISTER_THREADS = "persisterThreads";
+    /**
+     * The number of indexed Entities between two indexing checkpoints. 
+     * Checkpoints allow to resume an interrupted indexing process. If not 
+     * present or &lt;= 0 no checkpoints are written.
+     */
+    String KEY_CHECKPOINT_INTERVAL = "checkpointInterval";
 
 }
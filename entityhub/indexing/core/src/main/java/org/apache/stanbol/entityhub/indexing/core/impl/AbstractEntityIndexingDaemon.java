@@ -19,6 +19,7 @@ package org.apache.stanbol.entityhub.indexing.core.impl;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SCORE_FIELD;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_COMPLETE;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_DURATION;
+import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_OFFSET;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_STARTED;
 
 import java.util.concurrent.BlockingQueue;
@@ -29,6 +30,16 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 
 public abstract class AbstractEntityIndexingDaemon extends IndexingDaemon<Object,Representation> {
 
+    /**
+     * The position of the current entity within the iteration over the
+     * indexing source
+     */
+    private long offset = -1;
+    /**
+     * The number of entities skipped because they where already completed
+     * by a previous indexing run
+     */
+    private long resumed;
     
     protected AbstractEntityIndexingDaemon(String name,
                                            BlockingQueue<QueueItem<Representation>> produce,
@@ -37,6 +48,38 @@ public abstract class AbstractEntityIndexingDaemon extends IndexingDaemon<Object
             IndexerConstants.SEQUENCE_NUMBER_SOURCE_DAEMON,
             null,produce, error);
     }
+    /**
+     * Needs to be called by subclasses for every entity returned by the
+     * indexing source.
+     * @return <code>false</code> if the entity was already completed by a
+     * previous indexing run and needs to be skipped.
+     */
+    protected final boolean nextEntity(){
+        offset++;
+        IndexingCheckpoint checkpoint = getCheckpoint();
+        if(checkpoint != null && checkpoint.isCompleted(offset)){
+            resumed++;
+            if(resumed == 1){
+                log.info("Resume indexing: skip already indexed Entities ...");
+            }
+            return false;
+        } else {
+            if(resumed > 0 && resumed == offset){
+                log.info("  ... skipped {} already indexed Entities",resumed);
+            }
+            return true;
+        }
+    }
+    /**
+     * Needs to be called by subclasses for entities that are not indexed
+     * (e.g. because of their score)
+     */
+    protected final void skipped(){
+        IndexingCheckpoint checkpoint = getCheckpoint();
+        if(checkpoint != null){
+            checkpoint.completed(offset);
+        }
+    }
     /**
      * Used to produce Representations by both variants of EnityIndexingDeamons
      * @param rep the {@link Representation} extracted from the 
@@ -45,6 +88,7 @@ public abstract class AbstractEntityIndexingDaemon extends IndexingDaemon<Object
      */
     protected final void produce(Representation rep,Float normalisedScore,Long started) {
         if(rep == null){
+            skipped();
             return;
         }
         //first set the score of the representation
@@ -54,6 +98,7 @@ public abstract class AbstractEntityIndexingDaemon extends IndexingDaemon<Object
         if(normalisedScore != null && normalisedScore.compareTo(ScoreNormaliser.ZERO) >= 0){
             item.setProperty(SCORE_FIELD, normalisedScore);
         }
+        item.setProperty(SOURCE_OFFSET, Long.valueOf(offset));
         item.setProperty(SOURCE_STARTED, started);
         Long completed = Long.valueOf(System.currentTimeMillis());
         item.setProperty(SOURCE_COMPLETE, completed);
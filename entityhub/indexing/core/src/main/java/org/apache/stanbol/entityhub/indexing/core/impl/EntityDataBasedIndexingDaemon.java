@@ -62,6 +62,9 @@ public class EntityDataBasedIndexingDaemon extends AbstractEntityIndexingDaemon
         while(dataIterator.hasNext()){
             Long start = Long.valueOf(System.currentTimeMillis());
             String id = dataIterator.next();
+            if(!nextEntity()){
+                continue; //already indexed by a previous run
+            }
             Representation rep = null;
             Float score;
             if(!scoreProvider.needsData()){
@@ -81,7 +84,9 @@ public class EntityDataBasedIndexingDaemon extends AbstractEntityIndexingDaemon
                     rep = dataIterator.getRepresentation();
                 }
                 produce(rep,score,start);
-            } // else ignore this entity
+            } else { //ignore this entity
+                skipped();
+            }
         }
         setFinished();
     }
@@ -38,6 +38,7 @@ public class EntityErrorLoggerDaemon extends IndexingDaemon<IndexingError,Object
                 IndexingError error = errorItem.getItem();
                 err.error(String.format("Error while indexing %s: %s",
                     error.getEntity(),error.getMessage()),error.getException());
+                completed(errorItem);
             }
         }
         setFinished();
@@ -55,6 +55,9 @@ public class EntityIdBasedIndexingDaemon extends AbstractEntityIndexingDaemon {
         while(entityIdIterator.hasNext()){
             Long start = Long.valueOf(System.currentTimeMillis());
             EntityScore entityScore = entityIdIterator.next();
+            if(!nextEntity()){
+                continue; //already indexed by a previous run
+            }
             Float score;
             if(normaliser != null){
                 score = normaliser.normalise(entityScore.score);
@@ -70,7 +73,9 @@ public class EntityIdBasedIndexingDaemon extends AbstractEntityIndexingDaemon {
                         new Object[]{entityScore.id,score,entityScore.score});
                 }
                 produce(rep,score,start);
-            } //else ignore this entity
+            } else { //ignore this entity
+                skipped();
+            }
         }
         setFinished();
     }
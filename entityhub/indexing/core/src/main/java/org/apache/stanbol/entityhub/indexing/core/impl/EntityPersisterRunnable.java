@@ -55,7 +55,8 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
             item = consume();
             if(item != null){
                 if(item.getItem() != null){
-                    toStore.put(item.getItem().getId(),item);
+                    //an entity might be present twice within the source
+                    completed(toStore.put(item.getItem().getId(),item));
                 }
             }
             if(toStore.size() >= chunkSize){
@@ -77,6 +77,7 @@ public class EntityProcessorRunnable extends IndexingDaemon<Representation,Repre
                 }
                 if(processed == null){
                     log.debug("Item {} filtered by processor {}",item.getItem().getId(),processor);
+                    completed(item);
                 } else {
                     log.trace("   - done");
                     for(String key : keys){
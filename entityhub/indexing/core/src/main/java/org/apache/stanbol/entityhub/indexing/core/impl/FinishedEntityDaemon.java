@@ -22,6 +22,7 @@ import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.S
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.STORE_DURATION;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
@@ -70,12 +71,43 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
      * The charset used for the {@link #idWriter}
      */
     private static final Charset UTF8 = Charset.forName("UTF-8");
-    
+    /**
+     * The number of IDs written by the {@link #idWriter}
+     */
+    private long writtenIds;
+    /**
+     * The number of finished entities between two checkpoints
+     */
+    private final int checkpointInterval;
+    /**
+     * Notified about checkpoints. <code>null</code> if checkpoints are
+     * deactivated.
+     */
+    private final CheckpointListener checkpointListener;
     
     public FinishedEntityDaemon(String name, BlockingQueue<QueueItem<Representation>> consume,
                                 int majorInterval, Logger out, OutputStream idOut) {
+        this(name, consume, majorInterval, out, idOut, 0, -1, null);
+    }
+    /**
+     * Creates a FinishedEntityDaemon that notifies the parsed listener every
+     * checkpointInterval finished entities.
+     * @param writtenIds the number of IDs already written to the parsed
+     * idOut stream (e.g. if the indexing is resumed)
+     * @param checkpointInterval the number of entities between two
+     * checkpoints. Values &lt;= 0 deactivate checkpoints
+     * @param checkpointListener the listener or <code>null</code> to
+     * deactivate checkpoints
+     */
+    public FinishedEntityDaemon(String name, BlockingQueue<QueueItem<Representation>> consume,
+                                int majorInterval, Logger out, OutputStream idOut,
+                                long writtenIds, int checkpointInterval,
+                                CheckpointListener checkpointListener) {
         super(name, IndexerConstants.SEQUENCE_NUMBER_FINISHED_DAEMON,
             consume, null, null);
+        this.writtenIds = writtenIds;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointListener = checkpointInterval > 0 ? checkpointListener : null;
         this.out = out;
         if(majorInterval > 0){
             this.major = majorInterval;
@@ -104,10 +136,11 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
                 if(idWriter != null && item.getItem() != null){
                     String id = item.getItem().getId();
                     try {
-                        if(count != 0){
+                        if(writtenIds != 0){
                             idWriter.newLine();
                         }
                         idWriter.write(id);
+                        writtenIds++;
                     } catch (Exception e){
                         log.error("Exception while logging ID of indexed Entity '"+id+"'!",e);
                     }
@@ -177,14 +210,36 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
                     countedMinor = 0;
                     startMinor = 0;
                 }
-                
+                completed(item);
+                if(checkpointListener != null && count%checkpointInterval == 0){
+                    checkpoint();
+                }
             }
         }
+        if(checkpointListener != null){
+            checkpoint();
+        }
         printSummary(current);
         IOUtils.closeQuietly(idWriter);
         setFinished();
     }
 
+    /**
+     * Flushes the IDs of indexed entities and notifies the
+     * {@link #checkpointListener}
+     */
+    private void checkpoint() {
+        if(idWriter != null){
+            try {
+                idWriter.flush();
+            } catch (IOException e) {
+                log.error("Unable to flush the IDs of indexed Entities -> skip checkpoint",e);
+                return;
+            }
+        }
+        checkpointListener.checkpoint(writtenIds);
+    }
+
     private void printMinor(long current) {
         long interval = current-start;
         long intervalMinor = current-startMinor;
@@ -240,4 +295,17 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
         
     }
 
+    /**
+     * Listener notified by the {@link FinishedEntityDaemon} about checkpoints.
+     * Called by the thread of the daemon after all IDs of finished entities
+     * have been flushed.
+     */
+    public static interface CheckpointListener {
+        /**
+         * @param writtenIds the number of IDs written to the file with the
+         * IDs of indexed entities.
+         */
+        void checkpoint(long writtenIds);
+    }
+
 }
@@ -46,6 +46,12 @@ public interface IndexerConstants {
      * ({@link Float})
      */
     String SOURCE_DURATION = "entity.source.duration";
+    /**
+     * Key used to store the position of the entity within the iteration
+     * over the indexing source ({@link Long}). Used to create 
+     * {@link IndexingCheckpoint}s
+     */
+    String SOURCE_OFFSET = "entity.source.offset";
     /**
      * Key used to store the time when the processing of the entity started
      */
@@ -18,12 +18,16 @@ package org.apache.stanbol.entityhub.indexing.core.impl;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.INDEXING_COMPLETED_QUEUE_ITEM;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SCORE_FIELD;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -47,6 +51,7 @@ import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.stanbol.entityhub.indexing.core.CommittableIndexingDestination;
 import org.apache.stanbol.entityhub.indexing.core.EntityDataIterable;
 import org.apache.stanbol.entityhub.indexing.core.EntityDataIterator;
 import org.apache.stanbol.entityhub.indexing.core.EntityDataProvider;
@@ -58,6 +63,7 @@ import org.apache.stanbol.entityhub.indexing.core.IndexingComponent;
 import org.apache.stanbol.entityhub.indexing.core.IndexingDestination;
 import org.apache.stanbol.entityhub.indexing.core.event.IndexingEvent;
 import org.apache.stanbol.entityhub.indexing.core.event.IndexingListener;
+import org.apache.stanbol.entityhub.indexing.core.impl.FinishedEntityDaemon.CheckpointListener;
 import org.apache.stanbol.entityhub.indexing.core.impl.IndexingDaemon.IndexingDaemonEventObject;
 import org.apache.stanbol.entityhub.indexing.core.impl.IndexingDaemon.IndexingDaemonListener;
 import org.apache.stanbol.entityhub.indexing.core.impl.IndexingSourceInitialiser.IndexingSourceEventObject;
@@ -68,6 +74,7 @@ import org.apache.stanbol.entityhub.indexing.core.source.LineBasedEntityIterator
 import org.apache.stanbol.entityhub.indexing.core.source.YardEntityDataProvider;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
+import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 /**
@@ -98,6 +105,14 @@ public class IndexerImpl implements Indexer {
 
     private int chunkSize;
     public static final int MIN_QUEUE_SIZE = 500;
+    /**
+     * The number of {@link EntityProcessorRunnable}s
+     */
+    private int processorThreads = 1;
+    /**
+     * The number of {@link EntityPersisterRunnable}s
+     */
+    private int persisterThreads = 1;
     
     private boolean indexAllEntitiesState = false;
     
@@ -129,6 +144,29 @@ public class IndexerImpl implements Indexer {
     private List<EntityProcessor> entityPostProcessors;
 
     private OutputStream indexedEntityIdOutputStream;
+    /**
+     * The number of IDs already written to the {@link #indexedEntityIdFile}
+     * (by an interrupted indexing process) when {@link #resume resuming}
+     */
+    private long indexedEntityIds;
+    /**
+     * The file used to store {@link IndexingCheckpoint}s or <code>null</code>
+     * if checkpoints are deactivated
+     */
+    private File checkpointFile;
+    /**
+     * The number of indexed entities between two checkpoints
+     */
+    private int checkpointInterval = -1;
+    /**
+     * If an interrupted indexing process is resumed
+     */
+    private boolean resume = false;
+    /**
+     * Tracks the completed entities. <code>null</code> if checkpoints are
+     * deactivated
+     */
+    private IndexingCheckpoint checkpoint;
     /**
      * The name of the index this indexer creates (used for logging)
      */
@@ -263,6 +301,61 @@ public class IndexerImpl implements Indexer {
     public int getChunkSize() {
         return chunkSize;
     }
+    @Override
+    public void setProcessorThreads(int threads) throws IllegalStateException {
+        if(getState().ordinal() >= State.INDEXING.ordinal()){
+            throw new IllegalStateException("Setting the number of processor threads is only allowed before starting the indexing process!");
+        }
+        this.processorThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+    @Override
+    public int getProcessorThreads() {
+        return processorThreads;
+    }
+    @Override
+    public void setPersisterThreads(int threads) throws IllegalStateException {
+        if(getState().ordinal() >= State.INDEXING.ordinal()){
+            throw new IllegalStateException("Setting the number of persister threads is only allowed before starting the indexing process!");
+        }
+        this.persisterThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+    @Override
+    public int getPersisterThreads() {
+        return persisterThreads;
+    }
+    @Override
+    public void setCheckpointFile(File file) throws IllegalStateException {
+        if(getState().ordinal() >= State.INITIALISING.ordinal()){
+            throw new IllegalStateException("Setting the checkpoint file is only allowed before initialising the indexing process!");
+        }
+        this.checkpointFile = file;
+    }
+    @Override
+    public File getCheckpointFile() {
+        return checkpointFile;
+    }
+    @Override
+    public void setCheckpointInterval(int interval) throws IllegalStateException {
+        if(getState().ordinal() >= State.INITIALISING.ordinal()){
+            throw new IllegalStateException("Setting the checkpoint interval is only allowed before initialising the indexing process!");
+        }
+        this.checkpointInterval = interval;
+    }
+    @Override
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+    @Override
+    public void setResume(boolean resume) throws IllegalStateException {
+        if(getState().ordinal() >= State.INITIALISING.ordinal()){
+            throw new IllegalStateException("Setting the resume mode is only allowed before initialising the indexing process!");
+        }
+        this.resume = resume;
+    }
+    @Override
+    public boolean isResume() {
+        return resume;
+    }
     /* (non-Javadoc)
      * @see org.apache.stanbol.entityhub.indexing.core.IndexerInterface#getYard()
      */
@@ -325,6 +418,8 @@ public class IndexerImpl implements Indexer {
                 }
             }
         }
+        //read the last checkpoint if resuming
+        initCheckpoint();
         //initialise the stream used to write the ids of indexed entities
         try {
             indexedEntityIdOutputStream = getEntityIdFileOutputStream();
@@ -441,7 +536,7 @@ public class IndexerImpl implements Indexer {
 
         //initialisation complete ... now setup the poet processing
         //init the queues
-        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2);
+        int queueSize = getQueueSize();
         BlockingQueue<QueueItem<Representation>> indexedEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<Representation>>(queueSize);
         BlockingQueue<QueueItem<Representation>> processedEntityQueue = 
@@ -455,8 +550,6 @@ public class IndexerImpl implements Indexer {
         final SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons = 
             new TreeSet<IndexingDaemon<?,?>>();
         //create the IndexingDaemos
-        //TODO: Here we would need to create multiple instances in case
-        //      one would e.g. like to use several threads for processing entities
         //(1) the daemon reading from the IndexingSources
         String entitySourceReaderName = name + ": post-processing: Entity Reader Deamon";
         activeIndexingDeamons.add(
@@ -467,25 +560,22 @@ public class IndexerImpl implements Indexer {
                 dataProvider, 
                 null, //no score normaliser
                 true)); //post-process all indexed entities
-        //(2) The daemon for post-processing the entities
-        activeIndexingDeamons.add(
-            new EntityProcessorRunnable(
-                name +": post-processing: Entity Processor Deamon",
-                indexedEntityQueue, //it consumes indexed Entities
-                processedEntityQueue,  //it produces processed Entities
-                errorEntityQueue,
-                entityPostProcessors, 
-                //TODO: check that the score is not overriden by the NULL
-                //      parsed by the used LineBasedEntityIterator!
-                Collections.singleton(SCORE_FIELD))); //ensure the score not changed
-        //(3) The daemon for persisting the entities
-        activeIndexingDeamons.add(
-            new EntityPersisterRunnable(
-                name + ": Entity Perstisting Deamon",
-                processedEntityQueue, //it consumes processed Entities
-                finishedEntityQueue, //it produces finished Entities
-                errorEntityQueue,
-                chunkSize, indexingDestination.getYard()));
+        //(2) The daemons for post-processing the entities
+        for(int i = 1; i <= processorThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityProcessorRunnable(
+                    name +": post-processing: Entity Processor Deamon"+getThreadSuffix(i, processorThreads),
+                    indexedEntityQueue, //it consumes indexed Entities
+                    processedEntityQueue,  //it produces processed Entities
+                    errorEntityQueue,
+                    entityPostProcessors, 
+                    //TODO: check that the score is not overriden by the NULL
+                    //      parsed by the used LineBasedEntityIterator!
+                    Collections.singleton(SCORE_FIELD))); //ensure the score not changed
+        }
+        //(3) The daemons for persisting the entities
+        addPersisterDaemons(activeIndexingDeamons, processedEntityQueue,
+            finishedEntityQueue, errorEntityQueue);
         //(4) The daemon for logging finished entities
         activeIndexingDeamons.add(
             new FinishedEntityDaemon(
@@ -507,6 +597,33 @@ public class IndexerImpl implements Indexer {
         
         setState(State.POSTPROCESSED);
     }
+    /**
+     * The size of the queues between the indexing daemons. Ensures that the
+     * queues can hold at least two chunks for each persister thread.
+     */
+    private int getQueueSize() {
+        return Math.max(MIN_QUEUE_SIZE, chunkSize*2*persisterThreads);
+    }
+    private static String getThreadSuffix(int i, int threads) {
+        return threads > 1 ? " #" + i : "";
+    }
+    /**
+     * Adds the {@link EntityPersisterRunnable}s to the parsed set of daemons
+     */
+    private void addPersisterDaemons(SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons,
+            BlockingQueue<QueueItem<Representation>> processedEntityQueue,
+            BlockingQueue<QueueItem<Representation>> finishedEntityQueue,
+            BlockingQueue<QueueItem<IndexingError>> errorEntityQueue) {
+        for(int i = 1; i <= persisterThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityPersisterRunnable(
+                    name + ": Entity Perstisting Deamon"+getThreadSuffix(i, persisterThreads),
+                    processedEntityQueue, //it consumes processed Entities
+                    finishedEntityQueue, //it produces finished Entities
+                    errorEntityQueue,
+                    chunkSize, indexingDestination.getYard()));
+        }
+    }
     /**
      * Internally used to start the indexing/post-processing daemons and wait
      * until they have finished.
@@ -612,8 +729,10 @@ public class IndexerImpl implements Indexer {
             setState(State.INDEXING);
             log.info("{}: indexing started ...",name);
         }
+        log.info("  - processor threads: {} | persister threads: {}",
+            processorThreads, persisterThreads);
         //init the queues
-        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2);
+        int queueSize = getQueueSize();
         BlockingQueue<QueueItem<Representation>> indexedEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<Representation>>(queueSize);
         BlockingQueue<QueueItem<Representation>> processedEntityQueue = 
@@ -627,8 +746,6 @@ public class IndexerImpl implements Indexer {
         final SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons = 
             new TreeSet<IndexingDaemon<?,?>>();
         //create the IndexingDaemos
-        //TODO: Here we would need to create multiple instances in case
-        //      one would e.g. like to use several threads for processing entities
         //(1) the daemon reading from the IndexingSources
         String entitySourceReaderName = name +": Entity Source Reader Deamon";
         if(entityIterator != null){
@@ -650,37 +767,50 @@ public class IndexerImpl implements Indexer {
                     scoreNormaliser,
                     indexAllEntitiesState));
         }
-        //(2) The daemon for processing the entities
-        activeIndexingDeamons.add(
-            new EntityProcessorRunnable(
-                name +": Entity Processor Deamon",
-                indexedEntityQueue, //it consumes indexed Entities
-                processedEntityQueue,  //it produces processed Entities
-                errorEntityQueue,
-                entityProcessors, 
-                Collections.singleton(SCORE_FIELD)));
-        //(3) The daemon for persisting the entities
-        activeIndexingDeamons.add(
-            new EntityPersisterRunnable(
-                name + ": Entity Perstisting Deamon",
-                processedEntityQueue, //it consumes processed Entities
-                finishedEntityQueue, //it produces finished Entities
-                errorEntityQueue,
-                chunkSize, indexingDestination.getYard()));
+        //(2) The daemons for processing the entities. Processed entities
+        //    are forwarded in the order they complete.
+        for(int i = 1; i <= processorThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityProcessorRunnable(
+                    name +": Entity Processor Deamon"+getThreadSuffix(i, processorThreads),
+                    indexedEntityQueue, //it consumes indexed Entities
+                    processedEntityQueue,  //it produces processed Entities
+                    errorEntityQueue,
+                    entityProcessors, 
+                    Collections.singleton(SCORE_FIELD)));
+        }
+        //(3) The daemons for persisting the entities
+        addPersisterDaemons(activeIndexingDeamons, processedEntityQueue,
+            finishedEntityQueue, errorEntityQueue);
         //(4) The daemon for logging finished entities
         activeIndexingDeamons.add(
             new FinishedEntityDaemon(
                 name + ": Finished Entity Logger Deamon",
-                finishedEntityQueue, -1, log, indexedEntityIdOutputStream));
+                finishedEntityQueue, -1, log, indexedEntityIdOutputStream,
+                indexedEntityIds, checkpointInterval, 
+                checkpoint == null ? null : new CheckpointListener() {
+                    @Override
+                    public void checkpoint(long writtenIds) {
+                        writeCheckpoint(writtenIds);
+                    }
+                }));
         //(5) The daemon for logging errors
         activeIndexingDeamons.add(
             new EntityErrorLoggerDaemon(
                 name +": Entity Error Logging Daemon",
                 errorEntityQueue, log));
+        if(checkpoint != null){
+            for(IndexingDaemon<?,?> daemon : activeIndexingDeamons){
+                daemon.setCheckpoint(checkpoint);
+            }
+        }
         //start indexing and wait until it has finished
         startAndWait(activeIndexingDeamons);
         //close the stream with IDs
         IOUtils.closeQuietly(indexedEntityIdOutputStream);
+        if(checkpoint != null){
+            completeCheckpoints();
+        }
         //call close on all indexing components
         for(EntityProcessor ep : entityProcessors){
             ep.close();
@@ -688,6 +818,104 @@ public class IndexerImpl implements Indexer {
         //set the new state to INDEXED
         setState(State.INDEXED);
     }
+    /**
+     * Initialises the {@link #checkpoint} if checkpoints are enabled. If
+     * {@link #resume resuming} the last checkpoint is read from the
+     * {@link #checkpointFile}.
+     */
+    private void initCheckpoint() {
+        if(checkpointFile == null || checkpointInterval <= 0){
+            if(resume){
+                log.warn("Unable to resume indexing because checkpoints are deactivated "
+                    + "-> all Entities will be indexed!");
+            }
+            return;
+        }
+        String source = entityIterator != null ? entityIterator.getClass().getName() :
+            dataIterable.getClass().getName();
+        IndexingCheckpoint last = null;
+        if(resume){
+            try {
+                last = IndexingCheckpoint.read(checkpointFile);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read indexing checkpoint "
+                    + checkpointFile + "!",e);
+            }
+            if(last == null){
+                log.warn("No indexing checkpoint present at {} -> all Entities will be indexed!",
+                    checkpointFile);
+            } else if(!source.equals(last.getSource())){
+                throw new IllegalStateException("Unable to resume indexing because the "
+                    + "checkpoint "+checkpointFile+" was created for the indexing source "
+                    + last.getSource() + " (current: "+source+")!");
+            } else {
+                log.info("Resume indexing from {}",last);
+            }
+        } else if(checkpointFile.isFile()){
+            log.info(" ... delete checkpoint {} of a previous indexing process",checkpointFile);
+            checkpointFile.delete();
+        }
+        if(!(indexingDestination instanceof CommittableIndexingDestination)){
+            log.warn("The IndexingDestination {} does not support commits. Checkpoints "
+                + "assume that stored Entities are persisted immediately!",
+                indexingDestination.getClass().getSimpleName());
+        }
+        checkpoint = last != null ? last : new IndexingCheckpoint(source);
+    }
+    /**
+     * Commits the {@link #indexingDestination} and writes the current state of
+     * the {@link #checkpoint} to the {@link #checkpointFile}. Called by the
+     * {@link FinishedEntityDaemon}.
+     * @param writtenIds the number of IDs written to the 
+     * {@link #indexedEntityIdFile}
+     */
+    private void writeCheckpoint(long writtenIds) {
+        //NOTE: the snapshot needs to be taken before the commit to ensure that
+        //      all completed entities are persisted.
+        IndexingCheckpoint snapshot = checkpoint.snapshot(writtenIds);
+        if(indexingDestination instanceof CommittableIndexingDestination){
+            try {
+                ((CommittableIndexingDestination)indexingDestination).commit();
+            } catch (YardException e) {
+                log.error("Unable to commit the IndexingDestination -> skip checkpoint",e);
+                return;
+            }
+        }
+        try {
+            snapshot.write(checkpointFile);
+            log.info("  - checkpoint: {}",snapshot);
+        } catch (IOException e) {
+            log.error("Unable to write indexing checkpoint to "+checkpointFile,e);
+        }
+    }
+    /**
+     * Called after all entities are indexed. Writes the IDs of the indexed
+     * entities to the {@link #indexedEntityIdFile} and deletes the
+     * {@link #checkpointFile} as resuming is no longer needed.
+     */
+    private void completeCheckpoints() {
+        if(indexedEntityIdFile != null){
+            File partFile = getPartialEntityIdFile();
+            InputStream in = null;
+            OutputStream out = null;
+            try {
+                in = new FileInputStream(partFile);
+                out = createEntityIdFileOutputStream();
+                IOUtils.copy(in, out);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to write the IDs of the indexed "
+                    + "Entities from "+partFile+" to "+indexedEntityIdFile,e);
+            } finally {
+                IOUtils.closeQuietly(in);
+                IOUtils.closeQuietly(out);
+            }
+            partFile.delete();
+        }
+        if(checkpointFile.isFile()){
+            log.info(" ... indexing completed: delete checkpoint {}",checkpointFile);
+            checkpointFile.delete();
+        }
+    }
     /**
      * Handles the necessary actions if an {@link IndexingDaemon} used for the
      * work done within {@link #indexEntities()} completes its work (meaning
@@ -810,6 +1038,19 @@ public class IndexerImpl implements Indexer {
                     + "indexed entity id file '"+indexedEntityIdFile+"' is not "
                     + "allowed for states > "+State.INITIALISED +" (current: "+state+")!");
         }
+        if(checkpoint != null){
+            return getPartialEntityIdFileOutputStream();
+        } else {
+            return createEntityIdFileOutputStream();
+        }
+    }
+    /**
+     * Creates a new {@link #indexedEntityIdFile} and opens an (compressed)
+     * stream to write the IDs of indexed entities.
+     * @return the stream
+     * @throws IOException on any error while creating the stream
+     */
+    private OutputStream createEntityIdFileOutputStream() throws IOException {
         if(indexedEntityIdFile.isFile()){//exists
             log.info(" ... delete existing IndexedEntityId file "+indexedEntityIdFile);
             indexedEntityIdFile.delete(); //delete existing data
@@ -827,6 +1068,60 @@ public class IndexerImpl implements Indexer {
         }
         return out;
     }
+    /**
+     * If checkpoints are enabled the IDs of indexed entities are written to
+     * this (uncompressed) file while indexing. This ensures that all IDs
+     * written before a checkpoint are available when resuming. 
+     * @return the file
+     */
+    private File getPartialEntityIdFile() {
+        return new File(indexedEntityIdFile.getPath()+".part");
+    }
+    /**
+     * Opens the stream to the {@link #getPartialEntityIdFile()}. If resuming
+     * the IDs written until the last checkpoint are kept. 
+     * @return the stream
+     * @throws IOException on any error while creating the stream
+     */
+    private OutputStream getPartialEntityIdFileOutputStream() throws IOException {
+        File partFile = getPartialEntityIdFile();
+        indexedEntityIds = 0;
+        long expected = checkpoint.getIndexedIds();
+        if(expected > 0 && partFile.isFile()){
+            //keep the IDs written before the last checkpoint
+            File tmp = new File(partFile.getPath()+".tmp");
+            BufferedReader reader = null;
+            BufferedWriter writer = null;
+            try {
+                reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(partFile), "UTF-8"));
+                writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(tmp), "UTF-8"));
+                String line;
+                while(indexedEntityIds < expected && (line = reader.readLine()) != null){
+                    if(indexedEntityIds != 0){
+                        writer.newLine();
+                    }
+                    writer.write(line);
+                    indexedEntityIds++;
+                }
+            } finally {
+                IOUtils.closeQuietly(reader);
+                IOUtils.closeQuietly(writer);
+            }
+            if(!partFile.delete() || !tmp.renameTo(partFile)){
+                throw new IOException("Unable to replace "+partFile+" with "+tmp);
+            }
+            log.info(" ... keep {} IDs of Entities indexed before the last checkpoint",
+                indexedEntityIds);
+        }
+        if(indexedEntityIds < expected){
+            log.warn("Only {} of {} IDs of Entities indexed before the last checkpoint "
+                + "are available in {}. Those Entities will not be post-processed!",
+                new Object[]{indexedEntityIds,expected,partFile});
+        }
+        return new FileOutputStream(partFile, indexedEntityIds > 0);
+    }
     /**
      * Opens a stream to read data from the {@link #indexedEntityIdFile}. 
      * Can only be called in {@link State}s later that {@link State#INDEXED}.
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.indexing.core.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Tracks the entities of the indexing source that are completed (persisted,
+ * filtered or failed) so that an interrupted indexing run can be resumed.<p>
+ * Entities are identified by their position within the iteration over the
+ * indexing source (see {@link IndexerConstants#SOURCE_OFFSET}). As entities
+ * are processed by several threads they do not complete in order. Because
+ * of that this class keeps a watermark (all offsets lower than it are
+ * completed) and the set of completed offsets above the watermark.<p>
+ * Instances are thread safe. Use {@link #snapshot(long)} to get a copy that
+ * can be {@link #write(File) written} to a file.
+ */
+public class IndexingCheckpoint {
+
+    private static final String KEY_WATERMARK = "watermark";
+    private static final String KEY_COMPLETED = "completed";
+    private static final String KEY_INDEXED_IDS = "indexedIds";
+    private static final String KEY_SOURCE = "source";
+    private static final String KEY_CREATED = "created";
+
+    /**
+     * All offsets &lt; the watermark are completed
+     */
+    private long watermark;
+    /**
+     * Completed offsets &gt; the watermark
+     */
+    private final SortedSet<Long> completed = new TreeSet<Long>();
+    /**
+     * The number of IDs written to the indexed entities file
+     */
+    private long indexedIds;
+    /**
+     * The name of the indexing source (only used for validation)
+     */
+    private final String source;
+
+    /**
+     * Creates a new checkpoint for the parsed source
+     * @param source the name of the indexing source. Typically the class
+     * name of the used EntityIterator or EntityDataIterable
+     */
+    public IndexingCheckpoint(String source){
+        this.source = source;
+    }
+
+    /**
+     * Marks the entity with the parsed offset as completed
+     * @param offset the offset of the entity within the indexing source
+     */
+    public synchronized void completed(long offset){
+        if(offset == watermark){
+            watermark++;
+            //move the watermark over already completed offsets
+            while(!completed.isEmpty() && completed.first().longValue() == watermark){
+                completed.remove(completed.first());
+                watermark++;
+            }
+        } else if(offset > watermark){
+            completed.add(offset);
+        } //else already completed
+    }
+    /**
+     * Checks if the entity with the parsed offset was already completed
+     * @param offset the offset of the entity within the indexing source
+     * @return the state
+     */
+    public synchronized boolean isCompleted(long offset){
+        return offset < watermark || completed.contains(offset);
+    }
+    /**
+     * Getter for the watermark. All entities with an offset lower than the
+     * returned value are completed
+     * @return the watermark
+     */
+    public synchronized long getWatermark(){
+        return watermark;
+    }
+    /**
+     * The offsets &gt; the {@link #getWatermark() watermark} that are
+     * already completed
+     * @return a read-only copy of the completed offsets
+     */
+    public synchronized SortedSet<Long> getCompleted(){
+        return Collections.unmodifiableSortedSet(new TreeSet<Long>(completed));
+    }
+    /**
+     * The number of IDs written to the file with the IDs of indexed entities
+     * at the time this checkpoint was created.
+     * @return the number of indexed IDs
+     */
+    public long getIndexedIds(){
+        return indexedIds;
+    }
+    /**
+     * @return the name of the source this checkpoint was created for
+     */
+    public String getSource(){
+        return source;
+    }
+    /**
+     * Creates a copy of the current state
+     * @param indexedIds the number of IDs written to the file with the IDs
+     * of the indexed entities
+     * @return the snapshot
+     */
+    public synchronized IndexingCheckpoint snapshot(long indexedIds){
+        IndexingCheckpoint snapshot = new IndexingCheckpoint(source);
+        snapshot.watermark = watermark;
+        snapshot.completed.addAll(completed);
+        snapshot.indexedIds = indexedIds;
+        return snapshot;
+    }
+    /**
+     * Writes the checkpoint to the parsed file. The data are first written
+     * to a temporary file that is renamed afterwards to ensure that an
+     * existing checkpoint is not lost if writing fails.
+     * @param file the file
+     * @throws IOException on any error while writing the file
+     */
+    public synchronized void write(File file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(KEY_WATERMARK, String.valueOf(watermark));
+        StringBuilder offsets = new StringBuilder();
+        for(Long offset : completed){
+            if(offsets.length() > 0){
+                offsets.append(',');
+            }
+            offsets.append(offset);
+        }
+        props.setProperty(KEY_COMPLETED, offsets.toString());
+        props.setProperty(KEY_INDEXED_IDS, String.valueOf(indexedIds));
+        if(source != null){
+            props.setProperty(KEY_SOURCE, source);
+        }
+        props.setProperty(KEY_CREATED, String.valueOf(System.currentTimeMillis()));
+        File tmp = new File(file.getPath()+".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tmp);
+            props.store(out, "Entityhub indexing checkpoint ("+new Date()+")");
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+        if(file.isFile() && !file.delete()){
+            throw new IOException("Unable to delete old checkpoint "+file);
+        }
+        if(!tmp.renameTo(file)){
+            throw new IOException("Unable to rename "+tmp+" to "+file);
+        }
+    }
+    /**
+     * Reads a checkpoint from the parsed file
+     * @param file the file
+     * @return the checkpoint or <code>null</code> if the parsed file does
+     * not exist
+     * @throws IOException on any error while reading the file
+     * @throws IllegalArgumentException if the file does not contain a valid
+     * checkpoint
+     */
+    public static IndexingCheckpoint read(File file) throws IOException {
+        if(!file.isFile()){
+            //the indexing might have stopped while replacing the checkpoint
+            file = new File(file.getPath()+".tmp");
+            if(!file.isFile()){
+                return null;
+            }
+        }
+        Properties props = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            props.load(in);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        IndexingCheckpoint checkpoint = new IndexingCheckpoint(props.getProperty(KEY_SOURCE));
+        try {
+            checkpoint.watermark = Long.parseLong(props.getProperty(KEY_WATERMARK, "0").trim());
+            checkpoint.indexedIds = Long.parseLong(props.getProperty(KEY_INDEXED_IDS, "0").trim());
+            for(String offset : props.getProperty(KEY_COMPLETED, "").split(",")){
+                if(!offset.trim().isEmpty()){
+                    checkpoint.completed.add(Long.valueOf(offset.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The file "+file
+                + " does not contain a valid indexing checkpoint!",e);
+        }
+        return checkpoint;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IndexingCheckpoint [source: %s | watermark: %d | completed: %d | indexedIds: %d]",
+            source, getWatermark(), getCompleted().size(), indexedIds);
+    }
+}
@@ -21,12 +21,14 @@ package org.apache.stanbol.entityhub.indexing.core.impl;
 
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.ERROR_TIME;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.INDEXING_COMPLETED_QUEUE_ITEM;
+import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_OFFSET;
 
 import java.util.Collections;
 import java.util.EventObject;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +49,17 @@ public abstract class IndexingDaemon<CI,PI> implements Comparable<IndexingDaemon
      * Used for {@link #compareTo(IndexingDaemon)}
      */
     private final Integer sequence;
+    private static final AtomicLong INSTANCE_COUNTER = new AtomicLong();
+    /**
+     * Used for {@link #compareTo(IndexingDaemon)} of daemons with the same
+     * {@link #sequence}
+     */
+    private final long instance = INSTANCE_COUNTER.incrementAndGet();
+    /**
+     * Used to track completed entities. <code>null</code> if checkpoints are
+     * not enabled.
+     */
+    private IndexingCheckpoint checkpoint;
     protected IndexingDaemon(String name,
                              Integer sequence,
                              BlockingQueue<QueueItem<CI>> consume,
@@ -100,6 +113,34 @@ public abstract class IndexingDaemon<CI,PI> implements Comparable<IndexingDaemon
         }
 
     }
+    /**
+     * Setter for the {@link IndexingCheckpoint} used to track completed
+     * entities. Needs to be called before this daemon is started.
+     * @param checkpoint the checkpoint or <code>null</code> to deactivate
+     */
+    final void setCheckpoint(IndexingCheckpoint checkpoint){
+        this.checkpoint = checkpoint;
+    }
+    /**
+     * @return the checkpoint or <code>null</code> if not enabled
+     */
+    protected final IndexingCheckpoint getCheckpoint(){
+        return checkpoint;
+    }
+    /**
+     * Marks the entity of the parsed item as completed. To be called for
+     * items that are not forwarded to the next daemon (e.g. because they
+     * where filtered or persisted).
+     * @param item the item
+     */
+    protected final void completed(QueueItem<?> item){
+        if(checkpoint != null && item != null){
+            Object offset = item.getProperty(SOURCE_OFFSET);
+            if(offset instanceof Long){
+                checkpoint.completed(((Long)offset).longValue());
+            }
+        }
+    }
     protected final void produce(QueueItem<PI> item){
         if(produce == null){
             log.warn("Unable to produce Items because produce queue is NULL!");
@@ -228,15 +269,9 @@ public abstract class IndexingDaemon<CI,PI> implements Comparable<IndexingDaemon
             //the ordering within the same sequence position is of no importance
             //but it is important to only return 0 if the two Objects are
             //equals because we will use this class together with SortedSets!
-            if(hashCode() == o.hashCode()){
-                if(equals(o)){
-                    return 0;
-                } else {
-                    return -1; //no idea if that is OK
-                }
-            } else {
-                return hashCode()-o.hashCode();
-            }
+            //NOTE: multiple daemons with the same sequence are used if
+            //      entities are processed/persisted by several threads
+            return instance < o.instance ? -1 : instance == o.instance ? 0 : 1;
         }
     }
 }
\ No newline at end of file
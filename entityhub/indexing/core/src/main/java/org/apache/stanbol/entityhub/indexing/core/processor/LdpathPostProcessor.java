@@ -17,10 +17,16 @@
 package org.apache.stanbol.entityhub.indexing.core.processor;
 
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.stanbol.entityhub.indexing.core.EntityProcessor;
 import org.apache.stanbol.entityhub.indexing.core.IndexingDestination;
 import org.apache.stanbol.entityhub.ldpath.EntityhubLDPath;
+import org.apache.stanbol.entityhub.ldpath.backend.SingleRepresentationBackend;
 import org.apache.stanbol.entityhub.ldpath.backend.YardBackend;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 
@@ -51,9 +57,34 @@ import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
  */
 public class LdpathPostProcessor extends LdpathProcessor implements EntityProcessor {
 
+    /**
+     * The number of threads parsed to the {@link YardBackend} to execute
+     * LDPath programs. Values &lt; 1 (the default) deactivate threaded
+     * evaluation.
+     */
+    public static final String PARAMETER_THREADS = "threads";
+
+    private int threads = 0;
+    /**
+     * The thread pool parsed to the {@link YardBackend} or <code>null</code>
+     * if none
+     */
+    private ThreadPoolExecutor threadPool;
+
     @Override
     public void setConfiguration(Map<String,Object> config) {
         super.setConfiguration(config);
+        Object value = config.get(PARAMETER_THREADS);
+        if(value instanceof Number){
+            threads = ((Number)value).intValue();
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                threads = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Unable to parse the number of threads from the "
+                    + "value '" + value +"' of the parameter '" + PARAMETER_THREADS +"'!", e);
+            }
+        }
     }
 
     @Override
@@ -71,6 +102,41 @@ public class LdpathPostProcessor extends LdpathProcessor implements EntityProces
         Yard yard = indexingConfig.getIndexingDestination().getYard();
         YardBackend backend = new YardBackend(yard);
         this.ldPath = new EntityhubLDPath(backend,yard.getValueFactory());
+        if(threads > 0 && threadPool == null){
+            final AtomicInteger threadCount = new AtomicInteger();
+            threadPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "LDPath post-processing #"+threadCount.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if(threadPool != null){
+            threadPool.shutdown();
+            threadPool = null;
+        }
+    }
+
+    /**
+     * Uses a {@link YardBackend} for the {@link IndexingDestination} as
+     * post-processing needs access to all indexed data.
+     */
+    @Override
+    protected EntityhubLDPath createLDPath(SingleRepresentationBackend backend) {
+        Yard yard = indexingConfig.getIndexingDestination().getYard();
+        YardBackend yardBackend = new YardBackend(yard);
+        //load the Entities selected by LDPath path steps with batched requests
+        yardBackend.setPrefetchSize(YardBackend.DEFAULT_PREFETCH_SIZE);
+        yardBackend.setThreadPool(threadPool);
+        return new EntityhubLDPath(yardBackend,yard.getValueFactory());
     }
 
 
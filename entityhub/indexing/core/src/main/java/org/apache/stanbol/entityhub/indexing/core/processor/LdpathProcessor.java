@@ -60,17 +60,46 @@ public class LdpathProcessor implements EntityProcessor{
     public static final boolean DEFAULT_APPEND_MODE = true;
 
     private final ValueFactory vf;
+    /**
+     * Used to parse the LDPath program
+     */
     protected EntityhubLDPath ldPath;
     private final SingleRepresentationBackend backend;
     private Program<Object> program;
     private boolean appendMode;
     protected IndexingConfig indexingConfig;
+    /**
+     * The {@link SingleRepresentationBackend} is not thread safe. Because of
+     * that each thread processing entities uses its own instance.
+     */
+    private final ThreadLocal<SingleRepresentationBackend> threadBackend = 
+            new ThreadLocal<SingleRepresentationBackend>(){
+        @Override
+        protected SingleRepresentationBackend initialValue() {
+            return new SingleRepresentationBackend(vf);
+        }
+    };
+    private final ThreadLocal<EntityhubLDPath> threadLdPath = new ThreadLocal<EntityhubLDPath>(){
+        @Override
+        protected EntityhubLDPath initialValue() {
+            return createLDPath(threadBackend.get());
+        }
+    };
     
     public LdpathProcessor(){
         vf = InMemoryValueFactory.getInstance();
         this.backend = new SingleRepresentationBackend(vf);
         this.ldPath = new EntityhubLDPath(backend);
     }
+    /**
+     * Creates the {@link EntityhubLDPath} instance used by a thread to
+     * process entities.
+     * @param backend the backend of the thread holding the processed entity
+     * @return the LDPath instance
+     */
+    protected EntityhubLDPath createLDPath(SingleRepresentationBackend backend){
+        return new EntityhubLDPath(backend);
+    }
     
     @Override
     public boolean needsInitialisation() {
@@ -90,8 +119,8 @@ public class LdpathProcessor implements EntityProcessor{
         if(source == null){
             return null;
         }
-        backend.setRepresentation(source);
-        Representation result = ldPath.execute(vf.createReference(source.getId()), program);
+        threadBackend.get().setRepresentation(source);
+        Representation result = threadLdPath.get().execute(vf.createReference(source.getId()), program);
         if(appendMode){
             Iterator<String> fields = result.getFieldNames();
             while(fields.hasNext()){
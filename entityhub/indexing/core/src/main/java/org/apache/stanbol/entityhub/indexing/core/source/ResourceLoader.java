@@ -31,6 +31,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -53,6 +57,10 @@ public class ResourceLoader {
      * parsed to the resource handler.
      */
     private boolean loadEntriesWithinZipArchives = true;
+    /**
+     * The number of resources loaded in parallel
+     */
+    private int threads = 1;
     public ResourceLoader(ResourceImporter resourceImporter,boolean failOnError) {
         this(resourceImporter,true,failOnError);
     }
@@ -80,6 +88,15 @@ public class ResourceLoader {
             }
         }
     }
+    /**
+     * Setter for the number of resources that are loaded in parallel. Values
+     * &gt; 1 require the {@link ResourceImporter} to be thread safe.
+     * @param threads the number of threads. Values &lt;= 0 use the number of
+     * available processors
+     */
+    public void setThreads(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
     /**
      * Adds a new {@link File} resource to this resource loader. In case a
      * directory is parsed, all files directly within this directory will be 
@@ -149,13 +166,52 @@ public class ResourceLoader {
             fileToLoad = getResources(ResourceState.REGISTERED);
             long start=System.currentTimeMillis();
             log.info("Loding {} File{} ...",fileToLoad.size(),fileToLoad.size()>1?"s":"");
-            for (String file : fileToLoad) {
-                loadResource(file);
+            if(threads > 1 && fileToLoad.size() > 1){
+                loadResources(fileToLoad);
+            } else {
+                for (String file : fileToLoad) {
+                    loadResource(file);
+                }
             }
             log.info(" ... {} files imported in {} seconds", 
                 fileToLoad.size(),(System.currentTimeMillis()-start)/1000);
         } while(!fileToLoad.isEmpty());
     }
+    /**
+     * Loads the parsed resources by using {@link #threads} threads
+     * @param fileToLoad the files to load
+     */
+    private void loadResources(Collection<String> fileToLoad) {
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(threads, fileToLoad.size()));
+        try {
+            Collection<Future<?>> futures = new ArrayList<Future<?>>(fileToLoad.size());
+            for (final String file : fileToLoad) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        loadResource(file);
+                    }
+                }));
+            }
+            for(Future<?> future : futures){
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("Interrupted while loading resources",e);
+                } catch (ExecutionException e) {
+                    //failOnError is signaled by an IllegalStateException
+                    if(e.getCause() instanceof RuntimeException){
+                        throw (RuntimeException)e.getCause();
+                    } else {
+                        throw new IllegalStateException("Unable to load resource",e.getCause());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
     /**
      * Loads a resource from a file
      * @param file the file resource
@@ -21,7 +21,9 @@ package org.apache.stanbol.entityhub.indexing.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
@@ -111,6 +113,18 @@ public class DummyIndexingDestination implements IndexingDestination {
             return IndexerTest.indexedData.get(id);
         }
         
+        @Override
+        public Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields) throws YardException, IllegalArgumentException {
+            Map<String,Representation> reps = new LinkedHashMap<String,Representation>();
+            for(String id : ids){
+                Representation rep = getRepresentation(id);
+                if(rep != null){
+                    reps.put(id, rep);
+                }
+            }
+            return reps;
+        }
+        
         @Override
         public FieldQueryFactory getQueryFactory() {
             return DefaultQueryFactory.getInstance();
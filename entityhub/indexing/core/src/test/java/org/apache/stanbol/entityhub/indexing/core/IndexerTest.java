@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
@@ -66,7 +67,7 @@ public class IndexerTest {
     /**
      * Hold the results of the indexing process
      */
-    protected static final Map<String,Representation> indexedData = new HashMap<String,Representation>();
+    protected static final Map<String,Representation> indexedData = new ConcurrentHashMap<String,Representation>();
     protected static Logger log = LoggerFactory.getLogger(IndexerTest.class);
     private static String rootDir;
     private static IndexerFactory factory;
@@ -136,6 +137,18 @@ public class IndexerTest {
         validateAllIndexed();
         
     }
+    @Test
+    public void testMultiThreadedIndexing(){
+        indexedData.clear();
+        Indexer indexer = factory.create(CONFIG_ROOT+"dataIterating",CONFIG_ROOT+"idIterating");
+        indexer.setProcessorThreads(4);
+        indexer.setPersisterThreads(2);
+        assertEquals(4, indexer.getProcessorThreads());
+        assertEquals(2, indexer.getPersisterThreads());
+        indexer.index();
+        //check that all entities have been indexed
+        validateAllIndexed();
+    }
     /**
      * validate the all the indexed resources!<p>
      * NOTE: That the asserts expect a specific configuration as provided by the
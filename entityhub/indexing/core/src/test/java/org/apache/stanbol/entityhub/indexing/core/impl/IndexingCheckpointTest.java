@@ -0,0 +1,76 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class IndexingCheckpointTest {
+
+    @Test
+    public void testWatermark() {
+        IndexingCheckpoint checkpoint = new IndexingCheckpoint("test");
+        checkpoint.completed(1);
+        checkpoint.completed(3);
+        assertEquals(0, checkpoint.getWatermark());
+        assertTrue(checkpoint.isCompleted(1));
+        assertFalse(checkpoint.isCompleted(0));
+        checkpoint.completed(0);
+        //0 and 1 are completed
+        assertEquals(2, checkpoint.getWatermark());
+        assertEquals(1, checkpoint.getCompleted().size());
+        checkpoint.completed(2);
+        assertEquals(4, checkpoint.getWatermark());
+        assertTrue(checkpoint.getCompleted().isEmpty());
+        checkpoint.completed(1); //ignored
+        assertEquals(4, checkpoint.getWatermark());
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        IndexingCheckpoint checkpoint = new IndexingCheckpoint("test");
+        for(long i = 0; i < 10; i++){
+            checkpoint.completed(i);
+        }
+        checkpoint.completed(12);
+        checkpoint.completed(15);
+        File file = File.createTempFile("checkpoint", ".properties");
+        file.deleteOnExit();
+        IndexingCheckpoint snapshot = checkpoint.snapshot(8);
+        checkpoint.completed(10); //does not affect the snapshot
+        snapshot.write(file);
+        IndexingCheckpoint read = IndexingCheckpoint.read(file);
+        assertNotNull(read);
+        assertEquals("test", read.getSource());
+        assertEquals(10, read.getWatermark());
+        assertEquals(8, read.getIndexedIds());
+        assertEquals(2, read.getCompleted().size());
+        assertTrue(read.isCompleted(12));
+        assertFalse(read.isCompleted(13));
+        assertTrue(read.isCompleted(15));
+        assertTrue(file.delete());
+        assertNull(IndexingCheckpoint.read(file));
+    }
+}
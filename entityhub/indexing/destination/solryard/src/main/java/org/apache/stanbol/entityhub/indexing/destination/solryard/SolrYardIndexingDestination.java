@@ -32,9 +32,11 @@ import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -60,11 +62,12 @@ import org.apache.solr.search.SolrIndexSearcher;
 import org.apache.solr.util.RefCounted;
 import org.apache.stanbol.entityhub.core.mapping.FieldMappingUtils;
 import org.apache.stanbol.entityhub.core.site.CacheUtils;
-import org.apache.stanbol.entityhub.indexing.core.IndexingDestination;
+import org.apache.stanbol.entityhub.indexing.core.CommittableIndexingDestination;
 import org.apache.stanbol.entityhub.indexing.core.config.IndexingConfig;
 import org.apache.stanbol.entityhub.indexing.core.destination.OsgiConfigurationUtil;
 import org.apache.stanbol.entityhub.indexing.destination.solryard.fst.CorpusCreationInfo;
 import org.apache.stanbol.entityhub.indexing.destination.solryard.fst.CorpusCreationTask;
+import org.apache.stanbol.entityhub.indexing.destination.solryard.fst.EntityDataWriter;
 import org.apache.stanbol.entityhub.indexing.destination.solryard.fst.FstConfig;
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapper;
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapping;
@@ -84,7 +87,7 @@ import org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class SolrYardIndexingDestination implements IndexingDestination {
+public class SolrYardIndexingDestination implements CommittableIndexingDestination {
     
     private static final Logger log = LoggerFactory.getLogger(SolrYardIndexingDestination.class);
 
@@ -186,6 +189,35 @@ public class SolrYardIndexingDestination implements IndexingDestination {
     public static final String FST_THREADS = "fstThreads";
     
     private static final int DEFAULT_FST_THREADS = 4;
+    /**
+     * If enabled FST models that are already up to date with the current
+     * version of the Solr index (e.g. because the index was not changed
+     * since the last run of the indexing tool) are not rebuilt. The default
+     * is <code>false</code>.
+     */
+    public static final String FST_INCREMENTAL = "fstIncremental";
+    /**
+     * If enabled the stored values needed by the FST linking engine (the
+     * ID, the labels of all FST models and the
+     * {@link #FST_ENTITY_DATA_FIELDS}) are written to a memory mapped, 
+     * columnar entity data file in the FST directory. This allows the FST
+     * linking engine to create matches without loading the stored Lucene 
+     * Documents. The default is <code>false</code>.
+     */
+    public static final String FST_ENTITY_DATA = "fstEntityData";
+    /**
+     * The additional Solr fields written to the entity data file (separated 
+     * by '<code>;</code>'). Field names need to be encoded as by the SolrYard (e.g.
+     * <code>ref/rdf:type/</code> for the types and 
+     * <code>flo/entityhub:entityRank/</code> for the entity ranking).
+     */
+    public static final String FST_ENTITY_DATA_FIELDS = "fstEntityDataFields";
+    /**
+     * The default for the {@link #FST_ENTITY_DATA_FIELDS}. The types and the
+     * entity rankings as used by the default configuration of the FST 
+     * linking engine.
+     */
+    public static final String DEFAULT_FST_ENTITY_DATA_FIELDS = "ref/rdf:type/;flo/entityhub:entityRank/";
     /**
      * The location of the SolrIndex. This MUST BE an absolute Path in case it 
      * refers to a directory of the local file system and <code>null</code> in
@@ -245,6 +277,20 @@ public class SolrYardIndexingDestination implements IndexingDestination {
      * Set in {@link #setConfiguration(Map)}
      */
     private int fstThreads = DEFAULT_FST_THREADS;
+    /**
+     * If FST models already up to date with the Solr index are skipped.
+     * Set in {@link #setConfiguration(Map)}
+     */
+    private boolean fstIncremental = false;
+    /**
+     * If the entity data file is written. Set in {@link #setConfiguration(Map)}
+     */
+    private boolean fstEntityData = false;
+    /**
+     * Additional fields written to the entity data file.
+     * Set in {@link #setConfiguration(Map)}
+     */
+    private Set<String> fstEntityDataFields = parseFields(DEFAULT_FST_ENTITY_DATA_FIELDS);
 
     private NamespacePrefixService  namespacePrefixService;
     
@@ -524,7 +570,34 @@ public class SolrYardIndexingDestination implements IndexingDestination {
         if(fstThreads <= 0){
             fstThreads = DEFAULT_FST_THREADS;
         }
-        
+        value = config.get(FST_INCREMENTAL);
+        if(value instanceof Boolean){
+            fstIncremental = ((Boolean)value).booleanValue();
+        } else if(value != null){
+            fstIncremental = Boolean.parseBoolean(value.toString());
+        }
+        value = config.get(FST_ENTITY_DATA);
+        if(value instanceof Boolean){
+            fstEntityData = ((Boolean)value).booleanValue();
+        } else if(value != null){
+            fstEntityData = Boolean.parseBoolean(value.toString());
+        }
+        value = config.get(FST_ENTITY_DATA_FIELDS);
+        if(value != null){
+            fstEntityDataFields = parseFields(value.toString());
+        }
+    }
+    /**
+     * Parses a '<code>;</code>' separated list of field names
+     */
+    private static Set<String> parseFields(String value){
+        Set<String> fields = new LinkedHashSet<String>();
+        for(String field : value.split(";")){
+            if(!StringUtils.isBlank(field)){
+                fields.add(field.trim());
+            }
+        }
+        return fields;
     }
     /**
      * Setter for the FST configurations using the same format as defined by the
@@ -549,6 +622,35 @@ public class SolrYardIndexingDestination implements IndexingDestination {
     public int getFstThreads() {
         return fstThreads;
     }
+    /**
+     * Setter for the incremental creation of FST models. If enabled FST
+     * models already up to date with the current version of the Solr index
+     * are not rebuilt.
+     * @param incremental the state
+     */
+    public void setFstIncremental(boolean incremental){
+        this.fstIncremental = incremental;
+    }
+    public boolean isFstIncremental() {
+        return fstIncremental;
+    }
+    /**
+     * Setter for the creation of the entity data file used by the FST linking
+     * engine to create matches without loading stored Lucene Documents.
+     * @param entityData the state
+     * @param fields additional Solr fields to include (encoded as by the
+     * SolrYard). If <code>null</code> the {@link #DEFAULT_FST_ENTITY_DATA_FIELDS}
+     * are used.
+     */
+    public void setFstEntityData(boolean entityData, Collection<String> fields){
+        this.fstEntityData = entityData;
+        this.fstEntityDataFields = fields == null ? 
+                parseFields(DEFAULT_FST_ENTITY_DATA_FIELDS) : 
+                    new LinkedHashSet<String>(fields);
+    }
+    public boolean isFstEntityData() {
+        return fstEntityData;
+    }
     /**
      * Getter for the FST models that are created in the {@link #finalise()}
      * phase
@@ -672,6 +774,14 @@ public class SolrYardIndexingDestination implements IndexingDestination {
         return solrYard;
     }
 
+    @Override
+    public void commit() throws YardException {
+        if(solrYard == null){
+            throw new IllegalStateException("SolrYard not initialised. Call initialise first!");
+        }
+        solrYard.commit();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void finalise() {
@@ -719,14 +829,30 @@ public class SolrYardIndexingDestination implements IndexingDestination {
                 searcherRef.decref();
             }
 
-            List<Future<?>> fstCreationTasks = new ArrayList<Future<?>>();
-            ExecutorService es = Executors.newFixedThreadPool(fstThreads);
-            log.info(" ... build FST models ");
+            List<CorpusCreationInfo> corpora = new ArrayList<CorpusCreationInfo>();
             for(FstConfig config : fstConfigs){
-                for(final CorpusCreationInfo corpus : config.getCorpusCreationInfos()){
-                    fstCreationTasks.add(es.submit(new CorpusCreationTask(core, corpus)));
+                corpora.addAll(config.getCorpusCreationInfos());
+            }
+            List<Future<?>> fstCreationTasks = new ArrayList<Future<?>>(corpora.size() + 1);
+            //corpora of different languages and fields are built concurrently
+            ExecutorService es = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(fstThreads, corpora.size() + (fstEntityData ? 1 : 0))));
+            log.info(" ... build {} FST models (threads: {}, incremental: {})",
+                new Object[]{corpora.size(), fstThreads, fstIncremental});
+            for(CorpusCreationInfo corpus : corpora){
+                fstCreationTasks.add(es.submit(new CorpusCreationTask(core, corpus, fstIncremental)));
+            }
+            if(fstEntityData){ //the ID, the labels and the configured fields
+                Set<String> fields = new LinkedHashSet<String>();
+                fields.add(schema.getUniqueKeyField().getName());
+                for(CorpusCreationInfo corpus : corpora){
+                    fields.add(corpus.storedField);
                 }
+                fields.addAll(fstEntityDataFields);
+                fstCreationTasks.add(es.submit(new EntityDataWriter(core, fstDir, 
+                    fields, fstIncremental)));
             }
+            es.shutdown(); //no more tasks ... threads terminate when done
             //now wait for the completion of the tasks
             Iterator<Future<?>> taskIt = fstCreationTasks.iterator();
             while(taskIt.hasNext()){
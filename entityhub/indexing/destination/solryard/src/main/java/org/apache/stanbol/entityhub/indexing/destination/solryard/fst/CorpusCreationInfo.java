@@ -17,10 +17,18 @@
 package org.apache.stanbol.entityhub.indexing.destination.solryard.fst;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.solr.schema.FieldType;
+import org.opensextant.solrtexttagger.TaggerFstCorpus;
 
 /**
  * Holds the information required to build an FST corpus for a given language
@@ -53,6 +61,17 @@ public class CorpusCreationInfo {
      * The Solr {@link Analyzer} used for the field
      */
     public final Analyzer analyzer;
+    /**
+     * Properties file holding information about the last build of the
+     * {@link #fst} (e.g. the version of the Solr index it was built for).
+     * Used to skip the creation of corpora that are already up to date.
+     */
+    public final File buildInfo;
+    
+    private static final String KEY_INDEX_VERSION = "indexVersion";
+    private static final String KEY_INDEXED_FIELD = "indexedField";
+    private static final String KEY_STORED_FIELD = "storedField";
+    private static final String KEY_EMPTY = "empty";
     
     /** 
      * @param language
@@ -67,6 +86,61 @@ public class CorpusCreationInfo {
         this.storedField = storeField;
         this.fst = fst;
         this.analyzer = fieldType.getAnalyzer();
+        this.buildInfo = new File(fst.getParentFile(), fst.getName()+".info");
+    }
+    /**
+     * Checks if the FST corpus was already built for the parsed version of
+     * the Solr index. As {@link TaggerFstCorpus} refer to Lucene document IDs
+     * and store the index version they were built for, a corpus is only up to
+     * date if the index has not changed since it was built.
+     * @param indexVersion the current version of the Solr index
+     * @return <code>true</code> if the corpus does not need to be rebuilt.
+     * <code>false</code> if the corpus was built for a different index version
+     * or no information about the last build are available.
+     */
+    public boolean isUpToDate(long indexVersion){
+        if(!buildInfo.isFile()){
+            return false;
+        }
+        Properties info = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(buildInfo);
+            info.load(in);
+        } catch (IOException e) {
+            return false; //unable to read ... rebuild the corpus
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        try {
+            return indexVersion == Long.parseLong(info.getProperty(KEY_INDEX_VERSION, "-1")) &&
+                    indexedField.equals(info.getProperty(KEY_INDEXED_FIELD)) &&
+                    storedField.equals(info.getProperty(KEY_STORED_FIELD)) &&
+                    //an empty corpus is not stored, otherwise the file must exist
+                    (fst.isFile() || Boolean.parseBoolean(info.getProperty(KEY_EMPTY)));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    /**
+     * Writes the information about a successful build of the FST corpus
+     * @param indexVersion the version of the Solr index used to build the corpus
+     * @param empty if the corpus was empty (and therefore not stored)
+     * @throws IOException on any error while writing the {@link #buildInfo} file
+     */
+    public void writeBuildInfo(long indexVersion, boolean empty) throws IOException {
+        Properties info = new Properties();
+        info.setProperty(KEY_INDEX_VERSION, String.valueOf(indexVersion));
+        info.setProperty(KEY_INDEXED_FIELD, indexedField);
+        info.setProperty(KEY_STORED_FIELD, storedField);
+        info.setProperty(KEY_EMPTY, String.valueOf(empty));
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(buildInfo);
+            info.store(out, "Build information for FST corpus "+fst.getName());
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
     }
     
     @Override
@@ -42,23 +42,45 @@ public class CorpusCreationTask implements Runnable{
     
     CorpusCreationInfo corpusInfo;
     SolrCore core;
+    /**
+     * If <code>true</code> corpora that are already up to date with the
+     * current version of the Solr index are not rebuilt.
+     */
+    boolean incremental;
     
     public CorpusCreationTask(SolrCore core, CorpusCreationInfo corpus){
+        this(core,corpus,false);
+    }
+    /**
+     * @param core the SolrCore
+     * @param corpus the corpus to build
+     * @param incremental if <code>true</code> the corpus is only built if it is
+     * not {@link CorpusCreationInfo#isUpToDate(long) up to date} with the
+     * version of the Solr index.
+     */
+    public CorpusCreationTask(SolrCore core, CorpusCreationInfo corpus, boolean incremental){
         this.core = core;
         this.corpusInfo = corpus;
+        this.incremental = incremental;
     }
     
     @Override
     public void run() {
         TaggerFstCorpus corpus = null;
+        long indexVersion;
         RefCounted<SolrIndexSearcher> searcherRef = core.getSearcher();
         try {
             SolrIndexSearcher searcher = searcherRef.get();
+            indexVersion = searcher.getIndexReader().getVersion();
+            if(incremental && corpusInfo.isUpToDate(indexVersion)){
+                log.info(" ... {} is up to date with index version {}", corpusInfo, indexVersion);
+                return;
+            }
             //we do get the AtomicReader, because TaggerFstCorpus will need it
             //anyways. This prevents to create another SlowCompositeReaderWrapper.
             IndexReader reader = searcher.getAtomicReader();
             log.info(" ... build {}", corpusInfo);
-            corpus = new TaggerFstCorpus(reader, searcher.getIndexReader().getVersion(),
+            corpus = new TaggerFstCorpus(reader, indexVersion,
                 null, corpusInfo.indexedField, corpusInfo.storedField, corpusInfo.analyzer,
                 corpusInfo.partialMatches,1,200);
         } catch (IOException e) {
@@ -67,21 +89,32 @@ public class CorpusCreationTask implements Runnable{
         } finally {
             searcherRef.decref(); //ensure that we dereference the searcher
         }
+        //delete the build information of the old corpus
+        FileUtils.deleteQuietly(corpusInfo.buildInfo);
         if(corpusInfo.fst.exists()){
             if(!FileUtils.deleteQuietly(corpusInfo.fst)){
                 log.warn("Unable to delete existing FST fiel for {}",corpusInfo);
             }
         }
-        if(corpus.getPhrases() != null){ //the FST is not empty
+        boolean empty = corpus.getPhrases() == null;
+        if(!empty){ //the FST is not empty
             try { //NOTE saving an empty corpus results in a NPE
                 corpus.save(corpusInfo.fst);
             } catch (IOException e) {
                 log.warn("Unable to store FST corpus " + corpusInfo + " to "
                         + corpusInfo.fst.getAbsolutePath() + "!", e);
+                return;
             }
         } else {
            log.info("FST for {} is empty ... no FST will be stored",corpusInfo); 
         }
+        try {
+            corpusInfo.writeBuildInfo(indexVersion, empty);
+        } catch (IOException e) {
+            log.warn("Unable to write build information for FST corpus " 
+                + corpusInfo + " to " + corpusInfo.buildInfo.getAbsolutePath() 
+                + "!", e);
+        }
     }
     
     @Override
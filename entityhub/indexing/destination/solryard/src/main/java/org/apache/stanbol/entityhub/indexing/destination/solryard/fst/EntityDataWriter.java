@@ -0,0 +1,275 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.destination.solryard.fst;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.Bits;
+import org.apache.solr.core.SolrCore;
+import org.apache.solr.search.SolrIndexSearcher;
+import org.apache.solr.util.RefCounted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the stored values of the parsed fields of all documents in the
+ * SolrCore to a columnar entity data file. This file is used by the FST
+ * linking engine to create matches without loading the stored Lucene
+ * Documents.<p>
+ * The format is defined by the <code>EntityDataFile</code> class of the FST
+ * linking engine and MUST be kept in sync.<p>
+ * As Lucene document ids are only valid for a version of the index this
+ * MUST BE run after the index was optimized (the same requirement as for
+ * the FST models).
+ */
+public class EntityDataWriter implements Runnable {
+
+    private final Logger log = LoggerFactory.getLogger(EntityDataWriter.class);
+
+    /**
+     * The name of the file within the FST directory
+     */
+    public static final String FILE_NAME = "entity-data.dat";
+
+    public static final int MAGIC = 0x53454446; //SEDF
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final SolrCore core;
+    private final File file;
+    private final List<String> fields;
+    /**
+     * If <code>true</code> an existing file that is up to date with the
+     * current version of the Solr index is not rewritten.
+     */
+    private final boolean incremental;
+
+    /**
+     * @param core the SolrCore
+     * @param fstDirectory the directory to write the {@link #FILE_NAME} to
+     * @param fields the Solr fields to write
+     * @param incremental if <code>true</code> an existing file is only
+     * rewritten if it is not up to date with the version of the Solr index
+     */
+    public EntityDataWriter(SolrCore core, File fstDirectory, Collection<String> fields, boolean incremental){
+        this.core = core;
+        this.file = new File(fstDirectory, FILE_NAME);
+        this.fields = new ArrayList<String>(new LinkedHashSet<String>(fields));
+        this.incremental = incremental;
+    }
+
+    @Override
+    public void run() {
+        File tmp = new File(file.getPath()+".tmp");
+        RefCounted<SolrIndexSearcher> searcherRef = core.getSearcher();
+        try {
+            SolrIndexSearcher searcher = searcherRef.get();
+            long indexVersion = searcher.getIndexReader().getVersion();
+            if(incremental && isUpToDate(indexVersion)){
+                log.info(" ... entity data {} is up to date with index version {}", 
+                    file, indexVersion);
+                return;
+            }
+            log.info(" ... write entity data for fields {} (index version: {})",
+                fields, indexVersion);
+            write(searcher.getAtomicReader(), indexVersion, tmp);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(tmp);
+            throw new IllegalStateException("Unable to write entity data file "
+                + file.getAbsolutePath() + " for SolrIndex '" + core.getName() + "'!", e);
+        } finally {
+            searcherRef.decref(); //ensure that we dereference the searcher
+        }
+        FileUtils.deleteQuietly(file);
+        if(!tmp.renameTo(file)){
+            throw new IllegalStateException("Unable to rename "+tmp+" to "+file);
+        }
+        log.info(" ... entity data written to {} ({} bytes)", file, file.length());
+    }
+    /**
+     * Checks if the existing {@link #file} was written for the parsed index
+     * version and contains all the {@link #fields}
+     */
+    private boolean isUpToDate(long indexVersion) {
+        if(!file.isFile()){
+            return false;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ||
+                    in.readLong() != indexVersion){
+                return false;
+            }
+            in.readInt(); //maxDoc
+            int numFields = in.readInt();
+            Set<String> present = new HashSet<String>();
+            for(int i = 0; i < numFields; i++){
+                present.add(in.readUTF());
+            }
+            return present.containsAll(fields);
+        } catch (IOException e) {
+            log.warn("Unable to read existing entity data file "+file+"!",e);
+            return false;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+    /**
+     * Writes the values of all documents in a single pass over the index.
+     * Values and offsets of every field are first written to temporary
+     * files that are concatenated afterwards.
+     */
+    private void write(AtomicReader reader, long indexVersion, File target) throws IOException {
+        int maxDoc = reader.maxDoc();
+        Bits liveDocs = reader.getLiveDocs();
+        Set<String> fieldsToLoad = new HashSet<String>(fields);
+        int numFields = fields.size();
+        File[] valueFiles = new File[numFields];
+        File[] offsetFiles = new File[numFields];
+        DataOutputStream[] valueOut = new DataOutputStream[numFields];
+        DataOutputStream[] offsetOut = new DataOutputStream[numFields];
+        long[] position = new long[numFields];
+        try {
+            for(int i = 0; i < numFields; i++){
+                valueFiles[i] = File.createTempFile("entitydata", ".val", target.getParentFile());
+                offsetFiles[i] = File.createTempFile("entitydata", ".off", target.getParentFile());
+                valueOut[i] = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(valueFiles[i])));
+                offsetOut[i] = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(offsetFiles[i])));
+            }
+            for(int docId = 0; docId < maxDoc; docId++){
+                Document doc = liveDocs == null || liveDocs.get(docId) ?
+                        reader.document(docId, fieldsToLoad) : null;
+                for(int i = 0; i < numFields; i++){
+                    offsetOut[i].writeLong(position[i]);
+                    if(doc != null){
+                        for(IndexableField field : doc.getFields(fields.get(i))){
+                            String value = field.numericValue() != null ?
+                                    field.numericValue().toString() : field.stringValue();
+                            if(value != null){
+                                byte[] data = value.getBytes(UTF8);
+                                valueOut[i].writeInt(data.length);
+                                valueOut[i].write(data);
+                                position[i] = position[i] + 4 + data.length;
+                            }
+                        }
+                    }
+                }
+                if(docId > 0 && docId % 1000000 == 0){
+                    log.info("    - {}/{} documents", docId, maxDoc);
+                }
+            }
+            for(int i = 0; i < numFields; i++){
+                offsetOut[i].writeLong(position[i]); //end of the last document
+                valueOut[i].close();
+                offsetOut[i].close();
+            }
+            //now concatenate the data
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(target)));
+            long[] columns = new long[numFields];
+            long columnsPos;
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(indexVersion);
+                out.writeInt(maxDoc);
+                out.writeInt(numFields);
+                for(String field : fields){
+                    out.writeUTF(field);
+                }
+                columnsPos = out.size();
+                for(int i = 0; i < numFields; i++){
+                    out.writeLong(0L); //written afterwards
+                }
+                long pos = out.size();
+                for(int i = 0; i < numFields; i++){
+                    columns[i] = pos;
+                    long base = pos + ((long)(maxDoc + 1) << 3);
+                    //copy the offset table (converted to absolute positions)
+                    DataInputStream offsets = new DataInputStream(new BufferedInputStream(
+                        new FileInputStream(offsetFiles[i])));
+                    try {
+                        for(int doc = 0; doc <= maxDoc; doc++){
+                            out.writeLong(base + offsets.readLong());
+                        }
+                    } finally {
+                        IOUtils.closeQuietly(offsets);
+                    }
+                    //copy the values
+                    InputStream values = new FileInputStream(valueFiles[i]);
+                    try {
+                        IOUtils.copyLarge(values, out);
+                    } finally {
+                        IOUtils.closeQuietly(values);
+                    }
+                    pos = base + position[i];
+                }
+            } finally {
+                out.close();
+            }
+            //write the positions of the columns to the header
+            RandomAccessFile raf = new RandomAccessFile(target, "rw");
+            try {
+                raf.seek(columnsPos);
+                for(int i = 0; i < numFields; i++){
+                    raf.writeLong(columns[i]);
+                }
+            } finally {
+                raf.close();
+            }
+        } finally {
+            for(int i = 0; i < numFields; i++){
+                IOUtils.closeQuietly(valueOut[i]);
+                IOUtils.closeQuietly(offsetOut[i]);
+                FileUtils.deleteQuietly(valueFiles[i]);
+                FileUtils.deleteQuietly(offsetFiles[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("Task: writing entity data for ").append(fields)
+                .append(" of SolrCore ").append(core.getName()).toString();
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.indexing.source.jenatdb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.jena.atlas.lib.Tuple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RiotReader;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.lang.LangRIOT;
+import org.apache.jena.riot.system.StreamRDF;
+import org.slf4j.Logger;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.tdb.TDBException;
+import com.hp.hpl.jena.tdb.store.bulkloader.BulkStreamRDF;
+
+/**
+ * Loads RDF data parsed by several threads to a single
+ * {@link DestinationTripleGraph}.<p>
+ * Parsing and filtering of triples is done by the threads calling
+ * {@link #load(InputStream, String, Lang)}. Line based formats (N-Triples
+ * and N-Quads) are in addition split in chunks that are parsed by a pool of
+ * parser threads. Accepted triples are sent in batches to a single writer
+ * thread that adds them to the {@link DestinationTripleGraph}, because the
+ * TDB bulk loader does not support concurrent writes.<p>
+ * {@link BulkStreamRDF#startBulk()} and {@link BulkStreamRDF#finishBulk()}
+ * are only called once for all loaded resources. This means that the TDB
+ * indexes are only built once after all resources are loaded. Users MUST
+ * call {@link #finish()} after all resources are loaded.<p>
+ * {@link #load(InputStream, String, Lang)} only returns after all triples of
+ * the resource are written to the destination. Callers can therefore treat a
+ * resource as loaded (e.g. move the file) as soon as this method returns
+ * without an exception.
+ */
+class ParallelRdfLoader {
+
+    /**
+     * The default size of the chunks line based formats are split into
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1024*1024;
+    /**
+     * The number of triples sent to the writer thread in one batch
+     */
+    private static final int BATCH_SIZE = 10000;
+    /**
+     * Signals the writer thread that all triples are loaded
+     */
+    private static final List<Triple> END_OF_QUEUE = Collections.emptyList();
+
+    private final BulkStreamRDF destination;
+    private final RdfImportFilter importFilter;
+    private final Logger log;
+    private final int threads;
+    private final int chunkSize;
+
+    private final BlockingQueue<List<Triple>> writeQueue;
+    private final ExecutorService parserPool;
+    private final Thread writerThread;
+    /**
+     * Set if the writer thread fails
+     */
+    private final AtomicReference<Throwable> writeError = new AtomicReference<Throwable>();
+    /**
+     * Used to create unique scopes for blank node labels of resources that are
+     * parsed in chunks
+     */
+    private final AtomicLong resourceCount = new AtomicLong();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong filteredCount = new AtomicLong();
+    private boolean started = false;
+    private boolean finished = false;
+
+    /**
+     * Creates a loader.
+     * @param destination the destination. MUST NOT filter triples
+     * @param importFilter the filter or <code>null</code> if none
+     * @param threads the number of parser threads
+     * @param log the logger
+     */
+    ParallelRdfLoader(BulkStreamRDF destination, RdfImportFilter importFilter,
+                      int threads, Logger log) {
+        this(destination, importFilter, threads, DEFAULT_CHUNK_SIZE, log);
+    }
+    /**
+     * Creates a loader that splits line based formats in chunks of the parsed
+     * size (e.g. to test chunk boundaries with small files).
+     * @param destination the destination. MUST NOT filter triples
+     * @param importFilter the filter or <code>null</code> if none
+     * @param threads the number of parser threads
+     * @param chunkSize the size of the chunks in bytes. Lines longer as the
+     * chunk size are kept in a single chunk.
+     * @param log the logger
+     */
+    ParallelRdfLoader(BulkStreamRDF destination, RdfImportFilter importFilter,
+                      int threads, int chunkSize, Logger log) {
+        if(chunkSize < 1){
+            throw new IllegalArgumentException("The chunk size MUST BE > 0 (parsed: "+chunkSize+")!");
+        }
+        this.destination = destination;
+        this.importFilter = importFilter;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.log = log;
+        this.writeQueue = new ArrayBlockingQueue<List<Triple>>(threads*2);
+        final AtomicInteger parserCount = new AtomicInteger();
+        this.parserPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "RDF parser #"+parserCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.writerThread = new Thread(new TripleWriter(), "RDF bulk loader");
+        writerThread.setDaemon(true);
+    }
+    /**
+     * Starts the bulk loading. Called on the first call to
+     * {@link #load(InputStream, String, Lang)}
+     */
+    private synchronized void start(){
+        if(finished){
+            throw new IllegalStateException("This RDF loader is already finished!");
+        }
+        if(!started){
+            log.info("  ... start parallel bulk loading ({} parser threads)", threads);
+            destination.startBulk();
+            writerThread.start();
+            started = true;
+        }
+    }
+    /**
+     * Parses the RDF data of the parsed stream. This method is thread safe and
+     * returns after all triples of the resource are written to the
+     * destination.
+     * @param is the stream
+     * @param name the name of the resource
+     * @param format the format
+     * @throws IOException on any error while reading from the parsed stream
+     * @throws IllegalStateException if the triples can not be stored
+     * @throws RuntimeException if the RDF data are invalid
+     */
+    void load(InputStream is, String name, Lang format) throws IOException {
+        start();
+        if(threads > 1 && (RDFLanguages.NTRIPLES.equals(format) ||
+                RDFLanguages.NQUADS.equals(format))){
+            loadChunks(is, name, format);
+        } else {
+            TripleSink sink = new TripleSink(null);
+            RiotReader.parse(is, format, null, sink);
+            sink.flush();
+        }
+        awaitWritten(name);
+    }
+    /**
+     * Waits until the writer thread has written all batches queued before
+     * this call. As there is a single writer consuming the queue in order
+     * this includes all triples of the resource parsed by the caller.
+     * @param name the name of the resource (used for logging)
+     * @throws IllegalStateException if the writer failed
+     */
+    private void awaitWritten(String name){
+        WriteBarrier barrier = new WriteBarrier();
+        try {
+            writeQueue.put(barrier);
+            barrier.written.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Interrupted while waiting for the triples of "
+                + name + " to be written",e);
+        }
+        if(writeError.get() != null){
+            throw new IllegalStateException("Unable to load triples of "+name
+                + " to the TDB dataset", writeError.get());
+        }
+    }
+    /**
+     * Splits line based formats in chunks parsed by the {@link #parserPool}
+     */
+    private void loadChunks(InputStream is, String name, final Lang format) throws IOException {
+        //the blank node labels of all chunks need to be in the scope of the resource
+        final String scope = "r"+resourceCount.incrementAndGet()+"_";
+        //limit the number of chunks in memory
+        final Semaphore chunks = new Semaphore(threads);
+        final AtomicReference<RuntimeException> parseError = new AtomicReference<RuntimeException>();
+        byte[] buffer = new byte[chunkSize];
+        int length = 0;
+        int read;
+        int chunkCount = 0;
+        try {
+            while(parseError.get() == null &&
+                    (read = is.read(buffer, length, buffer.length - length)) != -1){
+                length += read;
+                if(length == buffer.length){ //cut the chunk at the last line break
+                    int end = length - 1;
+                    while(end >= 0 && buffer[end] != '\n'){
+                        end--;
+                    }
+                    if(end < 0){ //line longer as the buffer
+                        buffer = Arrays.copyOf(buffer, buffer.length*2);
+                    } else {
+                        submitChunk(Arrays.copyOf(buffer, end+1), format, scope, chunks, parseError);
+                        chunkCount++;
+                        length = length - end - 1;
+                        System.arraycopy(buffer, end+1, buffer, 0, length);
+                    }
+                }
+            }
+            if(length > 0 && parseError.get() == null){
+                submitChunk(Arrays.copyOf(buffer, length), format, scope, chunks, parseError);
+                chunkCount++;
+            }
+        } finally {
+            //wait for all chunks of this resource
+            chunks.acquireUninterruptibly(threads);
+        }
+        if(parseError.get() != null){
+            throw parseError.get();
+        }
+        log.debug("    - parsed {} in {} chunks", name, chunkCount);
+    }
+
+    private void submitChunk(final byte[] chunk, final Lang format, final String scope,
+                             final Semaphore chunks, final AtomicReference<RuntimeException> parseError) {
+        chunks.acquireUninterruptibly();
+        parserPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    TripleSink sink = new TripleSink(scope);
+                    LangRIOT parser = RiotReader.createParser(
+                        new ByteArrayInputStream(chunk), format, null, sink);
+                    //keep labels so that they can be scoped to the resource
+                    parser.getProfile().setLabelToNode(LabelToNode.createUseLabelAsGiven());
+                    parser.parse();
+                    sink.flush();
+                } catch (RuntimeException e) {
+                    parseError.compareAndSet(null, e);
+                } finally {
+                    chunks.release();
+                }
+            }
+        });
+    }
+    /**
+     * Waits until all triples are written and finishes the bulk loading.
+     * This will build the TDB indexes.
+     * @throws IllegalStateException if the writer failed
+     */
+    synchronized void finish(){
+        if(finished){
+            return;
+        }
+        finished = true;
+        parserPool.shutdown();
+        if(!started){
+            return;
+        }
+        try {
+            writeQueue.put(END_OF_QUEUE);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Interrupted while waiting for the RDF bulk loader",e);
+        }
+        log.info("  ... {} triples loaded ({} filtered)", acceptedCount.get(), filteredCount.get());
+        destination.finishBulk();
+        if(writeError.get() != null){
+            throw new IllegalStateException("Unable to load triples to the TDB dataset",
+                writeError.get());
+        }
+    }
+
+    /**
+     * Adds the triples of the {@link ParallelRdfLoader#writeQueue} to the
+     * {@link ParallelRdfLoader#destination}
+     */
+    private final class TripleWriter implements Runnable {
+        @Override
+        public void run() {
+            List<Triple> batch;
+            try {
+                while((batch = writeQueue.take()) != END_OF_QUEUE){
+                    if(batch instanceof WriteBarrier){
+                        ((WriteBarrier)batch).written.countDown();
+                    } else if(writeError.get() == null){ //after an error only consume batches
+                        try {
+                            for(Triple triple : batch){
+                                destination.triple(triple);
+                            }
+                        } catch (RuntimeException e) {
+                            log.error("Unable to load triples to the TDB dataset", e);
+                            writeError.set(e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                writeError.compareAndSet(null, e);
+            }
+        }
+    }
+    /**
+     * Queued after the triples of a resource. The writer thread releases the
+     * waiting loader when it reaches the barrier.
+     */
+    private static final class WriteBarrier extends AbstractList<Triple> {
+
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        @Override
+        public Triple get(int index) {
+            throw new IndexOutOfBoundsException();
+        }
+        @Override
+        public int size() {
+            return 0;
+        }
+        @Override
+        public boolean equals(Object o) {
+            return o == this;
+        }
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+    /**
+     * Filters parsed triples and sends them in batches to the
+     * {@link ParallelRdfLoader#writeQueue}. Not thread safe.
+     */
+    private final class TripleSink implements StreamRDF {
+
+        private final String scope;
+        private List<Triple> batch = new ArrayList<Triple>(BATCH_SIZE);
+
+        /**
+         * @param scope the scope used for blank node labels or
+         * <code>null</code> to use blank nodes as parsed
+         */
+        TripleSink(String scope){
+            this.scope = scope;
+        }
+
+        private void triple(Node s, Node p, Node o){
+            if(importFilter == null || importFilter.accept(s, p, o)){
+                if(scope != null){
+                    s = scoped(s);
+                    o = scoped(o);
+                }
+                batch.add(new Triple(s, p, o));
+                if(batch.size() >= BATCH_SIZE){
+                    flush();
+                }
+            } else {
+                long filtered = filteredCount.incrementAndGet();
+                if(filtered%1000000 == 0){
+                    log.info("Filtered: {} triples ({}%)",filtered,
+                        ((double)filtered*100/(double)(filtered+acceptedCount.get())));
+                }
+            }
+        }
+        private Node scoped(Node node){
+            return node.isBlank() ? NodeFactory.createAnon(
+                new AnonId(scope+node.getBlankNodeLabel())) : node;
+        }
+        /**
+         * Sends the current batch to the writer thread
+         * @throws IllegalStateException if the writer failed
+         */
+        void flush(){
+            if(writeError.get() != null){
+                throw new IllegalStateException("Unable to load triples to the TDB dataset",
+                    writeError.get());
+            }
+            if(!batch.isEmpty()){
+                acceptedCount.addAndGet(batch.size());
+                try {
+                    writeQueue.put(batch);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("Interrupted while loading triples",e);
+                }
+                batch = new ArrayList<Triple>(BATCH_SIZE);
+            }
+        }
+        @Override
+        public void triple(Triple triple) {
+            triple(triple.getSubject(),triple.getPredicate(),triple.getObject());
+        }
+        @Override
+        public void quad(Quad quad) {
+            triple(quad.getSubject(),quad.getPredicate(),quad.getObject());
+        }
+        @Override
+        public void tuple(Tuple<Node> tuple) {
+            if(tuple.size() >= 3){
+                triple(tuple.get(0),tuple.get(1),tuple.get(2));
+            } else {
+                throw new TDBException("Tuple with < 3 Nodes encountered while loading a single graph");
+            }
+        }
+        @Override
+        public void start() {}
+        @Override
+        public void base(String base) {}
+        @Override
+        public void prefix(String prefix, String iri) {}
+        @Override
+        public void finish() {}
+    }
+}
@@ -22,11 +22,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.stanbol.commons.namespaceprefix.NamespaceMappingUtils;
@@ -123,7 +123,8 @@ public class PropertyPrefixFilter implements RdfImportFilter {
                 }
             }
         });
-        propertyMap = new HashMap<String,Boolean>();
+        //accept(..) might be called concurrently by parallel RDF imports
+        propertyMap = new ConcurrentHashMap<String,Boolean>();
         includeAll = lines.remove("*");
         log.info("    - includeAll: {}",includeAll);
         for(String line : lines){
@@ -23,6 +23,10 @@ import com.hp.hpl.jena.graph.Node;
 /**
  * Allows to filter Triples parsed from RDF files. Useful to NOT import some
  * RDF triples from RDF dumps that are not relevant for the indexing process.
+ * <p>
+ * If RDF files are imported by several threads (see 
+ * {@link RdfIndexingSource#PARAM_IMPORT_THREADS}) {@link #accept(Node, Node, Node)}
+ * is called concurrently.
  * @author Rupert Westenthaler
  *
  */
@@ -117,6 +117,14 @@ public class RdfIndexingSource extends AbstractTdbBackend implements EntityDataI
      * configuration as this component.
      */
     public static final String PARAM_IMPORT_FILTER = "import-filter";
+    /**
+     * The number of threads used to parse RDF files. If &gt; 1 several
+     * files are parsed concurrently and N-Triples and N-Quads files are split
+     * into chunks parsed in parallel. Configured {@link #PARAM_IMPORT_FILTER
+     * import filters} need to be thread safe. Values &lt;= 0 use the number
+     * of available processors. The default is <code>1</code>.
+     */
+    public static final String PARAM_IMPORT_THREADS = "import-threads";
     /**
      * The default directory name used to search for RDF files to be imported
      */
@@ -138,6 +146,7 @@ public class RdfIndexingSource extends AbstractTdbBackend implements EntityDataI
     private ValueFactory vf;
     
     private ResourceLoader loader;
+    private RdfResourceImporter importer;
 
     protected String bnodePrefix; //protected to allow direct access in inner classes
     /**
@@ -186,7 +195,8 @@ public class RdfIndexingSource extends AbstractTdbBackend implements EntityDataI
         //init the store
         this.indexingDataset = initTDBDataset(modelLocation);
         //use a ResourceLoader that fails on the first invalid RDF file (STANBOL-328)
-        this.loader =  new ResourceLoader(new RdfResourceImporter(indexingDataset,importFilter), true,true);
+        this.importer = new RdfResourceImporter(indexingDataset,importFilter);
+        this.loader =  new ResourceLoader(importer, true,true);
         loader.addResource(sourceFileOrDirectory);
     }
     @Override
@@ -235,8 +245,30 @@ public class RdfIndexingSource extends AbstractTdbBackend implements EntityDataI
         }
         
         boolean failOnError = indexingConfig.isFailOnError();
+        value = config.get(PARAM_IMPORT_THREADS);
+        int importThreads;
+        if(value instanceof Number){
+            importThreads = ((Number)value).intValue();
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                importThreads = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The configured "+PARAM_IMPORT_THREADS
+                    + "='"+value+"' is not a valid integer!",e);
+            }
+        } else {
+            importThreads = 1;
+        }
+        if(importThreads <= 0){
+            importThreads = Runtime.getRuntime().availableProcessors();
+        }
         //create the ResourceLoader
-        this.loader =  new ResourceLoader(new RdfResourceImporter(indexingDataset, importFilter), failOnError);
+        this.importer = new RdfResourceImporter(indexingDataset, importFilter, importThreads);
+        this.loader =  new ResourceLoader(importer, failOnError);
+        if(importThreads > 1){
+            log.info("Import RDF files with {} threads",importThreads);
+            this.loader.setThreads(importThreads);
+        }
         
         value = config.get(PARAM_IMPORTED_FOLDER);
         String importedFolderName;
@@ -339,6 +371,7 @@ public class RdfIndexingSource extends AbstractTdbBackend implements EntityDataI
         }
         if(!loader.getResources(ResourceState.REGISTERED).isEmpty()){
             loader.loadResources();
+            importer.finish();
         }
     }
     @Override
@@ -32,17 +32,58 @@ import org.slf4j.LoggerFactory;
 
 import com.hp.hpl.jena.tdb.store.DatasetGraphTDB;
 
+/**
+ * Imports RDF files to a TDB dataset. If more than a single thread is used
+ * {@link #importResource(InputStream, String)} is thread safe and RDF files
+ * are parsed and filtered in parallel (see {@link ParallelRdfLoader}). In
+ * that case {@link #finish()} MUST BE called after all resources are
+ * imported.
+ * @author Rupert Westenthaler
+ *
+ */
 public class RdfResourceImporter implements ResourceImporter {
 
     private static final Logger log = LoggerFactory.getLogger(RdfResourceImporter.class);
    // private final DatasetGraphTDB indexingDataset;
     private final DestinationTripleGraph destination;
+    /**
+     * Used if more than a single thread is used for importing
+     */
+    private final ParallelRdfLoader parallelLoader;
     public RdfResourceImporter(DatasetGraphTDB indexingDataset, RdfImportFilter importFilter){
+        this(indexingDataset,importFilter,1);
+    }
+    /**
+     * Creates an RDF importer that uses the parsed number of threads for
+     * parsing RDF files.
+     * @param indexingDataset the dataset to import the RDF data
+     * @param importFilter the import filter or <code>null</code> if none. 
+     * Needs to be thread safe if threads &gt; 1
+     * @param threads the number of threads used to parse RDF data
+     */
+    public RdfResourceImporter(DatasetGraphTDB indexingDataset, RdfImportFilter importFilter, int threads){
         if(indexingDataset == null){
             throw new IllegalArgumentException("The parsed DatasetGraphTDB instance MUST NOT be NULL!");
         }
         //this.indexingDataset = indexingDataset;
-        this.destination = new DestinationTripleGraph(indexingDataset,importFilter,log);
+        if(threads > 1){
+            //filtering is done by the parser threads
+            this.destination = new DestinationTripleGraph(indexingDataset,null,log);
+            this.parallelLoader = new ParallelRdfLoader(destination, importFilter, threads, log);
+        } else {
+            this.destination = new DestinationTripleGraph(indexingDataset,importFilter,log);
+            this.parallelLoader = null;
+        }
+    }
+    /**
+     * Finishes the import. If RDF data are imported in parallel this waits
+     * until all triples are stored and builds the indexes of the TDB dataset.
+     * @throws IllegalStateException if not all triples could be stored
+     */
+    public void finish(){
+        if(parallelLoader != null){
+            parallelLoader.finish();
+        }
     }
 
     @Override
@@ -64,6 +105,15 @@ public class RdfResourceImporter implements ResourceImporter {
             return ResourceState.IGNORED;
         } else {
             log.info("    - bulk loading File {} using Format {}",resourceName,format);
+            if(parallelLoader != null){
+                try { //returns after all triples of the resource are written
+                    parallelLoader.load(is, resourceName, format);
+                } catch (RuntimeException e) {
+                    log.error("Unable to load "+resourceName,e);
+                    return ResourceState.ERROR;
+                }
+                return ResourceState.LOADED;
+            }
             try {
             destination.startBulk() ;
             RiotReader.parse(is, format, null, destination) ;
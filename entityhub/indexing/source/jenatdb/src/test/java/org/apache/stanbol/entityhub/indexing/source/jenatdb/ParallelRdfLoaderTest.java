@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.indexing.source.jenatdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.atlas.lib.Tuple;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.stanbol.entityhub.indexing.core.source.ResourceState;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.tdb.base.file.Location;
+import com.hp.hpl.jena.tdb.store.bulkloader.BulkStreamRDF;
+import com.hp.hpl.jena.tdb.store.DatasetGraphTDB;
+import com.hp.hpl.jena.tdb.sys.TDBMaker;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Tests that the {@link ParallelRdfLoader} loads the same triples as the
+ * sequential import of the {@link RdfResourceImporter}.
+ */
+public class ParallelRdfLoaderTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelRdfLoaderTest.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String NS = "http://www.example.org/";
+    private static final Node BNODE_PROPERTY = NodeFactory.createURI(NS + "bnode");
+    private static final int ENTITIES = 1000;
+    /**
+     * the number of distinct blank nodes in the test data
+     */
+    private static final int BNODES = 10;
+    /**
+     * Chunk size used for the tests. Much smaller as the length of the test
+     * data so that many triples straddle chunk boundaries and every blank node
+     * is used in several chunks.
+     */
+    private static final int CHUNK_SIZE = 256;
+
+    /**
+     * Creates N-Triples test data. Every entity has a label and refers to one
+     * of {@link #BNODES} blank nodes that also have a value for every entity.
+     * Every 100th entity has a label longer as the {@link #CHUNK_SIZE}.
+     */
+    private static byte[] createTestData() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < ENTITIES; i++) {
+            String entity = '<' + NS + "entity" + i + '>';
+            data.append(entity).append(" <").append(NS).append("label> \"Entity ").append(i);
+            if (i % 100 == 0) {
+                for (int j = 0; j < CHUNK_SIZE; j++) {
+                    data.append((char) ('a' + j % 26));
+                }
+            }
+            data.append("\"@en .\n");
+            data.append(entity).append(" <").append(BNODE_PROPERTY.getURI()).append("> _:b")
+                    .append(i % BNODES).append(" .\n");
+            data.append("_:b").append(i % BNODES).append(" <").append(NS).append("value> <")
+                    .append(entity.substring(1, entity.length() - 1)).append("> .\n");
+        }
+        return data.toString().getBytes(UTF8);
+    }
+
+    private static DatasetGraphTDB loadSequential(byte[] data, int resources) throws IOException {
+        DatasetGraphTDB dataset = TDBMaker.createDatasetGraphTDB(Location.mem());
+        RdfResourceImporter importer = new RdfResourceImporter(dataset, null);
+        for (int i = 0; i < resources; i++) {
+            assertEquals(ResourceState.LOADED,
+                importer.importResource(new ByteArrayInputStream(data), "test" + i + ".nt"));
+        }
+        importer.finish();
+        return dataset;
+    }
+
+    private static DatasetGraphTDB loadParallel(byte[] data, int resources, int threads) throws IOException {
+        DatasetGraphTDB dataset = TDBMaker.createDatasetGraphTDB(Location.mem());
+        ParallelRdfLoader loader = new ParallelRdfLoader(
+            new DestinationTripleGraph(dataset, null, log), null, threads, CHUNK_SIZE, log);
+        try {
+            for (int i = 0; i < resources; i++) {
+                loader.load(new ByteArrayInputStream(data), "test" + i + ".nt", RDFLanguages.NTRIPLES);
+            }
+        } finally {
+            loader.finish();
+        }
+        return dataset;
+    }
+
+    private static Set<Node> getBlankNodes(Graph graph) {
+        Set<Node> bnodes = new HashSet<Node>();
+        ExtendedIterator<Triple> it = graph.find(Node.ANY, BNODE_PROPERTY, Node.ANY);
+        try {
+            while (it.hasNext()) {
+                Node bnode = it.next().getObject();
+                assertTrue(bnode.isBlank());
+                bnodes.add(bnode);
+            }
+        } finally {
+            it.close();
+        }
+        return bnodes;
+    }
+
+    @Test
+    public void testParallelEqualsSequential() throws IOException {
+        byte[] data = createTestData();
+        assertTrue(data.length > CHUNK_SIZE * 100);
+        Graph sequential = loadSequential(data, 1).getDefaultGraph();
+        Graph parallel = loadParallel(data, 1, 4).getDefaultGraph();
+        assertEquals(3 * ENTITIES, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        //blank nodes used in several chunks MUST BE the same node
+        assertEquals(BNODES, getBlankNodes(sequential).size());
+        assertEquals(BNODES, getBlankNodes(parallel).size());
+        assertTrue(sequential.isIsomorphicWith(parallel));
+    }
+
+    /**
+     * Blank nodes with the same label in different resources are different
+     * nodes
+     */
+    @Test
+    public void testBlankNodeScopePerResource() throws IOException {
+        byte[] data = createTestData();
+        Graph sequential = loadSequential(data, 2).getDefaultGraph();
+        Graph parallel = loadParallel(data, 2, 4).getDefaultGraph();
+        assertEquals(2 * BNODES, getBlankNodes(sequential).size());
+        assertEquals(2 * BNODES, getBlankNodes(parallel).size());
+        assertEquals(sequential.size(), parallel.size());
+        assertTrue(sequential.isIsomorphicWith(parallel));
+    }
+
+    /**
+     * A single parser thread does not split the data in chunks
+     */
+    @Test
+    public void testSingleThread() throws IOException {
+        byte[] data = createTestData();
+        Graph sequential = loadSequential(data, 1).getDefaultGraph();
+        Graph parallel = loadParallel(data, 1, 1).getDefaultGraph();
+        assertTrue(sequential.isIsomorphicWith(parallel));
+    }
+
+    /**
+     * Parsing errors in any chunk need to be reported
+     */
+    @Test(expected = RuntimeException.class)
+    public void testInvalidData() throws IOException {
+        String data = new String(createTestData(), UTF8);
+        int lineEnd = data.indexOf('\n', data.length() / 2) + 1;
+        String invalid = data.substring(0, lineEnd) + "<urn:invalid> .\n" + data.substring(lineEnd);
+        loadParallel(invalid.getBytes(UTF8), 1, 4);
+    }
+
+    /**
+     * {@link ParallelRdfLoader#load(java.io.InputStream, String, org.apache.jena.riot.Lang)}
+     * MUST only return after all triples of the resource are written, as the
+     * caller marks the resource as loaded afterwards
+     */
+    @Test
+    public void testLoadWaitsForWriter() throws IOException {
+        byte[] data = createTestData();
+        TestDestination destination = new TestDestination(-1);
+        ParallelRdfLoader loader = new ParallelRdfLoader(destination, null, 4, CHUNK_SIZE, log);
+        try {
+            for (int i = 1; i <= 2; i++) {
+                loader.load(new ByteArrayInputStream(data), "test" + i + ".nt", RDFLanguages.NTRIPLES);
+                assertEquals(i * 3 * ENTITIES, destination.written.get());
+            }
+        } finally {
+            loader.finish();
+        }
+        assertTrue(destination.finished);
+    }
+
+    /**
+     * If the writer fails the resource MUST NOT be reported as loaded and
+     * {@link ParallelRdfLoader#finish()} MUST report the failure
+     */
+    @Test
+    public void testFailingWriter() throws IOException {
+        byte[] data = createTestData();
+        TestDestination destination = new TestDestination(ENTITIES);
+        ParallelRdfLoader loader = new ParallelRdfLoader(destination, null, 4, CHUNK_SIZE, log);
+        try {
+            loader.load(new ByteArrayInputStream(data), "test.nt", RDFLanguages.NTRIPLES);
+            fail("IllegalStateException expected for a failing writer");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        try {
+            loader.load(new ByteArrayInputStream(data), "test2.nt", RDFLanguages.NTRIPLES);
+            fail("IllegalStateException expected after the writer failed");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        try {
+            loader.finish();
+            fail("IllegalStateException expected for a failing writer");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        assertTrue("the bulk load MUST BE finished", destination.finished);
+    }
+
+    /**
+     * Destination that counts written triples and fails after the configured
+     * number of triples
+     */
+    private static class TestDestination implements BulkStreamRDF {
+
+        private final int failAfter;
+        final AtomicInteger written = new AtomicInteger();
+        volatile boolean finished;
+
+        /**
+         * @param failAfter the number of triples written before the
+         * destination fails or <code>-1</code> to never fail
+         */
+        TestDestination(int failAfter) {
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            if (failAfter >= 0 && written.get() >= failAfter) {
+                throw new IllegalStateException("test failure");
+            }
+            written.incrementAndGet();
+        }
+
+        @Override
+        public void startBulk() {}
+
+        @Override
+        public void finishBulk() {
+            finished = true;
+        }
+
+        @Override
+        public void start() {}
+
+        @Override
+        public void quad(Quad quad) {}
+
+        @Override
+        public void tuple(Tuple<Node> tuple) {}
+
+        @Override
+        public void base(String base) {}
+
+        @Override
+        public void prefix(String prefix, String iri) {}
+
+        @Override
+        public void finish() {}
+    }
+}
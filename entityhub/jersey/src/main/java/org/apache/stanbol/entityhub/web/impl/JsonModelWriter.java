@@ -19,6 +19,8 @@ package org.apache.stanbol.entityhub.web.impl;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
@@ -38,6 +40,7 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
+import org.apache.stanbol.entityhub.core.query.StreamingQueryResultList;
 import org.apache.stanbol.entityhub.core.utils.TimeUtils;
 import org.apache.stanbol.entityhub.servicesapi.defaults.DataTypeEnum;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
@@ -155,12 +158,66 @@ public class JsonModelWriter implements ModelWriter {
     public void write(QueryResultList<?> result, OutputStream out, MediaType mediaType) 
             throws WebApplicationException, IOException {
         try {
-            writeJsonObject(toJSON(result,nsPrefixService), out,getCharset(mediaType));
+            if(result instanceof StreamingQueryResultList<?> && 
+                    ((StreamingQueryResultList<?>)result).isStreaming()){
+                writeStreaming(result, out, getCharset(mediaType));
+            } else {
+                writeJsonObject(toJSON(result,nsPrefixService), out,getCharset(mediaType));
+            }
         } catch (JSONException e) {
             throw new WebApplicationException(e, Status.INTERNAL_SERVER_ERROR);
         }
 
     }
+    /**
+     * Writes the results of a {@link StreamingQueryResultList} one by one
+     * to the stream so that the results do not need to be kept in memory
+     * @param resultList the result list
+     * @param out the output stream
+     * @param charset the charset
+     * @throws IOException
+     * @throws JSONException
+     */
+    private void writeStreaming(QueryResultList<?> resultList, OutputStream out, String charset) 
+            throws IOException, JSONException {
+        Writer writer = new OutputStreamWriter(out, charset);
+        writer.write('{');
+        if(resultList.getQuery() != null){
+            writer.write("\"query\":");
+            JSONObject jQuery = FieldQueryToJsonUtils.toJSON(resultList.getQuery(),nsPrefixService);
+            writer.write(indent > 0 ? jQuery.toString(indent) : jQuery.toString());
+            writer.write(',');
+        }
+        writer.write("\"results\":[");
+        Class<?> type = resultList.getType();
+        boolean first = true;
+        for(Object result : resultList){
+            JSONObject jResult;
+            if(String.class.isAssignableFrom(type)){
+                jResult = null;
+            } else if(Representation.class.isAssignableFrom(type)){
+                jResult = toJSON((Representation)result);
+            } else if(Entity.class.isAssignableFrom(type)){
+                jResult = toJSON((Entity)result);
+            } else {
+                continue; //unsupported type (ignored as by convertResultsToJSON)
+            }
+            if(!first){
+                writer.write(',');
+            }
+            if(jResult == null){
+                writer.write(JSONObject.quote(result.toString()));
+            } else {
+                writer.write(indent > 0 ? jResult.toString(indent) : jResult.toString());
+            }
+            if(first){ //send the first result as soon as possible
+                writer.flush();
+                first = false;
+            }
+        }
+        writer.write("]}");
+        writer.flush();
+    }
     private JSONObject toJSON(Entity entity) throws JSONException {
         return convertEntityToJSON(entity);
     }
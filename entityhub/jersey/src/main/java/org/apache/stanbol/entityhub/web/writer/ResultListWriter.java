@@ -34,6 +34,7 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.entityhub.core.query.StreamingQueryResultList;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
@@ -94,12 +95,15 @@ public class ResultListWriter implements MessageBodyWriter<QueryResultList<?>> {
             httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, mediaType.toString());
         }
         Class<? extends Representation> nativeType;
-        if(list.isEmpty()){ //for empty lists
+        //streaming result lists can only be iterated once
+        Object first = list.isEmpty() ? null : list instanceof StreamingQueryResultList<?> ?
+                ((StreamingQueryResultList<?>)list).peek() : list.iterator().next();
+        if(first == null){ //for empty lists
             nativeType = null; //the type does not matter
         } else if(Representation.class.isAssignableFrom(list.getType())){
-            nativeType = ((Representation)list.iterator().next()).getClass();
+            nativeType = ((Representation)first).getClass();
         } else if(Entity.class.isAssignableFrom(list.getType())){
-            nativeType = ((Entity)list.iterator().next()).getRepresentation().getClass();
+            nativeType = ((Entity)first).getRepresentation().getClass();
         } else { //only a list of string ids
             nativeType = null;
         }
@@ -28,6 +28,7 @@ import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory.Reference
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory.TextConverter;
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory.ValueConverter;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.ldpath.backend.AbstractBackend;
 import org.apache.stanbol.entityhub.ldpath.transformer.ValueConverterTransformerAdapter;
 import org.apache.stanbol.entityhub.servicesapi.defaults.DataTypeEnum;
 import org.apache.stanbol.entityhub.servicesapi.defaults.NamespaceEnum;
@@ -95,7 +96,10 @@ public class EntityhubLDPath extends LDPath<Object> {
      * Executes the parsed {@link Program} and stores the 
      * {@link Program#getFields() fields} in a {@link Representation}. The actual
      * implementation used for the {@link Representation} depends on the
-     * {@link ValueFactory} of this EntityhubLDPath instance
+     * {@link ValueFactory} of this EntityhubLDPath instance.<p>
+     * If the {@link RDFBackend} is an {@link AbstractBackend} the program is
+     * executed on an {@link AbstractBackend#createExecutionBackend() execution
+     * backend} so that Representations are only loaded once per execution.
      * @param context the context
      * @param program the program 
      * @return the {@link Representation} holding the results of the execution
@@ -109,6 +113,8 @@ public class EntityhubLDPath extends LDPath<Object> {
         if(program == null){
             throw new IllegalArgumentException("The parsed program MUST NOT be NULL!");
         }
+        RDFBackend<Object> backend = this.backend instanceof AbstractBackend ?
+                ((AbstractBackend)this.backend).createExecutionBackend() : this.backend;
         Representation result = vf.createRepresentation(context.getReference());
         for(FieldMapping<?,Object> mapping : program.getFields()) {
             Collection<?> values = mapping.getValues(backend,context);
@@ -20,6 +20,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
@@ -50,7 +52,13 @@ import org.slf4j.LoggerFactory;
  * </ul>
  * In addition two further methods are defined to create {@link FieldQuery field queries} and
  * o lookup the {@link ValueFactory} instance needed to create URIs and
- * Literals.
+ * Literals.<p>
+ * Instances are thread safe. {@link #createExecutionBackend()} creates an
+ * {@link RDFBackend} intended to be used for a single execution of an
+ * LDPath program. It memoises all Representations loaded during the
+ * execution and - if a {@link #setPrefetchSize(int) prefetch size} is set -
+ * loads the Representations of all Entities selected by a path step with
+ * batched requests to {@link #getRepresentations(Collection)}.
  * @author Rupert Westenthaler
  *
  */
@@ -58,21 +66,36 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
     
     public static final int DEFAULT_MAX_SELECT = 1000; //select a maximum of 1000 values per query
     public static final int DEFAULT_MAX_RESULTS = 100000; //select a maximum of 100k entities
+    /**
+     * The default number of Representations loaded by a single batched
+     * request if prefetching is enabled
+     */
+    public static final int DEFAULT_PREFETCH_SIZE = 100;
 
     private static final int LRU_CACHE_SIZE = 1000;
     
     @SuppressWarnings("serial")
-    private final Map<String,Representation> lru =
+    private final Map<String,Representation> lru = Collections.synchronizedMap(
         new LinkedHashMap<String,Representation>(LRU_CACHE_SIZE+1, 0.75f, true){
         @Override
         protected boolean removeEldestEntry(java.util.Map.Entry<String,Representation> eldest) {
             return size() > LRU_CACHE_SIZE;
         }
-    };
+    });
     /**
      * Locally add Representations.
      */
-    private final Map<String,Representation> local = new TreeMap<String,Representation>(); 
+    private final Map<String,Representation> local = new ConcurrentHashMap<String,Representation>(); 
+    /**
+     * The thread pool parsed to LDPath or <code>null</code> if threading
+     * is not supported
+     */
+    private volatile ThreadPoolExecutor threadPool;
+    /**
+     * The maximum number of Representations loaded by a single batched
+     * request. <code>0</code> if prefetching is deactivated
+     */
+    private volatile int prefetchSize = 0;
     /**
      * EnumMap to avoid instantiations of URIs for the limited set of
      * DataTypes
@@ -107,14 +130,76 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
     protected abstract QueryResultList<String> query(FieldQuery query) throws EntityhubException;
 
     protected abstract FieldQuery createQuery();
+    /**
+     * Getter for the Representations with the parsed IDs. Used to prefetch
+     * Representations if a {@link #setPrefetchSize(int) prefetch size} is
+     * set. This default implementation calls {@link #getRepresentation(String)}
+     * for every parsed ID. Subclasses SHOULD override this method if the
+     * used service supports batched requests.
+     * @param ids the IDs
+     * @return the found Representations by ID. IDs of Representations that
+     * are not found are not contained in the returned map
+     * @throws EntityhubException on any error while loading the Representations
+     */
+    protected Map<String,Representation> getRepresentations(Collection<String> ids) throws EntityhubException {
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(String id : ids){
+            Representation r = getRepresentation(id);
+            if(r != null){
+                representations.put(id, r);
+            }
+        }
+        return representations;
+    }
+    /**
+     * Setter for the thread pool used by LDPath to evaluate programs. If set
+     * {@link #supportsThreading()} will return <code>true</code>.
+     * @param threadPool the thread pool or <code>null</code> to deactivate
+     * threaded evaluation
+     */
+    public void setThreadPool(ThreadPoolExecutor threadPool) {
+        this.threadPool = threadPool;
+    }
+    /**
+     * Setter for the maximum number of Representations loaded by a single
+     * batched request by {@link #createExecutionBackend() execution backends}.
+     * @param prefetchSize the size. Values &lt;= 1 deactivate prefetching
+     * @see #DEFAULT_PREFETCH_SIZE
+     */
+    public void setPrefetchSize(int prefetchSize) {
+        this.prefetchSize = prefetchSize <= 1 ? 0 : prefetchSize;
+    }
+    /**
+     * Getter for the prefetch size
+     * @return the maximum number of Representations loaded by a single
+     * batched request or <code>0</code> if prefetching is deactivated
+     */
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+    /**
+     * Creates an {@link RDFBackend} intended to be used for a single execution
+     * of an LDPath program. It forwards all requests to this backend but
+     * memoises all Representations (including not found ones) for the
+     * lifetime of the returned instance. If a {@link #setPrefetchSize(int)
+     * prefetch size} is set it also tracks the Entities selected by
+     * {@link #listObjects(Object, Object)} and {@link #listSubjects(Object, Object)}.
+     * The first time one of those is used as subject the Representations of
+     * the other Entities (up to the prefetch size) are loaded by a single call
+     * to {@link #getRepresentations(Collection)}.
+     * @return the backend for a single LDPath program execution
+     */
+    public AbstractBackend createExecutionBackend() {
+        return new ExecutionBackend();
+    }
 
     @Override
     public boolean supportsThreading() {
-        return false;
+        return threadPool != null;
     }
     @Override
     public ThreadPoolExecutor getThreadPool() {
-        return null;
+        return threadPool;
     }
     @Override
     public Object createLiteral(String content) {
@@ -206,20 +291,7 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
         if(subject == null){
             results =  Collections.emptySet();
         } else {
-            //Here the assumption is the the LD Path program will request
-            //a lot of properties for a very low numbers of Entities
-            // .. there fore we keep here representations within an LRU cache 
-            Representation r = getCached(subject.toString());
-            if(r == null){
-                try {
-                    r = getRepresentation(subject.toString());
-                } catch (EntityhubException e) {
-                    throw new IllegalStateException(e.getMessage(),e);
-                }
-                if(r != null){
-                    toLRU(r);
-                }
-            }
+            Representation r = lookup(subject.toString());
             if(r != null){
                 if(property != null){
                     results = ModelUtils.asCollection(r.get(property.toString()));
@@ -233,6 +305,7 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
                 results = Collections.emptyList();
             }
         }
+        frontier(results);
         return results;
     }
 
@@ -299,6 +372,7 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
                 }
             }
         }
+        frontier(references);
         return references;
     }
     @Override
@@ -380,6 +454,38 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
     /*
      * Utility methods for managing the local cache
      */
+    /**
+     * Getter for the Representation with the parsed ID. Uses the local and
+     * the LRU cache.
+     * @param id the ID
+     * @return the Representation or <code>null</code> if not found
+     */
+    Representation lookup(String id){
+        //Here the assumption is the the LD Path program will request
+        //a lot of properties for a very low numbers of Entities
+        // .. there fore we keep here representations within an LRU cache 
+        Representation r = getCached(id);
+        if(r == null){
+            try {
+                r = getRepresentation(id);
+            } catch (EntityhubException e) {
+                throw new IllegalStateException(e.getMessage(),e);
+            }
+            if(r != null){
+                toLRU(r);
+            }
+        }
+        return r;
+    }
+    /**
+     * Called with the nodes selected by {@link #listObjects(Object, Object)}
+     * and {@link #listSubjects(Object, Object)}. Used by
+     * {@link ExecutionBackend} to track Entities for prefetching. 
+     * @param nodes the selected nodes
+     */
+    void frontier(Collection<Object> nodes){
+        //not used by this implementation
+    }
     /**
      * Adds an retrieved Representation to the LRU cache
      * @param r
@@ -420,4 +526,180 @@ public abstract class AbstractBackend implements RDFBackend<Object> {
         Representation r = local.get(id);
         return r == null ? lru.get(id) : r;
     }
+    /**
+     * The Entities selected by a single {@link AbstractBackend#frontier(Collection)
+     * frontier} that are not yet loaded.
+     */
+    private static final class Frontier {
+        
+        private final Set<String> ids;
+        
+        Frontier(Collection<String> ids){
+            this.ids = new LinkedHashSet<String>(ids);
+        }
+        /**
+         * Removes and returns the parsed id and up to <code>size - 1</code>
+         * other ids of this frontier
+         */
+        synchronized List<String> next(String id, int size){
+            List<String> batch = new ArrayList<String>(Math.min(size, ids.size()+1));
+            batch.add(id);
+            ids.remove(id);
+            Iterator<String> it = ids.iterator();
+            while(batch.size() < size && it.hasNext()){
+                batch.add(it.next());
+                it.remove();
+            }
+            return batch;
+        }
+        /**
+         * Removes an id that was loaded by other means
+         */
+        synchronized void remove(String id){
+            ids.remove(id);
+        }
+    }
+    /**
+     * {@link RDFBackend} used for a single LDPath program execution.
+     * @see AbstractBackend#createExecutionBackend()
+     */
+    private final class ExecutionBackend extends AbstractBackend {
+        /**
+         * Representations loaded during this execution
+         */
+        private final Map<String,Representation> memo = new ConcurrentHashMap<String,Representation>();
+        /**
+         * IDs of Representations that where not found
+         */
+        private final Set<String> missing = Collections.newSetFromMap(new ConcurrentHashMap<String,Boolean>());
+        /**
+         * Entities that will be loaded by the next batched request for the
+         * {@link Frontier} they are part of.
+         */
+        private final ConcurrentMap<String,Frontier> pending = new ConcurrentHashMap<String,Frontier>();
+        
+        ExecutionBackend() {
+            super(AbstractBackend.this.valueConverter);
+        }
+        @Override
+        protected ValueFactory getValueFactory() {
+            return AbstractBackend.this.getValueFactory();
+        }
+        @Override
+        protected Representation getRepresentation(String id) throws EntityhubException {
+            return AbstractBackend.this.getRepresentation(id);
+        }
+        @Override
+        protected Map<String,Representation> getRepresentations(Collection<String> ids) throws EntityhubException {
+            return AbstractBackend.this.getRepresentations(ids);
+        }
+        @Override
+        protected QueryResultList<String> query(FieldQuery query) throws EntityhubException {
+            return AbstractBackend.this.query(query);
+        }
+        @Override
+        protected FieldQuery createQuery() {
+            return AbstractBackend.this.createQuery();
+        }
+        @Override
+        public boolean supportsThreading() {
+            return AbstractBackend.this.supportsThreading();
+        }
+        @Override
+        public ThreadPoolExecutor getThreadPool() {
+            return AbstractBackend.this.getThreadPool();
+        }
+        @Override
+        public AbstractBackend createExecutionBackend() {
+            return this;
+        }
+        @Override
+        public void addLocal(Representation r) {
+            if(r != null){
+                memo.put(r.getId(), r);
+                missing.remove(r.getId());
+            }
+        }
+        @Override
+        public void removeLocal(String id) {
+            if(id != null){
+                memo.remove(id);
+            }
+        }
+        @Override
+        Representation lookup(String id) {
+            Representation r = memo.get(id);
+            if(r != null || missing.contains(id)){
+                return r;
+            }
+            r = AbstractBackend.this.getCached(id);
+            if(r != null){
+                memo.put(id, r);
+                Frontier frontier = pending.remove(id);
+                if(frontier != null){ //do not load it again with the frontier
+                    frontier.remove(id);
+                }
+                return r;
+            }
+            Frontier frontier = pending.remove(id);
+            if(frontier == null){ //load a single representation
+                try {
+                    r = getRepresentation(id);
+                } catch (EntityhubException e) {
+                    throw new IllegalStateException(e.getMessage(),e);
+                }
+                loaded(id, r);
+            } else { //load the next batch of the frontier
+                List<String> batch = frontier.next(id, AbstractBackend.this.prefetchSize);
+                for(String batchId : batch){
+                    pending.remove(batchId, frontier);
+                }
+                Map<String,Representation> loaded;
+                try {
+                    loaded = getRepresentations(batch);
+                } catch (EntityhubException e) {
+                    throw new IllegalStateException(e.getMessage(),e);
+                }
+                for(String batchId : batch){
+                    loaded(batchId, loaded.get(batchId));
+                }
+                r = loaded.get(id);
+            }
+            return r;
+        }
+        /**
+         * Memoises the Representation loaded for the parsed ID
+         */
+        private void loaded(String id, Representation r){
+            if(r != null){
+                memo.put(id, r);
+                AbstractBackend.this.toLRU(r);
+            } else {
+                missing.add(id);
+            }
+        }
+        @Override
+        void frontier(Collection<Object> nodes) {
+            if(AbstractBackend.this.prefetchSize <= 0 || nodes.size() < 2){
+                return;
+            }
+            List<String> ids = new ArrayList<String>(nodes.size());
+            for(Object node : nodes){
+                if(node instanceof Reference){
+                    String id = node.toString();
+                    if(!memo.containsKey(id) && !missing.contains(id) && 
+                            !pending.containsKey(id) && 
+                            AbstractBackend.this.getCached(id) == null){
+                        ids.add(id);
+                    }
+                }
+            }
+            if(ids.size() > 1){
+                Frontier frontier = new Frontier(ids);
+                for(String id : ids){
+                    pending.putIfAbsent(id, frontier);
+                }
+            }
+        }
+    }
 }
@@ -16,6 +16,10 @@
 */
 package org.apache.stanbol.entityhub.ldpath.backend;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
@@ -56,6 +60,15 @@ public class SiteBackend extends AbstractBackend {
         return entity != null ? entity.getRepresentation():null;
     }
     @Override
+    protected Map<String,Representation> getRepresentations(Collection<String> ids) throws EntityhubException {
+        Map<String,Entity> entities = site.getEntities(ids, null);
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>(entities.size());
+        for(Map.Entry<String,Entity> entry : entities.entrySet()){
+            representations.put(entry.getKey(), entry.getValue().getRepresentation());
+        }
+        return representations;
+    }
+    @Override
     protected ValueFactory getValueFactory() {
         return vf;
     }
@@ -16,6 +16,13 @@
 */
 package org.apache.stanbol.entityhub.ldpath.backend;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
@@ -26,10 +33,15 @@ import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.site.Site;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteException;
 import org.apache.stanbol.entityhub.servicesapi.site.SiteManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SiteManagerBackend extends AbstractBackend {
 
+    private final Logger log = LoggerFactory.getLogger(SiteManagerBackend.class);
     protected final SiteManager siteManager;
     private ValueFactory vf = InMemoryValueFactory.getInstance();
     private FieldQueryFactory qf = DefaultQueryFactory.getInstance();
@@ -53,6 +65,49 @@ public class SiteManagerBackend extends AbstractBackend {
         Entity entity = siteManager.getEntity(id);
         return entity != null ? entity.getRepresentation() : null;
     }
+    /**
+     * Groups the parsed IDs by the first {@link Site} registered for their
+     * prefix and loads them by a single request per Site. Entities not
+     * found on that Site are looked up via {@link SiteManager#getEntity(String)}
+     * that also considers other Sites.
+     */
+    @Override
+    protected Map<String,Representation> getRepresentations(Collection<String> ids) throws EntityhubException {
+        Map<Site,List<String>> bySite = new LinkedHashMap<Site,List<String>>();
+        for(String id : ids){
+            Iterator<Site> sites = siteManager.getSitesByEntityPrefix(id).iterator();
+            if(sites.hasNext()){
+                Site site = sites.next();
+                List<String> siteIds = bySite.get(site);
+                if(siteIds == null){
+                    siteIds = new ArrayList<String>();
+                    bySite.put(site, siteIds);
+                }
+                siteIds.add(id);
+            } //else no site for this id
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(Map.Entry<Site,List<String>> entry : bySite.entrySet()){
+            Map<String,Entity> entities;
+            try {
+                entities = entry.getKey().getEntities(entry.getValue(), null);
+            } catch (SiteException e) {
+                log.warn("Unable to load Entities from Site "
+                    + entry.getKey().getId() + " (message: "+e.getMessage()+")");
+                entities = null;
+            }
+            for(String id : entry.getValue()){
+                Entity entity = entities == null ? null : entities.get(id);
+                if(entity == null){ //try other sites
+                    entity = siteManager.getEntity(id);
+                }
+                if(entity != null){
+                    representations.put(id, entity.getRepresentation());
+                }
+            }
+        }
+        return representations;
+    }
     @Override
     protected ValueFactory getValueFactory() {
         return vf;
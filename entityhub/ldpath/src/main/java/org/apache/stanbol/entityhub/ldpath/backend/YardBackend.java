@@ -16,6 +16,9 @@
 */
 package org.apache.stanbol.entityhub.ldpath.backend;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory;
 import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
@@ -47,6 +50,10 @@ public class YardBackend extends AbstractBackend {
         return yard.getRepresentation(id);
     }
     @Override
+    protected Map<String,Representation> getRepresentations(Collection<String> ids) throws EntityhubException {
+        return yard.getRepresentations(ids, null);
+    }
+    @Override
     protected ValueFactory getValueFactory() {
         return yard.getValueFactory();
     }
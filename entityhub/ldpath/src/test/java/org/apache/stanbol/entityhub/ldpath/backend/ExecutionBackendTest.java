@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.ldpath.backend;
+
+import static org.apache.stanbol.entityhub.ldpath.LDPathUtils.getReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.marmotta.ldpath.model.programs.Program;
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.ldpath.EntityhubLDPath;
+import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the memoisation and the prefetching of the backends created by
+ * {@link AbstractBackend#createExecutionBackend()}.
+ */
+public class ExecutionBackendTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionBackendTest.class);
+
+    private static final ValueFactory vf = InMemoryValueFactory.getInstance();
+
+    private static final String NS = "http://www.example.org/test/";
+    private static final String KNOWS = NS + "knows";
+    private static final String NAME = NS + "name";
+    private static final String CONTEXT = NS + "context";
+    /**
+     * Referenced by all persons but not present in the test data
+     */
+    private static final String MISSING = NS + "missing";
+    private static final int PERSONS = 20;
+
+    private static final String TEST_PROGRAM;
+    static {
+        StringBuilder builder = new StringBuilder();
+        builder.append("@prefix ex : <").append(NS).append("> ;");
+        builder.append("names = ex:knows / ex:name :: xsd:string;");
+        builder.append("friends = ex:knows / ex:knows :: xsd:anyURI;");
+        builder.append("friendNames = ex:knows / ex:knows / ex:name :: xsd:string;");
+        TEST_PROGRAM = builder.toString();
+    }
+
+    /**
+     * Creates the test data. The context knows {@link #PERSONS} persons and
+     * every person knows the next one and the {@link #MISSING} entity.
+     */
+    private static Map<String,Representation> createTestData() {
+        Map<String,Representation> data = new HashMap<String,Representation>();
+        Representation context = vf.createRepresentation(CONTEXT);
+        for (int i = 0; i < PERSONS; i++) {
+            Representation person = vf.createRepresentation(NS + "person" + i);
+            person.add(NAME, vf.createText("Person " + i, "en"));
+            person.add(KNOWS, vf.createReference(NS + "person" + ((i + 1) % PERSONS)));
+            person.add(KNOWS, vf.createReference(MISSING));
+            data.put(person.getId(), person);
+            context.add(KNOWS, vf.createReference(person.getId()));
+        }
+        data.put(context.getId(), context);
+        return data;
+    }
+
+    /**
+     * Executes the {@link #TEST_PROGRAM} on an execution backend of the
+     * parsed backend and returns the results as sets
+     */
+    private static Map<String,Collection<Object>> execute(AbstractBackend backend) throws Exception {
+        EntityhubLDPath ldPath = new EntityhubLDPath(backend);
+        Program<Object> program = ldPath.parseProgram(getReader(TEST_PROGRAM));
+        assertNotNull("The Program MUST NOT be NULL", program);
+        Map<String,Collection<?>> result = program.execute(backend.createExecutionBackend(),
+            vf.createReference(CONTEXT));
+        log.info("Results for {}:\n{}", CONTEXT, result);
+        Map<String,Collection<Object>> values = new HashMap<String,Collection<Object>>();
+        for (Entry<String,Collection<?>> entry : result.entrySet()) {
+            values.put(entry.getKey(), new HashSet<Object>(entry.getValue()));
+        }
+        return values;
+    }
+
+    @Test
+    public void testPrefetchResults() throws Exception {
+        Map<String,Collection<Object>> expected = execute(new TestBackend(createTestData(), 0));
+        assertEquals(PERSONS, expected.get("names").size());
+        assertEquals(PERSONS, expected.get("friendNames").size());
+        //all persons and the missing entity
+        assertEquals(PERSONS + 1, expected.get("friends").size());
+        for (int prefetchSize : new int[] {2, 5, PERSONS, AbstractBackend.DEFAULT_PREFETCH_SIZE}) {
+            assertEquals("Prefetch size " + prefetchSize, expected,
+                execute(new TestBackend(createTestData(), prefetchSize)));
+        }
+    }
+
+    /**
+     * Every Representation (including not found ones) MUST BE loaded only
+     * once by an execution backend regardless if prefetching is enabled
+     */
+    @Test
+    public void testMemoisation() throws Exception {
+        for (int prefetchSize : new int[] {0, 2, 5, AbstractBackend.DEFAULT_PREFETCH_SIZE}) {
+            TestBackend backend = new TestBackend(createTestData(), prefetchSize);
+            execute(backend);
+            //the context, all persons and the missing entity
+            assertEquals("Prefetch size " + prefetchSize, PERSONS + 2, backend.requested.size());
+            for (Entry<String,Integer> entry : backend.requested.entrySet()) {
+                assertEquals("Prefetch size " + prefetchSize + " entity " + entry.getKey(),
+                    Integer.valueOf(1), entry.getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testPrefetchBatches() throws Exception {
+        TestBackend backend = new TestBackend(createTestData(), 0);
+        execute(backend);
+        assertTrue(backend.batches.isEmpty());
+
+        int prefetchSize = 5;
+        backend = new TestBackend(createTestData(), prefetchSize);
+        execute(backend);
+        //the persons known by the context are loaded in batches
+        assertEquals(PERSONS / prefetchSize, backend.batches.size());
+        for (Integer size : backend.batches) {
+            assertEquals(prefetchSize, size.intValue());
+        }
+        //the context and the missing entity are loaded one by one
+        assertEquals(2, backend.single);
+    }
+
+    /**
+     * Frontiers of a single execution MUST NOT affect other executions
+     */
+    @Test
+    public void testSingleEntityFrontier() throws Exception {
+        TestBackend backend = new TestBackend(createTestData(), AbstractBackend.DEFAULT_PREFETCH_SIZE);
+        AbstractBackend execution = backend.createExecutionBackend();
+        Collection<Object> persons = execution.listObjects(
+            vf.createReference(CONTEXT), vf.createReference(KNOWS));
+        assertEquals(PERSONS, persons.size());
+        //the frontier of the first execution is not used by a 2nd one
+        AbstractBackend other = backend.createExecutionBackend();
+        assertEquals(1, other.listObjects(vf.createReference(NS + "person0"),
+            vf.createReference(NAME)).size());
+        assertTrue(backend.batches.isEmpty());
+        //but the 1st execution loads all other persons with a single request
+        for (Object person : persons) {
+            assertEquals(2, execution.listObjects(person, vf.createReference(KNOWS)).size());
+        }
+        assertEquals(1, backend.batches.size());
+        assertEquals(PERSONS - 1, backend.batches.get(0).intValue());
+    }
+
+    /**
+     * Backend over in-memory test data that counts the requests for
+     * Representations
+     */
+    private static class TestBackend extends AbstractBackend {
+
+        private final Map<String,Representation> data;
+        /**
+         * The number of requests per ID
+         */
+        final Map<String,Integer> requested = new LinkedHashMap<String,Integer>();
+        /**
+         * The sizes of the batched requests
+         */
+        final List<Integer> batches = new ArrayList<Integer>();
+        /**
+         * The number of single requests
+         */
+        int single;
+
+        TestBackend(Map<String,Representation> data, int prefetchSize) {
+            this.data = data;
+            setPrefetchSize(prefetchSize);
+        }
+
+        @Override
+        protected ValueFactory getValueFactory() {
+            return vf;
+        }
+
+        @Override
+        protected synchronized Representation getRepresentation(String id) throws EntityhubException {
+            single++;
+            return get(id);
+        }
+
+        @Override
+        protected synchronized Map<String,Representation> getRepresentations(Collection<String> ids) throws EntityhubException {
+            batches.add(ids.size());
+            Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+            for (String id : ids) {
+                Representation r = get(id);
+                if (r != null) {
+                    representations.put(id, r);
+                }
+            }
+            return representations;
+        }
+
+        private Representation get(String id) {
+            Integer count = requested.get(id);
+            requested.put(id, count == null ? 1 : count + 1);
+            return data.get(id);
+        }
+
+        @Override
+        protected QueryResultList<String> query(FieldQuery query) throws EntityhubException {
+            throw new UnsupportedOperationException("Queries are not supported by the test backend");
+        }
+
+        @Override
+        protected FieldQuery createQuery() {
+            throw new UnsupportedOperationException("Queries are not supported by the test backend");
+        }
+    }
+}
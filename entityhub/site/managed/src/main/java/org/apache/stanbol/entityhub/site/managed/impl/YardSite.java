@@ -19,8 +19,12 @@ package org.apache.stanbol.entityhub.site.managed.impl;
 import static org.apache.stanbol.entityhub.core.utils.SiteUtils.extractSiteMetadata;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
@@ -154,6 +158,23 @@ public final class YardSite implements ManagedSite {
             return null;
         }
     }
+
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> ids, Set<String> fields) throws ManagedSiteException {
+        Map<String,Representation> reps;
+        try {
+            reps = getYard().getRepresentations(ids, fields);
+        } catch (YardException e) {
+            throw new ManagedSiteException(e.getMessage(), e);
+        }
+        Map<String,Entity> entities = new LinkedHashMap<String,Entity>(reps.size());
+        for(Entry<String,Representation> entry : reps.entrySet()){
+            Entity entity = new EntityImpl(config.getId(), entry.getValue(), null);
+            SiteUtils.initEntityMetadata(entity, siteMetadata, null);
+            entities.put(entry.getKey(), entity);
+        }
+        return entities;
+    }
     
     /**
      * Stores the parsed representation to the Yard and also applies the
@@ -17,10 +17,13 @@
 package org.apache.stanbol.entityhub.yard.clerezza.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Dictionary;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -272,6 +275,62 @@ public class ClerezzaYard extends AbstractYard implements Yard {
             }
         }
     }
+    /**
+     * Extracts all Representations while acquiring the read lock of the
+     * graph only once. If fields are parsed only triples with those properties
+     * (and the {@link BlankNode}s referenced by them) are extracted.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields) {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed representation ids MUST NOT be NULL!");
+        }
+        Set<IRI> properties = null;
+        if(fields != null){
+            properties = new HashSet<IRI>(fields.size());
+            for(String field : fields){
+                if(field != null && !field.isEmpty()){
+                    properties.add(new IRI(field));
+                }
+            }
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        final Lock readLock = readLockGraph();
+        try {
+            for(String id : ids){
+                if(id == null || id.isEmpty() || representations.containsKey(id)){
+                    continue;
+                }
+                IRI uri = new IRI(id);
+                if(isRepresentation(uri)){
+                    Graph nodeGraph;
+                    if(properties == null){
+                        nodeGraph = createRepresentationGraph(uri, graph);
+                        nodeGraph.remove(new TripleImpl(uri,MANAGED_REPRESENTATION,TRUE_LITERAL));
+                    } else {
+                        nodeGraph = new IndexedGraph();
+                        Set<BlankNode> visited = new HashSet<BlankNode>();
+                        for(IRI property : properties){
+                            Iterator<Triple> it = graph.filter(uri, property, null);
+                            while(it.hasNext()){
+                                Triple triple = it.next();
+                                nodeGraph.add(triple);
+                                RDFTerm object = triple.getObject();
+                                if(object instanceof BlankNode && visited.add((BlankNode)object)){
+                                    extractRepresentation(graph, nodeGraph, (BlankNode)object, visited);
+                                }
+                            }
+                        }
+                    }
+                    representations.put(id, ((RdfValueFactory)getValueFactory())
+                        .createRdfRepresentation(uri, nodeGraph));
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return representations;
+    }
     /**
      * @return the readLock or <code>null</code>if no read lock is needed
      */
@@ -17,16 +17,22 @@
 package org.apache.stanbol.entityhub.yard.sesame;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
 import org.apache.stanbol.entityhub.core.query.QueryUtils;
+import org.apache.stanbol.entityhub.core.query.StreamingQueryResultList;
 import org.apache.stanbol.entityhub.core.yard.AbstractYard;
 import org.apache.stanbol.entityhub.model.sesame.RdfRepresentation;
 import org.apache.stanbol.entityhub.model.sesame.RdfValueFactory;
@@ -100,6 +106,18 @@ public class SesameYard extends AbstractYard implements Yard {
      * <br> for any empty Representation avoids this unwanted behaviour.
      */
     private static final String MANAGED_REPRESENTATION_URI = "urn:org.apache.stanbol:entityhub.yard:rdf.sesame:managesRepresentation";
+    /**
+     * The maximum number of ids used in the <code>VALUES</code> clause of a
+     * single SPARQL query by {@link #getRepresentations(Collection, Set)}
+     */
+    private static final int MAX_VALUES = 256;
+    /**
+     * The number of results requested by a single SPARQL query when paging
+     * through the results of {@link #find(FieldQuery)} and
+     * {@link #findRepresentation(FieldQuery)}. Queries with a higher or no
+     * limit are streamed.
+     */
+    private static final int STREAMING_PAGE_SIZE = 1000;
     /**
      * used as property for a triple to ensure existence for representations that 
      * do not define yet any triples
@@ -267,6 +285,149 @@ public class SesameYard extends AbstractYard implements Yard {
             }
         }
     }
+    /**
+     * Retrieves the Representations by using a single SPARQL query with a
+     * <code>VALUES</code> clause for up to {@value #MAX_VALUES} ids. Ids that
+     * can not be used as SPARQL IRI reference are retrieved one by one.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields) throws YardException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed representation ids MUST NOT be NULL!");
+        }
+        Set<URI> properties = null;
+        if(fields != null){
+            properties = new HashSet<URI>(fields.size());
+            for(String field : fields){
+                if(field != null && !field.isEmpty()){
+                    properties.add(sesameFactory.createURI(field));
+                }
+            }
+        }
+        Set<String> uris = new LinkedHashSet<String>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                uris.add(id);
+            }
+        }
+        Map<String,RdfRepresentation> found = new HashMap<String,RdfRepresentation>();
+        RepositoryConnection con = null;
+        try {
+            con = repository.getConnection();
+            con.begin();
+            List<String> chunk = new ArrayList<String>(Math.min(MAX_VALUES, uris.size()));
+            for(String id : uris){
+                if(isIriRef(id)){
+                    chunk.add(id);
+                    if(chunk.size() >= MAX_VALUES){
+                        getRepresentations(con, chunk, properties, found);
+                        chunk.clear();
+                    }
+                } else { //not a valid IRIREF -> use getStatements
+                    RdfRepresentation rep = (RdfRepresentation)getRepresentation(
+                        con, sesameFactory.createURI(id), true);
+                    if(rep != null){
+                        found.put(id, rep);
+                    }
+                }
+            }
+            if(!chunk.isEmpty()){
+                getRepresentations(con, chunk, properties, found);
+            }
+            con.commit();
+        } catch (RepositoryException e) {
+            throw new YardException("Unable to get Representations "+uris, e);
+        } catch (QueryEvaluationException e) {
+            throw new YardException("Unable to get Representations "+uris, e);
+        } finally {
+            if(con != null){
+                try {
+                    con.close();
+                } catch (RepositoryException ignore) {}
+            }
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(String uri : uris){ //keep the order of the parsed ids
+            Representation rep = found.get(uri);
+            if(rep != null){
+                representations.put(uri, rep);
+            }
+        }
+        return representations;
+    }
+    /**
+     * Retrieves the statements of the parsed ids by using a single SPARQL
+     * query and adds the Representations to the parsed map.
+     * @param con the repository connection
+     * @param ids the ids (MUST BE valid IRI references)
+     * @param properties the properties to add or <code>null</code> for all
+     * @param found the map to add the Representations
+     */
+    private void getRepresentations(RepositoryConnection con, List<String> ids, Set<URI> properties,
+            Map<String,RdfRepresentation> found) throws RepositoryException, QueryEvaluationException, YardException {
+        StringBuilder query = new StringBuilder("SELECT ?s ?p ?o WHERE {\n  VALUES ?s {");
+        for(String id : ids){
+            query.append(" <").append(id).append('>');
+        }
+        query.append(" }\n  ?s ?p ?o .\n}");
+        TupleQuery tupleQuery;
+        try {
+            tupleQuery = con.prepareTupleQuery(QueryLanguage.SPARQL, query.toString());
+        } catch (MalformedQueryException e) {
+            throw new YardException("Unable to parse SPARQL query for Representations "+ids, e);
+        }
+        tupleQuery.setIncludeInferred(includeInferred);
+        if(dataset != null){ //respect the configured contexts
+            tupleQuery.setDataset(dataset);
+        }
+        Map<RdfRepresentation,Set<BNode>> bnodes = new HashMap<RdfRepresentation,Set<BNode>>();
+        TupleQueryResult result = tupleQuery.evaluate();
+        try {
+            while(result.hasNext()){
+                BindingSet binding = result.next();
+                URI subject = (URI)binding.getValue("s");
+                RdfRepresentation rep = found.get(subject.stringValue());
+                if(rep == null){
+                    rep = valueFactory.createRdfRepresentation(subject);
+                    found.put(subject.stringValue(), rep);
+                }
+                URI property = (URI)binding.getValue("p");
+                if(properties == null || properties.contains(property)){
+                    Value object = binding.getValue("o");
+                    rep.getModel().add(subject, property, object);
+                    if(object instanceof BNode){
+                        Set<BNode> repBNodes = bnodes.get(rep);
+                        if(repBNodes == null){
+                            repBNodes = new HashSet<BNode>();
+                            bnodes.put(rep, repBNodes);
+                        }
+                        repBNodes.add((BNode)object);
+                    }
+                }
+            }
+        } finally {
+            result.close();
+        }
+        for(Entry<RdfRepresentation,Set<BNode>> entry : bnodes.entrySet()){
+            Set<BNode> visited = new HashSet<BNode>(entry.getValue());
+            for(BNode bnode : entry.getValue()){
+                extractRepresentation(con, entry.getKey().getModel(), bnode, visited);
+            }
+        }
+    }
+    /**
+     * Checks if the parsed id can be used as IRI reference in a SPARQL query
+     */
+    private static boolean isIriRef(String id){
+        for(int i = 0; i < id.length(); i++){
+            char c = id.charAt(i);
+            if(c <= ' ' || c == '<' || c == '>' || c == '"' || c == '{' || c == '}'
+                    || c == '|' || c == '^' || c == '`' || c == '\\'){
+                return false;
+            }
+        }
+        return true;
+    }
     /**
      * Internally used to create Representations for URIs
      * @param uri the uri
@@ -654,80 +815,75 @@ public class SesameYard extends AbstractYard implements Yard {
     
     @Override
     public QueryResultList<Representation> findRepresentation(FieldQuery parsedQuery) throws YardException, IllegalArgumentException {
+        return find(parsedQuery, false);
+    }
+    @Override
+    public final QueryResultList<Representation> find(FieldQuery parsedQuery) throws YardException, IllegalArgumentException {
+        return find(parsedQuery, true);
+    }
+    /**
+     * Executes the parsed query. Queries without a limit or a limit greater
+     * than {@link #STREAMING_PAGE_SIZE} are streamed by lazily paging
+     * through the results. Streaming does not change the number of results:
+     * as for not streamed queries the limit is determined by the configured
+     * {@link SesameYardConfig#getDefaultQueryResultNumber() default} and
+     * {@link SesameYardConfig#getMaxQueryResultNumber() maximum} number of results.
+     * The parsed query is not modified.
+     * @param parsedQuery the query
+     * @param select if only the selected fields (<code>true</code>) or all 
+     * data of the Representations (<code>false</code>) are returned
+     * @return the results
+     */
+    private QueryResultList<Representation> find(FieldQuery parsedQuery, boolean select) throws YardException, IllegalArgumentException {
         if(parsedQuery == null){
             throw new IllegalArgumentException("The parsed query MUST NOT be NULL!");
         }
         final SparqlFieldQuery query = SparqlFieldQueryFactory.getSparqlFieldQuery(parsedQuery);
-        RepositoryConnection con = null;
-        TupleQueryResult results = null;
-        try {
-            con = repository.getConnection();
-            con.begin();
-            //execute the query
-            int limit = QueryUtils.getLimit(query, getConfig().getDefaultQueryResultNumber(),
-                getConfig().getMaxQueryResultNumber());
-            results = executeSparqlFieldQuery(con,query, limit, false);
-            //parse the results and generate the Representations
-            //create an own valueFactors so that all the data of the query results
-            //are added to the same Sesame Model
+        int limit = QueryUtils.getLimit(query, getConfig().getDefaultQueryResultNumber(),
+            getConfig().getMaxQueryResultNumber());
+        if(limit > 0 && limit <= STREAMING_PAGE_SIZE){
             Model model = new TreeModel();
-            RdfValueFactory valueFactory = new RdfValueFactory(model, sesameFactory);
-            List<Representation> representations = limit > 0 ? 
-                    new ArrayList<Representation>(limit) : new ArrayList<Representation>();
-            while(results.hasNext()){
-                BindingSet result = results.next();
-                Value value = result.getValue(query.getRootVariableName());
-                if(value instanceof URI){
-                    //copy all data to the model and create the representation
-                    RdfRepresentation rep = createRepresentationGraph(con, valueFactory, (URI)value); 
-                    model.add(queryRoot, queryResult, value); //link the result with the query result
-                    representations.add(rep);
-                } //ignore non URI results
-            }
-            con.commit();
+            List<Representation> representations = fetch(query, limit, select, model);
             return new SesameQueryResultList(model, query, representations);
-        } catch (RepositoryException e) {
-            throw new YardException("Unable to execute findReferences query", e);
-        } catch (QueryEvaluationException e) {
-            throw new YardException("Unable to execute findReferences query", e);
-        } finally {
-            if(results != null) { //close the result if present
-                try {
-                    results.close();
-                } catch (QueryEvaluationException ignore) {/* ignore */}
-            }
-            if(con != null){
-                try {
-                    con.close();
-                } catch (RepositoryException ignore) {/* ignore */}
-            }
+        } else {
+            //the pager sets the offset of the pages on its own clone
+            return new StreamingQueryResultList<Representation>(query, 
+                new RepresentationPager(query.clone(), limit, select), Representation.class);
         }
     }
-    @Override
-    public final QueryResultList<Representation> find(FieldQuery parsedQuery) throws YardException, IllegalArgumentException {
-        if(parsedQuery == null){
-            throw new IllegalArgumentException("The parsed query MUST NOT be NULL!");
-        }
-        final SparqlFieldQuery query = SparqlFieldQueryFactory.getSparqlFieldQuery(parsedQuery);
+    /**
+     * Executes the parsed query and adds the data of the results to the
+     * parsed model.
+     * @param query the query
+     * @param limit the maximum number of results (&lt;= 0 for no limit)
+     * @param select if only the selected fields (<code>true</code>) or all 
+     * data of the Representations (<code>false</code>) are added to the model
+     * @param model the model used to store the data of the results
+     * @return the results
+     * @throws YardException on any error while executing the query
+     */
+    private List<Representation> fetch(SparqlFieldQuery query, int limit, boolean select, Model model) throws YardException {
         RepositoryConnection con = null;
         TupleQueryResult results = null;
         try {
             con = repository.getConnection();
             con.begin();
             //execute the query
-            int limit = QueryUtils.getLimit(query, getConfig().getDefaultQueryResultNumber(),
-                getConfig().getMaxQueryResultNumber());
-            results = executeSparqlFieldQuery(con,query, limit, true);
+            results = executeSparqlFieldQuery(con,query, limit, select);
             //parse the results and generate the Representations
             //create an own valueFactors so that all the data of the query results
             //are added to the same Sesame Model
-            Model model = new TreeModel();
             RdfValueFactory valueFactory = new RdfValueFactory(model, sesameFactory);
             List<Representation> representations = limit > 0 ? new ArrayList<Representation>(limit)
                     : new ArrayList<Representation>();
-            Map<String,URI> bindings = new HashMap<String,URI>(query.getFieldVariableMappings().size());
-            for(Entry<String,String> mapping : query.getFieldVariableMappings().entrySet()){
-                bindings.put(mapping.getValue(), sesameFactory.createURI(mapping.getKey()));
+            Map<String,URI> bindings;
+            if(select){
+                bindings = new HashMap<String,URI>(query.getFieldVariableMappings().size());
+                for(Entry<String,String> mapping : query.getFieldVariableMappings().entrySet()){
+                    bindings.put(mapping.getValue(), sesameFactory.createURI(mapping.getKey()));
+                }
+            } else {
+                bindings = null;
             }
             while(results.hasNext()){
                 BindingSet result = results.next();
@@ -736,23 +892,28 @@ public class SesameYard extends AbstractYard implements Yard {
                     URI subject = (URI) value;
                     //link the result with the query result
                     model.add(queryRoot, queryResult, subject);
-                    //now copy over the other selected data
-                    for(String binding : result.getBindingNames()){
-                        URI property = bindings.get(binding);
-                        if(property != null){
-                            model.add(subject, property, result.getValue(binding));
-                        } //else no mapping for the query.getRootVariableName()
+                    if(select){
+                        //now copy over the other selected data
+                        for(String binding : result.getBindingNames()){
+                            URI property = bindings.get(binding);
+                            if(property != null){
+                                model.add(subject, property, result.getValue(binding));
+                            } //else no mapping for the query.getRootVariableName()
+                        }
+                        //create a representation and add it to the results
+                        representations.add(valueFactory.createRdfRepresentation(subject));
+                    } else {
+                        //copy all data to the model and create the representation
+                        representations.add(createRepresentationGraph(con, valueFactory, subject));
                     }
-                    //create a representation and add it to the results
-                    representations.add(valueFactory.createRdfRepresentation(subject));
                 } //ignore non URI results
             }
             con.commit();
-            return new SesameQueryResultList(model, query, representations);
+            return representations;
         } catch (RepositoryException e) {
-            throw new YardException("Unable to execute findReferences query", e);
+            throw new YardException("Unable to execute find query", e);
         } catch (QueryEvaluationException e) {
-            throw new YardException("Unable to execute findReferences query", e);
+            throw new YardException("Unable to execute find query", e);
         } finally {
             if(results != null) { //close the result if present
                 try {
@@ -766,6 +927,79 @@ public class SesameYard extends AbstractYard implements Yard {
             }
         }
     }
+    /**
+     * Lazily pages through the results of a query by using SPARQL
+     * <code>LIMIT</code> and <code>OFFSET</code>. Every page is requested by
+     * using its own connection so that no connection is kept open while
+     * results are consumed. The data of every page are stored in a
+     * separate {@link Model}.
+     */
+    private class RepresentationPager implements Iterator<Representation> {
+        
+        private final SparqlFieldQuery query;
+        private final boolean select;
+        private int offset;
+        /**
+         * the remaining number of results or <code>-1</code> if unlimited
+         */
+        private int remaining;
+        private Iterator<Representation> page = Collections.<Representation>emptyList().iterator();
+        private boolean lastPage = false;
+        
+        /**
+         * @param query the query. Modified by the pager, so parse a clone
+         * @param limit the maximum number of results (&lt;= 0 for no limit)
+         * @param select if only the selected fields or all data are returned
+         */
+        RepresentationPager(SparqlFieldQuery query, int limit, boolean select){
+            this.query = query;
+            this.select = select;
+            this.offset = query.getOffset();
+            this.remaining = limit > 0 ? limit : -1;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while(!page.hasNext()){
+                if(lastPage){
+                    return false;
+                }
+                nextPage();
+            }
+            return true;
+        }
+        
+        private void nextPage(){
+            int rows = remaining < 0 ? STREAMING_PAGE_SIZE : Math.min(STREAMING_PAGE_SIZE, remaining);
+            query.setOffset(offset);
+            List<Representation> results;
+            try {
+                results = fetch(query, rows, select, new TreeModel());
+            } catch (YardException e) {
+                throw new IllegalStateException("Unable to fetch results " + offset
+                    + " to " + (offset + rows) + " for query " + query, e);
+            }
+            offset = offset + results.size();
+            if(remaining > 0){
+                remaining = remaining - results.size();
+            }
+            lastPage = results.size() < rows || remaining == 0;
+            page = results.iterator();
+        }
+        
+        @Override
+        public Representation next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+        
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Results are read-only");
+        }
+    }
     /**
      * Wrapper that converts a Sesame {@link TupleQueryResult} to a {@link Iterator}.
      * <b>NOTE</b> this will not close the {@link TupleQueryResult}!
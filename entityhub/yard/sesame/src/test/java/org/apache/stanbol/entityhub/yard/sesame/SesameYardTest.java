@@ -16,6 +16,10 @@
  */
 package org.apache.stanbol.entityhub.yard.sesame;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.Assert;
 
 import org.apache.stanbol.entityhub.model.sesame.RdfRepresentation;
@@ -114,6 +118,56 @@ public class SesameYardTest extends YardTest {
         Assert.assertFalse(model.filter(null, loop2, null).isEmpty());
     }
     
+    /**
+     * Ids that can not be used as IRI reference within the SPARQL query used
+     * by {@link SesameYard#getRepresentations(java.util.Collection, java.util.Set)}
+     * need to be retrieved one by one
+     * @throws YardException
+     */
+    @Test
+    public void testGetRepresentationsWithInvalidIriRef() throws YardException {
+        String id = "urn:test.sesameyard:getRepresentations.id";
+        String invalidId = "urn:test.sesameyard:getRepresentations.id with <invalid> chars";
+        String field = "urn:test.sesameyard:getRepresentations.field";
+        Yard yard = getYard();
+        Representation rep = create(id, false);
+        rep.add(field, "value");
+        Representation invalid = create(invalidId, false);
+        invalid.add(field, "invalid value");
+        yard.store(Arrays.asList(rep, invalid));
+        Map<String,Representation> reps = yard.getRepresentations(
+            Arrays.asList(invalidId, id, invalidId), null);
+        Assert.assertEquals(Arrays.asList(invalidId, id), new ArrayList<String>(reps.keySet()));
+        Assert.assertEquals("invalid value", reps.get(invalidId).getFirst(field));
+        Assert.assertEquals("value", reps.get(id).getFirst(field));
+    }
+
+    /**
+     * Statements of BNodes referenced by Representations need also to be
+     * included by {@link SesameYard#getRepresentations(java.util.Collection, java.util.Set)}
+     */
+    @Test
+    public void testGetRepresentationsBNodeSupport() throws YardException, RepositoryException {
+        RepositoryConnection con = repo.getConnection();
+        org.openrdf.model.ValueFactory sesameFactory = con.getValueFactory();
+        URI subject = sesameFactory.createURI("urn:test.sesameyard:getRepresentations.bnode.subject");
+        URI property = sesameFactory.createURI("urn:test.sesameyard:getRepresentations.bnode.property");
+        URI property2 = sesameFactory.createURI("urn:test.sesameyard:getRepresentations.bnode.property2");
+        URI value = sesameFactory.createURI("urn:test.sesameyard:getRepresentations.bnode.value");
+        BNode bnode = sesameFactory.createBNode();
+        con.add(subject, property, bnode);
+        con.add(bnode, property2, value);
+        con.commit();
+        con.close();
+        representationIds.add(subject.stringValue());
+        Map<String,Representation> reps = getYard().getRepresentations(
+            Arrays.asList(subject.stringValue()), null);
+        Representation rep = reps.get(subject.stringValue());
+        Assert.assertTrue(rep instanceof RdfRepresentation);
+        Model model = ((RdfRepresentation)rep).getModel();
+        Assert.assertFalse(model.filter(null, property2, value).isEmpty());
+    }
+
     /**
      * This Method removes all Representations create via {@link #create()} or
      * {@link #create(String, boolean)} from the tested {@link Yard}.
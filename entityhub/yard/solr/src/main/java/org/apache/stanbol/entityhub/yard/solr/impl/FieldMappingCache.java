@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.yard.solr.impl;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache used by the {@link SolrFieldMapper} for the mappings between
+ * Solr field names and {@link org.apache.stanbol.entityhub.yard.solr.model.IndexField}s.
+ * <p>
+ * Replaces the <code>Collections.synchronizedMap(LinkedHashMap)</code> based
+ * LRU caches (STANBOL-669). Lookups do not acquire any lock. If the
+ * maximum size is exceeded a single thread evicts entries by using the CLOCK
+ * algorithm (entries that were not used since the last eviction are removed
+ * first). The number of hits and misses are counted to allow to monitor the
+ * efficiency of the cache.
+ *
+ * @param <K>
+ *            generic type of the key
+ * @param <V>
+ *            generic type of the value
+ */
+public final class FieldMappingCache<K,V> {
+
+    private final String name;
+    private final int maxSize;
+    /**
+     * The number of entries after an eviction
+     */
+    private final int evictTo;
+    private final ConcurrentMap<K,CacheEntry<V>> cache;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache
+     *
+     * @param name
+     *            the name used for logging
+     * @param maxSize
+     *            the maximum number of entries
+     */
+    public FieldMappingCache(String name, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size MUST BE > 0!");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.evictTo = maxSize - Math.max(1, maxSize / 4);
+        this.cache = new ConcurrentHashMap<K,CacheEntry<V>>(maxSize + maxSize / 4,
+                0.75f, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Getter for the cached value
+     *
+     * @param key
+     *            the key
+     * @return the value or <code>null</code> if not cached
+     */
+    public V get(K key) {
+        CacheEntry<V> entry = cache.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        if (!entry.used) { // avoid writes to shared memory if not needed
+            entry.used = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Adds a value to the cache. <code>null</code> values are ignored.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return the cached value. This may be a value concurrently added by an
+     *         other thread
+     */
+    public V put(K key, V value) {
+        if (value == null) {
+            return null;
+        }
+        CacheEntry<V> existing = cache.putIfAbsent(key, new CacheEntry<V>(value));
+        if (existing != null) {
+            return existing.value;
+        }
+        if (size.incrementAndGet() > maxSize) {
+            evict();
+        }
+        return value;
+    }
+
+    /**
+     * Removes entries until the size of the cache is {@link #evictTo}. Only a
+     * single thread evicts entries. Other threads continue without waiting.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return; // an other thread is already evicting
+        }
+        try {
+            // first pass removes unused entries and resets the used flag
+            // of the others. The second pass removes any entry.
+            for (int pass = 0; pass < 2 && size.get() > evictTo; pass++) {
+                for (Iterator<Entry<K,CacheEntry<V>>> it = cache.entrySet().iterator();
+                        it.hasNext() && size.get() > evictTo;) {
+                    Entry<K,CacheEntry<V>> entry = it.next();
+                    if (pass == 0 && entry.getValue().used) {
+                        entry.getValue().used = false;
+                    } else if (cache.remove(entry.getKey(), entry.getValue())) {
+                        size.decrementAndGet();
+                        evictions.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Removes all entries. Statistics are not reset.
+     */
+    public void clear() {
+        for (Entry<K,CacheEntry<V>> entry : cache.entrySet()) {
+            if (cache.remove(entry.getKey(), entry.getValue())) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the ratio of lookups answered by the cache or <code>0</code> if
+     *         no lookup was performed
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long requests = h + misses.get();
+        return requests == 0 ? 0 : (double) h / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [size: %d/%d | hits: %d | misses: %d | hit-rate: %.1f%% | evictions: %d]",
+            name, size(), maxSize, getHits(), getMisses(), getHitRate() * 100, getEvictions());
+    }
+
+    /**
+     * Holds the value and the CLOCK flag
+     */
+    private static final class CacheEntry<V> {
+
+        private final V value;
+        private volatile boolean used;
+
+        CacheEntry(V value) {
+            this.value = value;
+        }
+    }
+}
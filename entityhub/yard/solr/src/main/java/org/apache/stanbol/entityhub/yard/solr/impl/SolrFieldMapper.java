@@ -35,7 +35,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -79,12 +78,12 @@ public class SolrFieldMapper implements FieldMapper {
     private static final String LANG_MERGER_PREFIX = "" + SolrConst.SPECIAL_FIELD_PREFIX
                                                      + SolrConst.MERGER_INDICATOR + SolrConst.LANG_INDICATOR;
     /**
-     * The size of the LRU cache for FieldName to IndexField as well as IndexField to collection of FieldNames
-     * mappings.
+     * The maximum number of FieldName to IndexField as well as IndexField to
+     * collection of FieldNames mappings cached by this FieldMapper.
      * <p>
      * Note that both caches may have a maximum of elements as configured by this property.
      */
-    private static final int LRU_MAPPINGS_CACHE_SIZE = 1024;
+    private static final int MAPPINGS_CACHE_SIZE = 8192;
     /**
      * The IndexField for the Solr score. This field is mapped to the field
      * {@link RdfResourceEnum#resultScore} and uses {@link IndexDataTypeEnum#FLOAT}
@@ -97,49 +96,21 @@ public class SolrFieldMapper implements FieldMapper {
      */
     protected final SolrServer server;
 
-    /**
-     * Internally used as LRU Cache with {@link SolrFieldMapper#LRU_MAPPINGS_CACHE_SIZE} elements. This
-     * subclass of {@link LinkedHashMap} overrides the {@link LinkedHashMap#removeEldestEntry(Entry)} as
-     * suggested by the java doc. It also uses the constructor that activates the ordering based on access
-     * time rather tan insertion time.
-     * 
-     * @author Rupert Westenthaler
-     * 
-     * @param <K>
-     *            generic type of the key
-     * @param <V>
-     *            generic type of the value
-     */
-    private static final class LRU<K,V> extends LinkedHashMap<K,V> {
-        public LRU() {
-            super(16, 0.75f, true); // access order!
-        }
-
-        private static final long serialVersionUID = 1L;
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
-            return size() > LRU_MAPPINGS_CACHE_SIZE;
-        }
-    }
-
     /**
      * The assumption is, that only a handful of {@link IndexField}s are used very often.
      * <p>
      * So it makes sense to keep some mappings within a cache rather than calculating them again and again.
-     * 
-     * @see LinkedHashMap#
+     * Lookups do not lock (see {@link FieldMappingCache}).
      */
-    private final Map<IndexField,List<String>> indexFieldMappings = 
-            //STANBOL-669: LRU chaches MUST BE synchronized!
-            Collections.synchronizedMap(new LRU<IndexField,List<String>>());
+    private final FieldMappingCache<IndexField,List<String>> indexFieldMappings = 
+            new FieldMappingCache<IndexField,List<String>>("IndexField -> field names", MAPPINGS_CACHE_SIZE);
     /**
      * The assumption is, that only a handful of fields appear in index documents. So it makes sense to keep
      * some mappings within a cache rather than calculating them again and again.
+     * Lookups do not lock (see {@link FieldMappingCache}).
      */
-    private final Map<String,IndexField> fieldMappings = 
-            //STANBOL-669: LRU chaches MUST BE synchronized!
-            Collections.synchronizedMap(new LRU<String,IndexField>());
+    private final FieldMappingCache<String,IndexField> fieldMappings = 
+            new FieldMappingCache<String,IndexField>("field name -> IndexField", MAPPINGS_CACHE_SIZE);
     
     private NamespacePrefixService nsPrefixService;
 
@@ -152,22 +123,31 @@ public class SolrFieldMapper implements FieldMapper {
         this.server = server;
     }
 
+    /**
+     * Getter for the caches used by this FieldMapper. Intended to be used
+     * to monitor the hit rates of the caches.
+     * @return the caches
+     */
+    public Collection<FieldMappingCache<?,?>> getMappingCaches() {
+        return Arrays.<FieldMappingCache<?,?>>asList(fieldMappings, indexFieldMappings);
+    }
+
     @Override
     public IndexField getField(String fieldName) {
         if (fieldName == null || fieldName.isEmpty()) {
             throw new IllegalArgumentException("The parsed field name MUST NOT be NULL!");
         }
+        if (getDocumentIdField().equals(fieldName)
+            || fieldName.charAt(0) == SolrConst.SPECIAL_FIELD_PREFIX) {
+            // in case of special field or the document ID, return null ->
+            // meaning, that this index document field does not represent
+            // an logical IndexField and should be ignored
+            return null;
+        } else if (SolrConst.SCORE_FIELD.equals(fieldName)) {
+            return scoreField;
+        }
         IndexField field = fieldMappings.get(fieldName);
         if (field == null) {
-            if (getDocumentIdField().equals(fieldName)
-                || fieldName.charAt(0) == SolrConst.SPECIAL_FIELD_PREFIX) {
-                // in case of special field or the document ID, return null ->
-                // meaning, that this index document field does not represent
-                // an logical IndexField and should be ignored
-                return null;
-            } else if (SolrConst.SCORE_FIELD.equals(fieldName)) {
-                return scoreField;
-            }
             // parse the prefix and suffix
             String[] tokens = fieldName.split(Character.toString(SolrConst.PATH_SEPERATOR));
             int numTokens = tokens.length;
@@ -611,19 +591,20 @@ public class SolrFieldMapper implements FieldMapper {
     private static final String DEFAULT_NS_PREFIX_STRING = "ns";
     // private static final char NAMESPACE_PREFIX_SEPERATOR_CHAR = ':';
     /**
-     * Do never access this Map directly! Use {@link #getNamespaceMap()}!
+     * Do never access this Map directly! Use {@link #getNamespaceMap()}!<p>
+     * The map is immutable and replaced (under the write lock of
+     * {@link #prefixNamespaceMappingsLock}) if a namespace is added. This
+     * allows to read the mappings without locking.
      */
-    private Map<String,String> __namespaceMap = null;
+    private volatile Map<String,String> __namespaceMap = null;
 
     /**
      * Getter for the namespace to prefix mapping
      * 
-     * @return the map holding the namespace to prefix mappings
+     * @return the immutable map holding the namespace to prefix mappings
      */
     private Map<String,String> getNamespaceMap() {
-        prefixNamespaceMappingsLock.readLock().lock();
         Map<String,String> m = __namespaceMap;
-        prefixNamespaceMappingsLock.readLock().unlock();
         if (m == null) {
             prefixNamespaceMappingsLock.writeLock().lock();
             try {
@@ -641,24 +622,24 @@ public class SolrFieldMapper implements FieldMapper {
     }
 
     /**
-     * Do never access this Map directly! Use {@link #getPrefixMap()}!
+     * Do never access this Map directly! Use {@link #getPrefixMap()}!<p>
+     * Immutable as the {@link #__namespaceMap}.
      */
-    private Map<String,String> __prefixMap = null;
+    private volatile Map<String,String> __prefixMap = null;
     /**
-     * used as lock during loading of the namespace <-> prefix mappings
-     * (fixes STANBOL-668)
+     * used as lock during loading and updating of the namespace <-> prefix 
+     * mappings (fixes STANBOL-668). Reading the mappings does not require
+     * a lock.
      */
     private ReentrantReadWriteLock prefixNamespaceMappingsLock = new ReentrantReadWriteLock();
 
     /**
      * Getter for the prefix to namespace mappings
      * 
-     * @return the map holding the prefix to namespace mappings
+     * @return the immutable map holding the prefix to namespace mappings
      */
     private Map<String,String> getPrefixMap() {
-        prefixNamespaceMappingsLock.readLock().lock();
         Map<String,String> m = __prefixMap;
-        prefixNamespaceMappingsLock.readLock().unlock();
         if (m == null) {
             prefixNamespaceMappingsLock.writeLock().lock();
             try {
@@ -772,10 +753,14 @@ public class SolrFieldMapper implements FieldMapper {
                 } else { // need to generate a default mapping
                     prefix = createPrefix(prefixMap);
                 }
-                //add an namespace
+                //add an namespace (copy on write)
                 log.debug("add namespace prefix '{}' for '{}'",prefix,namespace);
-                prefixMap.put(prefix, namespace);
-                namespaceMap.put(namespace, prefix);
+                Map<String,String> updatedPrefixMap = new HashMap<String,String>(prefixMap);
+                updatedPrefixMap.put(prefix, namespace);
+                Map<String,String> updatedNamespaceMap = new HashMap<String,String>(getNamespaceMap());
+                updatedNamespaceMap.put(namespace, prefix);
+                __prefixMap = Collections.unmodifiableMap(updatedPrefixMap);
+                __namespaceMap = Collections.unmodifiableMap(updatedNamespaceMap);
                 // save the configuration and parse true to make  sure the 
                 //namespaces are committed to the Solr Server
                 saveNamespaceConfig(true); 
@@ -808,8 +793,8 @@ public class SolrFieldMapper implements FieldMapper {
         if(__prefixMap != null || __namespaceMap != null){
             log.warn("LoadNamespaceConfig called while mapping maps are NOT NULL!");
         }
-        __prefixMap = new HashMap<String,String>();
-        __namespaceMap = new HashMap<String,String>();
+        Map<String,String> prefixMap = new HashMap<String,String>();
+        Map<String,String> namespaceMap = new HashMap<String,String>();
         SolrDocument config = null;
         try {
             config = getSolrDocument(FieldMapper.URI);
@@ -828,14 +813,14 @@ public class SolrFieldMapper implements FieldMapper {
                         String prefix = configFieldElements[1];
                         Object value = config.getFirstValue(fieldName);
                         if (value != null) {
-                            if (__namespaceMap.containsKey(value.toString())) {
-                                log.error("found two prefixes (" + __namespaceMap.get(value.toString())
+                            if (namespaceMap.containsKey(value.toString())) {
+                                log.error("found two prefixes (" + namespaceMap.get(value.toString())
                                           + " and " + prefix + ") for Namespace " + value.toString()
                                           + " keep the first one");
                             } else {
                                 log.debug(" > prefix: " + prefix + " value: " + value);
-                                __prefixMap.put(prefix, value.toString());
-                                __namespaceMap.put(value.toString(), prefix);
+                                prefixMap.put(prefix, value.toString());
+                                namespaceMap.put(value.toString(), prefix);
                                 // check for default NS
                                 if (prefix.startsWith(DEFAULT_NS_PREFIX_STRING)) {
                                     String prefixNumber = prefix.substring(DEFAULT_NS_PREFIX_STRING.length());
@@ -862,6 +847,8 @@ public class SolrFieldMapper implements FieldMapper {
                 }
             }
         }
+        __prefixMap = Collections.unmodifiableMap(prefixMap);
+        __namespaceMap = Collections.unmodifiableMap(namespaceMap);
     }
 
     private String getConfigFieldName(String configName) {
@@ -555,9 +555,9 @@ public class SolrQueryFactory {
             if (entityhubQuery.getLimit().compareTo(MAX_QUERY_RESULTS) <= 0) {
                 query.setRows(entityhubQuery.getLimit());
             } else {
-                log.warn(String.format(
-                    "Parsed Number of QueryResults {} is greater than the allowed maximum of {}!",
-                    entityhubQuery.getLimit(), MAX_QUERY_RESULTS));
+                log.warn("Parsed Number of QueryResults {} is greater than the allowed maximum of {}!",
+                    entityhubQuery.getLimit(), MAX_QUERY_RESULTS);
+                query.setRows(MAX_QUERY_RESULTS);
                 entityhubQuery.setLimit(MAX_QUERY_RESULTS);
             }
         } else {
@@ -23,12 +23,16 @@ import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.apache.solr.client.solrj.SolrQuery;
@@ -39,6 +43,7 @@ import org.apache.solr.client.solrj.request.UpdateRequest;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.SolrInputField;
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
@@ -47,6 +52,7 @@ import org.apache.stanbol.commons.solr.utils.StreamQueryRequest;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
+import org.apache.stanbol.entityhub.core.query.StreamingQueryResultList;
 import org.apache.stanbol.entityhub.core.yard.AbstractYard;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
@@ -198,6 +204,24 @@ public class SolrYard extends AbstractYard implements Yard {
         this.solrQueryFactoy = new SolrQueryFactory(getValueFactory(), indexValueFactory, fieldMapper);
     }
 
+    /**
+     * This will cause all changes to the SolrIndex to be committed. Useful
+     * if {@link SolrYardConfig#isImmediateCommit() immediate commits} are
+     * deactivated.
+     * @throws YardException on any error while committing
+     */
+    public final void commit() throws YardException {
+        if(closed){
+            throw new IllegalStateException("The SolrYard is already closed!");
+        }
+        try {
+            server.commit();
+        } catch (SolrServerException e) {
+            throw new YardException("Unable to commit SolrIndex!", e);
+        } catch (IOException e) {
+            throw new YardException("Unable to commit SolrIndex!", e);
+        }
+    }
     /**
      * This will case the SolrIndex to be optimised
      * @throws YardException on any error while optimising
@@ -223,6 +247,9 @@ public class SolrYard extends AbstractYard implements Yard {
             return;
         }
         log.info("... deactivating SolrYard " + config.getName() + " (id=" + config.getId() + ")");
+        for(FieldMappingCache<?,?> cache : fieldMapper.getMappingCaches()){
+            log.info("  - field mapping cache {}", cache);
+        }
         try {
             server.commit();
         } catch (SolrServerException e) {
@@ -264,8 +291,58 @@ public class SolrYard extends AbstractYard implements Yard {
             selected = null;
         }
 
-        final SolrQuery query = solrQueryFactoy.parseFieldQuery(fieldQuery, select);
+        //If enabled, queries for more results than allowed for a single
+        //request are streamed by lazily paging through the results. Otherwise
+        //the SolrQueryFactory cuts off the limit at MAX_QUERY_RESULTS
+        final Integer limit = fieldQuery.getLimit();
+        final boolean streaming = config.isStreamQueryResults() && limit != null && 
+                limit.compareTo(SolrQueryFactory.MAX_QUERY_RESULTS) > 0;
+        final SolrQuery query;
+        if(streaming){
+            //request the first page by using an other clone, so that the
+            //result list keeps the query with the requested limit
+            FieldQuery firstPage = fieldQuery.clone();
+            firstPage.setLimit(SolrQueryFactory.MAX_QUERY_RESULTS);
+            query = solrQueryFactoy.parseFieldQuery(firstPage, select);
+        } else {
+            query = solrQueryFactoy.parseFieldQuery(fieldQuery, select);
+        }
         long queryGeneration = System.currentTimeMillis();
+        QueryResponse response = executeQuery(query);
+        long queryTime = System.currentTimeMillis();
+        if(streaming){
+            log.debug("  ... stream results [queryGeneration={}ms|queryTime={}ms]",
+                (queryGeneration - start), (queryTime - queryGeneration));
+            return new StreamingQueryResultList<Representation>(fieldQuery, 
+                new RepresentationPager(query, response.getResults(), limit, selected),
+                Representation.class);
+        }
+        // return a queryResultList
+        QueryResultListImpl<Representation> resultList = new QueryResultListImpl<Representation>(fieldQuery,
+        // by adapting SolrDocuments to Representations
+                new AdaptingIterator<SolrDocument,Representation>(response.getResults().iterator(),
+                // inline Adapter Implementation
+                        new AdaptingIterator.Adapter<SolrDocument,Representation>() {
+                            @Override
+                            public Representation adapt(SolrDocument doc, Class<Representation> type) {
+                                // use this method for the conversion!
+                                return createRepresentation(doc, selected);
+                            }
+                        }, Representation.class), Representation.class);
+        long resultProcessing = System.currentTimeMillis();
+        log.debug(String.format(
+            "  ... done [queryGeneration=%dms|queryTime=%dms|resultProcessing=%dms|sum=%dms]",
+            (queryGeneration - start), (queryTime - queryGeneration), (resultProcessing - queryTime),
+            (resultProcessing - start)));
+        return resultList;
+    }
+    /**
+     * Executes the parsed query
+     * @param query the query
+     * @return the response
+     * @throws YardException on any error while executing the query
+     */
+    private QueryResponse executeQuery(final SolrQuery query) throws YardException {
         if(closed){
             log.warn("The SolrYard '{}' was already closed!",config.getName());
         }
@@ -295,25 +372,99 @@ public class SolrYard extends AbstractYard implements Yard {
         if(SolrQueryFactory.MLT_QUERY_TYPE.equals(query.getRequestHandler())){
             log.debug("{}",response);
         }
-        long queryTime = System.currentTimeMillis();
-        // return a queryResultList
-        QueryResultListImpl<Representation> resultList = new QueryResultListImpl<Representation>(fieldQuery,
-        // by adapting SolrDocuments to Representations
-                new AdaptingIterator<SolrDocument,Representation>(response.getResults().iterator(),
-                // inline Adapter Implementation
-                        new AdaptingIterator.Adapter<SolrDocument,Representation>() {
-                            @Override
-                            public Representation adapt(SolrDocument doc, Class<Representation> type) {
-                                // use this method for the conversion!
-                                return createRepresentation(doc, selected);
-                            }
-                        }, Representation.class), Representation.class);
-        long resultProcessing = System.currentTimeMillis();
-        log.debug(String.format(
-            "  ... done [queryGeneration=%dms|queryTime=%dms|resultProcessing=%dms|sum=%dms]",
-            (queryGeneration - start), (queryTime - queryGeneration), (resultProcessing - queryTime),
-            (resultProcessing - start)));
-        return resultList;
+        return response;
+    }
+    /**
+     * The offset of streamed query results after that a warning about the
+     * costs of deep paging is logged
+     */
+    private static final int DEEP_PAGING_OFFSET = 100 * SolrQueryFactory.MAX_QUERY_RESULTS;
+    /**
+     * Lazily pages through the results of a query by using 
+     * {@link SolrQuery#setStart(Integer) start} and
+     * {@link SolrQuery#setRows(Integer) rows}. The next page is only
+     * requested after all results of the current page are consumed.<p>
+     * NOTE: Solr needs to collect <code>start + rows</code> documents for
+     * every page, so the cost of paging grows with the offset. The Solr
+     * version used by this Yard does not support cursors; a warning is
+     * logged as soon as the offset exceeds {@link #DEEP_PAGING_OFFSET}.<p>
+     * Only used if {@link SolrYardConfig#isStreamQueryResults() streaming}
+     * is enabled.
+     */
+    private class RepresentationPager implements Iterator<Representation> {
+        
+        private final SolrQuery query;
+        private final Set<String> selected;
+        private final int pageSize;
+        private int start;
+        private int remaining;
+        private Iterator<SolrDocument> page;
+        private boolean lastPage;
+        private boolean deepPagingWarned;
+        /**
+         * @param query the query used to request the first page
+         * @param first the results of the first page
+         * @param limit the maximum number of results
+         * @param selected the selected fields
+         */
+        RepresentationPager(SolrQuery query, SolrDocumentList first, int limit, Set<String> selected){
+            this.query = query;
+            this.selected = selected;
+            this.pageSize = query.getRows() == null ? SolrQueryFactory.MAX_QUERY_RESULTS : query.getRows();
+            this.start = (query.getStart() == null ? 0 : query.getStart()) + first.size();
+            this.remaining = limit - first.size();
+            this.page = first.iterator();
+            this.lastPage = first.size() < pageSize || remaining <= 0;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while(!page.hasNext()){
+                if(lastPage){
+                    return false;
+                }
+                nextPage();
+            }
+            return true;
+        }
+        
+        private void nextPage() {
+            int rows = Math.min(pageSize, remaining);
+            if(!deepPagingWarned && start + rows > DEEP_PAGING_OFFSET){
+                deepPagingWarned = true;
+                log.warn("Streaming results beyond offset {} of query {} on SolrYard '{}'. "
+                    + "Requests for deep pages get increasingly expensive. Use more "
+                    + "specific queries or lower limits if possible.", 
+                    new Object[]{DEEP_PAGING_OFFSET, query.getQuery(), config.getName()});
+            }
+            query.setStart(start);
+            query.setRows(rows);
+            SolrDocumentList results;
+            try {
+                results = executeQuery(query).getResults();
+            } catch (YardException e) {
+                throw new IllegalStateException("Unable to request results " + start 
+                    + " to " + (start+rows) + " for query "+query.getQuery(), e);
+            }
+            log.debug("  ... fetched results {} to {}", start, start + results.size());
+            start = start + results.size();
+            remaining = remaining - results.size();
+            lastPage = results.size() < rows || remaining <= 0;
+            page = results.iterator();
+        }
+        
+        @Override
+        public Representation next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return createRepresentation(page.next(), selected);
+        }
+        
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Results are read-only");
+        }
     }
 
     @Override
@@ -398,6 +549,65 @@ public class SolrYard extends AbstractYard implements Yard {
         return rep;
     }
 
+    /**
+     * Retrieves all Representations by using a single query for the parsed
+     * ids. If the number of ids exceeds the configured
+     * {@link SolrYardConfig#getMaxBooleanClauses() maximum number of boolean
+     * clauses} several requests are sent.
+     */
+    @Override
+    public final Map<String,Representation> getRepresentations(Collection<String> ids, Set<String> fields)
+            throws YardException, IllegalArgumentException {
+        if (ids == null) {
+            throw new IllegalArgumentException("The parsed Representation ids MUST NOT be NULL!");
+        }
+        if(closed){
+            log.warn("The SolrYard '{}' was already closed!",config.getName());
+        }
+        Set<String> uris = new LinkedHashSet<String>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                uris.add(id);
+            }
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        if(uris.isEmpty()){
+            return representations;
+        }
+        //NOTE: Solr 4 can not select the encoded field names (e.g.
+        //      'str/rdfs:label/' or '@en/rdfs:label/') by using 'fl'. So
+        //      selected fields are filtered in createRepresentation(..) and only
+        //      the case where no fields are selected is pushed down to Solr
+        Collection<String> selected = fields != null && fields.isEmpty() ? 
+                Collections.singleton(fieldMapper.getDocumentIdField()) : null;
+        Collection<SolrDocument> docs;
+        long start = System.currentTimeMillis();
+        try {
+            docs = getSolrDocuments(uris, selected);
+        } catch (SolrServerException e) {
+            throw new YardException("Error while getting SolrDocuments for ids " + uris, e);
+        } catch (IOException e) {
+            throw new YardException("Unable to access SolrServer", e);
+        }
+        long retrieve = System.currentTimeMillis();
+        Map<String,Representation> found = new HashMap<String,Representation>();
+        for(SolrDocument doc : docs){
+            Representation rep = createRepresentation(doc, fields);
+            found.put(rep.getId(), rep);
+        }
+        for(String uri : uris){ //keep the order of the parsed ids
+            Representation rep = found.get(uri);
+            if(rep != null){
+                representations.put(uri, rep);
+            }
+        }
+        long create = System.currentTimeMillis();
+        log.debug("  ... found {}/{} [retrieve={}ms|create={}ms|sum={}ms]", new Object[]{
+                representations.size(), uris.size(), (retrieve - start), 
+                (create - retrieve), (create - start)});
+        return representations;
+    }
+
     /**
      * Creates the Representation for the parsed SolrDocument!
      * 
@@ -423,36 +633,38 @@ public class SolrYard extends AbstractYard implements Yard {
         Representation rep = getValueFactory().createRepresentation(id.toString());
         for (String fieldName : doc.getFieldNames()) {
             IndexField indexField = fieldMapper.getField(fieldName);
-            if (indexField != null && indexField.getPath().size() == 1) {
-                String lang = indexField.getLanguages().isEmpty() ? null : indexField.getLanguages()
-                        .iterator().next();
-                if (fields == null || fields.contains(indexField.getPath().get(0))) {
-                    for (Object value : doc.getFieldValues(fieldName)) {
-                        if (value != null) {
-                            IndexDataTypeEnum dataTypeEnumEntry = IndexDataTypeEnum.forIndexType(indexField
-                                    .getDataType());
-                            if (dataTypeEnumEntry != null) {
-                                Object javaValue = indexValueFactory.createValue(
-                                    dataTypeEnumEntry.getJavaType(), indexField.getDataType(), value, lang);
-                                if (javaValue != null) {
-                                    rep.add(indexField.getPath().iterator().next(), javaValue);
-                                } else {
-                                    log.warn(String.format("java value=null for index value %s", value));
-                                }
-                            } else {
-                                log.warn(String.format(
-                                    "No DataType Configuration found for Index Data Type %s!",
-                                    indexField.getDataType()));
-                            }
-                        } // else index value == null -> ignore
-                    } // end for all values
-                }
-            } else {
-                if (indexField != null) {
-                    log.warn(String.format("Unable to prozess Index Field %s (for IndexDocument Field: %s)",
-                        indexField, fieldName));
-                }
+            if (indexField == null) {
+                continue; // special field or the document id -> ignore
+            }
+            if (indexField.getPath().size() != 1) {
+                log.warn(String.format("Unable to prozess Index Field %s (for IndexDocument Field: %s)",
+                    indexField, fieldName));
+                continue;
+            }
+            String field = indexField.getPath().get(0);
+            // check the selected fields before any value is converted
+            if (fields != null && !fields.contains(field)) {
+                continue;
             }
+            IndexDataTypeEnum dataTypeEnumEntry = IndexDataTypeEnum.forIndexType(indexField.getDataType());
+            if (dataTypeEnumEntry == null) {
+                log.warn(String.format("No DataType Configuration found for Index Data Type %s!",
+                    indexField.getDataType()));
+                continue;
+            }
+            String lang = indexField.getLanguages().isEmpty() ? null : indexField.getLanguages()
+                    .iterator().next();
+            for (Object value : doc.getFieldValues(fieldName)) {
+                if (value != null) {
+                    Object javaValue = indexValueFactory.createValue(
+                        dataTypeEnumEntry.getJavaType(), indexField.getDataType(), value, lang);
+                    if (javaValue != null) {
+                        rep.add(field, javaValue);
+                    } else {
+                        log.warn(String.format("java value=null for index value %s", value));
+                    }
+                } // else index value == null -> ignore
+            } // end for all values
         } // end for all fields
         return rep;
     }
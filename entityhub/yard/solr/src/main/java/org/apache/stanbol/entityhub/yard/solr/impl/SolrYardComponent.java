@@ -25,10 +25,12 @@ import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.ALLOW_I
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.DEFAULT_ALLOW_INITIALISATION_STATE;
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.DEFAULT_MAX_BOOLEAN_CLAUSES;
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.DEFAULT_SOLR_INDEX_CONFIGURATION_NAME;
+import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.DEFAULT_STREAM_QUERY_RESULTS_STATE;
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.MAX_BOOLEAN_CLAUSES;
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.MULTI_YARD_INDEX_LAYOUT;
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.SOLR_INDEX_CONFIGURATION_NAME;
 import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.SOLR_SERVER_LOCATION;
+import static org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig.STREAM_QUERY_RESULTS;
 
 import java.io.IOException;
 import java.util.Dictionary;
@@ -98,7 +100,8 @@ import org.xml.sax.SAXException;
          @Property(name = ALLOW_INITIALISATION_STATE,boolValue=DEFAULT_ALLOW_INITIALISATION_STATE),
          @Property(name = SOLR_INDEX_CONFIGURATION_NAME, value=DEFAULT_SOLR_INDEX_CONFIGURATION_NAME),
          @Property(name = MULTI_YARD_INDEX_LAYOUT,boolValue=false),
-         @Property(name = MAX_BOOLEAN_CLAUSES, intValue = DEFAULT_MAX_BOOLEAN_CLAUSES)})
+         @Property(name = MAX_BOOLEAN_CLAUSES, intValue = DEFAULT_MAX_BOOLEAN_CLAUSES),
+         @Property(name = STREAM_QUERY_RESULTS, boolValue = DEFAULT_STREAM_QUERY_RESULTS_STATE)})
 public class SolrYardComponent {
 
     private final Logger log = LoggerFactory.getLogger(SolrYardComponent.class);
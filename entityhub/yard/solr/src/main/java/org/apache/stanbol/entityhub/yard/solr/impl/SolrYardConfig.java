@@ -125,6 +125,17 @@ public final class SolrYardConfig extends YardConfig {
      * The default value for the {@link #COMMIT_WITHIN_DURATION} parameter is 10 sec.
      */
     public static final int DEFAULT_COMMIT_WITHIN_DURATION = 1000 * 10;
+    /**
+     * Key used to enable/disable streaming of query results. If enabled, queries with a limit greater
+     * than {@link SolrQueryFactory#MAX_QUERY_RESULTS} are no longer cut off at this value but are
+     * streamed by lazily paging through the results.
+     */
+    public static final String STREAM_QUERY_RESULTS = "org.apache.stanbol.entityhub.yard.solr.streamQueryResults";
+    /**
+     * By default {@link #STREAM_QUERY_RESULTS} is disabled, so queries do not return more than
+     * {@link SolrQueryFactory#MAX_QUERY_RESULTS} results.
+     */
+    public static final boolean DEFAULT_STREAM_QUERY_RESULTS_STATE = false;
 
     /**
      * Creates a new config with the minimal set of required properties
@@ -392,6 +403,39 @@ public final class SolrYardConfig extends YardConfig {
             config.remove(IMMEDIATE_COMMIT);
         }
     }
+    /**
+     * Getter for the state if queries with a limit greater than
+     * {@link SolrQueryFactory#MAX_QUERY_RESULTS} are streamed.
+     * <p>
+     * The default value is {@link #DEFAULT_STREAM_QUERY_RESULTS_STATE}
+     * 
+     * @return the stream query results state
+     */
+    public boolean isStreamQueryResults() {
+        Object value = config.get(STREAM_QUERY_RESULTS);
+        if (value != null) {
+            if (value instanceof Boolean) {
+                return ((Boolean) value).booleanValue();
+            } else {
+                return Boolean.parseBoolean(value.toString());
+            }
+        } else {
+            return DEFAULT_STREAM_QUERY_RESULTS_STATE;
+        }
+    }
+    /**
+     * Setter for the state if queries with a limit greater than
+     * {@link SolrQueryFactory#MAX_QUERY_RESULTS} are streamed.
+     * 
+     * @param state the state or <code>null</code> to set the default
+     */
+    public void setStreamQueryResults(Boolean state) {
+        if (state != null) {
+            config.put(STREAM_QUERY_RESULTS, state);
+        } else {
+            config.remove(STREAM_QUERY_RESULTS);
+        }
+    }
 
     public final int getCommitWithinDuration() {
         Object value = config.get(COMMIT_WITHIN_DURATION);
@@ -19,13 +19,18 @@ package org.apache.stanbol.entityhub.yard.solr;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOError;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ServiceLoader;
+import java.util.Set;
 
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
@@ -41,11 +46,13 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.Text;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.ReferenceConstraint;
 import org.apache.stanbol.entityhub.servicesapi.query.SimilarityConstraint;
 import org.apache.stanbol.entityhub.servicesapi.query.TextConstraint;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
 import org.apache.stanbol.entityhub.test.yard.YardTest;
+import org.apache.stanbol.entityhub.yard.solr.impl.SolrQueryFactory;
 import org.apache.stanbol.entityhub.yard.solr.impl.SolrYard;
 import org.apache.stanbol.entityhub.yard.solr.impl.SolrYardConfig;
 import org.junit.After;
@@ -79,6 +86,8 @@ public class SolrYardTest extends YardTest {
     private static final Logger log = LoggerFactory.getLogger(SolrYardTest.class);
     
     private static StandaloneEmbeddedSolrServerProvider solrServerProvider;
+    private static SolrServer server;
+    private static NamespacePrefixService nsPrefixService;
 
     @BeforeClass
     public static final void initYard() throws YardException, IOException {
@@ -98,10 +107,9 @@ public class SolrYardTest extends YardTest {
         System.setProperty(ManagedSolrServer.MANAGED_SOLR_DIR_PROPERTY, solrServerDir);
         IndexReference solrServerRef = IndexReference.parse(config.getSolrServerLocation());
         solrServerProvider = StandaloneEmbeddedSolrServerProvider.getInstance();
-        SolrServer server = solrServerProvider.getSolrServer(solrServerRef,
+        server = solrServerProvider.getSolrServer(solrServerRef,
             config.isAllowInitialisation() ? config.getIndexConfigurationName() : null);
         //Optional support for the nsPrefix service
-        final NamespacePrefixService nsPrefixService;
         ServiceLoader<NamespacePrefixService> spsl = ServiceLoader.load(NamespacePrefixService.class);
         Iterator<NamespacePrefixService> it = spsl.iterator();
         if(it.hasNext()){
@@ -267,6 +275,69 @@ public class SolrYardTest extends YardTest {
         assertEquals("urn:yard.test.testFieldQueryWithSimilarityConstraint:representation.id2", first.getId());
     }
 
+    /**
+     * Tests that queries with a limit greater than
+     * {@link SolrQueryFactory#MAX_QUERY_RESULTS} page through all results
+     * without losing or duplicating results at page boundaries if
+     * {@link SolrYardConfig#setStreamQueryResults(Boolean) streaming} is
+     * enabled and are cut off at this value otherwise.
+     * @throws YardException
+     */
+    @Test
+    public void testStreamingFieldQuery() throws YardException {
+        Yard yard = getYard();
+        SolrYardConfig config = new SolrYardConfig(TEST_YARD_ID, TEST_SOLR_CORE_NAME);
+        config.setImmediateCommit(true);
+        config.setStreamQueryResults(true);
+        Yard streamingYard = new SolrYard(server, config, nsPrefixService);
+        int pageSize = SolrQueryFactory.MAX_QUERY_RESULTS;
+        int num = 2 * pageSize + 100;
+        String field = "urn:the.field:used.for.testStreamingFieldQuery";
+        String value = "urn:yard.test.testStreamingFieldQuery:value";
+        List<Representation> reps = new ArrayList<Representation>(num);
+        Set<String> ids = new HashSet<String>();
+        for(int i=0; i < num; i++){
+            Representation rep = create("urn:yard.test.testStreamingFieldQuery:representation.id"+i, false);
+            rep.add(field, yard.getValueFactory().createReference(value));
+            reps.add(rep);
+            ids.add(rep.getId());
+        }
+        yard.store(reps);
+        //by default the limit is cut off at MAX_QUERY_RESULTS
+        assertStreamedResults(yard, field, value, num, 0, pageSize, ids);
+        //limit is not a multiple of the page size
+        assertStreamedResults(streamingYard, field, value, num, 0, num, ids);
+        //limit is a multiple of the page size
+        assertStreamedResults(streamingYard, field, value, 2 * pageSize, 0, 2 * pageSize, ids);
+        //limit is only a bit bigger than a single page
+        assertStreamedResults(streamingYard, field, value, pageSize + 1, 0, pageSize + 1, ids);
+        //limit is greater as the number of results
+        assertStreamedResults(streamingYard, field, value, num + pageSize, 0, num, ids);
+        //results with an offset
+        assertStreamedResults(streamingYard, field, value, num, 100, num - 100, ids);
+    }
+
+    private void assertStreamedResults(Yard yard, String field, String value, int limit, int offset,
+            int expected, Set<String> ids) throws YardException {
+        FieldQuery query = yard.getQueryFactory().createFieldQuery();
+        query.setConstraint(field, new ReferenceConstraint(value));
+        query.setLimit(limit);
+        query.setOffset(offset);
+        Set<String> found = new HashSet<String>();
+        int count = 0;
+        for(Representation result : yard.find(query)){
+            count++;
+            assertTrue("Unexpected result "+result.getId()+" (limit: "+limit+", offset: "
+                + offset +")", ids.contains(result.getId()));
+            assertTrue("Duplicate result "+result.getId()+" at index "+count+" (limit: "
+                + limit+", offset: " + offset +")", found.add(result.getId()));
+        }
+        assertEquals("limit: "+limit+", offset: "+offset, expected, count);
+        //the parsed query MUST NOT be modified
+        assertEquals(Integer.valueOf(limit), query.getLimit());
+        assertEquals(offset, query.getOffset());
+    }
+
     /**
      * This Method removes all Representations create via {@link #create()} or
      * {@link #create(String, boolean)} from the tested {@link Yard}. It also removes all Representations
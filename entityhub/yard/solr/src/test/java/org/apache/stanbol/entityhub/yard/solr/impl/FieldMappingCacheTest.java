@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.yard.solr.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FieldMappingCacheTest {
+
+    @Test
+    public void testHitRate() {
+        FieldMappingCache<String,String> cache = new FieldMappingCache<String,String>("test", 10);
+        assertNull(cache.get("a"));
+        cache.put("a", "A");
+        assertEquals("A", cache.get("a"));
+        assertEquals("A", cache.get("a"));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2d / 3, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        FieldMappingCache<String,String> cache = new FieldMappingCache<String,String>("test", 10);
+        assertEquals("A", cache.put("a", "A"));
+        assertEquals("A", cache.put("a", "B"));
+        assertNull(cache.put("b", null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEviction() {
+        FieldMappingCache<Integer,Integer> cache = new FieldMappingCache<Integer,Integer>("test", 100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        // mark the first ten entries as used
+        for (int i = 0; i < 10; i++) {
+            cache.get(i);
+        }
+        cache.put(100, 100);
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.getEvictions() > 0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        for (int i = 101; i < 1000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100);
+        }
+    }
+}